@@ -30,11 +30,6 @@ public class TokenProviderStubConfig {
             Instant.now(),
             Instant.now().plusSeconds(3600));
       }
-
-      @Override
-      public void evictToken() {
-        // No-op for accessibility tests.
-      }
     };
   }
 }
@@ -17,11 +17,17 @@ import org.mockserver.model.HttpRequest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.client.WebClientResponseException.BadRequest;
 import org.springframework.web.reactive.function.client.WebClientResponseException.Forbidden;
 import org.springframework.web.reactive.function.client.WebClientResponseException.InternalServerError;
@@ -89,7 +95,7 @@ class DataClaimsRestClientIntegrationTest extends MockServerIntegrationTest {
 
       // When
       Mono<ResponseEntity<CreateBulkSubmission201Response>> upload =
-          dataClaimsRestClient.upload(file, "test-user", List.of("ABC123"));
+          dataClaimsRestClient.upload(filePart(file), "test-user", List.of("ABC123"));
       ResponseEntity<CreateBulkSubmission201Response> block = upload.block();
       CreateBulkSubmission201Response result = block.getBody();
       String locationHeader = block.getHeaders().getFirst(HttpHeaders.LOCATION);
@@ -128,7 +134,7 @@ class DataClaimsRestClientIntegrationTest extends MockServerIntegrationTest {
 
       // When
       Mono<ResponseEntity<CreateBulkSubmission201Response>> upload =
-          dataClaimsRestClient.upload(file, "test-user", Collections.emptyList());
+          dataClaimsRestClient.upload(filePart(file), "test-user", Collections.emptyList());
       ResponseEntity<CreateBulkSubmission201Response> block = upload.block();
       CreateBulkSubmission201Response result = block.getBody();
       String locationHeader = block.getHeaders().getFirst(HttpHeaders.LOCATION);
@@ -154,7 +160,10 @@ class DataClaimsRestClientIntegrationTest extends MockServerIntegrationTest {
       // When
       assertThrows(
           BadRequest.class,
-          () -> dataClaimsRestClient.upload(file, "test-user", List.of("ABC123")).block());
+          () ->
+              dataClaimsRestClient
+                  .upload(filePart(file), "test-user", List.of("ABC123"))
+                  .block());
     }
 
     @Test
@@ -170,7 +179,10 @@ class DataClaimsRestClientIntegrationTest extends MockServerIntegrationTest {
       // When
       assertThrows(
           Unauthorized.class,
-          () -> dataClaimsRestClient.upload(file, "test-user", List.of("ABC123")).block());
+          () ->
+              dataClaimsRestClient
+                  .upload(filePart(file), "test-user", List.of("ABC123"))
+                  .block());
     }
 
     @Test
@@ -186,7 +198,10 @@ class DataClaimsRestClientIntegrationTest extends MockServerIntegrationTest {
       // When
       assertThrows(
           Forbidden.class,
-          () -> dataClaimsRestClient.upload(file, "test-user", List.of("ABC123")).block());
+          () ->
+              dataClaimsRestClient
+                  .upload(filePart(file), "test-user", List.of("ABC123"))
+                  .block());
     }
 
     @Test
@@ -202,7 +217,10 @@ class DataClaimsRestClientIntegrationTest extends MockServerIntegrationTest {
       // When
       assertThrows(
           InternalServerError.class,
-          () -> dataClaimsRestClient.upload(file, "test-user", List.of("ABC123")).block());
+          () ->
+              dataClaimsRestClient
+                  .upload(filePart(file), "test-user", List.of("ABC123"))
+                  .block());
     }
   }
 
@@ -1109,4 +1127,17 @@ class DataClaimsRestClientIntegrationTest extends MockServerIntegrationTest {
           () -> dataClaimsRestClient.getClaimAssessments(claimId, null, null, null).block());
     }
   }
+
+  private static HttpEntity<?> filePart(MultipartFile file) {
+    MultipartBodyBuilder builder = new MultipartBodyBuilder();
+    builder
+        .asyncPart(
+            "file",
+            DataBufferUtils.readInputStream(
+                file::getInputStream, DefaultDataBufferFactory.sharedInstance, 1024),
+            DataBuffer.class)
+        .filename(file.getOriginalFilename())
+        .contentType(MediaType.parseMediaType(file.getContentType()));
+    return builder.build().getFirst("file");
+  }
 }
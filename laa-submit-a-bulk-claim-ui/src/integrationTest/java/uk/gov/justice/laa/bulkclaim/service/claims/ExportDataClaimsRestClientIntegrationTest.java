@@ -13,7 +13,10 @@ import org.mockserver.model.HttpResponse;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
 import uk.gov.justice.laa.bulkclaim.client.ExportDataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.config.WebMvcTestConfig;
 import uk.gov.justice.laa.bulkclaim.helper.MockServerIntegrationTest;
@@ -51,12 +54,12 @@ class ExportDataClaimsRestClientIntegrationTest extends MockServerIntegrationTes
                   .withBody(csvContent));
       UUID submissionId = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
       // When
-      ResponseEntity<byte[]> result =
+      ResponseEntity<Flux<DataBuffer>> result =
           exportDataClaimsRestClient.getSubmissionExport("legal-help", submissionId, "123").block();
       // Then
       assertThat(result).isNotNull();
       assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-      assertThat(result.getBody()).isEqualTo(csvContent);
+      assertThat(readBody(result)).isEqualTo(csvContent);
     }
 
     @Test
@@ -76,14 +79,14 @@ class ExportDataClaimsRestClientIntegrationTest extends MockServerIntegrationTes
                   .withBody(csvContent));
       UUID submissionId = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
       // When
-      ResponseEntity<byte[]> result =
+      ResponseEntity<Flux<DataBuffer>> result =
           exportDataClaimsRestClient
               .getSubmissionExport("crime-lower", submissionId, "123")
               .block();
       // Then
       assertThat(result).isNotNull();
       assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-      assertThat(result.getBody()).isEqualTo(csvContent);
+      assertThat(readBody(result)).isEqualTo(csvContent);
     }
 
     @Test
@@ -103,12 +106,24 @@ class ExportDataClaimsRestClientIntegrationTest extends MockServerIntegrationTes
                   .withBody(csvContent));
       UUID submissionId = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
       // When
-      ResponseEntity<byte[]> result =
+      ResponseEntity<Flux<DataBuffer>> result =
           exportDataClaimsRestClient.getSubmissionExport("mediation", submissionId, "123").block();
       // Then
       assertThat(result).isNotNull();
       assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
-      assertThat(result.getBody()).isEqualTo(csvContent);
+      assertThat(readBody(result)).isEqualTo(csvContent);
     }
   }
+
+  private static byte[] readBody(ResponseEntity<Flux<DataBuffer>> result) {
+    return DataBufferUtils.join(result.getBody())
+        .map(
+            dataBuffer -> {
+              byte[] bytes = new byte[dataBuffer.readableByteCount()];
+              dataBuffer.read(bytes);
+              DataBufferUtils.release(dataBuffer);
+              return bytes;
+            })
+        .block();
+  }
 }
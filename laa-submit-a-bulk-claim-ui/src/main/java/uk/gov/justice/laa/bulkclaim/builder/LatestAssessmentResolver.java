@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.AssessmentGet;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.AssessmentResultSet;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.AssessmentType;
@@ -24,7 +25,7 @@ public class LatestAssessmentResolver {
     AssessmentResultSet resultSet =
         dataClaimsRestClient
             .getClaimAssessments(claimId, 0, ASSESSMENT_PAGE_SIZE, "createdOn,desc")
-            .block();
+            .as(VirtualThreadTasks::await);
 
     Optional<AssessmentGet> latestNonVoid =
         resultSet.getAssessments().stream()
@@ -4,12 +4,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
+import uk.gov.justice.laa.bulkclaim.cache.CompletedSubmissionCache;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.dto.submission.SubmissionMatterStartsRow;
 import uk.gov.justice.laa.bulkclaim.mapper.SubmissionMatterStartsMapper;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.MatterStartGet;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.MatterStartResultSet;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
@@ -21,20 +24,31 @@ public class SubmissionMatterStartsDetailsBuilder {
   public static final String NEW_MATTER_STARTS_LABEL = "New matter starts";
   private final DataClaimsRestClient dataClaimsRestClient;
   private final SubmissionMatterStartsMapper mapper;
+  private final CompletedSubmissionCache completedSubmissionCache;
 
   public SubmissionMatterStartsDetailsBuilder(
-      DataClaimsRestClient dataClaimsRestClient, SubmissionMatterStartsMapper mapper) {
+      DataClaimsRestClient dataClaimsRestClient,
+      SubmissionMatterStartsMapper mapper,
+      CompletedSubmissionCache completedSubmissionCache) {
     this.dataClaimsRestClient = dataClaimsRestClient;
     this.mapper = mapper;
+    this.completedSubmissionCache = completedSubmissionCache;
   }
 
   public List<SubmissionMatterStartsRow> build(final SubmissionResponse response) {
     List<SubmissionMatterStartsRow> result = new ArrayList<>();
 
     List<MatterStartGet> matterStarts =
-        dataClaimsRestClient
-            .getAllMatterStartsForSubmission(response.getSubmissionId())
-            .blockOptional()
+        Optional.ofNullable(
+                completedSubmissionCache.get(
+                    CompletedSubmissionCache.MATTER_STARTS,
+                    response,
+                    "all",
+                    MatterStartResultSet.class,
+                    () ->
+                        dataClaimsRestClient
+                            .getAllMatterStartsForSubmission(response.getSubmissionId())
+                            .as(VirtualThreadTasks::await)))
             .map(MatterStartResultSet::getMatterStarts)
             .orElse(Collections.emptyList());
 
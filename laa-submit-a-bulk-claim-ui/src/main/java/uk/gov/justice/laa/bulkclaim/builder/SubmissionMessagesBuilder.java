@@ -10,14 +10,18 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.cache.CompletedSubmissionCache;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessageRow;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSource;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSummary;
 import uk.gov.justice.laa.bulkclaim.mapper.BulkClaimImportSummaryMapper;
 import uk.gov.justice.laa.bulkclaim.util.PaginationUtil;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimResponse;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessageBase;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessageType;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessagesResponse;
@@ -30,33 +34,64 @@ import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessagesResp
 @RequiredArgsConstructor
 public class SubmissionMessagesBuilder {
 
+  /** Maximum number of claim lookups sent to the Claims API at once for a single page. */
+  static final int CLAIM_LOOKUP_CONCURRENCY = 8;
+
   private final DataClaimsRestClient dataClaimsRestClient;
   private final BulkClaimImportSummaryMapper bulkClaimImportSummaryMapper;
   private final PaginationUtil paginationUtil;
+  private final CompletedSubmissionCache completedSubmissionCache;
 
-  /** Builds a {@link MessagesSummary} for a given submission ID whilst only returning errors. */
-  public MessagesSummary buildErrors(UUID submissionId, int page, int size, String sort) {
-    return build(submissionId, null, ValidationMessageType.ERROR, page, size, sort);
+  /** Builds a {@link MessagesSummary} for a given submission whilst only returning errors. */
+  public MessagesSummary buildErrors(
+      SubmissionResponse submission, int page, int size, String sort) {
+    return build(submission, null, ValidationMessageType.ERROR, page, size, sort);
   }
 
   /** Builds a {@link MessagesSummary} for a given submission ID with both warnings and errors. */
   public MessagesSummary buildAllWarnings(UUID submissionId, UUID claimId) {
-    return build(submissionId, claimId, ValidationMessageType.WARNING, null, null, null);
+    String submissionType = ValidationMessageType.WARNING.toString();
+    return build(
+        submissionId,
+        dataClaimsRestClient
+            .getValidationMessages(submissionId, claimId, submissionType, null, null, null, null)
+            .as(VirtualThreadTasks::await),
+        null,
+        null);
   }
 
+  /**
+   * Builds a {@link MessagesSummary} for a given submission. Messages for a submission which has
+   * finished validation are cached, as they no longer change.
+   */
   public MessagesSummary build(
-      UUID submissionId,
+      SubmissionResponse submission,
       UUID claimId,
       ValidationMessageType type,
       Integer page,
       Integer size,
       String sort) {
+    UUID submissionId = submission.getSubmissionId();
     String submissionType = type != null ? type.toString() : null;
     final ValidationMessagesResponse messagesResponse =
-        dataClaimsRestClient
-            .getValidationMessages(submissionId, claimId, submissionType, null, page, size, sort)
-            .block();
+        completedSubmissionCache.get(
+            CompletedSubmissionCache.MESSAGES,
+            submission,
+            "%s:%s:%s:%s:%s".formatted(claimId, submissionType, page, size, sort),
+            ValidationMessagesResponse.class,
+            () ->
+                dataClaimsRestClient
+                    .getValidationMessages(
+                        submissionId, claimId, submissionType, null, page, size, sort)
+                    .as(VirtualThreadTasks::await));
+    return build(submissionId, messagesResponse, page, size);
+  }
 
+  private MessagesSummary build(
+      UUID submissionId,
+      ValidationMessagesResponse messagesResponse,
+      Integer page,
+      Integer size) {
     // Get all claims from data claims service (Only keep unique keys)
     Set<UUID> claimRefs =
         Optional.ofNullable(messagesResponse)
@@ -64,15 +99,11 @@ public class SubmissionMessagesBuilder {
             .orElse(Collections.emptyList())
             .stream()
             .map(ValidationMessageBase::getClaimId)
+            .filter(Objects::nonNull)
             .collect(Collectors.toSet());
 
-    // Collate all possible claim responses which messagesResponse could have
-    Map<UUID, Mono<ClaimResponse>> claims =
-        claimRefs.stream()
-            .filter(Objects::nonNull)
-            .collect(
-                Collectors.toMap(
-                    x -> x, x -> dataClaimsRestClient.getSubmissionClaim(submissionId, x)));
+    // Look up each distinct claim once, fanning the requests out concurrently
+    Map<UUID, ClaimResponse> claims = getClaims(submissionId, claimRefs);
 
     // Loop through an error map and add claims
     final List<MessageRow> errorList =
@@ -84,13 +115,7 @@ public class SubmissionMessagesBuilder {
                 messages -> {
                   ClaimResponse claimResponse =
                       Optional.ofNullable(messages.getClaimId())
-                          .map(
-                              claimRef ->
-                                  claims
-                                      .get(claimRef)
-                                      .onErrorResume(ex -> Mono.just(new ClaimResponse()))
-                                      .switchIfEmpty(Mono.just(new ClaimResponse()))
-                                      .block())
+                          .map(claims::get)
                           .orElseGet(ClaimResponse::new);
                   return bulkClaimImportSummaryMapper.toSubmissionSummaryClaimMessage(
                       messages, claimResponse);
@@ -124,4 +149,29 @@ public class SubmissionMessagesBuilder {
         paginationUtil.fromValidationMessages(messagesResponse, page, size),
         messagesSource);
   }
+
+  /**
+   * Retrieves the claims referenced by a page of validation messages. Lookups are made
+   * concurrently (bounded by {@link #CLAIM_LOOKUP_CONCURRENCY}) so that the page costs roughly one
+   * round trip rather than one per claim. Claims which cannot be retrieved are replaced with an
+   * empty {@link ClaimResponse} so that the message is still shown.
+   *
+   * @param submissionId the submission the claims belong to
+   * @param claimIds the distinct claim IDs to look up
+   * @return the claims keyed by claim ID
+   */
+  private Map<UUID, ClaimResponse> getClaims(UUID submissionId, Set<UUID> claimIds) {
+    return Flux.fromIterable(claimIds)
+        .flatMap(
+            claimId ->
+                dataClaimsRestClient
+                    .getSubmissionClaim(submissionId, claimId)
+                    .onErrorResume(ex -> Mono.just(new ClaimResponse()))
+                    .defaultIfEmpty(new ClaimResponse())
+                    .map(claimResponse -> Map.entry(claimId, claimResponse)),
+            CLAIM_LOOKUP_CONCURRENCY)
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+        .as(VirtualThreadTasks::awaitOptional)
+        .orElseGet(Collections::emptyMap);
+  }
 }
@@ -0,0 +1,224 @@
+package uk.gov.justice.laa.bulkclaim.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.MatterStartResultSet;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionStatus;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessagesResponse;
+
+/**
+ * Read through cache for Claims API responses belonging to submissions which have finished
+ * validation. Once a submission has been accepted or rejected its matter starts and validation
+ * messages no longer change, so there is no need to fetch them again each time the user switches
+ * tab or page. Claims are not cached, as they can still be assessed after a submission has been
+ * accepted.
+ *
+ * <p>Responses are held in memory on each pod for a short time, in front of the Redis cache
+ * manager so that other pods can reuse them. Responses are only cached once the submission itself
+ * has been seen with a completed status, and everything is keyed by submission ID followed by the
+ * query which produced it.
+ */
+@Slf4j
+@Component
+public class CompletedSubmissionCache {
+
+  public static final String SUBMISSIONS = "completed-submissions";
+  public static final String MATTER_STARTS = "completed-submission-matter-starts";
+  public static final String MESSAGES = "completed-submission-messages";
+
+  static final String KEY_PREFIX = "submit-a-bulk-claim:cache:";
+
+  static final Map<String, Class<?>> VALUE_TYPES =
+      Map.of(
+          SUBMISSIONS, SubmissionResponse.class,
+          MATTER_STARTS, MatterStartResultSet.class,
+          MESSAGES, ValidationMessagesResponse.class);
+
+  private static final Set<SubmissionStatus> COMPLETED_STATUSES =
+      Set.of(SubmissionStatus.VALIDATION_SUCCEEDED, SubmissionStatus.VALIDATION_FAILED);
+
+  private final CacheManager sharedCaches;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Cache<String, Object>> localCaches = new HashMap<>();
+
+  public CompletedSubmissionCache(
+      @Qualifier("redisCacheManager") CacheManager sharedCaches,
+      MeterRegistry meterRegistry,
+      @Value("${app.completed-submission-cache.local-ttl:1m}") Duration localTtl,
+      @Value("${app.completed-submission-cache.local-max-size:1000}") long localMaxSize) {
+    this.sharedCaches = sharedCaches;
+    this.meterRegistry = meterRegistry;
+    for (String cacheName : VALUE_TYPES.keySet()) {
+      Cache<String, Object> cache =
+          Caffeine.newBuilder()
+              .expireAfterWrite(localTtl)
+              .maximumSize(localMaxSize)
+              .recordStats()
+              .build();
+      CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+      localCaches.put(cacheName, cache);
+    }
+  }
+
+  /**
+   * Creates the Redis configuration for each cache, so that responses are stored as JSON and
+   * expire after the given time.
+   *
+   * @param objectMapper the mapper used to convert responses to and from JSON
+   * @param ttl how long responses are kept in Redis
+   * @return the Redis cache configuration keyed by cache name
+   */
+  public static Map<String, RedisCacheConfiguration> redisCacheConfigurations(
+      ObjectMapper objectMapper, Duration ttl) {
+    Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+    VALUE_TYPES.forEach(
+        (cacheName, type) ->
+            configurations.put(
+                cacheName,
+                RedisCacheConfiguration.defaultCacheConfig()
+                    .entryTtl(ttl)
+                    .disableCachingNullValues()
+                    .prefixCacheNameWith(KEY_PREFIX)
+                    .serializeValuesWith(
+                        SerializationPair.fromSerializer(
+                            new JacksonJsonRedisSerializer<>(objectMapper, type)))));
+    return configurations;
+  }
+
+  /**
+   * Returns true if the submission has finished validation, so its responses will not change.
+   *
+   * @param submission the submission
+   * @return true if the submission has been accepted or rejected
+   */
+  public static boolean isCompleted(SubmissionResponse submission) {
+    return submission != null && COMPLETED_STATUSES.contains(submission.getStatus());
+  }
+
+  /**
+   * Finds a completed submission which has already been fetched from the Claims API.
+   *
+   * @param submissionId the submission ID
+   * @return the submission, or empty if it has not been cached
+   */
+  public Optional<SubmissionResponse> findSubmission(UUID submissionId) {
+    return Optional.ofNullable(
+        lookup(SUBMISSIONS, submissionId.toString(), SubmissionResponse.class));
+  }
+
+  /**
+   * Caches a submission fetched from the Claims API, if it has finished validation.
+   *
+   * @param submission the submission
+   */
+  public void putSubmission(SubmissionResponse submission) {
+    if (isCompleted(submission)) {
+      store(SUBMISSIONS, submission.getSubmissionId().toString(), submission);
+    }
+  }
+
+  /**
+   * Gets a response for a submission, only calling the loader if the submission is still being
+   * validated or the response has not been cached yet.
+   *
+   * @param cacheName the cache holding this type of response
+   * @param submission the submission the response belongs to
+   * @param query the query and page which produced the response
+   * @param type the type of response
+   * @param loader fetches the response from the Claims API
+   * @param <T> the type of response
+   * @return the response
+   */
+  public <T> T get(
+      String cacheName,
+      SubmissionResponse submission,
+      String query,
+      Class<T> type,
+      Supplier<T> loader) {
+    if (!isCompleted(submission)) {
+      return loader.get();
+    }
+
+    String key = submission.getSubmissionId() + ":" + query;
+    T cached = lookup(cacheName, key, type);
+    if (cached != null) {
+      return cached;
+    }
+
+    T value = loader.get();
+    if (value != null) {
+      store(cacheName, key, value);
+    }
+    return value;
+  }
+
+  private <T> T lookup(String cacheName, String key, Class<T> type) {
+    Object local = localCaches.get(cacheName).getIfPresent(key);
+    if (local != null) {
+      count(cacheName, "local-hit");
+      return type.cast(local);
+    }
+
+    T shared = findShared(cacheName, key, type);
+    if (shared != null) {
+      count(cacheName, "redis-hit");
+      localCaches.get(cacheName).put(key, shared);
+      return shared;
+    }
+
+    count(cacheName, "miss");
+    return null;
+  }
+
+  private <T> T findShared(String cacheName, String key, Class<T> type) {
+    try {
+      org.springframework.cache.Cache cache = sharedCaches.getCache(cacheName);
+      return cache != null ? cache.get(key, type) : null;
+    } catch (RuntimeException e) {
+      // Redis is only an optimisation here, so carry on and ask the Claims API instead
+      log.warn("Unable to read {} from the {} cache: {}", key, cacheName, e.getMessage());
+      return null;
+    }
+  }
+
+  private void store(String cacheName, String key, Object value) {
+    localCaches.get(cacheName).put(key, value);
+    try {
+      org.springframework.cache.Cache cache = sharedCaches.getCache(cacheName);
+      if (cache != null) {
+        cache.put(key, value);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Unable to write {} to the {} cache: {}", key, cacheName, e.getMessage());
+    }
+  }
+
+  private void count(String cacheName, String result) {
+    Counter.builder("completed.submission.cache.gets")
+        .description("Completed submission cache lookups, by where the response was found")
+        .tag("cache", cacheName)
+        .tag("result", result)
+        .register(meterRegistry)
+        .increment();
+  }
+}
@@ -0,0 +1,92 @@
+package uk.gov.justice.laa.bulkclaim.cache;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Remembers files which SDS has found to be clean, so the same file uploaded again does not need
+ * to be sent for another virus scan, which takes several seconds for a large file.
+ *
+ * <p>Files are keyed by the SHA-256 of their content and the configured scanner signature version,
+ * and only clean results are kept. Changing the signature version when SDS updates its signatures
+ * means files are scanned again against the new signatures, and results expire after the
+ * configured time in any case. A time to live of zero turns the cache off, which is the default,
+ * and Redis being unavailable only means the file is scanned again. The cache cannot be turned on
+ * without a signature version, as results would otherwise outlive a signature update.
+ */
+@Slf4j
+@Component
+public class VirusScanResultCache {
+
+  static final String KEY_PREFIX = "submit-a-bulk-claim:virus-scan:";
+  private static final String CLEAN = "CLEAN";
+
+  private final StringRedisTemplate redisTemplate;
+  private final Duration ttl;
+  private final String signatureVersion;
+
+  public VirusScanResultCache(
+      StringRedisTemplate redisTemplate,
+      @Value("${app.virus-scan-cache.ttl:0s}") Duration ttl,
+      @Value("${app.virus-scan-cache.signature-version:}") String signatureVersion) {
+    if (!ttl.isZero() && !StringUtils.hasText(signatureVersion)) {
+      throw new IllegalStateException(
+          "app.virus-scan-cache.signature-version must be set when the virus scan cache is on");
+    }
+    this.redisTemplate = redisTemplate;
+    this.ttl = ttl;
+    this.signatureVersion = signatureVersion;
+  }
+
+  /**
+   * Works out the key for a file from its content.
+   *
+   * @param contentSha256 the SHA-256 of the file, which may be null
+   * @return the key, or null if the cache is turned off or no SHA-256 was given
+   */
+  public String key(String contentSha256) {
+    if (ttl.isZero() || contentSha256 == null) {
+      return null;
+    }
+    return KEY_PREFIX + signatureVersion + ":" + contentSha256;
+  }
+
+  /**
+   * Returns true if a file with the given key has already been found to be clean.
+   *
+   * @param key the key of the file, which may be null
+   * @return true if the file is known to be clean
+   */
+  public boolean isClean(String key) {
+    if (key == null) {
+      return false;
+    }
+    try {
+      return CLEAN.equals(redisTemplate.opsForValue().get(key));
+    } catch (DataAccessException e) {
+      log.warn("Unable to look up virus scan result: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Records that a file with the given key has been found to be clean.
+   *
+   * @param key the key of the file, which may be null
+   */
+  public void putClean(String key) {
+    if (key == null) {
+      return;
+    }
+    try {
+      redisTemplate.opsForValue().set(key, CLEAN, ttl);
+    } catch (DataAccessException e) {
+      log.warn("Unable to record virus scan result: {}", e.getMessage());
+    }
+  }
+}
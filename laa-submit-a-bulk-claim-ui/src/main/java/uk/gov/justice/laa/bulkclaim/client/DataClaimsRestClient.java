@@ -2,13 +2,13 @@ package uk.gov.justice.laa.bulkclaim.client;
 
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
@@ -35,7 +35,8 @@ public interface DataClaimsRestClient {
 
   @PostExchange(value = "/bulk-submissions", contentType = MediaType.MULTIPART_FORM_DATA_VALUE)
   Mono<ResponseEntity<CreateBulkSubmission201Response>> upload(
-      @RequestPart("file") MultipartFile file,
+      // Built by BulkUploadService so the file is streamed rather than read into memory
+      @RequestPart("file") HttpEntity<?> file,
       @RequestParam String userId,
       // Allows Claims API to read the file and tell the user what office they're missing. Users
       // shouldn't be in a position where they have no offices unless they've been set up wrong.
@@ -0,0 +1,44 @@
+package uk.gov.justice.laa.bulkclaim.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.gov.justice.laa.bulkclaim.service.SessionService;
+
+/**
+ * Keeps the count of active sessions up to date as requests use them. Runs inside the Spring
+ * Session filter, so sessions which are signed out of or given a new ID during the request are
+ * seen once the request has been handled.
+ */
+@RequiredArgsConstructor
+public class ActiveSessionFilter extends OncePerRequestFilter {
+
+  private final SessionService sessionService;
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String requestedSessionId = request.getRequestedSessionId();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      HttpSession session = request.getSession(false);
+      if (session != null) {
+        sessionService.recordActive(
+            session.getId(), Duration.ofSeconds(session.getMaxInactiveInterval()));
+      }
+      // The session was invalidated, or replaced with a new ID when the user signed in
+      if (requestedSessionId != null
+          && (session == null || !requestedSessionId.equals(session.getId()))) {
+        sessionService.recordEnded(requestedSessionId);
+      }
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package uk.gov.justice.laa.bulkclaim.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+
+/**
+ * Compresses session values before they are written to Redis. The security context holds the ID
+ * token and the user's offices, which compress well, so this cuts the memory each session takes in
+ * Redis and the bytes read from it on each request.
+ *
+ * <p>Values are serialised by the delegate and compressed with GZIP once they reach the minimum
+ * size, as small values such as timestamps would only grow. Values are told apart by the GZIP
+ * header when read, so values written before compression was turned on, or while it is turned
+ * off, are still read. Sessions move over to the compressed format as their values are next
+ * written, and are gone within the session timeout in any case.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+  private static final int GZIP_MAGIC_FIRST = 0x1f;
+  private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+  private final RedisSerializer<Object> delegate;
+  private final boolean compress;
+  private final int minSize;
+  private final BulkClaimMetricService bulkClaimMetricService;
+
+  public CompressingRedisSerializer(
+      RedisSerializer<Object> delegate,
+      boolean compress,
+      int minSize,
+      BulkClaimMetricService bulkClaimMetricService) {
+    this.delegate = delegate;
+    this.compress = compress;
+    this.minSize = minSize;
+    this.bulkClaimMetricService = bulkClaimMetricService;
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    byte[] serialized = delegate.serialize(value);
+    if (serialized == null) {
+      return null;
+    }
+    byte[] written = compress && serialized.length >= minSize ? gzip(serialized) : serialized;
+    bulkClaimMetricService.recordSessionValueSize(serialized.length, written.length);
+    return written;
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || !isGzip(bytes)) {
+      return delegate.deserialize(bytes);
+    }
+    return delegate.deserialize(gunzip(bytes));
+  }
+
+  private static boolean isGzip(byte[] bytes) {
+    return bytes.length > 2
+        && (bytes[0] & 0xff) == GZIP_MAGIC_FIRST
+        && (bytes[1] & 0xff) == GZIP_MAGIC_SECOND;
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+    try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      throw new SerializationException("Unable to compress session value", e);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] gunzip(byte[] bytes) {
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return gzip.readAllBytes();
+    } catch (IOException e) {
+      throw new SerializationException("Unable to decompress session value", e);
+    }
+  }
+}
@@ -16,6 +16,9 @@ public class FeatureFlagsConfig {
   private Boolean isAlternativeClaimViewEnabled;
   private Boolean isUpdatedCalculatedValueAvailable;
   private Boolean isAssessedColumnEnabled;
+  private Boolean isSpeculativeUploadEnabled;
+  private Boolean isUploadPreValidationEnabled;
+  private Boolean isUploadDeduplicationEnabled;
 
   public void checkNilSubmissionEnabled() {
     if (!TRUE.equals(getIsNilSubmissionEnabled())) {
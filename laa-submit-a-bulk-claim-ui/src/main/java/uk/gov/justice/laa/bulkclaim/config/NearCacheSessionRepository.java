@@ -0,0 +1,313 @@
+package uk.gov.justice.laa.bulkclaim.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository.RedisSession;
+
+/**
+ * Keeps recently used sessions in memory on each pod, in front of the Redis session repository,
+ * so a request whose session has not changed since the pod last read it does not need to read it
+ * from Redis again.
+ *
+ * <p>Sessions are held as serialised values and each request deserialises the values it uses, so
+ * requests never share session objects. A session is only read from Redis again once it changes:
+ *
+ * <ul>
+ *   <li>A request which changes the session loads it from Redis before writing the change, and
+ *       then removes it from every pod's cache. Other pods are told over Redis pub/sub.
+ *   <li>A request which only reads the session writes its last accessed time back to Redis at
+ *       most once per touch interval, so Redis does not expire a session which is still in use.
+ * </ul>
+ *
+ * <p>Entries also expire after the configured time, which bounds how stale a session can be if a
+ * pub/sub message is missed.
+ */
+@Slf4j
+public class NearCacheSessionRepository
+    implements SessionRepository<NearCacheSessionRepository.NearCachedSession>, MessageListener {
+
+  public static final String INVALIDATION_CHANNEL = "submit-a-bulk-claim:session:invalidations";
+
+  private final RedisSessionRepository delegate;
+  private final RedisSerializer<Object> serializer;
+  private final StringRedisTemplate redisTemplate;
+  private final Duration touchInterval;
+  private final Cache<String, CachedSession> cache;
+  private final Timer entryAge;
+  private final Counter remoteInvalidations;
+  // Lets each pod ignore the invalidations it sent itself
+  private final String podId = UUID.randomUUID().toString();
+
+  public NearCacheSessionRepository(
+      RedisSessionRepository delegate,
+      RedisSerializer<Object> serializer,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      Duration ttl,
+      long maxSize,
+      Duration touchInterval) {
+    this.delegate = delegate;
+    this.serializer = serializer;
+    this.redisTemplate = redisTemplate;
+    this.touchInterval = touchInterval;
+    this.cache =
+        Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "session-near-cache");
+    this.entryAge =
+        Timer.builder("session.near.cache.entry.age")
+            .description("How long sessions read from the near cache had been held for")
+            .register(meterRegistry);
+    this.remoteInvalidations =
+        Counter.builder("session.near.cache.invalidations")
+            .description("Sessions removed from the near cache as another pod changed them")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public NearCachedSession createSession() {
+    return new NearCachedSession(delegate.createSession());
+  }
+
+  @Override
+  public NearCachedSession findById(String id) {
+    CachedSession cached = cache.getIfPresent(id);
+    if (cached != null && isExpired(cached.maxInactiveInterval(), cached.lastAccessedTime())) {
+      // Another pod may have used the session since, so check Redis
+      cache.invalidate(id);
+      cached = null;
+    }
+    if (cached != null) {
+      entryAge.record(Duration.between(cached.cachedAt(), Instant.now()));
+      return new NearCachedSession(cached);
+    }
+
+    // Loading through the cache means an invalidation which arrives while loading is not lost
+    cached = cache.get(id, this::load);
+    return cached != null ? new NearCachedSession(cached) : null;
+  }
+
+  @Override
+  public void save(NearCachedSession session) {
+    RedisSession redisSession = session.redisSession;
+    if (redisSession == null) {
+      if (Duration.between(session.cached.lastAccessedTime(), session.lastAccessedTime)
+              .compareTo(touchInterval)
+          < 0) {
+        return;
+      }
+      redisSession = session.load();
+    }
+
+    delegate.save(redisSession);
+    if (session.changed) {
+      evict(session.originalId);
+    } else {
+      Instant lastAccessedTime = redisSession.getLastAccessedTime();
+      cache
+          .asMap()
+          .computeIfPresent(
+              redisSession.getId(), (id, cached) -> cached.touched(lastAccessedTime));
+    }
+  }
+
+  @Override
+  public void deleteById(String id) {
+    delegate.deleteById(id);
+    evict(id);
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    if (!podId.equals(StringUtils.substringBefore(body, ':'))) {
+      cache.invalidate(StringUtils.substringAfter(body, ':'));
+      remoteInvalidations.increment();
+    }
+  }
+
+  private CachedSession load(String id) {
+    RedisSession session = delegate.findById(id);
+    if (session == null) {
+      return null;
+    }
+    Map<String, byte[]> attributes = new HashMap<>();
+    for (String name : session.getAttributeNames()) {
+      attributes.put(name, serializer.serialize(session.getAttribute(name)));
+    }
+    return new CachedSession(
+        session.getId(),
+        session.getCreationTime(),
+        session.getLastAccessedTime(),
+        session.getMaxInactiveInterval(),
+        Map.copyOf(attributes),
+        Instant.now());
+  }
+
+  private void evict(String id) {
+    cache.invalidate(id);
+    try {
+      redisTemplate.convertAndSend(INVALIDATION_CHANNEL, podId + ":" + id);
+    } catch (DataAccessException e) {
+      log.warn("Unable to invalidate session on other pods: {}", e.getMessage());
+    }
+  }
+
+  private static boolean isExpired(Duration maxInactiveInterval, Instant lastAccessedTime) {
+    return !maxInactiveInterval.isNegative()
+        && !Instant.now().minus(maxInactiveInterval).isBefore(lastAccessedTime);
+  }
+
+  /** A session as it was read from Redis, with each attribute held serialised. */
+  record CachedSession(
+      String id,
+      Instant creationTime,
+      Instant lastAccessedTime,
+      Duration maxInactiveInterval,
+      Map<String, byte[]> attributes,
+      Instant cachedAt) {
+
+    CachedSession touched(Instant lastAccessedTime) {
+      return new CachedSession(
+          id, creationTime, lastAccessedTime, maxInactiveInterval, attributes, cachedAt);
+    }
+  }
+
+  /**
+   * A session read from the near cache, or created or read from Redis when it needs changing.
+   * Changes are made to the session read from Redis, so only the changes are written back.
+   */
+  public final class NearCachedSession implements Session {
+
+    private final CachedSession cached;
+    private final String originalId;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private RedisSession redisSession;
+    private Instant lastAccessedTime;
+    private boolean changed;
+
+    private NearCachedSession(CachedSession cached) {
+      this.cached = cached;
+      this.originalId = cached.id();
+      this.lastAccessedTime = cached.lastAccessedTime();
+    }
+
+    private NearCachedSession(RedisSession created) {
+      this.cached = null;
+      this.originalId = created.getId();
+      this.redisSession = created;
+    }
+
+    @Override
+    public String getId() {
+      return redisSession != null ? redisSession.getId() : cached.id();
+    }
+
+    @Override
+    public String changeSessionId() {
+      changed = true;
+      return load().changeSessionId();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String attributeName) {
+      if (redisSession != null) {
+        return redisSession.getAttribute(attributeName);
+      }
+      byte[] value = cached.attributes().get(attributeName);
+      if (value == null) {
+        return null;
+      }
+      return (T) attributes.computeIfAbsent(attributeName, name -> serializer.deserialize(value));
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return redisSession != null ? redisSession.getAttributeNames() : cached.attributes().keySet();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+      changed = true;
+      load().setAttribute(attributeName, attributeValue);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+      changed = true;
+      load().removeAttribute(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+      return redisSession != null ? redisSession.getCreationTime() : cached.creationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+      if (redisSession != null) {
+        redisSession.setLastAccessedTime(lastAccessedTime);
+      } else {
+        this.lastAccessedTime = lastAccessedTime;
+      }
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+      return redisSession != null ? redisSession.getLastAccessedTime() : lastAccessedTime;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+      changed = true;
+      load().setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+      return redisSession != null
+          ? redisSession.getMaxInactiveInterval()
+          : cached.maxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+      return redisSession != null
+          ? redisSession.isExpired()
+          : NearCacheSessionRepository.isExpired(cached.maxInactiveInterval(), lastAccessedTime);
+    }
+
+    /** Reads the session from Redis, so it can be changed and the changes written back. */
+    private RedisSession load() {
+      if (redisSession == null) {
+        redisSession = delegate.findById(cached.id());
+        if (redisSession == null) {
+          throw new IllegalStateException("Session was invalidated");
+        }
+        redisSession.setLastAccessedTime(lastAccessedTime);
+      }
+      return redisSession;
+    }
+  }
+}
@@ -3,13 +3,31 @@ package uk.gov.justice.laa.bulkclaim.config;
 import static org.springframework.data.redis.cache.RedisCacheManager.builder;
 import static org.springframework.data.redis.cache.RedisCacheWriter.create;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter.RedisCacheWriterConfigurer;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.data.redis.RedisSessionRepository;
 import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.ObjectMapper;
+import uk.gov.justice.laa.bulkclaim.cache.CompletedSubmissionCache;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+import uk.gov.justice.laa.bulkclaim.service.SessionService;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 
 /**
  * Configuration class for enabling Redis-backed HTTP sessions.
@@ -32,8 +50,107 @@ import org.springframework.session.data.redis.config.annotation.web.http.EnableR
 public class RedisSessionConfig {
 
   @Bean
-  RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+  RedisCacheManager redisCacheManager(
+      RedisConnectionFactory connectionFactory,
+      ObjectMapper objectMapper,
+      @Value("${app.completed-submission-cache.redis-ttl:10m}") Duration completedSubmissionTtl,
+      @Value("${app.submission-search-cache.ttl:30s}") Duration submissionSearchTtl) {
     var cacheWriter = create(connectionFactory, RedisCacheWriterConfigurer::immediateWrites);
-    return builder(cacheWriter).build();
+    return builder(cacheWriter)
+        .withInitialCacheConfigurations(
+            CompletedSubmissionCache.redisCacheConfigurations(objectMapper, completedSubmissionTtl))
+        .withCacheConfiguration(
+            SubmissionSearchService.CACHE_NAME,
+            SubmissionSearchService.redisCacheConfiguration(objectMapper, submissionSearchTtl))
+        .build();
+  }
+
+  /**
+   * Serialises session values with JDK serialisation, compressing larger values before they are
+   * written to Redis. Spring Session picks this up by its bean name.
+   *
+   * @param bulkClaimMetricService records the size of each session value
+   * @param compress whether larger session values are compressed
+   * @param compressMinSize the smallest session value which is compressed
+   * @return the serialiser for session values
+   */
+  @Bean("springSessionDefaultRedisSerializer")
+  RedisSerializer<Object> springSessionDefaultRedisSerializer(
+      BulkClaimMetricService bulkClaimMetricService,
+      @Value("${app.session.compress:true}") boolean compress,
+      @Value("${app.session.compress-min-size:512B}") DataSize compressMinSize) {
+    return new CompressingRedisSerializer(
+        new JdkSerializationRedisSerializer(RedisSessionConfig.class.getClassLoader()),
+        compress,
+        (int) compressMinSize.toBytes(),
+        bulkClaimMetricService);
+  }
+
+  /**
+   * Registers the filter which keeps the count of active sessions up to date, just inside the
+   * Spring Session filter so it sees the session used by each request.
+   *
+   * @param sessionService the service holding the count of active sessions
+   * @return the filter registration
+   */
+  @Bean
+  FilterRegistrationBean<ActiveSessionFilter> activeSessionFilter(SessionService sessionService) {
+    var registration = new FilterRegistrationBean<>(new ActiveSessionFilter(sessionService));
+    registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER + 1);
+    return registration;
+  }
+
+  /**
+   * Keeps recently used sessions in memory on each pod, in front of the Redis session repository.
+   * Spring Session uses this in place of the Redis session repository as it is the primary one.
+   *
+   * @param redisSessionRepository the Redis session repository
+   * @param redisTemplate used to tell other pods when a session changes
+   * @param meterRegistry records the near cache's hit rate and how long sessions were held for
+   * @param ttl how long a session is held in memory for
+   * @param maxSize the most sessions held in memory
+   * @param touchInterval how often a session's last accessed time is written back to Redis
+   * @return the session repository
+   */
+  @Bean
+  @Primary
+  @ConditionalOnProperty(name = "app.session.near-cache.enabled", havingValue = "true")
+  NearCacheSessionRepository nearCacheSessionRepository(
+      RedisSessionRepository redisSessionRepository,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.session.near-cache.ttl:30s}") Duration ttl,
+      @Value("${app.session.near-cache.max-size:10000}") long maxSize,
+      @Value("${app.session.near-cache.touch-interval:1m}") Duration touchInterval) {
+    // Values are only held in memory, so they are not compressed or counted towards the size of
+    // the sessions written to Redis
+    return new NearCacheSessionRepository(
+        redisSessionRepository,
+        new JdkSerializationRedisSerializer(RedisSessionConfig.class.getClassLoader()),
+        redisTemplate,
+        meterRegistry,
+        ttl,
+        maxSize,
+        touchInterval);
+  }
+
+  /**
+   * Listens for sessions changed on other pods, so they are removed from this pod's near cache.
+   *
+   * @param connectionFactory the Redis connection factory
+   * @param nearCacheSessionRepository the near cache to remove changed sessions from
+   * @return the listener container
+   */
+  @Bean
+  @ConditionalOnProperty(name = "app.session.near-cache.enabled", havingValue = "true")
+  RedisMessageListenerContainer sessionInvalidationListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      NearCacheSessionRepository nearCacheSessionRepository) {
+    var container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(
+        nearCacheSessionRepository,
+        new ChannelTopic(NearCacheSessionRepository.INVALIDATION_CHANNEL));
+    return container;
   }
 }
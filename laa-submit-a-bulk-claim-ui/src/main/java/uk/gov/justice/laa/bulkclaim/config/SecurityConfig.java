@@ -10,11 +10,23 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.client.oidc.web.logout.OidcClientInitiatedLogoutSuccessHandler;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
+import org.springframework.util.StringUtils;
 import uk.gov.justice.laa.bulkclaim.service.UrlService;
+import uk.gov.justice.laa.bulkclaim.util.OfficeAccessOidcUser;
+import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
 
 /**
  * Security configuration for the Bulk Upload application. This configuration sets up basic
@@ -27,6 +39,24 @@ import uk.gov.justice.laa.bulkclaim.service.UrlService;
 public class SecurityConfig {
 
   private final UrlService urlService;
+  private final OidcAttributeUtils oidcAttributeUtils;
+
+  /**
+   * Gets SDS access tokens with the client credentials grant, keeping them in the authorized
+   * client service. Unlike the default manager this does not need a web request, as tokens are
+   * also got on the threads running virus scans.
+   */
+  @Bean
+  public OAuth2AuthorizedClientManager authorizedClientManager(
+      ClientRegistrationRepository clientRegistrationRepository,
+      OAuth2AuthorizedClientService authorizedClientService) {
+    var authorizedClientManager =
+        new AuthorizedClientServiceOAuth2AuthorizedClientManager(
+            clientRegistrationRepository, authorizedClientService);
+    authorizedClientManager.setAuthorizedClientProvider(
+        OAuth2AuthorizedClientProviderBuilder.builder().clientCredentials().build());
+    return authorizedClientManager;
+  }
 
   /**
    * UserDetailsService bean for in-memory user management. This method creates fake users for
@@ -59,7 +89,9 @@ public class SecurityConfig {
                     csp -> csp.policyDirectives(contentSecurityPolicy)))
         .oauth2Login(
             oauth2Login -> //
-            oauth2Login.loginPage("/oauth2/authorization/silas-identity"))
+            oauth2Login
+                    .loginPage("/oauth2/authorization/silas-identity")
+                    .userInfoEndpoint(userInfo -> userInfo.oidcUserService(oidcUserService())))
         .oauth2Client(withDefaults())
         .logout(
             logout ->
@@ -68,6 +100,27 @@ public class SecurityConfig {
     return http.build();
   }
 
+  /**
+   * Loads the user at login as usual, then reads the offices they have access to from their
+   * claims once, so access checks on each request do not need to.
+   */
+  private OAuth2UserService<OidcUserRequest, OidcUser> oidcUserService() {
+    OidcUserService delegate = new OidcUserService();
+    return userRequest -> {
+      OidcUser user = delegate.loadUser(userRequest);
+      String nameAttributeKey =
+          userRequest
+              .getClientRegistration()
+              .getProviderDetails()
+              .getUserInfoEndpoint()
+              .getUserNameAttributeName();
+      return new OfficeAccessOidcUser(
+          user,
+          StringUtils.hasText(nameAttributeKey) ? nameAttributeKey : IdTokenClaimNames.SUB,
+          oidcAttributeUtils.readUserOffices(user));
+    };
+  }
+
   private LogoutSuccessHandler oidcLogoutSuccessHandler(
       ClientRegistrationRepository clientRegistrationRepository) {
     OidcClientInitiatedLogoutSuccessHandler successHandler =
@@ -0,0 +1,86 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Builds the Reactor Netty connectors used by the Claims API clients.
+ *
+ * <p>Clients share a single connection pool unless their settings ask for a dedicated one, so that
+ * a slow client, such as exports, can be kept from using up the connections needed to render
+ * pages. Pool settings for a client only take effect when it has a dedicated pool. Every pool
+ * reports how many connections are acquired, idle and pending through Micrometer.
+ */
+@Slf4j
+@Component
+public class ClaimsApiConnectors implements DisposableBean {
+
+  static final String SHARED_POOL = "claims-api";
+
+  private final ClaimsApiProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, ConnectionProvider> pools = new ConcurrentHashMap<>();
+
+  public ClaimsApiConnectors(ClaimsApiProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Creates a connector for the clients in the given HTTP service group.
+   *
+   * @param group the HTTP service group name
+   * @return a connector using the pool and settings configured for the group
+   */
+  public ClientHttpConnector connectorFor(String group) {
+    HttpClientProperties settings = properties.httpFor(group);
+    ConnectionProvider pool =
+        Boolean.TRUE.equals(settings.dedicatedPool())
+            ? pools.computeIfAbsent(SHARED_POOL + "-" + group, name -> pool(name, settings))
+            : pools.computeIfAbsent(SHARED_POOL, name -> pool(name, properties.sharedHttp()));
+
+    HttpClient httpClient =
+        HttpClient.create(pool)
+            .option(
+                ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                Math.toIntExact(settings.connectTimeout().toMillis()))
+            .responseTimeout(settings.responseTimeout())
+            .keepAlive(settings.keepAlive())
+            .resolver(spec -> spec.cacheMaxTimeToLive(settings.dnsCacheTtl()));
+    if (Boolean.TRUE.equals(settings.http2())) {
+      // HTTP/2 is negotiated over TLS, so HTTP/1.1 is still used for plain HTTP
+      httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+    }
+    return new ReactorClientHttpConnector(httpClient);
+  }
+
+  private ConnectionProvider pool(String name, HttpClientProperties settings) {
+    log.info(
+        "Creating connection pool {} with up to {} connections", name, settings.maxConnections());
+    return ConnectionProvider.builder(name)
+        .maxConnections(settings.maxConnections())
+        .pendingAcquireMaxCount(settings.pendingAcquireMaxCount())
+        .pendingAcquireTimeout(settings.pendingAcquireTimeout())
+        .maxIdleTime(settings.maxIdleTime())
+        .maxLifeTime(settings.maxLifeTime())
+        .evictInBackground(settings.evictInBackground())
+        .metrics(true, () -> new ConnectionPoolMeterRegistrar(meterRegistry))
+        .build();
+  }
+
+  @Override
+  public void destroy() {
+    pools.values().forEach(ConnectionProvider::dispose);
+    pools.clear();
+  }
+}
@@ -1,11 +1,89 @@
 package uk.gov.justice.laa.bulkclaim.config.rest;
 
+import java.util.Map;
+import lombok.Getter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
+@Getter
 @ConfigurationProperties(prefix = "app.claims-api")
 public class ClaimsApiProperties extends ApiProperties {
 
+  /** Connection pool and HTTP settings shared by every Claims API client. */
+  private final HttpClientProperties http;
+
+  /** Per client overrides of the shared settings, keyed by HTTP service group name. */
+  private final Map<String, HttpClientProperties> clients;
+
+  /** Bulkhead and circuit breaker settings, keyed by the kind of call they apply to. */
+  private final Map<String, ResilienceProperties> resilience;
+
+  /** Settings for sending a second copy of slow GET requests. */
+  private final HedgingProperties hedging;
+
   public ClaimsApiProperties(String url, String accessToken) {
+    this(url, accessToken, null, null, null, null);
+  }
+
+  /**
+   * Creates the Claims API properties.
+   *
+   * @param url the base URL of the Claims API
+   * @param accessToken the access token sent with every request
+   * @param http the connection pool and HTTP settings shared by every client
+   * @param clients per client overrides of the shared settings, keyed by HTTP service group name
+   * @param resilience bulkhead and circuit breaker settings, keyed by the kind of call
+   * @param hedging settings for sending a second copy of slow GET requests
+   */
+  @ConstructorBinding
+  public ClaimsApiProperties(
+      String url,
+      String accessToken,
+      HttpClientProperties http,
+      @DefaultValue Map<String, HttpClientProperties> clients,
+      @DefaultValue Map<String, ResilienceProperties> resilience,
+      HedgingProperties hedging) {
     super(url, accessToken);
+    this.http = http != null ? http : HttpClientProperties.DEFAULTS;
+    this.clients = clients != null ? clients : Map.of();
+    this.resilience = resilience != null ? resilience : Map.of();
+    this.hedging =
+        hedging != null ? hedging.orElse(HedgingProperties.DEFAULTS) : HedgingProperties.DEFAULTS;
+  }
+
+  /**
+   * Gets the shared settings, using the defaults for anything which has not been set.
+   *
+   * @return the settings shared by every client
+   */
+  public HttpClientProperties sharedHttp() {
+    return http.orElse(HttpClientProperties.DEFAULTS);
+  }
+
+  /**
+   * Gets the settings for the given HTTP service group, combining any overrides for that group
+   * with the shared settings.
+   *
+   * @param group the HTTP service group name
+   * @return the settings to use for the group
+   */
+  public HttpClientProperties httpFor(String group) {
+    HttpClientProperties overrides = clients.get(group);
+    return overrides != null ? overrides.orElse(sharedHttp()) : sharedHttp();
+  }
+
+  /**
+   * Gets the bulkhead and circuit breaker settings for the given kind of call, using the defaults
+   * for anything which has not been set.
+   *
+   * @param compartment the kind of call, such as {@code search}
+   * @return the settings to use for the kind of call
+   */
+  public ResilienceProperties resilienceFor(String compartment) {
+    ResilienceProperties settings = resilience.get(compartment);
+    return settings != null
+        ? settings.orElse(ResilienceProperties.DEFAULTS)
+        : ResilienceProperties.DEFAULTS;
   }
 }
@@ -0,0 +1,246 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limits how many calls of each kind can be made to the Claims API at once, and stops making them
+ * for a while if too many fail or are slow. Without this, a slow Claims API holds every request
+ * thread until the response timeout, and requests pile up until the pod runs out of memory.
+ *
+ * <p>Calls are split into {@link Compartment compartments} so that, for example, slow exports
+ * cannot use up the capacity needed to show a submission. Each compartment has its own bulkhead
+ * and circuit breaker, shared by every Claims API client. When either rejects a call it fails
+ * straight away with a {@link BulkheadFullException} or {@link
+ * io.github.resilience4j.circuitbreaker.CallNotPermittedException}, which are shown to the user as
+ * a page saying the service is unavailable. A call keeps its place in the bulkhead until its
+ * response body has been read, or the call is cancelled, so callers must always read or release the
+ * body of a response.
+ *
+ * <p>The state of each circuit breaker and bulkhead is published as {@code resilience4j.*}
+ * metrics, tagged with the compartment name.
+ */
+@Component
+public class ClaimsApiResilience {
+
+  // Searches are the top level collections, such as /api/v1/submissions, and not the collections
+  // belonging to a single submission, such as /api/v1/submissions/{id}/claims
+  private static final Pattern SEARCH_PATH = Pattern.compile(".*/v\\d+/(submissions|claims)");
+
+  /** The kinds of Claims API call which are limited separately. */
+  public enum Compartment {
+    /** Uploading bulk submissions and checking on them while they are processed. */
+    UPLOAD,
+    /** Searching for submissions and claims. */
+    SEARCH,
+    /** Getting a single submission, claim or anything belonging to them. */
+    DETAIL,
+    /** Exporting the claims in a submission. */
+    EXPORT;
+
+    /**
+     * Gets the name used for the compartment in configuration and metrics.
+     *
+     * @return the compartment name, such as {@code search}
+     */
+    public String id() {
+      return name().toLowerCase();
+    }
+
+    /**
+     * Works out which compartment a request to the Claims API belongs to.
+     *
+     * @param group the HTTP service group making the request
+     * @param request the request
+     * @return the compartment for the request
+     */
+    static Compartment of(String group, ClientRequest request) {
+      String path = pathTemplate(request);
+      if (WebClientConfiguration.EXPORT_GROUP.equals(group)) {
+        return EXPORT;
+      }
+      if (!HttpMethod.GET.equals(request.method()) || path.contains("/bulk-submissions")) {
+        return UPLOAD;
+      }
+      if (SEARCH_PATH.matcher(path).matches()) {
+        return SEARCH;
+      }
+      return DETAIL;
+    }
+
+    private static String pathTemplate(ClientRequest request) {
+      // Requests made by the HTTP service clients carry the template they were built from
+      return request
+          .attribute(HedgingExchangeFilter.URI_TEMPLATE_ATTRIBUTE)
+          .map(template -> template.toString().split("\\?", 2)[0])
+          .orElseGet(() -> request.url().getPath());
+    }
+  }
+
+  private final Map<Compartment, Bulkhead> bulkheads = new EnumMap<>(Compartment.class);
+  private final Map<Compartment, CircuitBreaker> circuitBreakers =
+      new EnumMap<>(Compartment.class);
+
+  /**
+   * Creates a bulkhead and circuit breaker for each compartment and publishes their metrics.
+   *
+   * @param properties the Claims API settings, holding the limits for each compartment
+   * @param meterRegistry the registry the bulkhead and circuit breaker metrics are published to
+   */
+  public ClaimsApiResilience(ClaimsApiProperties properties, MeterRegistry meterRegistry) {
+    BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    for (Compartment compartment : Compartment.values()) {
+      ResilienceProperties settings = properties.resilienceFor(compartment.id());
+      bulkheads.put(
+          compartment, bulkheadRegistry.bulkhead(compartment.id(), bulkheadConfig(settings)));
+      circuitBreakers.put(
+          compartment,
+          circuitBreakerRegistry.circuitBreaker(compartment.id(), circuitBreakerConfig(settings)));
+    }
+    TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry)
+        .bindTo(meterRegistry);
+  }
+
+  /**
+   * Creates a filter which sends each request from the given HTTP service group through the
+   * bulkhead and circuit breaker for its compartment.
+   *
+   * @param group the HTTP service group name
+   * @return the filter to add to the group's {@code WebClient}
+   */
+  public ExchangeFilterFunction filterFor(String group) {
+    return (request, next) ->
+        Mono.defer(() -> exchange(Compartment.of(group, request), request, next));
+  }
+
+  private Mono<ClientResponse> exchange(
+      Compartment compartment, ClientRequest request, ExchangeFunction next) {
+    CircuitBreaker circuitBreaker = circuitBreakers.get(compartment);
+    Bulkhead bulkhead = bulkheads.get(compartment);
+    // The bulkhead is inside the circuit breaker, so calls are not queued behind an open circuit
+    if (!circuitBreaker.tryAcquirePermission()) {
+      return Mono.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+    }
+    if (!bulkhead.tryAcquirePermission()) {
+      // A full bulkhead means this pod is busy, not that the Claims API is failing
+      circuitBreaker.releasePermission();
+      return Mono.error(BulkheadFullException.createBulkheadFullException(bulkhead));
+    }
+    Call call = new Call(circuitBreaker, bulkhead);
+    return next.exchange(request)
+        .map(call::holdUntilBodyRead)
+        .doOnError(call::failed)
+        .doOnCancel(call::exchangeCancelled);
+  }
+
+  CircuitBreaker circuitBreaker(Compartment compartment) {
+    return circuitBreakers.get(compartment);
+  }
+
+  private static BulkheadConfig bulkheadConfig(ResilienceProperties settings) {
+    return BulkheadConfig.custom()
+        .maxConcurrentCalls(settings.maxConcurrentCalls())
+        .maxWaitDuration(Duration.ZERO)
+        .build();
+  }
+
+  private static CircuitBreakerConfig circuitBreakerConfig(ResilienceProperties settings) {
+    return CircuitBreakerConfig.custom()
+        .failureRateThreshold(settings.failureRateThreshold())
+        .slowCallDurationThreshold(settings.slowCallDurationThreshold())
+        .slowCallRateThreshold(settings.slowCallRateThreshold())
+        .slidingWindowSize(settings.slidingWindowSize())
+        .minimumNumberOfCalls(settings.minimumNumberOfCalls())
+        .waitDurationInOpenState(settings.waitDurationInOpenState())
+        // Error statuses are returned as responses, only server errors mean the API is unwell
+        .recordResult(
+            result ->
+                result instanceof ClientResponse response
+                    && response.statusCode().is5xxServerError())
+        .build();
+  }
+
+  /** A call which has been let through, holding a permit from its compartment's limits. */
+  private static final class Call {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final long start;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile boolean responded;
+
+    Call(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+      this.circuitBreaker = circuitBreaker;
+      this.bulkhead = bulkhead;
+      this.start = circuitBreaker.getCurrentTimestamp();
+    }
+
+    ClientResponse holdUntilBodyRead(ClientResponse response) {
+      // Cancelling the exchange once the response has arrived does not end the call, as the body
+      // is still to come
+      responded = true;
+      return response
+          .mutate()
+          .body(
+              body ->
+                  body.doOnComplete(() -> completed(response))
+                      .doOnError(this::failed)
+                      .doOnCancel(this::cancelled))
+          .build();
+    }
+
+    void exchangeCancelled() {
+      if (!responded) {
+        cancelled();
+      }
+    }
+
+    private void completed(ClientResponse response) {
+      if (finished.compareAndSet(false, true)) {
+        bulkhead.onComplete();
+        circuitBreaker.onResult(elapsed(), circuitBreaker.getTimestampUnit(), response);
+      }
+    }
+
+    void failed(Throwable error) {
+      if (finished.compareAndSet(false, true)) {
+        bulkhead.onComplete();
+        circuitBreaker.onError(elapsed(), circuitBreaker.getTimestampUnit(), error);
+      }
+    }
+
+    private void cancelled() {
+      if (finished.compareAndSet(false, true)) {
+        bulkhead.onComplete();
+        circuitBreaker.releasePermission();
+      }
+    }
+
+    private long elapsed() {
+      return circuitBreaker.getCurrentTimestamp() - start;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets identical GET requests to the Claims API share a single request while one is in flight,
+ * such as when several people in the same firm open the same submission at once.
+ *
+ * <p>The first request for a URL is sent as normal and its response body is buffered. Identical
+ * requests made before it completes are given a copy of the same response instead of being sent.
+ * Nothing is kept once the response has been received, so a request made afterwards always goes to
+ * the Claims API.
+ */
+class CoalescingExchangeFilter implements ExchangeFilterFunction {
+
+  private static final byte[] NO_BODY = new byte[0];
+
+  private final Map<RequestKey, Mono<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+  private final Counter coalescedRequests;
+
+  CoalescingExchangeFilter(String group, MeterRegistry meterRegistry) {
+    this.coalescedRequests =
+        Counter.builder("claims.api.requests.coalesced")
+            .description("Claims API requests which shared the response of an identical request")
+            .tag("group", group)
+            .register(meterRegistry);
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    if (!HttpMethod.GET.equals(request.method())) {
+      return next.exchange(request);
+    }
+
+    RequestKey key =
+        new RequestKey(
+            request.url(),
+            request.headers().getAccept(),
+            request.headers().getFirst(HttpHeaders.AUTHORIZATION));
+    return Mono.defer(
+        () -> {
+          boolean[] sent = {false};
+          Mono<SharedResponse> response =
+              inFlight.computeIfAbsent(
+                  key,
+                  ignored -> {
+                    sent[0] = true;
+                    return exchange(key, request, next);
+                  });
+          if (!sent[0]) {
+            coalescedRequests.increment();
+          }
+          return response.map(SharedResponse::copy);
+        });
+  }
+
+  private Mono<SharedResponse> exchange(
+      RequestKey key, ClientRequest request, ExchangeFunction next) {
+    return next.exchange(request)
+        .flatMap(
+            response ->
+                response
+                    .bodyToMono(byte[].class)
+                    .defaultIfEmpty(NO_BODY)
+                    .map(body -> new SharedResponse(response, body)))
+        .doFinally(signal -> inFlight.remove(key))
+        .cache();
+  }
+
+  private record RequestKey(URI url, List<MediaType> accept, String authorization) {}
+
+  private record SharedResponse(ClientResponse response, byte[] body) {
+
+    /** Creates a response for one caller, as each caller reads the body separately. */
+    ClientResponse copy() {
+      return ClientResponse.create(response.statusCode(), response.strategies())
+          .headers(headers -> headers.addAll(response.headers().asHttpHeaders()))
+          .cookies(cookies -> cookies.addAll(response.cookies()))
+          .request(response.request())
+          .body(
+              Flux.defer(
+                  () ->
+                      body.length == 0
+                          ? Flux.empty()
+                          : Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))))
+          .build();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Registers Micrometer gauges for each Claims API connection pool, so the pools can be sized from
+ * how many connections are in use, idle and waited for at peak submission periods.
+ */
+class ConnectionPoolMeterRegistrar implements ConnectionProvider.MeterRegistrar {
+
+  static final String PREFIX = "claims.api.connection.pool.";
+
+  private static final Map<String, String> DESCRIPTIONS =
+      Map.of(
+          "acquired", "Connections in use",
+          "idle", "Connections open but not in use",
+          "pending", "Requests waiting for a connection",
+          "allocated", "Connections open",
+          "max", "Most connections the pool will open");
+
+  private final MeterRegistry meterRegistry;
+  private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+
+  ConnectionPoolMeterRegistrar(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void registerMetrics(
+      String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+    Tags tags = Tags.of("pool", poolName, "remote.address", String.valueOf(remoteAddress));
+    List<Meter> registered = new ArrayList<>();
+    registered.add(gauge("acquired", tags, metrics, ConnectionPoolMetrics::acquiredSize));
+    registered.add(gauge("idle", tags, metrics, ConnectionPoolMetrics::idleSize));
+    registered.add(gauge("pending", tags, metrics, ConnectionPoolMetrics::pendingAcquireSize));
+    registered.add(gauge("allocated", tags, metrics, ConnectionPoolMetrics::allocatedSize));
+    registered.add(gauge("max", tags, metrics, ConnectionPoolMetrics::maxAllocatedSize));
+    meters.put(id, registered);
+  }
+
+  @Override
+  public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+    List<Meter> registered = meters.remove(id);
+    if (registered != null) {
+      registered.forEach(meterRegistry::remove);
+    }
+  }
+
+  private Meter gauge(
+      String name,
+      Tags tags,
+      ConnectionPoolMetrics metrics,
+      ToDoubleFunction<ConnectionPoolMetrics> value) {
+    return Gauge.builder(PREFIX + name, metrics, value)
+        .description(DESCRIPTIONS.get(name))
+        .tags(tags)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,177 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends a second copy of a GET request to the Claims API when the first is taking longer than
+ * usual for its endpoint, and uses whichever response arrives first. This cuts the slowest page
+ * loads, such as when one Claims API pod is busy, as the second request will often go elsewhere.
+ *
+ * <p>Response times are tracked for each endpoint, and a second request is only sent once the
+ * first has taken longer than the configured percentile of them. At most one second request is
+ * sent for each request, and only while within a budget which is a percentage of all requests, so
+ * a slow Claims API does not receive twice as many requests. The response which loses is
+ * discarded.
+ *
+ * <p>This filter sits outside the bulkhead and circuit breaker, so each copy of a request takes its
+ * own permit. A second request which is turned away is dropped, leaving the first to answer.
+ */
+class HedgingExchangeFilter implements ExchangeFilterFunction {
+
+  /** Attribute holding the URI template of a request, set by {@code WebClient}. */
+  static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+  private static final Pattern ID_SEGMENT =
+      Pattern.compile("/\\p{XDigit}{8}(-\\p{XDigit}{4}){3}-\\p{XDigit}{12}");
+
+  // The budget is held in hundredths of a hedge, so whole percentages can be added per request
+  private static final long HEDGE_COST = 100;
+  private static final long MAX_BUDGET = 10 * HEDGE_COST;
+
+  private final String group;
+  private final HedgingProperties settings;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Timer> latencies = new ConcurrentHashMap<>();
+  private final AtomicLong budget = new AtomicLong();
+  private final Counter hedgesSent;
+  private final Counter hedgesWon;
+
+  HedgingExchangeFilter(String group, HedgingProperties settings, MeterRegistry meterRegistry) {
+    this.group = group;
+    this.settings = settings;
+    this.meterRegistry = meterRegistry;
+    this.hedgesSent =
+        Counter.builder("claims.api.requests.hedged")
+            .description("Second Claims API requests sent because the first was slow")
+            .tag("group", group)
+            .register(meterRegistry);
+    this.hedgesWon =
+        Counter.builder("claims.api.requests.hedged.won")
+            .description("Second Claims API requests which responded before the first")
+            .tag("group", group)
+            .register(meterRegistry);
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    if (!HttpMethod.GET.equals(request.method())) {
+      return next.exchange(request);
+    }
+
+    Timer latency = latencies.computeIfAbsent(endpoint(request), this::latencyTimer);
+    budget.accumulateAndGet(
+        settings.budgetPercent(), (current, added) -> Math.min(current + added, MAX_BUDGET));
+    Duration delay = hedgeDelay(latency);
+    Mono<Attempt> first = attempt(request, next, latency, false);
+    if (delay == null) {
+      return first.map(Attempt::response);
+    }
+
+    Mono<Attempt> second =
+        Mono.delay(delay)
+            .filter(ignored -> spendBudget())
+            .flatMap(
+                ignored -> {
+                  hedgesSent.increment();
+                  // Only the first request's outcome counts, such as when the bulkhead is full
+                  return attempt(request, next, latency, true).onErrorResume(e -> Mono.empty());
+                });
+    return Flux.merge(first, second)
+        .next()
+        .doOnNext(
+            attempt -> {
+              if (attempt.hedge()) {
+                hedgesWon.increment();
+              }
+            })
+        .map(Attempt::response)
+        // Releases the connection used by a response which arrived too late to be used
+        .doOnDiscard(Attempt.class, attempt -> attempt.response().releaseBody().subscribe());
+  }
+
+  /**
+   * Works out how long to wait before sending a second request to an endpoint.
+   *
+   * @param latency the response times of the endpoint
+   * @return the time to wait, or null if too few responses have been seen to tell
+   */
+  private Duration hedgeDelay(Timer latency) {
+    HistogramSnapshot snapshot = latency.takeSnapshot();
+    ValueAtPercentile[] percentiles = snapshot.percentileValues();
+    if (snapshot.count() < settings.minimumSamples() || percentiles.length == 0) {
+      return null;
+    }
+    Duration observed = Duration.ofNanos((long) percentiles[0].value(TimeUnit.NANOSECONDS));
+    return observed.compareTo(settings.minimumDelay()) > 0 ? observed : settings.minimumDelay();
+  }
+
+  private boolean spendBudget() {
+    long current;
+    do {
+      current = budget.get();
+      if (current < HEDGE_COST) {
+        return false;
+      }
+    } while (!budget.compareAndSet(current, current - HEDGE_COST));
+    return true;
+  }
+
+  private static Mono<Attempt> attempt(
+      ClientRequest request, ExchangeFunction next, Timer latency, boolean hedge) {
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          return next.exchange(request)
+              .doOnNext(
+                  response -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+              // A first request beaten by its second copy took at least this long, and leaving it
+              // out would hide the slow responses hedging is meant to catch. A second copy which
+              // loses was only sent late, so its time says nothing about the endpoint.
+              .doOnCancel(
+                  () -> {
+                    if (!hedge) {
+                      latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                  })
+              .map(response -> new Attempt(response, hedge));
+        });
+  }
+
+  private Timer latencyTimer(String endpoint) {
+    return Timer.builder("claims.api.request.latency")
+        .description("Time taken for the Claims API to respond, by endpoint")
+        .tag("group", group)
+        .tag("endpoint", endpoint)
+        .publishPercentiles(settings.percentile())
+        .distributionStatisticExpiry(Duration.ofMinutes(2))
+        .register(meterRegistry);
+  }
+
+  private static String endpoint(ClientRequest request) {
+    // Templates keep the number of endpoints small, as IDs are not part of them
+    return request
+        .attribute(URI_TEMPLATE_ATTRIBUTE)
+        .map(Object::toString)
+        .orElseGet(() -> ID_SEGMENT.matcher(request.url().getPath()).replaceAll("/{id}"));
+  }
+
+  private record Attempt(ClientResponse response, boolean hedge) {}
+}
@@ -0,0 +1,42 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import java.time.Duration;
+
+/**
+ * Settings for hedged Claims API requests, where a second copy of a slow GET request is sent and
+ * whichever response arrives first is used. Any setting left unset falls back to {@link
+ * #DEFAULTS}.
+ *
+ * @param percentile the percentile of recent response times for an endpoint after which a second
+ *     request is sent
+ * @param minimumDelay the shortest time to wait before sending a second request, however fast the
+ *     endpoint has been
+ * @param minimumSamples the number of responses from an endpoint needed before its requests
+ *     are hedged
+ * @param budgetPercent the most second requests which can be sent, as a percentage of all requests
+ */
+public record HedgingProperties(
+    Double percentile, Duration minimumDelay, Integer minimumSamples, Integer budgetPercent) {
+
+  /** Settings used when nothing has been configured. */
+  public static final HedgingProperties DEFAULTS =
+      new HedgingProperties(0.95, Duration.ofMillis(50), 20, 10);
+
+  /**
+   * Returns these settings, using the given settings for anything which has not been set.
+   *
+   * @param fallback the settings to fall back to
+   * @return the combined settings
+   */
+  public HedgingProperties orElse(HedgingProperties fallback) {
+    return new HedgingProperties(
+        or(percentile, fallback.percentile()),
+        or(minimumDelay, fallback.minimumDelay()),
+        or(minimumSamples, fallback.minimumSamples()),
+        or(budgetPercent, fallback.budgetPercent()));
+  }
+
+  private static <T> T or(T value, T fallback) {
+    return value != null ? value : fallback;
+  }
+}
@@ -0,0 +1,87 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and HTTP settings for a Claims API client. Any setting left unset falls back to
+ * the shared settings, and then to {@link #DEFAULTS}.
+ *
+ * @param dedicatedPool whether the client gets its own connection pool instead of the shared one
+ * @param maxConnections the most connections the pool will open to the Claims API
+ * @param pendingAcquireMaxCount the most requests which can wait for a connection
+ * @param pendingAcquireTimeout how long a request will wait for a connection
+ * @param maxIdleTime how long a connection can be idle before it is closed
+ * @param maxLifeTime how long a connection can be open before it is closed
+ * @param evictInBackground how often idle and expired connections are closed in the background
+ * @param connectTimeout how long to wait for a connection to be established
+ * @param responseTimeout how long to wait for the Claims API between reads of a response
+ * @param keepAlive whether connections are reused between requests
+ * @param http2 whether HTTP/2 is offered when connecting, falling back to HTTP/1.1
+ * @param dnsCacheTtl the longest time a resolved Claims API address is cached
+ * @param coalesceRequests whether identical GET requests in flight at the same time share a single
+ *     request to the Claims API
+ * @param hedgeRequests whether a second copy of a slow GET request is sent, using whichever
+ *     response arrives first
+ */
+public record HttpClientProperties(
+    Boolean dedicatedPool,
+    Integer maxConnections,
+    Integer pendingAcquireMaxCount,
+    Duration pendingAcquireTimeout,
+    Duration maxIdleTime,
+    Duration maxLifeTime,
+    Duration evictInBackground,
+    Duration connectTimeout,
+    Duration responseTimeout,
+    Boolean keepAlive,
+    Boolean http2,
+    Duration dnsCacheTtl,
+    Boolean coalesceRequests,
+    Boolean hedgeRequests) {
+
+  /** Settings used when nothing has been configured. */
+  public static final HttpClientProperties DEFAULTS =
+      new HttpClientProperties(
+          false,
+          50,
+          500,
+          Duration.ofSeconds(10),
+          Duration.ofSeconds(30),
+          Duration.ofMinutes(5),
+          Duration.ofSeconds(30),
+          Duration.ofSeconds(5),
+          Duration.ofSeconds(40),
+          true,
+          false,
+          Duration.ofSeconds(30),
+          true,
+          true);
+
+  /**
+   * Returns these settings, using the given settings for anything which has not been set.
+   *
+   * @param fallback the settings to fall back to
+   * @return the combined settings
+   */
+  public HttpClientProperties orElse(HttpClientProperties fallback) {
+    return new HttpClientProperties(
+        or(dedicatedPool, fallback.dedicatedPool()),
+        or(maxConnections, fallback.maxConnections()),
+        or(pendingAcquireMaxCount, fallback.pendingAcquireMaxCount()),
+        or(pendingAcquireTimeout, fallback.pendingAcquireTimeout()),
+        or(maxIdleTime, fallback.maxIdleTime()),
+        or(maxLifeTime, fallback.maxLifeTime()),
+        or(evictInBackground, fallback.evictInBackground()),
+        or(connectTimeout, fallback.connectTimeout()),
+        or(responseTimeout, fallback.responseTimeout()),
+        or(keepAlive, fallback.keepAlive()),
+        or(http2, fallback.http2()),
+        or(dnsCacheTtl, fallback.dnsCacheTtl()),
+        or(coalesceRequests, fallback.coalesceRequests()),
+        or(hedgeRequests, fallback.hedgeRequests()));
+  }
+
+  private static <T> T or(T value, T fallback) {
+    return value != null ? value : fallback;
+  }
+}
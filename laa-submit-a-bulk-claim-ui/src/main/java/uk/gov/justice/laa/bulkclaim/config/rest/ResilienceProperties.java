@@ -0,0 +1,51 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import java.time.Duration;
+
+/**
+ * Bulkhead and circuit breaker settings for one kind of Claims API call, such as searches. Any
+ * setting left unset falls back to {@link #DEFAULTS}.
+ *
+ * @param maxConcurrentCalls the most calls of this kind which can be in flight at once, after which
+ *     further calls fail straight away
+ * @param failureRateThreshold the percentage of failed calls at which the circuit opens
+ * @param slowCallDurationThreshold how long a call can take before it counts as slow
+ * @param slowCallRateThreshold the percentage of slow calls at which the circuit opens
+ * @param slidingWindowSize the number of recent calls the rates are worked out from
+ * @param minimumNumberOfCalls the fewest calls needed before the rates are checked
+ * @param waitDurationInOpenState how long the circuit stays open before trying calls again
+ */
+public record ResilienceProperties(
+    Integer maxConcurrentCalls,
+    Integer failureRateThreshold,
+    Duration slowCallDurationThreshold,
+    Integer slowCallRateThreshold,
+    Integer slidingWindowSize,
+    Integer minimumNumberOfCalls,
+    Duration waitDurationInOpenState) {
+
+  /** Settings used when nothing has been configured. */
+  public static final ResilienceProperties DEFAULTS =
+      new ResilienceProperties(25, 50, Duration.ofSeconds(10), 80, 20, 10, Duration.ofSeconds(30));
+
+  /**
+   * Returns these settings, using the given settings for anything which has not been set.
+   *
+   * @param fallback the settings to fall back to
+   * @return the combined settings
+   */
+  public ResilienceProperties orElse(ResilienceProperties fallback) {
+    return new ResilienceProperties(
+        or(maxConcurrentCalls, fallback.maxConcurrentCalls()),
+        or(failureRateThreshold, fallback.failureRateThreshold()),
+        or(slowCallDurationThreshold, fallback.slowCallDurationThreshold()),
+        or(slowCallRateThreshold, fallback.slowCallRateThreshold()),
+        or(slidingWindowSize, fallback.slidingWindowSize()),
+        or(minimumNumberOfCalls, fallback.minimumNumberOfCalls()),
+        or(waitDurationInOpenState, fallback.waitDurationInOpenState()));
+  }
+
+  private static <T> T or(T value, T fallback) {
+    return value != null ? value : fallback;
+  }
+}
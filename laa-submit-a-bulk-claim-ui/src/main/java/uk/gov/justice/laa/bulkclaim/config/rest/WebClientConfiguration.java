@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.bulkclaim.config.rest;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,36 +17,71 @@ import uk.gov.justice.laa.bulkclaim.client.ExportDataClaimsRestClient;
 @Configuration
 @EnableConfigurationProperties({ClaimsApiProperties.class})
 @ImportHttpServices(
-    types = {
-      DataClaimsRestClient.class,
-      DataClaimsRestClientV2.class,
-      ExportDataClaimsRestClient.class
-    },
+    group = WebClientConfiguration.DATA_CLAIMS_GROUP,
+    types = DataClaimsRestClient.class,
+    clientType = HttpServiceGroup.ClientType.WEB_CLIENT)
+@ImportHttpServices(
+    group = WebClientConfiguration.DATA_CLAIMS_V2_GROUP,
+    types = DataClaimsRestClientV2.class,
+    clientType = HttpServiceGroup.ClientType.WEB_CLIENT)
+@ImportHttpServices(
+    group = WebClientConfiguration.EXPORT_GROUP,
+    types = ExportDataClaimsRestClient.class,
     clientType = HttpServiceGroup.ClientType.WEB_CLIENT)
 public class WebClientConfiguration {
 
+  public static final String DATA_CLAIMS_GROUP = "data-claims";
+  public static final String DATA_CLAIMS_V2_GROUP = "data-claims-v2";
+  public static final String EXPORT_GROUP = "data-claims-export";
+
   /**
    * Configures a {@code WebClientHttpServiceGroupConfigurer} for managing WebClient instances used
    * to interact with external APIs. This configuration includes setting up exchange strategies,
-   * base URL, and default headers such as authentication tokens.
+   * base URL, default headers such as authentication tokens, and the connector for each HTTP
+   * service group, which sets its connection pool and timeouts. Groups which coalesce requests
+   * also get a filter which lets identical GET requests in flight share a response. Groups which
+   * hedge requests send a second copy of GET requests which are slower than usual. Every request,
+   * including each copy, goes through the bulkhead and circuit breaker for the kind of call being
+   * made.
    *
    * @param properties The configuration properties required to initialize and configure WebClient
    *     instances. It provides the base URL and access token needed for API interactions.
+   * @param connectors Builds the connector for each HTTP service group.
+   * @param meterRegistry Records how many requests share the response of an identical request,
+   *     and how long each endpoint takes to respond.
+   * @param resilience Limits concurrent calls and stops calling the Claims API while it is failing.
    * @return An instance of {@code WebClientHttpServiceGroupConfigurer} configured with WebClient
    *     settings based on the provided properties.
    */
   @Bean
-  public WebClientHttpServiceGroupConfigurer groupConfigurer(final ClaimsApiProperties properties) {
+  public WebClientHttpServiceGroupConfigurer groupConfigurer(
+      final ClaimsApiProperties properties,
+      final ClaimsApiConnectors connectors,
+      final MeterRegistry meterRegistry,
+      final ClaimsApiResilience resilience) {
     return groups ->
         groups.forEachClient(
-            (spec, webClientBuilder) -> {
+            (group, webClientBuilder) -> {
               webClientBuilder.exchangeStrategies(
                   ExchangeStrategies.builder()
                       .codecs(ClientCodecConfigurer::defaultCodecs)
                       .build());
+              webClientBuilder.clientConnector(connectors.connectorFor(group.name()));
               webClientBuilder.baseUrl(properties.getUrl());
               webClientBuilder.defaultHeader(
                   HttpHeaders.AUTHORIZATION, properties.getAccessToken());
+              if (Boolean.TRUE.equals(properties.httpFor(group.name()).coalesceRequests())) {
+                webClientBuilder.filter(
+                    new CoalescingExchangeFilter(group.name(), meterRegistry));
+              }
+              if (Boolean.TRUE.equals(properties.httpFor(group.name()).hedgeRequests())) {
+                webClientBuilder.filter(
+                    new HedgingExchangeFilter(
+                        group.name(), properties.getHedging(), meterRegistry));
+              }
+              // Added after coalescing, so requests sharing a response only take one permit, and
+              // after hedging, so each copy of a hedged request takes its own
+              webClientBuilder.filter(resilience.filterFor(group.name()));
             });
   }
 }
@@ -5,6 +5,7 @@ public final class SessionConstants {
   private SessionConstants() {}
 
   public static final String BULK_SUBMISSION_ID = "bulkSubmissionId";
+  public static final String BULK_SUBMISSION_CLAIM_COUNT = "bulkSubmissionClaimCount";
 
   public static final String SUBMISSION_ID = "submissionId";
   public static final String CLAIM_ID = "claimId";
@@ -1,9 +1,15 @@
 package uk.gov.justice.laa.bulkclaim.controller;
 
+import static java.lang.Boolean.TRUE;
+import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_CLAIM_COUNT;
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_ID;
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.SUBMISSION_ID;
+import static uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks.fork;
 
 import jakarta.servlet.http.HttpSession;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ProblemDetail;
@@ -13,18 +19,30 @@ import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 import tools.jackson.databind.ObjectMapper;
-import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.config.FeatureFlagsConfig;
 import uk.gov.justice.laa.bulkclaim.dto.FileUploadForm;
+import uk.gov.justice.laa.bulkclaim.exception.VirusCheckException;
 import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+import uk.gov.justice.laa.bulkclaim.service.BulkClaimFileCounter;
+import uk.gov.justice.laa.bulkclaim.service.BulkUploadService;
+import uk.gov.justice.laa.bulkclaim.service.ChunkedUploadService;
+import uk.gov.justice.laa.bulkclaim.service.DuplicateUploadService;
+import uk.gov.justice.laa.bulkclaim.service.DuplicateUploadService.RecentUpload;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
+import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileContentValidator;
 import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileValidator;
 import uk.gov.justice.laa.bulkclaim.validation.FileFirusValidator;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.CreateBulkSubmission201Response;
@@ -39,8 +57,13 @@ public class BulkImportController {
   private static final String UPLOAD_FAILED_CODE = "bulkImport.validation.uploadFailed";
 
   private final BulkImportFileValidator bulkImportFileValidator;
+  private final BulkImportFileContentValidator bulkImportFileContentValidator;
   private final FileFirusValidator bulkImportFileVirusValidator;
-  private final DataClaimsRestClient dataClaimsRestClient;
+  private final BulkUploadService bulkUploadService;
+  private final BulkClaimFileCounter bulkClaimFileCounter;
+  private final ChunkedUploadService chunkedUploadService;
+  private final DuplicateUploadService duplicateUploadService;
+  private final SubmissionSearchService submissionSearchService;
   private final OidcAttributeUtils oidcAttributeUtils;
   private final BulkClaimMetricService bulkClaimMetricService;
   private final ObjectMapper objectMapper;
@@ -58,6 +81,11 @@ public class BulkImportController {
     }
 
     model.addAttribute("isNilSubmissionEnabled", featureFlagsConfig.getIsNilSubmissionEnabled());
+    model.addAttribute(
+        "isUploadPreValidationEnabled", featureFlagsConfig.getIsUploadPreValidationEnabled());
+    model.addAttribute(
+        "uploadPreValidationSampleRows", bulkImportFileContentValidator.getSampleRows());
+    model.addAttribute("isChunkedUploadEnabled", chunkedUploadService.isEnabled());
 
     return "pages/upload";
   }
@@ -69,38 +97,110 @@ public class BulkImportController {
       @AuthenticationPrincipal OidcUser oidcUser,
       Model model,
       HttpSession session) {
+    String uploadId = fileUploadForm.getUploadId();
+    if (!StringUtils.hasText(uploadId)) {
+      return submitUpload(fileUploadForm, bindingResult, oidcUser, model, session);
+    }
 
-    bulkImportFileValidator.validate(fileUploadForm, bindingResult);
-    if (bindingResult.hasErrors()) {
-      bulkClaimMetricService.recordFailedFileUploadSize(fileUploadForm.getFile(), bindingResult);
+    // The file was sent in chunks by upload.js, so check and upload it the same way once assembled
+    String userId = oidcUser.getPreferredUsername();
+    try {
+      fileUploadForm.setFile(chunkedUploadService.assemble(uploadId, userId));
+    } catch (ResponseStatusException e) {
+      // Left alone, as it may belong to someone else or still be missing chunks
+      log.warn("Unable to assemble chunked upload {}: {}", uploadId, e.getReason());
+      bindingResult.reject(UPLOAD_FAILED_CODE);
       return showErrorOnUpload(fileUploadForm, bindingResult, model);
     }
+    try {
+      return submitUpload(fileUploadForm, bindingResult, oidcUser, model, session);
+    } finally {
+      chunkedUploadService.delete(uploadId, userId);
+    }
+  }
 
-    bulkImportFileVirusValidator.validate(fileUploadForm, bindingResult);
+  private String submitUpload(
+      FileUploadForm fileUploadForm,
+      BindingResult bindingResult,
+      OidcUser oidcUser,
+      Model model,
+      HttpSession session) {
+    bulkImportFileValidator.validate(fileUploadForm, bindingResult);
+    if (!bindingResult.hasErrors()
+        && TRUE.equals(featureFlagsConfig.getIsUploadPreValidationEnabled())) {
+      // Turns away obviously bad files before they are virus scanned and uploaded
+      bulkImportFileContentValidator.validate(fileUploadForm, bindingResult);
+    }
     if (bindingResult.hasErrors()) {
       bulkClaimMetricService.recordFailedFileUploadSize(fileUploadForm.getFile(), bindingResult);
       return showErrorOnUpload(fileUploadForm, bindingResult, model);
     }
 
+    List<String> userOffices = oidcAttributeUtils.getUserOffices(oidcUser);
+    String fingerprint = null;
+    CompletableFuture<Integer> claimCount = null;
+    if (TRUE.equals(featureFlagsConfig.getIsUploadDeduplicationEnabled())) {
+      // Counted in the same read of the file as the SHA-256 needed to find an earlier upload
+      claimCount =
+          CompletableFuture.completedFuture(bulkClaimFileCounter.countClaims(fileUploadForm));
+      fingerprint = duplicateUploadService.fingerprint(fileUploadForm.contentSha256(), userOffices);
+      Optional<RecentUpload> recentUpload = duplicateUploadService.findRecent(fingerprint);
+      if (recentUpload.isPresent()) {
+        // Uploaded again after a timeout or an unclear error, so show the earlier upload instead
+        log.info(
+            "File already uploaded as bulk submission {}, skipping upload",
+            recentUpload.get().bulkSubmissionId());
+        return showUploadBeingChecked(recentUpload.get(), session);
+      }
+    }
+
+    Errors virusScanErrors =
+        new BeanPropertyBindingResult(fileUploadForm, FILE_UPLOAD_FORM_MODEL_ATTR);
+    Mono<Void> virusScan;
+    if (TRUE.equals(featureFlagsConfig.getIsSpeculativeUploadEnabled())) {
+      // Upload while the scan runs, the Claims API only gets the whole file if the scan passes
+      virusScan = startVirusScan(fileUploadForm, virusScanErrors);
+    } else {
+      bulkImportFileVirusValidator.validate(fileUploadForm, bindingResult);
+      if (bindingResult.hasErrors()) {
+        bulkClaimMetricService.recordFailedFileUploadSize(fileUploadForm.getFile(), bindingResult);
+        return showErrorOnUpload(fileUploadForm, bindingResult, model);
+      }
+      virusScan = Mono.empty();
+    }
+
+    // The claim count is shown as progress while the Claims API checks the file. When it has not
+    // been counted already, it is counted alongside the upload so reading the file a second time
+    // does not add to the time taken
+    if (claimCount == null) {
+      claimCount = fork(() -> bulkClaimFileCounter.countClaims(fileUploadForm)).toFuture();
+    }
     try {
       ResponseEntity<CreateBulkSubmission201Response> responseEntity =
-          dataClaimsRestClient
+          bulkUploadService
               .upload(
-                  fileUploadForm.getFile(),
-                  oidcUser.getPreferredUsername(),
-                  oidcAttributeUtils.getUserOffices(oidcUser))
-              .block();
+                  fileUploadForm.getFile(), oidcUser.getPreferredUsername(), userOffices, virusScan)
+              .as(VirtualThreadTasks::await);
+      // The file can contain submissions for any of the user's offices
+      submissionSearchService.invalidate(userOffices);
 
       CreateBulkSubmission201Response bulkSubmissionResponse = responseEntity.getBody();
 
       log.info(
           "Claims API Upload response bulk submission UUID: {}",
           bulkSubmissionResponse.getBulkSubmissionId());
-      session.setAttribute(SUBMISSION_ID, bulkSubmissionResponse.getSubmissionIds().getFirst());
-      session.setAttribute(BULK_SUBMISSION_ID, bulkSubmissionResponse.getBulkSubmissionId());
+      RecentUpload upload =
+          new RecentUpload(
+              bulkSubmissionResponse.getBulkSubmissionId(),
+              bulkSubmissionResponse.getSubmissionIds().getFirst(),
+              Mono.fromFuture(claimCount).onErrorComplete().as(VirtualThreadTasks::await));
+      duplicateUploadService.record(fingerprint, upload);
       bulkClaimMetricService.recordSuccessfulFileUploadSize(fileUploadForm.getFile());
-      return "redirect:/upload-is-being-checked";
+      return showUploadBeingChecked(upload, session);
     } catch (WebClientResponseException e) {
+      if (virusScanFailed(virusScan, virusScanErrors)) {
+        return showVirusScanErrors(fileUploadForm, bindingResult, virusScanErrors, model);
+      }
       try {
         ProblemDetail problemDetail =
             objectMapper.readValue(e.getResponseBodyAsString(), ProblemDetail.class);
@@ -120,18 +220,64 @@ public class BulkImportController {
       return showErrorOnUpload(fileUploadForm, bindingResult, model);
 
     } catch (Exception e) {
+      if (virusScanFailed(virusScan, virusScanErrors)) {
+        return showVirusScanErrors(fileUploadForm, bindingResult, virusScanErrors, model);
+      }
       log.error("Failed to upload file to Claims API with message: {}", e.getMessage());
       bindingResult.reject(UPLOAD_FAILED_CODE);
       return showErrorOnUpload(fileUploadForm, bindingResult, model);
     }
   }
 
+  private String showUploadBeingChecked(RecentUpload upload, HttpSession session) {
+    session.setAttribute(SUBMISSION_ID, upload.submissionId());
+    session.setAttribute(BULK_SUBMISSION_ID, upload.bulkSubmissionId());
+    session.setAttribute(BULK_SUBMISSION_CLAIM_COUNT, upload.claimCount());
+    return "redirect:/upload-is-being-checked";
+  }
+
+  private Mono<Void> startVirusScan(FileUploadForm fileUploadForm, Errors virusScanErrors) {
+    CompletableFuture<Void> scan =
+        fork(() -> {
+              bulkImportFileVirusValidator.validate(fileUploadForm, virusScanErrors);
+              if (virusScanErrors.hasErrors()) {
+                throw new VirusCheckException("Virus scan did not pass");
+              }
+              return null;
+            })
+            .then()
+            .toFuture();
+    return Mono.fromFuture(scan);
+  }
+
+  private boolean virusScanFailed(Mono<Void> virusScan, Errors virusScanErrors) {
+    // The upload can fail before the scan has finished, so wait for its result
+    virusScan.onErrorComplete().as(VirtualThreadTasks::await);
+    return virusScanErrors.hasErrors();
+  }
+
+  private String showVirusScanErrors(
+      FileUploadForm fileUploadForm,
+      BindingResult bindingResult,
+      Errors virusScanErrors,
+      Model model) {
+    log.info("Upload to Claims API abandoned as the virus scan did not pass");
+    bindingResult.addAllErrors(virusScanErrors);
+    bulkClaimMetricService.recordFailedFileUploadSize(fileUploadForm.getFile(), bindingResult);
+    return showErrorOnUpload(fileUploadForm, bindingResult, model);
+  }
+
   private String showErrorOnUpload(
       FileUploadForm fileUploadForm, BindingResult bindingResult, Model model) {
 
     model.addAttribute(FILE_UPLOAD_FORM_MODEL_ATTR, fileUploadForm);
     model.addAttribute(BindingResult.MODEL_KEY_PREFIX + FILE_UPLOAD_FORM_MODEL_ATTR, bindingResult);
     model.addAttribute("isNilSubmissionEnabled", featureFlagsConfig.getIsNilSubmissionEnabled());
+    model.addAttribute(
+        "isUploadPreValidationEnabled", featureFlagsConfig.getIsUploadPreValidationEnabled());
+    model.addAttribute(
+        "uploadPreValidationSampleRows", bulkImportFileContentValidator.getSampleRows());
+    model.addAttribute("isChunkedUploadEnabled", chunkedUploadService.isEnabled());
     return "pages/upload";
   }
 }
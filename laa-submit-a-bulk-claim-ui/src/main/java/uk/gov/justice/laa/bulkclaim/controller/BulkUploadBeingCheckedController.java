@@ -1,40 +1,43 @@
 package uk.gov.justice.laa.bulkclaim.controller;
 
+import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_CLAIM_COUNT;
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_ID;
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.SUBMISSION_ID;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.SessionAttribute;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
+import uk.gov.justice.laa.bulkclaim.service.BulkSubmissionStatusPoller;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.BulkSubmissionStatus;
-import uk.gov.justice.laa.dstew.payments.claimsdata.model.GetBulkSubmissionStatusById200Response;
 
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class BulkUploadBeingCheckedController {
 
-  private final DataClaimsRestClient dataClaimsRestClient;
+  private final BulkSubmissionStatusPoller bulkSubmissionStatusPoller;
 
   private final List<BulkSubmissionStatus> completedStatuses =
       List.of(BulkSubmissionStatus.VALIDATION_SUCCEEDED, BulkSubmissionStatus.VALIDATION_FAILED);
 
-  private final List<BulkSubmissionStatus> pendingStatuses =
-      List.of(BulkSubmissionStatus.READY_FOR_PARSING, BulkSubmissionStatus.PARSING_COMPLETED);
-
   /**
-   * Shows the import in progress page, and refreshes every 5 seconds. Redirects if the submission
-   * is ready.
+   * Shows the import in progress page. The page listens for status changes on {@link
+   * #uploadStatusEvents}, falling back to refreshing itself when JavaScript is unavailable.
+   * Redirects if the submission is ready.
    */
   @GetMapping("/upload-is-being-checked")
   public String uploadBeingChecked(
@@ -48,16 +51,23 @@ public class BulkUploadBeingCheckedController {
     }
 
     try {
-      GetBulkSubmissionStatusById200Response bulkSubmission =
-          dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId).block();
-      Assert.notNull(bulkSubmission, "Bulk submission summary cannot be null");
+      Optional<BulkSubmissionStatus> status =
+          bulkSubmissionStatusPoller
+              .currentStatus(bulkSubmissionId)
+              .as(VirtualThreadTasks::awaitOptional);
+      if (status.isEmpty()) {
+        log.debug(
+            "No bulk submission found, will retry: %s".formatted(bulkSubmissionId.toString()));
+        model.addAttribute("shouldRefresh", true);
+        return "pages/upload-being-checked";
+      }
 
-      BulkSubmissionStatus bulkSubmissionStatus = bulkSubmission.getStatus();
+      BulkSubmissionStatus bulkSubmissionStatus = status.get();
       if (bulkSubmissionStatus == BulkSubmissionStatus.PARSING_FAILED) {
         throw new SubmitBulkClaimException(
             "Bulk submission parsing failed for: " + bulkSubmissionId);
       }
-      if (pendingStatuses.contains(bulkSubmissionStatus)) {
+      if (BulkSubmissionStatusPoller.isPending(bulkSubmissionStatus)) {
         model.addAttribute("shouldRefresh", true);
         return "pages/upload-being-checked";
       }
@@ -67,13 +77,57 @@ public class BulkUploadBeingCheckedController {
       throw new SubmitBulkClaimException(
           "Unexpected bulk submission status returned for: " + bulkSubmissionId);
     } catch (WebClientResponseException e) {
-      if (e.getStatusCode().isSameCodeAs(HttpStatusCode.valueOf(404))) {
-        log.debug(
-            "No bulk submission found, will retry: %s".formatted(bulkSubmissionId.toString()));
-        model.addAttribute("shouldRefresh", true);
-        return "pages/upload-being-checked";
-      }
       throw new SubmitBulkClaimException("Claims API returned an error", e);
     }
   }
+
+  /**
+   * Streams status changes for the bulk submission in the session. A {@code complete} event is
+   * sent once checking has finished, at which point the page reloads to show the outcome. Until
+   * then, a {@code progress} event is sent each time the Claims API has read more claims from the
+   * file, holding the number read so far and the number of claims counted in the file on upload.
+   */
+  @GetMapping(
+      path = "/upload-is-being-checked/events",
+      produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<String>> uploadStatusEvents(
+      @SessionAttribute(name = BULK_SUBMISSION_ID, required = false) UUID bulkSubmissionId,
+      @SessionAttribute(name = SUBMISSION_ID, required = false) UUID submissionId,
+      @SessionAttribute(name = BULK_SUBMISSION_CLAIM_COUNT, required = false)
+          Integer claimCount) {
+    if (bulkSubmissionId == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No bulk submission in session");
+    }
+
+    // Shared by every watcher of the submission, so subscribing twice does not poll twice
+    Flux<BulkSubmissionStatus> statuses = bulkSubmissionStatusPoller.watch(bulkSubmissionId);
+    Flux<ServerSentEvent<String>> statusEvents =
+        statuses.map(
+            status ->
+                ServerSentEvent.builder(status.name())
+                    .event(BulkSubmissionStatusPoller.isPending(status) ? "pending" : "complete")
+                    .build());
+    if (submissionId == null) {
+      return statusEvents;
+    }
+
+    Flux<BulkSubmissionStatus> finished =
+        statuses.filter(status -> !BulkSubmissionStatusPoller.isPending(status));
+    Flux<ServerSentEvent<String>> progressEvents =
+        bulkSubmissionStatusPoller
+            .watchClaimsChecked(bulkSubmissionId, submissionId)
+            .takeUntilOther(finished)
+            .map(
+                claimsChecked ->
+                    ServerSentEvent.builder(progress(claimsChecked, claimCount))
+                        .event("progress")
+                        .build());
+    return Flux.merge(statusEvents, progressEvents);
+  }
+
+  private static String progress(int claimsChecked, Integer claimCount) {
+    // The count from the Claims API can run ahead of the count made on upload if they disagree
+    int checked = claimCount != null ? Math.min(claimsChecked, claimCount) : claimsChecked;
+    return "{\"checked\":%d,\"total\":%s}".formatted(checked, claimCount);
+  }
 }
@@ -0,0 +1,68 @@
+package uk.gov.justice.laa.bulkclaim.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import uk.gov.justice.laa.bulkclaim.dto.ChunkedUpload;
+import uk.gov.justice.laa.bulkclaim.service.ChunkedUploadService;
+
+/**
+ * Lets {@code upload.js} send a bulk claim file in chunks before submitting the upload form with
+ * the ID of the upload instead of the file. Browsers without the features it needs send the file
+ * with the form as before.
+ */
+@Controller
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+  public static final String CHUNK_CHECKSUM_HEADER = "Upload-Chunk-Sha256";
+
+  private final ChunkedUploadService chunkedUploadService;
+
+  @PostMapping(value = "/upload/chunked", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ChunkedUpload> startUpload(
+      @RequestParam String filename,
+      @RequestParam long size,
+      @RequestParam(required = false) String contentType,
+      @AuthenticationPrincipal OidcUser oidcUser) {
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(
+            chunkedUploadService.start(
+                oidcUser.getPreferredUsername(), filename, contentType, size));
+  }
+
+  @GetMapping(value = "/upload/chunked/{uploadId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ChunkedUpload> getUpload(
+      @PathVariable String uploadId, @AuthenticationPrincipal OidcUser oidcUser) {
+    return ResponseEntity.ok(
+        chunkedUploadService.status(uploadId, oidcUser.getPreferredUsername()));
+  }
+
+  @PutMapping(
+      value = "/upload/chunked/{uploadId}/chunks/{index}",
+      consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ChunkedUpload> uploadChunk(
+      @PathVariable String uploadId,
+      @PathVariable int index,
+      @RequestHeader(CHUNK_CHECKSUM_HEADER) String checksum,
+      @AuthenticationPrincipal OidcUser oidcUser,
+      HttpServletRequest request)
+      throws IOException {
+    return ResponseEntity.ok(
+        chunkedUploadService.storeChunk(
+            uploadId, oidcUser.getPreferredUsername(), index, checksum, request.getInputStream()));
+  }
+}
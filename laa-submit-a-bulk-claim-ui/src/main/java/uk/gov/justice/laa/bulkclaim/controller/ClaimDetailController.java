@@ -26,6 +26,7 @@ import uk.gov.justice.laa.bulkclaim.mapper.ClaimFeeCalculationBreakdownMapper;
 import uk.gov.justice.laa.bulkclaim.mapper.ClaimSummaryMapper;
 import uk.gov.justice.laa.bulkclaim.service.ClaimService;
 import uk.gov.justice.laa.bulkclaim.service.SubmissionService;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.bulkclaim.viewmodels.claimdetails.ClaimDetailPageData;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimResponse;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
@@ -88,11 +89,9 @@ public final class ClaimDetailController {
     model.addAttribute("claimDetailView", pageData.claimDetailView());
     model.addAttribute("banner", pageData.banner());
 
-    model.addAttribute("isAssessedColumnEnabled", featureFlagsConfig.getIsAssessedColumnEnabled());
+    model.addAttribute("claimMessages", pageData.claimMessages());
 
-    final MessagesSummary messagesSummary =
-        submissionMessagesBuilder.buildAllWarnings(submissionId, claimId);
-    model.addAttribute("claimMessages", messagesSummary);
+    model.addAttribute("isAssessedColumnEnabled", featureFlagsConfig.getIsAssessedColumnEnabled());
 
     return "pages/view-claim-detail";
   }
@@ -121,7 +120,7 @@ public final class ClaimDetailController {
     ClaimResponse claimResponse =
         dataClaimsRestClient
             .getSubmissionClaim(submissionId, claimId)
-            .blockOptional()
+            .as(VirtualThreadTasks::awaitOptional)
             .orElseThrow(
                 () ->
                     new SubmitBulkClaimException(
@@ -0,0 +1,32 @@
+package uk.gov.justice.laa.bulkclaim.controller;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Shows a page saying the service is unavailable when a call to the Claims API is turned away
+ * because its circuit breaker is open or too many of the same kind of call are in flight, instead
+ * of leaving the user waiting for a response which is unlikely to come.
+ */
+@Slf4j
+@ControllerAdvice
+public class ClaimsApiUnavailableAdvice {
+
+  /**
+   * Handles Claims API calls which were not made because the Claims API is failing or busy.
+   *
+   * @param ex the exception thrown when the call was turned away
+   * @return the service unavailable page
+   */
+  @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class})
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public String handleClaimsApiUnavailable(RuntimeException ex) {
+    log.warn("Claims API call not made: {}", ex.getMessage());
+    return "pages/service-unavailable";
+  }
+}
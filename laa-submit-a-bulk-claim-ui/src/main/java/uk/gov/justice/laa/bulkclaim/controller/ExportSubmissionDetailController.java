@@ -1,10 +1,17 @@
 package uk.gov.justice.laa.bulkclaim.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,48 +20,91 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
-import reactor.core.publisher.Mono;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import uk.gov.justice.laa.bulkclaim.client.ExportDataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
 import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class ExportSubmissionDetailController {
 
+  /**
+   * Maximum number of buffers requested from the Claims API ahead of the user's download. Once
+   * this many are waiting to be written, reading from the Claims API pauses until the user catches
+   * up, so memory used per download does not grow with the size of the export.
+   */
+  static final int EXPORT_BUFFER_PREFETCH = 16;
+
   private final ExportDataClaimsRestClient exportDataClaimsRestClient;
   private final OidcAttributeUtils oidcAttributeUtils;
+  private final BulkClaimMetricService bulkClaimMetricService;
 
   @GetMapping({"/submission/{submissionId}/export", "/submissions/{submissionId}/export"})
-  public Mono<ResponseEntity<Resource>> exportSubmissionDetail(
+  public ResponseEntity<StreamingResponseBody> exportSubmissionDetail(
       @PathVariable UUID submissionId,
       @RequestParam String office,
       @RequestParam String areaOfLaw,
       @AuthenticationPrincipal OidcUser oidcUser) {
-    var offices = oidcAttributeUtils.getUserOffices(oidcUser);
-    if (!offices.contains(office)) {
+    if (!oidcAttributeUtils.hasOfficeAccess(oidcUser, office)) {
       throw new SubmitBulkClaimException(
           "User (%s) does not have access to office: %s"
               .formatted(oidcUser.getPreferredUsername(), office));
     }
 
     String areaOfLawPathVariable = areaOfLaw.toLowerCase().replace(" ", "-");
+    long requestedAt = System.nanoTime();
+
+    // Only waits for the response headers, the body is read as it is written to the user
+    ResponseEntity<Flux<DataBuffer>> file =
+        exportDataClaimsRestClient
+            .getSubmissionExport(areaOfLawPathVariable, submissionId, office)
+            .as(VirtualThreadTasks::awaitOptional)
+            .orElseThrow(
+                () ->
+                    new SubmitBulkClaimException(
+                        "No export returned for submission: %s".formatted(submissionId)));
+
+    // Only add headers we need (Spring automatically adds some headers so don't want
+    // to duplicate this)
+    HttpHeaders safeHeaders = new HttpHeaders();
+    safeHeaders.setContentType(file.getHeaders().getContentType());
+    safeHeaders.setContentDisposition(file.getHeaders().getContentDisposition());
 
-    Mono<ResponseEntity<byte[]>> submissionExport =
-        exportDataClaimsRestClient.getSubmissionExport(areaOfLawPathVariable, submissionId, office);
-
-    return submissionExport.map(
-        file -> {
-          // Only add headers we need (Spring automatically adds some headers so don't want
-          // to duplicate this)
-          HttpHeaders safeHeaders = new HttpHeaders();
-          safeHeaders.setContentType(file.getHeaders().getContentType());
-          safeHeaders.setContentDisposition(file.getHeaders().getContentDisposition());
-
-          return ResponseEntity.ok()
-              .headers(safeHeaders)
-              .body(new ByteArrayResource(file.getBody()));
-        });
+    Flux<DataBuffer> body = Objects.requireNonNullElseGet(file.getBody(), Flux::empty);
+    return ResponseEntity.ok()
+        .headers(safeHeaders)
+        .body(outputStream -> stream(body, outputStream, areaOfLawPathVariable, requestedAt));
+  }
+
+  private void stream(
+      Flux<DataBuffer> body, OutputStream outputStream, String areaOfLaw, long requestedAt)
+      throws IOException {
+    long bytesStreamed = 0;
+    // Closing the stream cancels the Claims API response and releases any buffers still queued,
+    // for example when the user abandons the download part way through.
+    try (Stream<DataBuffer> buffers =
+        body.doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+            .toStream(EXPORT_BUFFER_PREFETCH)) {
+      Iterator<DataBuffer> iterator = buffers.iterator();
+      while (iterator.hasNext()) {
+        DataBuffer buffer = iterator.next();
+        if (bytesStreamed == 0) {
+          bulkClaimMetricService.recordExportTimeToFirstByte(
+              areaOfLaw, Duration.ofNanos(System.nanoTime() - requestedAt));
+        }
+        bytesStreamed += buffer.readableByteCount();
+        try (InputStream inputStream = buffer.asInputStream(true)) {
+          inputStream.transferTo(outputStream);
+        }
+      }
+      outputStream.flush();
+    } finally {
+      bulkClaimMetricService.recordExportSize(areaOfLaw, bytesStreamed);
+    }
   }
 }
@@ -2,9 +2,12 @@ package uk.gov.justice.laa.bulkclaim.controller;
 
 import static uk.gov.justice.laa.bulkclaim.dto.SubmissionOutcomeFilter.SUCCEEDED;
 
-import jakarta.servlet.http.HttpSession;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,10 +24,10 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.client.HttpClientErrorException;
-import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.dto.SubmissionSearchResultRow;
 import uk.gov.justice.laa.bulkclaim.dto.submission.search.SubmissionSearchQuery;
 import uk.gov.justice.laa.bulkclaim.dto.submission.search.SubmissionSearchSortField;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
 import uk.gov.justice.laa.bulkclaim.util.PaginationLinksBuilder;
 import uk.gov.justice.laa.bulkclaim.util.PaginationUtil;
@@ -40,7 +43,7 @@ import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionsResultSet;
 @Controller
 public class SearchController {
 
-  private final DataClaimsRestClient claimsRestService;
+  private final SubmissionSearchService submissionSearchService;
   private final SubmissionSearchValidator submissionSearchValidator;
   private final PaginationUtil paginationUtil;
   private final OidcAttributeUtils oidcAttributeUtils;
@@ -61,12 +64,14 @@ public class SearchController {
     if (!model.containsAttribute(SUBMISSION_SEARCH_QUERY)) {
       // Only submissionStatuses has to be set to "All" as default to select the default radio
       // option on the frontend.
-      model.addAttribute(
-          SUBMISSION_SEARCH_QUERY,
+      SubmissionSearchQuery defaultQuery =
           SubmissionSearchQuery.builder()
               .offices(userOffices)
               .submissionStatuses(SUCCEEDED)
-              .build());
+              .build();
+      model.addAttribute(SUBMISSION_SEARCH_QUERY, defaultQuery);
+      // Most users search with the defaults, so have those results ready before they submit
+      submissionSearchService.prewarm(userOffices, () -> search(defaultQuery, userOffices));
     }
     model.addAttribute("userOffices", userOffices);
     sessionStatus.setComplete();
@@ -103,8 +108,7 @@ public class SearchController {
           SubmissionSearchQuery submissionSearchQuery,
       Model model,
       @AuthenticationPrincipal OidcUser oidcUser,
-      SessionStatus sessionStatus,
-      HttpSession session) {
+      SessionStatus sessionStatus) {
 
     sessionStatus.setComplete();
 
@@ -121,22 +125,7 @@ public class SearchController {
             || submissionSearchQuery.getOffices().size() != userOffices.size());
 
     try {
-      // Remove any offices which don't appear in request param (user has selected these offices)
-      // By doing it this way, if someone were to manipulate an office as a request param, the
-      // manipulated value would not be used in the search against the API.
-      List<String> officesToSearchFor =
-          userOffices.stream().filter(submissionSearchQuery.getOffices()::contains).toList();
-      SubmissionsResultSet submissionsResults =
-          claimsRestService
-              .search(
-                  officesToSearchFor,
-                  trimToNull(submissionSearchQuery.getSubmissionPeriod()),
-                  submissionSearchQuery.getAreaOfLaw(),
-                  getSubmissionStatus(submissionSearchQuery),
-                  submissionSearchQuery.getPage(),
-                  submissionSearchQuery.getSize(),
-                  Objects.toString(submissionSearchQuery.getSort(), null))
-              .block();
+      SubmissionsResultSet submissionsResults = search(submissionSearchQuery, userOffices);
 
       Page pagination =
           paginationUtil.fromSubmissionsResultSet(
@@ -160,18 +149,38 @@ public class SearchController {
               submissionSearchQuery.getSubmissionStatuses(),
               "sort",
               submissionSearchQuery.getSort().toString()));
-      session.setAttribute("submissions", submissionsResults);
 
       return "pages/submissions-search-results";
     } catch (HttpClientErrorException e) {
       log.error("HTTP client error fetching submissions: {} ", e.getMessage());
       return "error";
+    } catch (CallNotPermittedException | BulkheadFullException e) {
+      // Shown as the service unavailable page by ClaimsApiUnavailableAdvice
+      throw e;
     } catch (Exception e) {
       log.error("Error connecting to Claims API with message: {} ", e.getMessage());
       return "error";
     }
   }
 
+  private SubmissionsResultSet search(
+      SubmissionSearchQuery submissionSearchQuery, List<String> userOffices) {
+    // Remove any offices which don't appear in request param (user has selected these offices)
+    // By doing it this way, if someone were to manipulate an office as a request param, the
+    // manipulated value would not be used in the search against the API.
+    Set<String> selectedOffices = new HashSet<>(submissionSearchQuery.getOffices());
+    List<String> officesToSearchFor =
+        userOffices.stream().filter(selectedOffices::contains).toList();
+    return submissionSearchService.search(
+        officesToSearchFor,
+        trimToNull(submissionSearchQuery.getSubmissionPeriod()),
+        submissionSearchQuery.getAreaOfLaw(),
+        getSubmissionStatus(submissionSearchQuery),
+        submissionSearchQuery.getPage(),
+        submissionSearchQuery.getSize(),
+        Objects.toString(submissionSearchQuery.getSort(), null));
+  }
+
   private static List<SubmissionStatus> getSubmissionStatus(
       SubmissionSearchQuery submissionSearchQuery) {
     return Objects.isNull(submissionSearchQuery.getSubmissionStatuses())
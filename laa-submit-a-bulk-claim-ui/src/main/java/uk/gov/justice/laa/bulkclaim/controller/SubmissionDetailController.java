@@ -2,12 +2,14 @@ package uk.gov.justice.laa.bulkclaim.controller;
 
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_ID;
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.SUBMISSION_ID;
+import static uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks.fork;
 
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,6 +18,9 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuple3;
 import uk.gov.justice.laa.bulkclaim.builder.SubmissionClaimDetailsBuilder;
 import uk.gov.justice.laa.bulkclaim.builder.SubmissionMatterStartsDetailsBuilder;
 import uk.gov.justice.laa.bulkclaim.builder.SubmissionMessagesBuilder;
@@ -30,8 +35,10 @@ import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessageSortField;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSummary;
 import uk.gov.justice.laa.bulkclaim.dto.submission.view.SubmissionViewQuery;
 import uk.gov.justice.laa.bulkclaim.dto.submission.view.SubmissionViewSortField;
+import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
 import uk.gov.justice.laa.bulkclaim.service.SubmissionService;
 import uk.gov.justice.laa.bulkclaim.util.PaginationLinksBuilder;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.AreaOfLaw;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.Page;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
@@ -104,12 +111,36 @@ public class SubmissionDetailController {
       SubmissionViewQuery submissionViewQuery,
       MessageQuery messageQuery) {
 
-    SubmissionClaimsDetails claimDetails =
-        submissionClaimDetailsBuilder.build(
-            submissionResponse,
-            submissionViewQuery.getPage(),
-            submissionViewQuery.getSize(),
-            submissionViewQuery.getSort().toString());
+    // Claims, warnings and matter starts only depend on the submission, so fetch them together
+    Tuple3<SubmissionClaimsDetails, MessagesSummary, List<SubmissionMatterStartsRow>> pageData =
+        Mono.zip(
+                fetch(
+                    "claim details",
+                    submissionResponse,
+                    () ->
+                        submissionClaimDetailsBuilder.build(
+                            submissionResponse,
+                            submissionViewQuery.getPage(),
+                            submissionViewQuery.getSize(),
+                            submissionViewQuery.getSort().toString())),
+                fetch(
+                    "warnings",
+                    submissionResponse,
+                    () ->
+                        submissionMessagesBuilder.build(
+                            submissionResponse,
+                            null,
+                            ValidationMessageType.WARNING,
+                            messageQuery.getPage(),
+                            messageQuery.getSize(),
+                            messageQuery.getSort().toString())),
+                fetch(
+                    "matter starts",
+                    submissionResponse,
+                    () -> submissionMatterStartsDetailsBuilder.build(submissionResponse)))
+            .as(VirtualThreadTasks::await);
+
+    SubmissionClaimsDetails claimDetails = pageData.getT1();
     model.addAttribute("claimDetails", claimDetails);
     model.addAttribute(
         "claimDetailsPaginationLinks",
@@ -134,14 +165,7 @@ public class SubmissionDetailController {
               submissionSummary.submitted());
     }
 
-    MessagesSummary messagesSummary =
-        submissionMessagesBuilder.build(
-            messageQuery.getSubmissionId(),
-            null,
-            ValidationMessageType.WARNING,
-            messageQuery.getPage(),
-            messageQuery.getSize(),
-            messageQuery.getSort().toString());
+    MessagesSummary messagesSummary = pageData.getT2();
     model.addAttribute("messagesSummary", messagesSummary);
     model.addAttribute(
         "messagesPaginationLinks",
@@ -154,8 +178,7 @@ public class SubmissionDetailController {
             "messagesSort",
             messageQuery.getSort().toString()));
 
-    List<SubmissionMatterStartsRow> matterStartsDetails =
-        submissionMatterStartsDetailsBuilder.build(submissionResponse);
+    List<SubmissionMatterStartsRow> matterStartsDetails = pageData.getT3();
     model.addAttribute("matterStartsDetails", matterStartsDetails);
 
     boolean isCrimeLower =
@@ -175,12 +198,25 @@ public class SubmissionDetailController {
   private void handleInvalidSubmission(
       Model model, SubmissionResponse submissionResponse, MessageQuery messageQuery) {
 
-    MessagesSummary messagesSummary =
-        submissionMessagesBuilder.buildErrors(
-            messageQuery.getSubmissionId(),
-            messageQuery.getPage(),
-            messageQuery.getSize(),
-            messageQuery.getSort().toString());
+    // Errors and matter starts only depend on the submission, so fetch them together
+    Tuple2<MessagesSummary, List<SubmissionMatterStartsRow>> pageData =
+        Mono.zip(
+                fetch(
+                    "errors",
+                    submissionResponse,
+                    () ->
+                        submissionMessagesBuilder.buildErrors(
+                            submissionResponse,
+                            messageQuery.getPage(),
+                            messageQuery.getSize(),
+                            messageQuery.getSort().toString())),
+                fetch(
+                    "matter starts",
+                    submissionResponse,
+                    () -> submissionMatterStartsDetailsBuilder.build(submissionResponse)))
+            .as(VirtualThreadTasks::await);
+
+    MessagesSummary messagesSummary = pageData.getT1();
     model.addAttribute("messagesSummary", messagesSummary);
     model.addAttribute(
         "messagesPaginationLinks",
@@ -191,13 +227,27 @@ public class SubmissionDetailController {
             "messagesSort",
             messageQuery.getSort().toString()));
 
-    List<SubmissionMatterStartsRow> matterStartsDetails =
-        submissionMatterStartsDetailsBuilder.build(submissionResponse);
+    List<SubmissionMatterStartsRow> matterStartsDetails = pageData.getT2();
     model.addAttribute("matterStartsDetails", matterStartsDetails);
 
     addCounts(model, messagesSummary, matterStartsDetails);
   }
 
+  /**
+   * Builds part of the page on its own virtual thread. A builder returning nothing would otherwise
+   * leave the zipped results empty, so this fails with a message saying which part was missing.
+   */
+  private static <T> Mono<T> fetch(
+      String description, SubmissionResponse submissionResponse, Callable<T> builder) {
+    return fork(builder)
+        .switchIfEmpty(
+            Mono.error(
+                () ->
+                    new SubmitBulkClaimException(
+                        "No %s were built for submission %s"
+                            .formatted(description, submissionResponse.getSubmissionId()))));
+  }
+
   private void addCommonSubmissionAttributes(
       Model model,
       SubmissionSummary submissionSummary,
@@ -77,7 +77,7 @@ public class NilSubmissionOfficeController {
 
     if (!StringUtils.hasText(form.getOffice())) {
       bindingResult.rejectValue("office", "nilSubmission.office.required");
-    } else if (!userOffices.contains(form.getOffice())) {
+    } else if (!oidcAttributeUtils.hasOfficeAccess(oidcUser, form.getOffice())) {
       bindingResult.rejectValue("office", "nilSubmission.office.invalid");
     }
 
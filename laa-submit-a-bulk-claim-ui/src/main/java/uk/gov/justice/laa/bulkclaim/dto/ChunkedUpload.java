@@ -0,0 +1,15 @@
+package uk.gov.justice.laa.bulkclaim.dto;
+
+import java.util.List;
+
+/**
+ * The state of a file being uploaded in chunks, returned to the browser so it knows which chunks
+ * still need to be sent.
+ *
+ * @param uploadId identifies the upload
+ * @param chunkSize the size of every chunk except the last
+ * @param totalChunks the number of chunks the file is split into
+ * @param receivedChunks the indexes of the chunks which have been received and checked
+ */
+public record ChunkedUpload(
+    String uploadId, int chunkSize, int totalChunks, List<Integer> receivedChunks) {}
@@ -1,14 +1,106 @@
 package uk.gov.justice.laa.bulkclaim.dto;
 
-import lombok.AllArgsConstructor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.web.multipart.MultipartFile;
+import uk.gov.justice.laa.bulkclaim.util.Sha256Util;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class FileUploadForm {
 
   private MultipartFile file;
+
+  /** Set instead of the file when the browser has already sent the file in chunks. */
+  private String uploadId;
+
+  /**
+   * The SHA-256 of the file, worked out once and shared by duplicate upload checks and the virus
+   * scan cache. It has no setter so it can never be bound from the request, as a checksum sent by
+   * the browser could be used to skip the virus scan.
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private String contentSha256;
+
+  public FileUploadForm(MultipartFile file) {
+    this.file = file;
+  }
+
+  public void setFile(MultipartFile file) {
+    this.file = file;
+    this.contentSha256 = null;
+  }
+
+  /**
+   * Returns the SHA-256 of the file, reading it as a stream the first time this is called so the
+   * whole file is not held in memory.
+   *
+   * @return the hex encoded checksum, or null if there is no file or it could not be read
+   */
+  public String contentSha256() {
+    if (contentSha256 == null && file != null) {
+      try {
+        contentSha256 = Sha256Util.hex(file.getInputStream());
+      } catch (IOException e) {
+        return null;
+      }
+    }
+    return contentSha256;
+  }
+
+  /**
+   * Reads the file, working out its SHA-256 from the same read if that has not been done already,
+   * so a caller which reads the whole file anyway saves {@link #contentSha256()} reading it again.
+   * Whatever the reader leaves unread is read to the end for the checksum.
+   *
+   * @param reader reads the content of the file, without closing it
+   * @param <T> the type of result the reader returns
+   * @return the result of the reader
+   * @throws IOException if the file cannot be read
+   */
+  public <T> T read(ContentReader<T> reader) throws IOException {
+    if (contentSha256 != null) {
+      try (InputStream content = file.getInputStream()) {
+        return reader.read(content);
+      }
+    }
+    MessageDigest digest = Sha256Util.newDigest();
+    try (InputStream content = new DigestInputStream(file.getInputStream(), digest)) {
+      T result = reader.read(content);
+      content.transferTo(OutputStream.nullOutputStream());
+      contentSha256 = Sha256Util.hex(digest);
+      return result;
+    }
+  }
+
+  /**
+   * Reads the content of an uploaded file.
+   *
+   * @param <T> the type of result
+   */
+  @FunctionalInterface
+  public interface ContentReader<T> {
+
+    /**
+     * Reads the content of the file.
+     *
+     * @param content the content of the file
+     * @return the result of reading it
+     * @throws IOException if the content cannot be read
+     */
+    T read(InputStream content) throws IOException;
+  }
 }
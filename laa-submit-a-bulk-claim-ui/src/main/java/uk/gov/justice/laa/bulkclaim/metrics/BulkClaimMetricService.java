@@ -1,22 +1,46 @@
 package uk.gov.justice.laa.bulkclaim.metrics;
 
+import io.prometheus.metrics.core.metrics.Counter;
+import io.prometheus.metrics.core.metrics.Gauge;
 import io.prometheus.metrics.core.metrics.Histogram;
 import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.AreaOfLaw;
 
 @Slf4j
 @Getter
 @Component
 public class BulkClaimMetricService {
 
+  // Areas of law come from a request parameter, so anything else is recorded as "other" to keep
+  // the number of label values bounded
+  private static final Set<String> AREA_OF_LAW_LABELS =
+      Arrays.stream(AreaOfLaw.values())
+          .map(areaOfLaw -> areaOfLawLabel(areaOfLaw.getValue()))
+          .collect(Collectors.toUnmodifiableSet());
+  private static final String OTHER_AREA_OF_LAW = "other";
+
   private final Histogram fileUploadSizeHistogram;
+  private final Histogram exportSizeHistogram;
+  private final Histogram exportTimeToFirstByteHistogram;
+  private final Gauge uploadBytesInFlightGauge;
+  private final Counter uploadBytesForwardedCounter;
+  private final Histogram virusScanDurationHistogram;
+  private final Counter virusScanCacheCounter;
+  private final Counter virusScanBytesAvoidedCounter;
+  private final Histogram sessionValueSizeHistogram;
 
   public BulkClaimMetricService(PrometheusRegistry prometheusRegistry) {
     this.fileUploadSizeHistogram =
@@ -25,6 +49,51 @@ public class BulkClaimMetricService {
             .help("Size of uploaded bulk claim file in bytes which was submitted by the user")
             .labelNames("has_errors", "failed_reason")
             .register(prometheusRegistry);
+    this.exportSizeHistogram =
+        Histogram.builder()
+            .name("submit_a_bulk_claim_export_size_bytes")
+            .help("Number of bytes streamed to the user when downloading a submission export")
+            .labelNames("area_of_law")
+            .register(prometheusRegistry);
+    this.exportTimeToFirstByteHistogram =
+        Histogram.builder()
+            .name("submit_a_bulk_claim_export_time_to_first_byte_seconds")
+            .help("Time between requesting a submission export and receiving its first byte")
+            .labelNames("area_of_law")
+            .register(prometheusRegistry);
+    this.uploadBytesInFlightGauge =
+        Gauge.builder()
+            .name("submit_a_bulk_claim_upload_bytes_in_flight")
+            .help("Bytes read from uploaded files which are still being sent to the Claims API")
+            .register(prometheusRegistry);
+    this.uploadBytesForwardedCounter =
+        Counter.builder()
+            .name("submit_a_bulk_claim_upload_bytes_forwarded")
+            .help("Total bytes of uploaded files streamed to the Claims API")
+            .register(prometheusRegistry);
+    this.virusScanDurationHistogram =
+        Histogram.builder()
+            .name("submit_a_bulk_claim_virus_scan_duration_seconds")
+            .help("Time taken by SDS to scan an uploaded file for viruses")
+            .labelNames("clean")
+            .register(prometheusRegistry);
+    this.virusScanCacheCounter =
+        Counter.builder()
+            .name("submit_a_bulk_claim_virus_scan_cache_lookups")
+            .help("Lookups of earlier clean virus scan results, by whether one was found")
+            .labelNames("result")
+            .register(prometheusRegistry);
+    this.virusScanBytesAvoidedCounter =
+        Counter.builder()
+            .name("submit_a_bulk_claim_virus_scan_bytes_avoided")
+            .help("Total bytes of uploaded files not sent to SDS as they were already scanned")
+            .register(prometheusRegistry);
+    this.sessionValueSizeHistogram =
+        Histogram.builder()
+            .name("submit_a_bulk_claim_session_value_size_bytes")
+            .help("Size of each session value written to Redis, before and after compression")
+            .labelNames("stage")
+            .register(prometheusRegistry);
   }
 
   public void recordSuccessfulFileUploadSize(MultipartFile file) {
@@ -48,4 +117,50 @@ public class BulkClaimMetricService {
     long size = Long.parseLong(message.replaceAll(".*size \\((\\d+)\\).*", "$1"));
     recordFailedFileUploadSize(size, "File size exceeds maximum allowed");
   }
+
+  public void recordExportSize(String areaOfLaw, long bytes) {
+    exportSizeHistogram.labelValues(knownAreaOfLaw(areaOfLaw)).observe(bytes);
+  }
+
+  public void recordExportTimeToFirstByte(String areaOfLaw, Duration duration) {
+    exportTimeToFirstByteHistogram
+        .labelValues(knownAreaOfLaw(areaOfLaw))
+        .observe(duration.toNanos() / 1e9);
+  }
+
+  public void recordUploadBytesRead(long bytes) {
+    uploadBytesInFlightGauge.inc(bytes);
+    uploadBytesForwardedCounter.inc(bytes);
+  }
+
+  public void recordUploadBytesCompleted(long bytes) {
+    uploadBytesInFlightGauge.dec(bytes);
+  }
+
+  public void recordVirusScan(Duration duration, boolean clean) {
+    virusScanDurationHistogram.labelValues(String.valueOf(clean)).observe(duration.toNanos() / 1e9);
+  }
+
+  public void recordVirusScanCacheHit(long bytes) {
+    virusScanCacheCounter.labelValues("hit").inc();
+    virusScanBytesAvoidedCounter.inc(bytes);
+  }
+
+  public void recordVirusScanCacheMiss() {
+    virusScanCacheCounter.labelValues("miss").inc();
+  }
+
+  public void recordSessionValueSize(long serializedBytes, long writtenBytes) {
+    sessionValueSizeHistogram.labelValues("serialized").observe(serializedBytes);
+    sessionValueSizeHistogram.labelValues("written").observe(writtenBytes);
+  }
+
+  private static String knownAreaOfLaw(String areaOfLaw) {
+    String label = areaOfLaw != null ? areaOfLawLabel(areaOfLaw) : null;
+    return AREA_OF_LAW_LABELS.contains(label) ? label : OTHER_AREA_OF_LAW;
+  }
+
+  private static String areaOfLawLabel(String areaOfLaw) {
+    return areaOfLaw.toLowerCase(Locale.ROOT).replace(' ', '-').replace('_', '-');
+  }
 }
@@ -2,12 +2,11 @@ package uk.gov.justice.laa.bulkclaim.provider;
 
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.oauth2.client.ClientAuthorizationException;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Component;
 import uk.gov.justice.laa.bulkclaim.exception.TokenProviderException;
@@ -17,17 +16,21 @@ import uk.gov.justice.laa.bulkclaim.exception.TokenProviderException;
 @RequiredArgsConstructor
 public class TokenProvider {
 
-  static final String CACHE_NAME = "tokenCache";
-  static final String CACHE_KEY = "'sdsAccessToken'";
   static final String CLIENT_REGISTRATION_ID = "moj-identity";
   static final String PRINCIPAL_NAME = "moj-identity-client";
 
   private final OAuth2AuthorizedClientManager authorizedClientManager;
-
-  /** Get SDS API access token. */
-  @Cacheable(value = CACHE_NAME, key = CACHE_KEY)
+  private final OAuth2AuthorizedClientService authorizedClientService;
+
+  /**
+   * Get a new SDS API access token. This is kept in memory and refreshed by the token service, so
+   * the token held by the authorized client service is dropped first. Otherwise the client
+   * credentials provider would hand it back until it is within a minute of expiry, whenever the
+   * token service asked for a new one.
+   */
   public OAuth2AccessToken getTokenFromProvider() {
     try {
+      authorizedClientService.removeAuthorizedClient(CLIENT_REGISTRATION_ID, PRINCIPAL_NAME);
       OAuth2AuthorizedClient authorizedClient =
           authorizedClientManager.authorize(buildAuthorizeRequest());
 
@@ -41,9 +44,6 @@ public class TokenProvider {
     }
   }
 
-  @CacheEvict(value = CACHE_NAME, key = CACHE_KEY)
-  public void evictToken() {}
-
   private OAuth2AuthorizeRequest buildAuthorizeRequest() {
     return OAuth2AuthorizeRequest.withClientRegistrationId(CLIENT_REGISTRATION_ID)
         .principal(PRINCIPAL_NAME)
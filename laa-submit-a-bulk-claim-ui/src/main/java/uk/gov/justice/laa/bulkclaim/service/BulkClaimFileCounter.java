@@ -0,0 +1,103 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import uk.gov.justice.laa.bulkclaim.dto.FileUploadForm;
+
+/**
+ * Counts the claims in a bulk claim file, so the upload being checked page can show how far the
+ * Claims API has got through them. Each {@code OUTCOME} line of a CSV or TXT file, or {@code
+ * outcome} element of an XML file, is one claim.
+ *
+ * <p>The file is read as a stream, so only a small part of it is held in memory at once. The
+ * SHA-256 of the file is worked out in the same read, if it is not already known, so duplicate
+ * upload checks and the virus scan cache do not need to read the file again. The file is still read
+ * separately from the upload to the Claims API, so callers which do not need the SHA-256 first
+ * should count while the upload is running rather than after it.
+ */
+@Slf4j
+@Component
+public class BulkClaimFileCounter {
+
+  private static final String OUTCOME_RECORD = "OUTCOME";
+  private static final String OUTCOME_ELEMENT = "outcome";
+
+  private final XMLInputFactory xmlInputFactory;
+
+  public BulkClaimFileCounter() {
+    this.xmlInputFactory = XMLInputFactory.newFactory();
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  /**
+   * Counts the claims in a bulk claim file.
+   *
+   * @param uploadForm the form holding the bulk claim file
+   * @return the number of claims in the file, or null if the file could not be read
+   */
+  public Integer countClaims(FileUploadForm uploadForm) {
+    MultipartFile file = uploadForm.getFile();
+    boolean xml = Objects.toString(file.getOriginalFilename(), "").toLowerCase().endsWith(".xml");
+    try {
+      return uploadForm.read(content -> xml ? countXml(file, content) : countDelimited(content));
+    } catch (IOException e) {
+      notCounted(file, e);
+      return null;
+    }
+  }
+
+  private static int countDelimited(InputStream content) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+    int claims = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String recordType = StringUtils.substringBefore(line, ',').trim();
+      if (OUTCOME_RECORD.equalsIgnoreCase(recordType)) {
+        claims++;
+      }
+    }
+    return claims;
+  }
+
+  private Integer countXml(MultipartFile file, InputStream content) {
+    // Returns rather than throws when the XML is not well formed, so the rest of the file is still
+    // read for its SHA-256
+    try {
+      XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(content);
+      try {
+        int claims = 0;
+        while (reader.hasNext()) {
+          if (reader.next() == XMLStreamConstants.START_ELEMENT
+              && OUTCOME_ELEMENT.equals(reader.getLocalName())) {
+            claims++;
+          }
+        }
+        return claims;
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      notCounted(file, e);
+      return null;
+    }
+  }
+
+  private static void notCounted(MultipartFile file, Exception e) {
+    // Only used to show progress, which is left out if the count is not known
+    log.debug("Unable to count claims in {}: {}", file.getOriginalFilename(), e.getMessage());
+  }
+}
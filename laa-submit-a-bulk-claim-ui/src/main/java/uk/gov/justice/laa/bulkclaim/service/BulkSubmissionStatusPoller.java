@@ -0,0 +1,422 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static java.lang.Boolean.TRUE;
+import static uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks.fork;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.BulkSubmissionStatus;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimResultSet;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.GetBulkSubmissionStatusById200Response;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
+
+/**
+ * Polls the Claims API for the status of bulk submissions which are still being checked.
+ *
+ * <p>Each bulk submission is polled at most once per interval across every session and pod. The
+ * last status is kept in Redis until the next poll is due, and a Redis lock makes sure only one
+ * caller polls when it is. The lock outlives the Claims API response timeout, so a slow poll keeps
+ * it, and is only released by the caller which took it. The interval doubles on each poll while
+ * the Claims API is still parsing the file, up to a maximum, as parsing can take minutes when many
+ * files are uploaded at once.
+ *
+ * <p>Within a pod, everyone watching the same bulk submission shares a single stream of status
+ * changes, which stops once the last watcher goes away or the submission reaches a final status.
+ *
+ * <p>While a submission is being checked, the number of claims the Claims API has read from the
+ * file can be watched in the same way, so the page can show how far it has got. The count is also
+ * kept in Redis, shared by every watcher within a pod, and refreshed on the same backed off
+ * schedule as the status across every session and pod. It is not refreshed once the last status
+ * polled shows checking has finished.
+ */
+@Slf4j
+@Service
+public class BulkSubmissionStatusPoller {
+
+  private static final String KEY_PREFIX = "submit-a-bulk-claim:bulk-submission-status:";
+  private static final String NOT_FOUND = "NOT_FOUND";
+  private static final Duration STATE_TTL = Duration.ofHours(1);
+  private static final Duration FINAL_STATUS_TTL = Duration.ofMinutes(10);
+
+  // Deletes the lock only if it still holds the caller's token, so a caller whose lock expired
+  // does not release a lock another caller has since taken
+  private static final RedisScript<Long> RELEASE_LOCK =
+      RedisScript.of(
+          """
+          if redis.call('get', KEYS[1]) == ARGV[1] then
+            return redis.call('del', KEYS[1])
+          end
+          return 0
+          """,
+          Long.class);
+
+  private static final Set<BulkSubmissionStatus> PENDING_STATUSES =
+      Set.of(BulkSubmissionStatus.READY_FOR_PARSING, BulkSubmissionStatus.PARSING_COMPLETED);
+  private static final Set<BulkSubmissionStatus> FAILED_STATUSES =
+      Set.of(
+          BulkSubmissionStatus.PARSING_FAILED,
+          BulkSubmissionStatus.VALIDATION_FAILED,
+          BulkSubmissionStatus.UNAUTHORISED);
+
+  private final DataClaimsRestClient dataClaimsRestClient;
+  private final StringRedisTemplate redisTemplate;
+  private final Duration pollInterval;
+  private final Duration maxPollInterval;
+  private final Duration lockTtl;
+  private final Counter claimsApiPolls;
+  private final Counter coalescedPolls;
+
+  private final Map<UUID, Flux<BulkSubmissionStatus>> watchers = new ConcurrentHashMap<>();
+  private final Map<UUID, Flux<Integer>> claimsCheckedWatchers = new ConcurrentHashMap<>();
+  private final Map<UUID, InFlight> inFlight = new ConcurrentHashMap<>();
+
+  public BulkSubmissionStatusPoller(
+      DataClaimsRestClient dataClaimsRestClient,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.bulk-submission-status.poll-interval:5s}") Duration pollInterval,
+      @Value("${app.bulk-submission-status.max-poll-interval:1m}") Duration maxPollInterval,
+      @Value("${app.bulk-submission-status.lock-ttl:45s}") Duration lockTtl) {
+    this.dataClaimsRestClient = dataClaimsRestClient;
+    this.redisTemplate = redisTemplate;
+    this.pollInterval = pollInterval;
+    this.maxPollInterval = maxPollInterval;
+    this.lockTtl = lockTtl;
+    this.claimsApiPolls =
+        Counter.builder("bulk.submission.status.polls")
+            .description("Bulk submission status lookups, by where the status came from")
+            .tag("source", "claims-api")
+            .register(meterRegistry);
+    this.coalescedPolls =
+        Counter.builder("bulk.submission.status.polls")
+            .description("Bulk submission status lookups, by where the status came from")
+            .tag("source", "redis")
+            .register(meterRegistry);
+    Gauge.builder(
+            "bulk.submission.status.in.flight", this, BulkSubmissionStatusPoller::inFlightCount)
+        .description("Bulk submissions still being checked which were last polled by this pod")
+        .register(meterRegistry);
+    Gauge.builder("bulk.submission.status.poll.rate", this, BulkSubmissionStatusPoller::pollRate)
+        .description("Expected Claims API status polls per second for submissions in flight")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns true if the Claims API is still processing a bulk submission with the given status.
+   *
+   * @param status the bulk submission status
+   * @return true if the status is expected to change
+   */
+  public static boolean isPending(BulkSubmissionStatus status) {
+    return PENDING_STATUSES.contains(status);
+  }
+
+  /**
+   * Returns true if the Claims API could not accept a bulk submission with the given status.
+   *
+   * @param status the bulk submission status
+   * @return true if the bulk submission failed
+   */
+  public static boolean isFailed(BulkSubmissionStatus status) {
+    return FAILED_STATUSES.contains(status);
+  }
+
+  /**
+   * Gets the current status of a bulk submission, only calling the Claims API if the status held
+   * in Redis is due to be refreshed.
+   *
+   * @param bulkSubmissionId the bulk submission
+   * @return the status of the bulk submission, or empty if the Claims API does not know about it
+   *     yet
+   */
+  public Mono<BulkSubmissionStatus> currentStatus(UUID bulkSubmissionId) {
+    return fork(() -> getStatus(bulkSubmissionId).orElse(null));
+  }
+
+  /**
+   * Streams changes to the status of a bulk submission. The latest known status is emitted
+   * straight away to new subscribers, and the stream completes after the first status which is not
+   * pending.
+   *
+   * @param bulkSubmissionId the bulk submission to watch
+   * @return the status of the bulk submission each time it changes
+   */
+  public Flux<BulkSubmissionStatus> watch(UUID bulkSubmissionId) {
+    return watchers.computeIfAbsent(bulkSubmissionId, this::poll);
+  }
+
+  /**
+   * Gets how many claims the Claims API has read from a bulk submission so far, only calling the
+   * Claims API if the count held in Redis is due to be refreshed.
+   *
+   * @param bulkSubmissionId the bulk submission
+   * @param submissionId the submission created from the bulk submission
+   * @return the number of claims read so far, or empty if it is not known
+   */
+  public Mono<Integer> claimsChecked(UUID bulkSubmissionId, UUID submissionId) {
+    return fork(() -> getClaimsChecked(bulkSubmissionId, submissionId));
+  }
+
+  /**
+   * Streams changes to the number of claims the Claims API has read from a bulk submission. The
+   * latest known count is emitted straight away to new subscribers. The stream does not complete on
+   * its own, so callers should stop watching once the status of the bulk submission is no longer
+   * pending. Failed lookups are skipped, as they only mean the count shown is out of date.
+   *
+   * @param bulkSubmissionId the bulk submission to watch
+   * @param submissionId the submission created from the bulk submission
+   * @return the number of claims read so far each time it changes
+   */
+  public Flux<Integer> watchClaimsChecked(UUID bulkSubmissionId, UUID submissionId) {
+    return claimsCheckedWatchers.computeIfAbsent(
+        bulkSubmissionId, id -> pollClaimsChecked(id, submissionId));
+  }
+
+  private Flux<Integer> pollClaimsChecked(UUID bulkSubmissionId, UUID submissionId) {
+    // As with the status, checking Redis every interval is cheap and the Claims API is only called
+    // when the backed off count is due to be refreshed
+    AtomicReference<Flux<Integer>> shared = new AtomicReference<>();
+    shared.set(
+        Flux.interval(Duration.ZERO, pollInterval)
+            .concatMap(
+                tick ->
+                    claimsChecked(bulkSubmissionId, submissionId)
+                        .onErrorResume(
+                            e -> {
+                              log.debug("Unable to count claims checked: {}", e.getMessage());
+                              return Mono.empty();
+                            }))
+            .distinctUntilChanged()
+            // Only this poller is removed, as a newer one may have taken its place by now
+            .doFinally(signal -> claimsCheckedWatchers.remove(bulkSubmissionId, shared.get()))
+            .replay(1)
+            .refCount());
+    return shared.get();
+  }
+
+  private Flux<BulkSubmissionStatus> poll(UUID bulkSubmissionId) {
+    log.debug("Starting status poller for bulk submission: {}", bulkSubmissionId);
+    // Checking Redis every interval is cheap, the Claims API is only called when a poll is due
+    AtomicReference<Flux<BulkSubmissionStatus>> shared = new AtomicReference<>();
+    shared.set(
+        Flux.interval(Duration.ZERO, pollInterval)
+            .concatMap(tick -> currentStatus(bulkSubmissionId))
+            .distinctUntilChanged()
+            .takeUntil(status -> !isPending(status))
+            .doFinally(
+                signal -> {
+                  log.debug("Stopped status poller for bulk submission: {}", bulkSubmissionId);
+                  // Only this poller is removed, as a newer one may have taken its place by now
+                  watchers.remove(bulkSubmissionId, shared.get());
+                })
+            .replay(1)
+            .refCount());
+    return shared.get();
+  }
+
+  private Optional<BulkSubmissionStatus> getStatus(UUID bulkSubmissionId) {
+    String cached = redisTemplate.opsForValue().get(statusKey(bulkSubmissionId));
+    if (cached != null) {
+      coalescedPolls.increment();
+      return parse(cached);
+    }
+
+    String lockKey = statusKey(bulkSubmissionId) + ":lock";
+    String lockToken = lock(lockKey);
+    if (lockToken == null) {
+      // Another session or pod is polling right now, so use the last status it stored
+      coalescedPolls.increment();
+      return parse(redisTemplate.opsForValue().get(lastStatusKey(bulkSubmissionId)));
+    }
+
+    try {
+      claimsApiPolls.increment();
+      Optional<BulkSubmissionStatus> status = fetchStatus(bulkSubmissionId);
+      Duration nextPoll = nextPoll(bulkSubmissionId, status);
+      String value = status.map(Enum::name).orElse(NOT_FOUND);
+      redisTemplate.opsForValue().set(statusKey(bulkSubmissionId), value, nextPoll);
+      redisTemplate.opsForValue().set(lastStatusKey(bulkSubmissionId), value, STATE_TTL);
+      return status;
+    } finally {
+      unlock(lockKey, lockToken);
+    }
+  }
+
+  /**
+   * Takes the lock with the given key.
+   *
+   * @param lockKey the key of the lock
+   * @return the token to release the lock with, or null if someone else holds the lock
+   */
+  private String lock(String lockKey) {
+    String token = UUID.randomUUID().toString();
+    Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl);
+    return TRUE.equals(locked) ? token : null;
+  }
+
+  private void unlock(String lockKey, String token) {
+    redisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+  }
+
+  private Optional<BulkSubmissionStatus> fetchStatus(UUID bulkSubmissionId) {
+    try {
+      return dataClaimsRestClient
+          .getBulkSubmissionSummary(bulkSubmissionId)
+          .as(VirtualThreadTasks::awaitOptional)
+          .map(GetBulkSubmissionStatusById200Response::getStatus);
+    } catch (WebClientResponseException e) {
+      // The bulk submission may not be visible to the Claims API straight after upload
+      if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
+  private Integer getClaimsChecked(UUID bulkSubmissionId, UUID submissionId) {
+    String key = claimsCheckedKey(bulkSubmissionId);
+    String cached = redisTemplate.opsForValue().get(key);
+    if (cached != null) {
+      return Integer.valueOf(cached);
+    }
+
+    String last = redisTemplate.opsForValue().get(key + ":last");
+    Optional<BulkSubmissionStatus> lastStatus =
+        parse(redisTemplate.opsForValue().get(lastStatusKey(bulkSubmissionId)));
+    if (last != null && lastStatus.isPresent() && !isPending(lastStatus.get())) {
+      // Checking has finished, so the count will not move again
+      return Integer.valueOf(last);
+    }
+
+    String lockKey = key + ":lock";
+    String lockToken = lock(lockKey);
+    if (lockToken == null) {
+      return last != null ? Integer.valueOf(last) : null;
+    }
+
+    try {
+      int claimsChecked = fetchClaimsChecked(submissionId);
+      redisTemplate
+          .opsForValue()
+          .set(key, String.valueOf(claimsChecked), currentBackoff(bulkSubmissionId));
+      redisTemplate.opsForValue().set(key + ":last", String.valueOf(claimsChecked), STATE_TTL);
+      return claimsChecked;
+    } finally {
+      unlock(lockKey, lockToken);
+    }
+  }
+
+  private Duration currentBackoff(UUID bulkSubmissionId) {
+    // Follows the status poll, so the count is refreshed as often as the status
+    String polls = redisTemplate.opsForValue().get(pollCountKey(bulkSubmissionId));
+    return backoff(polls != null ? Long.parseLong(polls) : 1);
+  }
+
+  private int fetchClaimsChecked(UUID submissionId) {
+    try {
+      Optional<SubmissionResponse> submission =
+          dataClaimsRestClient.getSubmission(submissionId).as(VirtualThreadTasks::awaitOptional);
+      if (submission.isEmpty() || submission.get().getOfficeAccountNumber() == null) {
+        return 0;
+      }
+      // Only the total is needed, so ask for the smallest page
+      ClaimResultSet claims =
+          dataClaimsRestClient
+              .getClaims(submission.get().getOfficeAccountNumber(), submissionId, 0, 1)
+              .getBody();
+      return claims != null && claims.getTotalElements() != null ? claims.getTotalElements() : 0;
+    } catch (WebClientResponseException e) {
+      // The submission is not created until the Claims API starts reading the file
+      if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+        return 0;
+      }
+      throw e;
+    }
+  }
+
+  private Duration nextPoll(UUID bulkSubmissionId, Optional<BulkSubmissionStatus> status) {
+    if (status.isPresent() && !isPending(status.get())) {
+      redisTemplate.delete(pollCountKey(bulkSubmissionId));
+      inFlight.remove(bulkSubmissionId);
+      return FINAL_STATUS_TTL;
+    }
+
+    String pollCountKey = pollCountKey(bulkSubmissionId);
+    Long polls = redisTemplate.opsForValue().increment(pollCountKey);
+    redisTemplate.expire(pollCountKey, STATE_TTL);
+    Duration nextPoll = backoff(polls == null ? 1 : polls);
+    inFlight.put(bulkSubmissionId, new InFlight(nextPoll, Instant.now()));
+    return nextPoll;
+  }
+
+  Duration backoff(long polls) {
+    // Capped shift so the interval cannot overflow before the maximum is applied
+    long multiplier = 1L << Math.min(Math.max(polls - 1, 0), 16);
+    Duration interval = pollInterval.multipliedBy(multiplier);
+    return interval.compareTo(maxPollInterval) > 0 ? maxPollInterval : interval;
+  }
+
+  private int inFlightCount() {
+    pruneInFlight();
+    return inFlight.size();
+  }
+
+  private double pollRate() {
+    pruneInFlight();
+    return inFlight.values().stream()
+        .mapToDouble(submission -> 1000d / submission.interval().toMillis())
+        .sum();
+  }
+
+  private void pruneInFlight() {
+    // Forget submissions nobody has asked about for a while, such as abandoned uploads
+    Instant cutOff = Instant.now().minus(maxPollInterval.multipliedBy(2));
+    inFlight.values().removeIf(submission -> submission.polledAt().isBefore(cutOff));
+  }
+
+  private static Optional<BulkSubmissionStatus> parse(String value) {
+    if (value == null || NOT_FOUND.equals(value)) {
+      return Optional.empty();
+    }
+    return Optional.of(BulkSubmissionStatus.valueOf(value));
+  }
+
+  private static String statusKey(UUID bulkSubmissionId) {
+    return KEY_PREFIX + bulkSubmissionId;
+  }
+
+  private static String lastStatusKey(UUID bulkSubmissionId) {
+    return statusKey(bulkSubmissionId) + ":last";
+  }
+
+  private static String pollCountKey(UUID bulkSubmissionId) {
+    return statusKey(bulkSubmissionId) + ":polls";
+  }
+
+  private static String claimsCheckedKey(UUID bulkSubmissionId) {
+    return statusKey(bulkSubmissionId) + ":claims-checked";
+  }
+
+  private record InFlight(Duration interval, Instant polledAt) {}
+}
@@ -0,0 +1,95 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.CreateBulkSubmission201Response;
+
+/**
+ * Sends bulk claim files to the Claims API. The file is read from the uploaded part in fixed size
+ * chunks as the request body is written, rather than being handed over as a whole, so only a few
+ * chunks of each upload are held in memory at any one time.
+ *
+ * <p>An upload can be given a release gate, such as a virus scan which is still running. The file
+ * is streamed straight away but the multipart request is not completed until the gate completes.
+ * If the gate fails the request is aborted, so the Claims API never receives a complete file.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkUploadService {
+
+  static final int CHUNK_SIZE = 64 * 1024;
+
+  private final DataClaimsRestClient dataClaimsRestClient;
+  private final BulkClaimMetricService bulkClaimMetricService;
+
+  /**
+   * Uploads the file to the Claims API.
+   *
+   * @param file the file uploaded by the user
+   * @param userId the user uploading the file
+   * @param offices the offices the user has access to
+   * @return the response from the Claims API
+   */
+  public Mono<ResponseEntity<CreateBulkSubmission201Response>> upload(
+      MultipartFile file, String userId, List<String> offices) {
+    return upload(file, userId, offices, Mono.empty());
+  }
+
+  /**
+   * Uploads the file to the Claims API, holding back the end of the request until the release
+   * gate completes.
+   *
+   * @param file the file uploaded by the user
+   * @param userId the user uploading the file
+   * @param offices the offices the user has access to
+   * @param releaseGate completes once the upload may be finished, or errors if it must be aborted
+   * @return the response from the Claims API
+   */
+  public Mono<ResponseEntity<CreateBulkSubmission201Response>> upload(
+      MultipartFile file, String userId, List<String> offices, Mono<Void> releaseGate) {
+    AtomicLong bytesRead = new AtomicLong();
+    return dataClaimsRestClient
+        .upload(filePart(file, bytesRead, releaseGate), userId, offices)
+        .doFinally(signal -> bulkClaimMetricService.recordUploadBytesCompleted(bytesRead.get()));
+  }
+
+  HttpEntity<?> filePart(MultipartFile file, AtomicLong bytesRead, Mono<Void> releaseGate) {
+    Flux<DataBuffer> chunks =
+        DataBufferUtils.readInputStream(
+                file::getInputStream, DefaultDataBufferFactory.sharedInstance, CHUNK_SIZE)
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnNext(
+                dataBuffer -> {
+                  bytesRead.addAndGet(dataBuffer.readableByteCount());
+                  bulkClaimMetricService.recordUploadBytesRead(dataBuffer.readableByteCount());
+                });
+    // Merged rather than concatenated so a failed gate aborts the upload straight away
+    Flux<DataBuffer> content = Flux.merge(chunks, releaseGate.then(Mono.<DataBuffer>empty()));
+
+    MultipartBodyBuilder builder = new MultipartBodyBuilder();
+    MultipartBodyBuilder.PartBuilder part =
+        builder.asyncPart("file", content, DataBuffer.class).filename(file.getOriginalFilename());
+    if (StringUtils.hasText(file.getContentType())) {
+      part.contentType(MediaType.parseMediaType(file.getContentType()));
+    }
+    return builder.build().getFirst("file");
+  }
+}
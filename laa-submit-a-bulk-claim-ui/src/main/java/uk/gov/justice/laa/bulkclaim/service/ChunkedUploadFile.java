@@ -0,0 +1,68 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * A file which was uploaded in chunks and has been put back together on disk, so it can be checked
+ * and sent to the Claims API in the same way as a file uploaded with the form.
+ */
+class ChunkedUploadFile implements MultipartFile {
+
+  private final Path path;
+  private final String originalFilename;
+  private final String contentType;
+  private final long size;
+
+  ChunkedUploadFile(Path path, String originalFilename, String contentType, long size) {
+    this.path = path;
+    this.originalFilename = originalFilename;
+    this.contentType = contentType;
+    this.size = size;
+  }
+
+  @Override
+  public String getName() {
+    return "file";
+  }
+
+  @Override
+  public String getOriginalFilename() {
+    return originalFilename;
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public byte[] getBytes() throws IOException {
+    return Files.readAllBytes(path);
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return Files.newInputStream(path);
+  }
+
+  @Override
+  public void transferTo(File dest) throws IOException {
+    Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
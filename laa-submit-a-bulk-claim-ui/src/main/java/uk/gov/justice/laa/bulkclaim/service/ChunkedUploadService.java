@@ -0,0 +1,312 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+import uk.gov.justice.laa.bulkclaim.dto.ChunkedUpload;
+import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
+import uk.gov.justice.laa.bulkclaim.util.Sha256Util;
+
+/**
+ * Receives bulk claim files which the browser sends in chunks, so that a dropped connection only
+ * loses the chunk being sent rather than the whole file, and no request is held open for the time
+ * it takes to send a large file over a slow connection.
+ *
+ * <p>Each upload has its own directory holding a manifest and the chunks received so far. Chunks
+ * are checked against the SHA-256 checksum sent with them and only kept once they match, so the
+ * browser can ask which chunks have been received and carry on from there. Once every chunk has
+ * arrived the file is put back together and handled like a file uploaded with the form.
+ *
+ * <p>Chunks are kept on disk in a directory which must be shared between pods, such as a mounted
+ * volume, as the chunks of one upload can arrive at different pods. There is no default, so chunked
+ * uploads are turned off and files are sent with the form until a directory is configured. Uploads
+ * which are not finished are removed once they have not been touched for the expiry time.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+  private static final String MANIFEST = "manifest.json";
+  private static final String CHUNK_PREFIX = "chunk-";
+  private static final String ASSEMBLED_FILE = "file";
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  private final ObjectMapper objectMapper;
+  private final Path directory;
+  private final int chunkSize;
+  private final Duration expiry;
+  private final long maxFileSize;
+
+  public ChunkedUploadService(
+      ObjectMapper objectMapper,
+      @Value("${app.chunked-upload.directory:}") String directory,
+      @Value("${app.chunked-upload.chunk-size:1MB}") String chunkSize,
+      @Value("${app.chunked-upload.expiry:1h}") Duration expiry,
+      @Value("${app.upload-max-file-size:10MB}") String maxFileSize) {
+    this.objectMapper = objectMapper;
+    this.directory = StringUtils.hasText(directory) ? Path.of(directory) : null;
+    this.chunkSize = Math.toIntExact(DataSize.parse(chunkSize).toBytes());
+    this.expiry = expiry;
+    this.maxFileSize = DataSize.parse(maxFileSize).toBytes();
+  }
+
+  /**
+   * Returns true if a directory has been configured for chunked uploads.
+   *
+   * @return true if files can be sent in chunks
+   */
+  public boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Starts a new chunked upload.
+   *
+   * @param userId the user uploading the file
+   * @param filename the name of the file being uploaded
+   * @param contentType the content type of the file, if known
+   * @param size the size of the file in bytes
+   * @return the new upload, with no chunks received
+   */
+  public ChunkedUpload start(String userId, String filename, String contentType, long size) {
+    if (!isEnabled()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Chunked uploads are not enabled");
+    }
+    if (size <= 0 || size > maxFileSize) {
+      // The browser falls back to the form, which tells the user what is wrong with the file
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File size is not allowed");
+    }
+    removeExpiredUploads();
+
+    String uploadId = UUID.randomUUID().toString();
+    Manifest manifest = new Manifest(userId, filename, contentType, size, chunkSize);
+    try {
+      Path uploadDirectory = Files.createDirectories(directory.resolve(uploadId));
+      objectMapper.writeValue(uploadDirectory.resolve(MANIFEST).toFile(), manifest);
+    } catch (IOException e) {
+      throw new SubmitBulkClaimException("Unable to start chunked upload", e);
+    }
+    log.debug("Started chunked upload {} of {} bytes", uploadId, size);
+    return status(uploadId, manifest);
+  }
+
+  /**
+   * Gets an upload so the browser can carry on sending chunks which have not been received.
+   *
+   * @param uploadId the upload
+   * @param userId the user uploading the file
+   * @return the upload, with the chunks received so far
+   */
+  public ChunkedUpload status(String uploadId, String userId) {
+    return status(uploadId, manifest(uploadId, userId));
+  }
+
+  /**
+   * Stores a chunk of a file once its checksum has been checked. A chunk which has already been
+   * received is replaced.
+   *
+   * @param uploadId the upload
+   * @param userId the user uploading the file
+   * @param index the position of the chunk in the file, starting from zero
+   * @param sha256 the hex encoded SHA-256 checksum of the chunk
+   * @param content the content of the chunk
+   * @return the upload, with the chunks received so far
+   */
+  public ChunkedUpload storeChunk(
+      String uploadId, String userId, int index, String sha256, InputStream content) {
+    Manifest manifest = manifest(uploadId, userId);
+    if (index < 0 || index >= manifest.totalChunks()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk index is out of range");
+    }
+
+    Path uploadDirectory = directory.resolve(uploadId);
+    Path received = null;
+    try {
+      received = Files.createTempFile(uploadDirectory, CHUNK_PREFIX, ".part");
+      String checksum = copy(content, received, manifest.chunkLength(index));
+      if (!checksum.equalsIgnoreCase(Objects.requireNonNullElse(sha256, ""))) {
+        throw new ResponseStatusException(
+            HttpStatus.BAD_REQUEST, "Chunk checksum does not match");
+      }
+      Files.move(
+          received,
+          uploadDirectory.resolve(CHUNK_PREFIX + index),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new SubmitBulkClaimException("Unable to store chunk " + index + " of " + uploadId, e);
+    } finally {
+      deleteQuietly(received);
+    }
+    return status(uploadId, manifest);
+  }
+
+  /**
+   * Puts a file back together once every chunk has been received.
+   *
+   * @param uploadId the upload
+   * @param userId the user uploading the file
+   * @return the file, which can be read until the upload is deleted
+   */
+  public MultipartFile assemble(String uploadId, String userId) {
+    Manifest manifest = manifest(uploadId, userId);
+    Path uploadDirectory = directory.resolve(uploadId);
+    Path file = uploadDirectory.resolve(ASSEMBLED_FILE);
+    try (OutputStream out = Files.newOutputStream(file)) {
+      for (int index = 0; index < manifest.totalChunks(); index++) {
+        Path chunk = uploadDirectory.resolve(CHUNK_PREFIX + index);
+        if (!Files.exists(chunk)) {
+          throw new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, "Chunk " + index + " has not been received");
+        }
+        Files.copy(chunk, out);
+      }
+    } catch (IOException e) {
+      throw new SubmitBulkClaimException("Unable to assemble chunked upload " + uploadId, e);
+    }
+    return new ChunkedUploadFile(
+        file, manifest.filename(), manifest.contentType(), manifest.size());
+  }
+
+  /**
+   * Removes an upload and everything stored for it, if it belongs to the given user.
+   *
+   * @param uploadId the upload
+   * @param userId the user uploading the file
+   */
+  public void delete(String uploadId, String userId) {
+    manifest(uploadId, userId);
+    deleteUpload(uploadId);
+  }
+
+  private void deleteUpload(String uploadId) {
+    try {
+      FileSystemUtils.deleteRecursively(directory.resolve(uploadId));
+    } catch (IOException e) {
+      log.warn("Unable to delete chunked upload {}: {}", uploadId, e.getMessage());
+    }
+  }
+
+  private ChunkedUpload status(String uploadId, Manifest manifest) {
+    List<Integer> receivedChunks = new ArrayList<>();
+    for (int index = 0; index < manifest.totalChunks(); index++) {
+      if (Files.exists(directory.resolve(uploadId).resolve(CHUNK_PREFIX + index))) {
+        receivedChunks.add(index);
+      }
+    }
+    return new ChunkedUpload(
+        uploadId, manifest.chunkSize(), manifest.totalChunks(), List.copyOf(receivedChunks));
+  }
+
+  private Manifest manifest(String uploadId, String userId) {
+    // Checked as a UUID so the ID cannot point anywhere outside the upload directory
+    Path manifestFile =
+        isEnabled() && isUploadId(uploadId) ? directory.resolve(uploadId).resolve(MANIFEST) : null;
+    if (manifestFile == null || !Files.exists(manifestFile)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+    }
+    Manifest manifest = objectMapper.readValue(manifestFile.toFile(), Manifest.class);
+    if (!Objects.equals(manifest.userId(), userId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+    }
+    return manifest;
+  }
+
+  private static String copy(InputStream content, Path target, long expectedLength)
+      throws IOException {
+    MessageDigest digest = Sha256Util.newDigest();
+    long length = 0;
+    try (OutputStream out = Files.newOutputStream(target)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = content.read(buffer)) != -1) {
+        length += read;
+        if (length > expectedLength) {
+          break;
+        }
+        digest.update(buffer, 0, read);
+        out.write(buffer, 0, read);
+      }
+    }
+    if (length != expectedLength) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "Chunk should be " + expectedLength + " bytes");
+    }
+    return Sha256Util.hex(digest);
+  }
+
+  private void removeExpiredUploads() {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    Instant cutOff = Instant.now().minus(expiry);
+    try (Stream<Path> uploads = Files.list(directory)) {
+      uploads
+          .filter(upload -> isUploadId(upload.getFileName().toString()))
+          .filter(upload -> lastModified(upload).isBefore(cutOff))
+          .forEach(upload -> deleteUpload(upload.getFileName().toString()));
+    } catch (IOException e) {
+      log.warn("Unable to remove expired chunked uploads: {}", e.getMessage());
+    }
+  }
+
+  private static Instant lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toInstant();
+    } catch (IOException e) {
+      return Instant.MAX;
+    }
+  }
+
+  private static boolean isUploadId(String uploadId) {
+    try {
+      return uploadId != null && UUID.fromString(uploadId).toString().equals(uploadId);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      if (path != null) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException e) {
+      log.debug("Unable to delete {}: {}", path, e.getMessage());
+    }
+  }
+
+  /** What is known about an upload when it starts, kept alongside its chunks. */
+  record Manifest(
+      String userId, String filename, String contentType, long size, int chunkSize) {
+
+    int totalChunks() {
+      return Math.toIntExact((size + chunkSize - 1) / chunkSize);
+    }
+
+    long chunkLength(int index) {
+      return Math.min(chunkSize, size - (long) index * chunkSize);
+    }
+  }
+}
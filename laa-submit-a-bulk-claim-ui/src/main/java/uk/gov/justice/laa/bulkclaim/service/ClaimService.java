@@ -1,18 +1,28 @@
 package uk.gov.justice.laa.bulkclaim.service;
 
+import static uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks.fork;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple3;
 import uk.gov.justice.laa.bulkclaim.builder.ClaimStatusBannerBuilder;
 import uk.gov.justice.laa.bulkclaim.builder.LatestAssessmentResolver;
+import uk.gov.justice.laa.bulkclaim.builder.SubmissionMessagesBuilder;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClientV2;
+import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSummary;
 import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.bulkclaim.viewmodels.claimdetails.ClaimDetailPageData;
 import uk.gov.justice.laa.bulkclaim.viewmodels.claimdetails.ClaimDetailView;
 import uk.gov.justice.laa.bulkclaim.viewmodels.claimdetails.ClaimDetailViewFactory;
@@ -27,17 +37,21 @@ import uk.gov.justice.laa.dstew.payments.claimsdata.model.DerivedClaimStatus;
 @Slf4j
 public class ClaimService {
 
+  static final String STAGE_TIMER = "claim.detail.page.stage";
+
   private final DataClaimsRestClient dataClaimsRestClient;
   private final DataClaimsRestClientV2 dataClaimsRestClientV2;
   private final ClaimDetailViewFactory claimDetailViewFactory;
   private final LatestAssessmentResolver latestAssessmentResolver;
   private final OidcAttributeUtils oidcAttributeUtils;
+  private final SubmissionMessagesBuilder submissionMessagesBuilder;
+  private final MeterRegistry meterRegistry;
 
   public ClaimResponseV2 getClaimV2(UUID submissionId, UUID claimId, OidcUser user) {
     ClaimResponseV2 claim =
         dataClaimsRestClientV2
             .getSubmissionClaim(submissionId, claimId)
-            .blockOptional()
+            .as(VirtualThreadTasks::awaitOptional)
             .orElseThrow(
                 () ->
                     new ResponseStatusException(
@@ -49,33 +63,89 @@ public class ClaimService {
     return claim;
   }
 
+  /**
+   * Gets everything shown on the claim detail page. History and warnings only depend on the claim
+   * ID, so they are fetched alongside the claim, and the latest assessment is fetched as soon as
+   * the claim shows one is needed. Each stage is timed so the slowest Claims API call can be seen.
+   *
+   * @param submissionId the submission the claim belongs to
+   * @param claimId the claim
+   * @param user the signed in user, who must have access to the claim's office
+   * @return the claim detail page data
+   */
   public ClaimDetailPageData getClaimDetailPageData(
       UUID submissionId, UUID claimId, OidcUser user) {
-    ClaimResponseV2 claimResponse = getClaimV2(submissionId, claimId, user);
-
-    DerivedClaimStatus derivedClaimStatus = claimResponse.getDerivedClaimStatus();
-    boolean showCurrentCalculated =
-        derivedClaimStatus == DerivedClaimStatus.AMENDED
-            || derivedClaimStatus == DerivedClaimStatus.ASSESSED;
-
-    AssessmentGet currentAssessment =
-        showCurrentCalculated
-            ? latestAssessmentResolver.resolveLatestNonVoid(claimId).orElse(null)
-            : null;
-
-    ClaimDetailView claimDetailView =
-        claimDetailViewFactory.create(claimResponse, currentAssessment);
-
-    List<ClaimHistoryEvent> historyEvents =
-        dataClaimsRestClient
-            .getClaimHistory(claimId)
-            .map(ClaimHistoryResultSet::getEvents)
-            .blockOptional()
-            .orElseGet(List::of);
-    return new ClaimDetailPageData(
-        claimResponse.getAreaOfLaw(),
-        showCurrentCalculated,
-        claimDetailView,
-        ClaimStatusBannerBuilder.build(derivedClaimStatus, historyEvents).orElse(null));
+    Timer.Sample page = Timer.start(meterRegistry);
+    try {
+      // Nothing from history or warnings is used unless the claim, and so the office access
+      // check, succeeds
+      Mono<List<ClaimHistoryEvent>> history =
+          fork(() -> timed("history", () -> getClaimHistory(claimId)));
+      Mono<MessagesSummary> warnings =
+          fork(
+              () ->
+                  timed(
+                      "warnings",
+                      () -> submissionMessagesBuilder.buildAllWarnings(submissionId, claimId)));
+      Mono<ClaimWithAssessment> claim =
+          fork(() -> timed("claim", () -> getClaimV2(submissionId, claimId, user)))
+              .flatMap(claimResponse -> withCurrentAssessment(claimResponse, claimId));
+
+      Tuple3<ClaimWithAssessment, List<ClaimHistoryEvent>, MessagesSummary> results =
+          Mono.zip(claim, history, warnings).as(VirtualThreadTasks::await);
+
+      ClaimResponseV2 claimResponse = results.getT1().claim();
+      DerivedClaimStatus derivedClaimStatus = claimResponse.getDerivedClaimStatus();
+      ClaimDetailView claimDetailView =
+          claimDetailViewFactory.create(claimResponse, results.getT1().currentAssessment());
+      return new ClaimDetailPageData(
+          claimResponse.getAreaOfLaw(),
+          showCurrentCalculated(derivedClaimStatus),
+          claimDetailView,
+          ClaimStatusBannerBuilder.build(derivedClaimStatus, results.getT2()).orElse(null),
+          results.getT3());
+    } finally {
+      page.stop(stageTimer("total"));
+    }
+  }
+
+  private Mono<ClaimWithAssessment> withCurrentAssessment(
+      ClaimResponseV2 claimResponse, UUID claimId) {
+    if (!showCurrentCalculated(claimResponse.getDerivedClaimStatus())) {
+      return Mono.just(new ClaimWithAssessment(claimResponse, null));
+    }
+    return fork(
+        () ->
+            new ClaimWithAssessment(
+                claimResponse,
+                timed("assessment", () -> latestAssessmentResolver.resolveLatestNonVoid(claimId))
+                    .orElse(null)));
+  }
+
+  private List<ClaimHistoryEvent> getClaimHistory(UUID claimId) {
+    return dataClaimsRestClient
+        .getClaimHistory(claimId)
+        .map(ClaimHistoryResultSet::getEvents)
+        .as(VirtualThreadTasks::awaitOptional)
+        .orElseGet(List::of);
   }
+
+  private static boolean showCurrentCalculated(DerivedClaimStatus derivedClaimStatus) {
+    return derivedClaimStatus == DerivedClaimStatus.AMENDED
+        || derivedClaimStatus == DerivedClaimStatus.ASSESSED;
+  }
+
+  private <T> T timed(String stage, Supplier<T> task) {
+    return stageTimer(stage).record(task);
+  }
+
+  private Timer stageTimer(String stage) {
+    return Timer.builder(STAGE_TIMER)
+        .description("Time taken to build each part of the claim detail page")
+        .tag("stage", stage)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  private record ClaimWithAssessment(ClaimResponseV2 claim, AssessmentGet currentAssessment) {}
 }
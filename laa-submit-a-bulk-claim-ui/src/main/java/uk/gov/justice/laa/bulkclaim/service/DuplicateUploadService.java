@@ -0,0 +1,158 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import uk.gov.justice.laa.bulkclaim.util.Sha256Util;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.BulkSubmissionStatus;
+
+/**
+ * Spots bulk claim files which have already been uploaded for the same offices a short time ago,
+ * which usually means the user uploaded the file again after a timeout or an unclear error.
+ * Sending them to the status page of the earlier upload saves scanning the file for viruses and
+ * the Claims API parsing it a second time.
+ *
+ * <p>Each file is identified by the SHA-256 of its content and the offices of the user uploading
+ * it, and the bulk submission created from it is kept in Redis for the configured window. Earlier
+ * uploads which failed are not reused, as the user is likely to be trying again after the cause
+ * was put right. Redis or the Claims API being unavailable only means duplicates are uploaded
+ * again.
+ */
+@Slf4j
+@Service
+public class DuplicateUploadService {
+
+  private static final String KEY_PREFIX = "submit-a-bulk-claim:bulk-upload:";
+
+  private final StringRedisTemplate redisTemplate;
+  private final BulkSubmissionStatusPoller bulkSubmissionStatusPoller;
+  private final Duration window;
+  private final Counter duplicateUploads;
+
+  public DuplicateUploadService(
+      StringRedisTemplate redisTemplate,
+      BulkSubmissionStatusPoller bulkSubmissionStatusPoller,
+      MeterRegistry meterRegistry,
+      @Value("${app.upload-deduplication.window:10m}") Duration window) {
+    this.redisTemplate = redisTemplate;
+    this.bulkSubmissionStatusPoller = bulkSubmissionStatusPoller;
+    this.window = window;
+    this.duplicateUploads =
+        Counter.builder("bulk.upload.duplicates")
+            .description("Uploads sent to the status page of an earlier upload of the same file")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Works out the fingerprint of a file uploaded by a user with the given offices.
+   *
+   * @param contentSha256 the SHA-256 of the file, which may be null
+   * @param userOffices the offices of the user uploading the file
+   * @return the fingerprint, or null if the file could not be read
+   */
+  public String fingerprint(String contentSha256, Collection<String> userOffices) {
+    if (contentSha256 == null) {
+      return null;
+    }
+    // Sorted, so the same offices in a different order give the same fingerprint
+    String offices = String.join(",", new TreeSet<>(userOffices));
+    return contentSha256 + ":" + Sha256Util.hex(offices.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Finds the bulk submission created from an earlier upload of the same file within the window,
+   * as long as it has not failed.
+   *
+   * @param fingerprint the fingerprint of the file, which may be null
+   * @return the earlier upload, or empty if there was none
+   */
+  public Optional<RecentUpload> findRecent(String fingerprint) {
+    if (fingerprint == null) {
+      return Optional.empty();
+    }
+    Optional<RecentUpload> recent;
+    try {
+      recent =
+          Optional.ofNullable(redisTemplate.opsForValue().get(KEY_PREFIX + fingerprint))
+              .map(DuplicateUploadService::parse);
+    } catch (DataAccessException e) {
+      log.warn("Unable to check for a duplicate upload: {}", e.getMessage());
+      return Optional.empty();
+    }
+    recent = recent.filter(this::hasNotFailed);
+    recent.ifPresent(upload -> duplicateUploads.increment());
+    return recent;
+  }
+
+  private boolean hasNotFailed(RecentUpload upload) {
+    try {
+      // Usually already held in Redis by the status page of the earlier upload
+      Optional<BulkSubmissionStatus> status =
+          bulkSubmissionStatusPoller
+              .currentStatus(upload.bulkSubmissionId())
+              .as(VirtualThreadTasks::awaitOptional);
+      return status.map(s -> !BulkSubmissionStatusPoller.isFailed(s)).orElse(true);
+    } catch (RuntimeException e) {
+      log.warn(
+          "Unable to check the status of upload {}: {}",
+          upload.bulkSubmissionId(),
+          e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Records the bulk submission created from a file, so uploads of the same file within the
+   * window are sent to its status page.
+   *
+   * @param fingerprint the fingerprint of the file, which may be null
+   * @param upload the bulk submission created from the file
+   */
+  public void record(String fingerprint, RecentUpload upload) {
+    if (fingerprint == null) {
+      return;
+    }
+    try {
+      redisTemplate.opsForValue().set(KEY_PREFIX + fingerprint, format(upload), window);
+    } catch (DataAccessException e) {
+      log.warn("Unable to record upload {}: {}", upload.bulkSubmissionId(), e.getMessage());
+    }
+  }
+
+  private static String format(RecentUpload upload) {
+    return StringUtils.joinWith(
+        ",",
+        upload.bulkSubmissionId(),
+        upload.submissionId(),
+        upload.claimCount() != null ? upload.claimCount() : "");
+  }
+
+  private static RecentUpload parse(String value) {
+    String[] fields = value.split(",", -1);
+    return new RecentUpload(
+        UUID.fromString(fields[0]),
+        UUID.fromString(fields[1]),
+        fields[2].isEmpty() ? null : Integer.valueOf(fields[2]));
+  }
+
+  /**
+   * A bulk submission created from an uploaded file.
+   *
+   * @param bulkSubmissionId the bulk submission
+   * @param submissionId the submission created from the bulk submission
+   * @param claimCount the number of claims counted in the file, or null if not known
+   */
+  public record RecentUpload(UUID bulkSubmissionId, UUID submissionId, Integer claimCount) {}
+}
@@ -23,6 +23,7 @@ public class NilSubmissionService {
 
   private final DataClaimsRestClient claimsRestService;
   private final ObjectMapper objectMapper;
+  private final SubmissionSearchService submissionSearchService;
 
   public NilSubmissionResult createSubmission(NilSubmissionForm form, OidcUser oidcUser) {
     var submissionPost = buildSubmissionPost(form, oidcUser);
@@ -30,6 +31,7 @@ public class NilSubmissionService {
 
     try {
       claimsRestService.createSubmission(submissionPost);
+      submissionSearchService.invalidate(List.of(form.getOffice()));
       return new NilSubmissionResult(submissionPost.getSubmissionId(), List.of());
 
     } catch (WebClientResponseException ex) {
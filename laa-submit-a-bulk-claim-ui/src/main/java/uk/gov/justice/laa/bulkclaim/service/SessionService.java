@@ -1,38 +1,101 @@
 package uk.gov.justice.laa.bulkclaim.service;
 
-import org.springframework.data.redis.core.Cursor;
-import org.springframework.data.redis.core.ScanOptions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-/** Service class for counting number of active sessions. */
+/**
+ * Service class for counting number of active sessions.
+ *
+ * <p>Each session is kept in a Redis sorted set scored by when it expires, which is updated as
+ * requests use the session rather than found by scanning every session key. Counting is then a
+ * single {@code ZCARD} once sessions which have expired are removed, and the count is held for the
+ * refresh interval so scraping metrics often does not add load to Redis. Each pod only updates a
+ * session's expiry once per refresh interval, so the count can include sessions which expired up
+ * to one refresh interval ago.
+ */
+@Slf4j
 @Service
 public class SessionService {
+
+  static final String ACTIVE_SESSIONS_KEY = "submit-a-bulk-claim:session:active";
+
   private final StringRedisTemplate redisTemplate;
+  private final Duration refreshInterval;
+  private final Cache<String, Boolean> recentlyRecorded;
 
-  public SessionService(StringRedisTemplate redisTemplate) {
+  private volatile CachedCount cachedCount;
+
+  public SessionService(
+      StringRedisTemplate redisTemplate,
+      @Value("${app.active-sessions.refresh-interval:1m}") Duration refreshInterval) {
     this.redisTemplate = redisTemplate;
+    this.refreshInterval = refreshInterval;
+    this.recentlyRecorded =
+        Caffeine.newBuilder().expireAfterWrite(refreshInterval).maximumSize(100_000).build();
   }
 
   public int getActiveSessionCount() {
-    return countSessions();
+    CachedCount cached = cachedCount;
+    if (cached == null || cached.countedAt().plus(refreshInterval).isBefore(Instant.now())) {
+      cached = new CachedCount(countSessions(), Instant.now());
+      cachedCount = cached;
+    }
+    return cached.count();
   }
 
-  private int countSessions() {
-    ScanOptions options =
-        ScanOptions.scanOptions()
-            .match("submit-a-bulk-claim:session:sessions:*")
-            .count(1000)
-            .build();
-    int count = 0;
-
-    try (Cursor<byte[]> cursor =
-        redisTemplate.getConnectionFactory().getConnection().keyCommands().scan(options)) {
-      while (cursor.hasNext()) {
-        cursor.next();
-        count++;
-      }
+  /**
+   * Records that a session has been used, so it is counted until it expires.
+   *
+   * @param sessionId the session
+   * @param maxInactiveInterval how long the session lasts without being used
+   */
+  public void recordActive(String sessionId, Duration maxInactiveInterval) {
+    if (recentlyRecorded.getIfPresent(sessionId) != null) {
+      return;
+    }
+    // Allow for the session being used again before this pod next records it
+    Instant expiresAt = Instant.now().plus(maxInactiveInterval).plus(refreshInterval);
+    try {
+      redisTemplate.opsForZSet().add(ACTIVE_SESSIONS_KEY, sessionId, expiresAt.toEpochMilli());
+      recentlyRecorded.put(sessionId, Boolean.TRUE);
+    } catch (DataAccessException e) {
+      log.debug("Unable to record active session: {}", e.getMessage());
     }
-    return count;
   }
+
+  /**
+   * Records that a session has ended before it expired, such as when the user signs out.
+   *
+   * @param sessionId the session
+   */
+  public void recordEnded(String sessionId) {
+    recentlyRecorded.invalidate(sessionId);
+    try {
+      redisTemplate.opsForZSet().remove(ACTIVE_SESSIONS_KEY, sessionId);
+    } catch (DataAccessException e) {
+      log.debug("Unable to record ended session: {}", e.getMessage());
+    }
+  }
+
+  private int countSessions() {
+    // Sessions which expired are dropped here, so the set only holds active sessions
+    redisTemplate
+        .opsForZSet()
+        .removeRangeByScore(ACTIVE_SESSIONS_KEY, Double.NEGATIVE_INFINITY, now());
+    Long count = redisTemplate.opsForZSet().zCard(ACTIVE_SESSIONS_KEY);
+    return count != null ? count.intValue() : 0;
+  }
+
+  private static double now() {
+    return Instant.now().toEpochMilli();
+  }
+
+  private record CachedCount(int count, Instant countedAt) {}
 }
@@ -20,6 +20,7 @@ import uk.gov.justice.laa.bulkclaim.dto.submission.NilSubmissionForm;
 import uk.gov.justice.laa.bulkclaim.dto.submission.search.SubmissionSearchQuery;
 import uk.gov.justice.laa.bulkclaim.util.DateWrapperUtil;
 import uk.gov.justice.laa.bulkclaim.util.SubmissionPeriodUtil;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionBase;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionsResultSet;
 
@@ -51,7 +52,7 @@ public class SubmissionPeriodService {
             getSubmissionDateFrom(),
             getSubmissionDateTo(),
             "createdOn,desc")
-        .block();
+        .as(VirtualThreadTasks::await);
   }
 
   private String getSubmissionDateTo() {
@@ -0,0 +1,248 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static java.lang.Boolean.TRUE;
+import static uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks.fork;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import tools.jackson.databind.ObjectMapper;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.AreaOfLaw;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionStatus;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionsResultSet;
+
+/**
+ * Searches for submissions, keeping each page of results in Redis for a short time so that paging
+ * back and forth or changing the sort order does not always go back to the Claims API.
+ *
+ * <p>Each office has a generation number which is part of the key of every search including that
+ * office. Creating a submission for an office moves its generation on, so searches made after it
+ * miss the cache and include the new submission straight away.
+ *
+ * <p>The default search is run in the background when the search page is shown, at most once per
+ * cache lifetime for each generation of the offices searched, however many times the page is
+ * shown.
+ */
+@Slf4j
+@Service
+public class SubmissionSearchService {
+
+  public static final String CACHE_NAME = "submission-search";
+
+  static final String GENERATION_KEY_PREFIX = "submit-a-bulk-claim:submission-search:generation:";
+  static final String PREWARM_KEY_PREFIX = "submit-a-bulk-claim:submission-search:prewarmed:";
+  private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+  private final DataClaimsRestClient dataClaimsRestClient;
+  private final StringRedisTemplate redisTemplate;
+  private final CacheManager cacheManager;
+  private final Duration ttl;
+
+  public SubmissionSearchService(
+      DataClaimsRestClient dataClaimsRestClient,
+      StringRedisTemplate redisTemplate,
+      @Qualifier("redisCacheManager") CacheManager cacheManager,
+      @Value("${app.submission-search-cache.ttl:30s}") Duration ttl) {
+    this.dataClaimsRestClient = dataClaimsRestClient;
+    this.redisTemplate = redisTemplate;
+    this.cacheManager = cacheManager;
+    this.ttl = ttl;
+  }
+
+  /**
+   * Creates the Redis configuration for the search cache.
+   *
+   * @param objectMapper the mapper used to convert results to and from JSON
+   * @param ttl how long results are kept
+   * @return the Redis cache configuration
+   */
+  public static RedisCacheConfiguration redisCacheConfiguration(
+      ObjectMapper objectMapper, Duration ttl) {
+    return RedisCacheConfiguration.defaultCacheConfig()
+        .entryTtl(ttl)
+        .disableCachingNullValues()
+        .prefixCacheNameWith("submit-a-bulk-claim:cache:")
+        .serializeValuesWith(
+            SerializationPair.fromSerializer(
+                new JacksonJsonRedisSerializer<>(objectMapper, SubmissionsResultSet.class)));
+  }
+
+  /**
+   * Searches for submissions, using cached results if the same search was made recently and no
+   * submissions have been created since for any of the offices.
+   *
+   * @param offices the offices to search
+   * @param submissionPeriod the submission period, or null for any
+   * @param areaOfLaw the area of law, or null for any
+   * @param submissionStatuses the statuses to include, or null for any
+   * @param page the page of results
+   * @param size the number of results per page
+   * @param sort the sort order
+   * @return the page of results
+   */
+  public SubmissionsResultSet search(
+      List<String> offices,
+      String submissionPeriod,
+      AreaOfLaw areaOfLaw,
+      List<SubmissionStatus> submissionStatuses,
+      Integer page,
+      Integer size,
+      String sort) {
+    String key =
+        cacheKey(offices, submissionPeriod, areaOfLaw, submissionStatuses, page, size, sort);
+    Cache cache = key != null ? cacheManager.getCache(CACHE_NAME) : null;
+    SubmissionsResultSet cached = cache != null ? read(cache, key) : null;
+    if (cached != null) {
+      return cached;
+    }
+
+    SubmissionsResultSet results =
+        dataClaimsRestClient
+            .search(
+                offices, submissionPeriod, areaOfLaw, submissionStatuses, page, size, sort)
+            .as(VirtualThreadTasks::await);
+    if (cache != null && results != null) {
+      write(cache, key, results);
+    }
+    return results;
+  }
+
+  /**
+   * Runs a search in the background so its results are cached by the time the user asks for
+   * them. The search is skipped if it has already been run for the current generation of every
+   * office within the cache lifetime, on this pod or any other. Failures are ignored, as the
+   * search will be made again when the results are needed.
+   *
+   * @param offices the offices the search is for
+   * @param search the search to run
+   */
+  public void prewarm(List<String> offices, Runnable search) {
+    TreeMap<String, String> generations = generations(offices);
+    if (generations == null) {
+      return;
+    }
+    try {
+      String key = PREWARM_KEY_PREFIX + hash(generations.toString());
+      if (!TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, "1", ttl))) {
+        return;
+      }
+    } catch (RuntimeException e) {
+      log.debug("Unable to check whether submission search is pre-warmed: {}", e.getMessage());
+      return;
+    }
+    fork(Executors.callable(search))
+        .subscribe(
+            ignored -> {},
+            e -> log.debug("Unable to pre-warm submission search: {}", e.getMessage()));
+  }
+
+  /**
+   * Makes sure searches including any of the given offices are not answered from the cache, for
+   * example because a submission has been created for one of them.
+   *
+   * @param offices the offices whose cached searches are out of date
+   */
+  public void invalidate(Collection<String> offices) {
+    if (offices == null) {
+      return;
+    }
+    for (String office : offices) {
+      try {
+        String key = GENERATION_KEY_PREFIX + office;
+        redisTemplate.opsForValue().increment(key);
+        redisTemplate.expire(key, GENERATION_TTL);
+      } catch (RuntimeException e) {
+        log.warn("Unable to invalidate submission searches for office {}", office, e);
+      }
+    }
+  }
+
+  private String cacheKey(
+      List<String> offices,
+      String submissionPeriod,
+      AreaOfLaw areaOfLaw,
+      List<SubmissionStatus> submissionStatuses,
+      Integer page,
+      Integer size,
+      String sort) {
+    TreeMap<String, String> generations = generations(offices);
+    if (generations == null) {
+      return null;
+    }
+
+    String query =
+        String.join(
+            "|",
+            generations.toString(),
+            Objects.toString(submissionPeriod),
+            Objects.toString(areaOfLaw),
+            Objects.toString(submissionStatuses),
+            Objects.toString(page),
+            Objects.toString(size),
+            Objects.toString(sort));
+    return hash(query);
+  }
+
+  private TreeMap<String, String> generations(List<String> offices) {
+    if (offices == null || offices.isEmpty()) {
+      return null;
+    }
+
+    // Sorted so the same offices give the same key whichever order they were selected in
+    TreeMap<String, String> generations = new TreeMap<>();
+    try {
+      List<String> sortedOffices = offices.stream().distinct().sorted().toList();
+      List<String> values =
+          redisTemplate
+              .opsForValue()
+              .multiGet(sortedOffices.stream().map(GENERATION_KEY_PREFIX::concat).toList());
+      for (int i = 0; i < sortedOffices.size(); i++) {
+        String generation = values != null ? values.get(i) : null;
+        generations.put(sortedOffices.get(i), Objects.requireNonNullElse(generation, "0"));
+      }
+    } catch (RuntimeException e) {
+      log.warn("Unable to read submission search generations, searching without the cache", e);
+      return null;
+    }
+    return generations;
+  }
+
+  private static String hash(String value) {
+    // Hashed as users can have many offices, which would make for very long keys
+    return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private SubmissionsResultSet read(Cache cache, String key) {
+    try {
+      return cache.get(key, SubmissionsResultSet.class);
+    } catch (RuntimeException e) {
+      log.warn("Unable to read submission search from the cache: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private void write(Cache cache, String key, SubmissionsResultSet results) {
+    try {
+      cache.put(key, results);
+    } catch (RuntimeException e) {
+      log.warn("Unable to write submission search to the cache: {}", e.getMessage());
+    }
+  }
+}
@@ -7,8 +7,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import uk.gov.justice.laa.bulkclaim.cache.CompletedSubmissionCache;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
 
 @RequiredArgsConstructor
@@ -18,18 +20,25 @@ public class SubmissionService {
 
   private final DataClaimsRestClient dataClaimsRestClient;
   private final OidcAttributeUtils oidcAttributeUtils;
+  private final CompletedSubmissionCache completedSubmissionCache;
 
   public SubmissionResponse getSubmission(UUID submissionId, OidcUser user) {
-    var submission =
-        dataClaimsRestClient
-            .getSubmission(submissionId)
-            .blockOptional()
-            .orElseThrow(
-                () ->
-                    new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Submission %s does not exist".formatted(submissionId)));
+    SubmissionResponse submission =
+        completedSubmissionCache.findSubmission(submissionId).orElse(null);
+    if (submission == null) {
+      submission =
+          dataClaimsRestClient
+              .getSubmission(submissionId)
+              .as(VirtualThreadTasks::awaitOptional)
+              .orElseThrow(
+                  () ->
+                      new ResponseStatusException(
+                          HttpStatus.NOT_FOUND,
+                          "Submission %s does not exist".formatted(submissionId)));
+      completedSubmissionCache.putSubmission(submission);
+    }
 
+    // Cached submissions are shared between users, so access is checked every time
     oidcAttributeUtils.checkOfficeAccess(user, submission.getOfficeAccountNumber());
     return submission;
   }
@@ -1,33 +1,145 @@
 package uk.gov.justice.laa.bulkclaim.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.Instant;
-import lombok.RequiredArgsConstructor;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Service;
 import uk.gov.justice.laa.bulkclaim.provider.TokenProvider;
 
-/** Service class for getting an access token. */
+/**
+ * Service class for getting an access token.
+ *
+ * <p>The token is kept in memory and refreshed once the configured fraction of its lifetime has
+ * passed, while it can still be used, so uploads are not held up waiting for a new token when it
+ * expires:
+ *
+ * <ul>
+ *   <li>Once the token is due a refresh, the first request to ask for it refreshes it, and any
+ *       others made meanwhile carry on with the current token. If the refresh fails the current
+ *       token is used until it expires, and the next request tries again.
+ *   <li>If there is no token which can be used, requests wait for a single refresh rather than
+ *       each going to the identity provider. If that fails, a token which has expired within the
+ *       grace period is used rather than failing the upload.
+ * </ul>
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class TokenService {
 
   private final TokenProvider tokenProvider;
+  private final double refreshAt;
+  private final Duration gracePeriod;
+  private final MeterRegistry meterRegistry;
+  private final Counter expiredTokensUsed;
+  private final AtomicReference<ManagedToken> current = new AtomicReference<>();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private final ReentrantLock fetchLock = new ReentrantLock();
+
+  public TokenService(
+      TokenProvider tokenProvider,
+      MeterRegistry meterRegistry,
+      @Value("${app.sds-token.refresh-at:0.75}") double refreshAt,
+      @Value("${app.sds-token.grace-period:30s}") Duration gracePeriod) {
+    this.tokenProvider = tokenProvider;
+    this.refreshAt = refreshAt;
+    this.gracePeriod = gracePeriod;
+    this.meterRegistry = meterRegistry;
+    this.expiredTokensUsed =
+        Counter.builder("sds.token.expired.used")
+            .description("SDS requests made with an expired token as a new one could not be got")
+            .register(meterRegistry);
+  }
 
   public String getSdsAccessToken() {
-    OAuth2AccessToken accessToken = tokenProvider.getTokenFromProvider();
+    ManagedToken token = current.get();
+    Instant now = Instant.now();
+    if (token != null && now.isBefore(token.refreshAt())) {
+      return token.value();
+    }
+    if (token != null && now.isBefore(token.expiresAt())) {
+      refreshAhead(token);
+      return current.get().value();
+    }
+    return fetch();
+  }
 
-    if (isValidToken(accessToken)) {
-      return accessToken.getTokenValue();
+  private void refreshAhead(ManagedToken token) {
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      log.warn(
+          "Unable to refresh SDS access token, using current token until {}: {}",
+          token.expiresAt(),
+          e.getMessage());
+    } finally {
+      refreshing.set(false);
     }
+  }
 
-    // Evict token and get new token
-    tokenProvider.evictToken();
-    return tokenProvider.getTokenFromProvider().getTokenValue();
+  private String fetch() {
+    fetchLock.lock();
+    try {
+      // Another request may have got a new token while this one was waiting
+      ManagedToken token = current.get();
+      if (token != null && Instant.now().isBefore(token.expiresAt())) {
+        return token.value();
+      }
+      try {
+        return refresh().value();
+      } catch (RuntimeException e) {
+        if (token == null || !Instant.now().isBefore(token.expiresAt().plus(gracePeriod))) {
+          throw e;
+        }
+        log.warn("Unable to get SDS access token, using expired token: {}", e.getMessage());
+        expiredTokensUsed.increment();
+        return token.value();
+      }
+    } finally {
+      fetchLock.unlock();
+    }
+  }
+
+  private ManagedToken refresh() {
+    long start = System.nanoTime();
+    String outcome = "failure";
+    try {
+      ManagedToken token = ManagedToken.from(tokenProvider.getTokenFromProvider(), refreshAt);
+      current.set(token);
+      outcome = "success";
+      return token;
+    } finally {
+      Timer.builder("sds.token.refresh")
+          .description("Time taken to get an SDS access token from the identity provider")
+          .tag("outcome", outcome)
+          .register(meterRegistry)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
   }
 
-  private boolean isValidToken(OAuth2AccessToken accessToken) {
-    return accessToken != null
-        && accessToken.getExpiresAt() != null
-        && accessToken.getExpiresAt().isAfter(Instant.now());
+  private record ManagedToken(String value, Instant refreshAt, Instant expiresAt) {
+
+    static ManagedToken from(OAuth2AccessToken accessToken, double refreshAt) {
+      Instant now = Instant.now();
+      // Tokens without an expiry are used once, as they always were
+      Instant expiresAt = Objects.requireNonNullElse(accessToken.getExpiresAt(), now);
+      Instant issuedAt = Objects.requireNonNullElse(accessToken.getIssuedAt(), now);
+      Instant due =
+          issuedAt.plusMillis(
+              (long) (Duration.between(issuedAt, expiresAt).toMillis() * refreshAt));
+      return new ManagedToken(accessToken.getTokenValue(), due, expiresAt);
+    }
   }
 }
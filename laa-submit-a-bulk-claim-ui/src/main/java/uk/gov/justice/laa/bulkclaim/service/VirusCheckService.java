@@ -1,5 +1,6 @@
 package uk.gov.justice.laa.bulkclaim.service;
 
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -9,7 +10,9 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.multipart.MultipartFile;
+import uk.gov.justice.laa.bulkclaim.cache.VirusScanResultCache;
 import uk.gov.justice.laa.bulkclaim.exception.VirusCheckException;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
 import uk.gov.justice.laa.bulkclaim.response.SdsVirusCheckResponseDto;
 
 @Service
@@ -18,29 +21,56 @@ public class VirusCheckService {
 
   private final RestClient restClient;
   private final TokenService tokenService;
+  private final VirusScanResultCache virusScanResultCache;
+  private final BulkClaimMetricService bulkClaimMetricService;
 
   @Value("${app.sds-api.url}")
   private String sdsApiUrl;
 
-  public void checkVirus(MultipartFile file) throws VirusCheckException {
+  /**
+   * Sends a file to SDS to be scanned for viruses, unless it has already been found to be clean.
+   *
+   * @param file the uploaded file
+   * @param contentSha256 the SHA-256 of the file, or null to always scan it
+   * @throws VirusCheckException if the file is missing or did not pass the scan
+   */
+  public void checkVirus(MultipartFile file, String contentSha256) throws VirusCheckException {
     if (file == null) {
       throw new VirusCheckException("File cannot be null");
     }
 
+    // The same file uploaded again only needs scanning once
+    String cacheKey = virusScanResultCache.key(contentSha256);
+    if (virusScanResultCache.isClean(cacheKey)) {
+      bulkClaimMetricService.recordVirusScanCacheHit(file.getSize());
+      return;
+    }
+    bulkClaimMetricService.recordVirusScanCacheMiss();
+
     MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
     body.add("file", file.getResource());
-    SdsVirusCheckResponseDto sdsVirusCheckResponseDto =
-        restClient
-            .put()
-            .uri(sdsApiUrl + "/virus_check_file")
-            .contentType(MediaType.MULTIPART_FORM_DATA)
-            .header("Authorization", "Bearer " + tokenService.getSdsAccessToken())
-            .body(body)
-            .retrieve()
-            .body(SdsVirusCheckResponseDto.class);
-    if (sdsVirusCheckResponseDto == null
-        || !StringUtils.hasText(sdsVirusCheckResponseDto.success())) {
+    long startedAt = System.nanoTime();
+    boolean clean = false;
+    try {
+      SdsVirusCheckResponseDto sdsVirusCheckResponseDto =
+          restClient
+              .put()
+              .uri(sdsApiUrl + "/virus_check_file")
+              .contentType(MediaType.MULTIPART_FORM_DATA)
+              .header("Authorization", "Bearer " + tokenService.getSdsAccessToken())
+              .body(body)
+              .retrieve()
+              .body(SdsVirusCheckResponseDto.class);
+      clean =
+          sdsVirusCheckResponseDto != null
+              && StringUtils.hasText(sdsVirusCheckResponseDto.success());
+    } finally {
+      bulkClaimMetricService.recordVirusScan(
+          Duration.ofNanos(System.nanoTime() - startedAt), clean);
+    }
+    if (!clean) {
       throw new VirusCheckException("Virus check failed");
     }
+    virusScanResultCache.putClean(cacheKey);
   }
 }
@@ -0,0 +1,45 @@
+package uk.gov.justice.laa.bulkclaim.util;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.Set;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+/**
+ * The signed in user, with the offices they have access to read from their claims once at login.
+ * Access checks look offices up in a hashed set, rather than reading the claims and searching a
+ * list on each request, as users at large firms can have hundreds of offices.
+ *
+ * <p>This is kept in the session with the rest of the security context, so it is serialisable.
+ */
+public class OfficeAccessOidcUser extends DefaultOidcUser {
+
+  @Serial private static final long serialVersionUID = 1L;
+
+  private final List<String> offices;
+  private final Set<String> officeSet;
+
+  /**
+   * Creates the user from the user loaded at login.
+   *
+   * @param user the user loaded at login
+   * @param nameAttributeKey the claim holding the user's name
+   * @param offices the offices the user has access to, in the order they were given
+   */
+  public OfficeAccessOidcUser(OidcUser user, String nameAttributeKey, List<String> offices) {
+    super(user.getAuthorities(), user.getIdToken(), user.getUserInfo(), nameAttributeKey);
+    this.offices = List.copyOf(offices);
+    this.officeSet = Set.copyOf(offices);
+  }
+
+  /** Returns the offices the user has access to, in the order they were given. */
+  public List<String> getOffices() {
+    return offices;
+  }
+
+  /** Returns true if the user has access to the given office. */
+  public boolean hasOffice(String office) {
+    return office != null && officeSet.contains(office);
+  }
+}
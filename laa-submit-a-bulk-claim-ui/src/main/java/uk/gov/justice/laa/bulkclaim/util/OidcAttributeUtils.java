@@ -15,13 +15,27 @@ public class OidcAttributeUtils {
 
   private static final String OFFICES_ATTR = "LAA_ACCOUNTS";
 
+  /**
+   * Returns the offices the user has access to. These are read once at login, and are only read
+   * from the user's claims here for users who signed in before that was the case.
+   */
   public List<String> getUserOffices(OidcUser oidcUser) {
-    return getAttributeAsList(oidcUser, OFFICES_ATTR);
+    if (oidcUser instanceof OfficeAccessOidcUser officeAccessOidcUser) {
+      return officeAccessOidcUser.getOffices();
+    }
+    return readUserOffices(oidcUser);
+  }
+
+  /** Returns true if the user has access to the given office. */
+  public boolean hasOfficeAccess(OidcUser oidcUser, String office) {
+    if (oidcUser instanceof OfficeAccessOidcUser officeAccessOidcUser) {
+      return officeAccessOidcUser.hasOffice(office);
+    }
+    return readUserOffices(oidcUser).contains(office);
   }
 
   public void checkOfficeAccess(OidcUser oidcUser, String office) {
-    var offices = getUserOffices(oidcUser);
-    if (!offices.contains(office)) {
+    if (!hasOfficeAccess(oidcUser, office)) {
       var oid = oidcUser.getAttribute("oid");
       var message = "User %s does not have access to office %s".formatted(oid, office);
       log.error(message);
@@ -29,6 +43,11 @@ public class OidcAttributeUtils {
     }
   }
 
+  /** Reads the offices the user has access to from their claims. */
+  public List<String> readUserOffices(OidcUser oidcUser) {
+    return getAttributeAsList(oidcUser, OFFICES_ATTR);
+  }
+
   private List<String> getAttributeAsList(OidcUser oidcUser, String attributeName) {
     if (oidcUser == null || attributeName == null) {
       return Collections.emptyList();
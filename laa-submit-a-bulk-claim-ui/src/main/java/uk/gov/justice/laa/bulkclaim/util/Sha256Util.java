@@ -0,0 +1,67 @@
+package uk.gov.justice.laa.bulkclaim.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Works out SHA-256 checksums of uploaded files and their chunks, hex encoded as they are sent by
+ * the browser and used in Redis keys.
+ */
+public final class Sha256Util {
+
+  private Sha256Util() {}
+
+  /**
+   * Creates a new SHA-256 digest.
+   *
+   * @return the digest
+   */
+  public static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Reads a stream to the end, without holding it in memory, and returns its checksum. The stream
+   * is closed once read.
+   *
+   * @param content the stream to read
+   * @return the hex encoded checksum
+   * @throws IOException if the stream cannot be read
+   */
+  public static String hex(InputStream content) throws IOException {
+    MessageDigest digest = newDigest();
+    try (InputStream in = new DigestInputStream(content, digest)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return hex(digest);
+  }
+
+  /**
+   * Returns the checksum of the given bytes.
+   *
+   * @param content the bytes
+   * @return the hex encoded checksum
+   */
+  public static String hex(byte[] content) {
+    return HexFormat.of().formatHex(newDigest().digest(content));
+  }
+
+  /**
+   * Completes a digest and returns its checksum.
+   *
+   * @param digest the digest, which is reset
+   * @return the hex encoded checksum
+   */
+  public static String hex(MessageDigest digest) {
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
@@ -0,0 +1,86 @@
+package uk.gov.justice.laa.bulkclaim.util;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs blocking work, such as a builder which calls the Claims API, on its own virtual thread so
+ * that independent calls made while assembling a page can run side by side. Results are returned
+ * as a {@link Mono} so they can be combined with {@link Mono#zip}.
+ *
+ * <p>This is also the only place the application waits for a Claims API response. The clients
+ * are Reactor based, and {@link #await(Mono)} and {@link #awaitOptional(Mono)} block on their
+ * responses. Requests are handled on virtual threads, so this parks the request's thread rather
+ * than holding a platform thread, but the calls themselves still run through Reactor.
+ *
+ * <p>Every wait is timed, tagged with whether it parked a virtual thread or held a platform thread.
+ * Waits on platform threads tie up a thread for the whole Claims API call, so should only come from
+ * startup and scheduled work, never from requests.
+ */
+public final class VirtualThreadTasks {
+
+  private static final Scheduler SCHEDULER =
+      Schedulers.fromExecutorService(
+          Executors.newVirtualThreadPerTaskExecutor(), "virtual-thread-tasks");
+
+  private static final Timer VIRTUAL_THREAD_WAITS = waitTimer("virtual");
+  private static final Timer PLATFORM_THREAD_WAITS = waitTimer("platform");
+
+  private VirtualThreadTasks() {}
+
+  /**
+   * Creates a {@link Mono} which runs the given task on a new virtual thread when subscribed to.
+   *
+   * @param task the blocking task to run
+   * @param <T> the type returned by the task
+   * @return a {@link Mono} emitting the result of the task, or empty if the task returned null
+   */
+  public static <T> Mono<T> fork(Callable<T> task) {
+    return Mono.fromCallable(task).subscribeOn(SCHEDULER);
+  }
+
+  /**
+   * Waits for a response on the calling thread. On a virtual thread this parks the thread, leaving
+   * its carrier free to run other requests. The time spent waiting is recorded as {@code
+   * virtual.thread.tasks.await}.
+   *
+   * @param response the response to wait for
+   * @param <T> the type of the response
+   * @return the response, or null if it completed empty
+   * @throws IllegalStateException if called on a Reactor thread which must not block
+   */
+  public static <T> T await(Mono<T> response) {
+    return waitTimer().record(() -> response.block());
+  }
+
+  /**
+   * Waits for a response on the calling thread, as {@link #await(Mono)}.
+   *
+   * @param response the response to wait for
+   * @param <T> the type of the response
+   * @return the response, or empty if it completed empty
+   * @throws IllegalStateException if called on a Reactor thread which must not block
+   */
+  public static <T> Optional<T> awaitOptional(Mono<T> response) {
+    return waitTimer().record(() -> response.blockOptional());
+  }
+
+  private static Timer waitTimer() {
+    return Thread.currentThread().isVirtual() ? VIRTUAL_THREAD_WAITS : PLATFORM_THREAD_WAITS;
+  }
+
+  private static Timer waitTimer(String thread) {
+    // Registered globally as this is a static utility, Spring Boot adds its registry to the global
+    // one so the timers are published with the rest of the application's metrics
+    return Timer.builder("virtual.thread.tasks.await")
+        .description("Time spent waiting for a response, by the kind of thread which waited")
+        .tag("thread", thread)
+        .register(Metrics.globalRegistry);
+  }
+}
@@ -0,0 +1,241 @@
+package uk.gov.justice.laa.bulkclaim.validation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.web.multipart.MultipartFile;
+import uk.gov.justice.laa.bulkclaim.dto.FileUploadForm;
+
+/**
+ * Checks the start of a bulk claim file for problems which mean the Claims API would reject it,
+ * so obviously bad files are turned away before they are virus scanned and uploaded rather than
+ * minutes later once the Claims API has parsed them.
+ *
+ * <p>Only the structure of the file is checked:
+ *
+ * <ul>
+ *   <li>CSV and TXT files: the first line must be an {@code OFFICE} line with the account number,
+ *       and each of the sampled lines must start with a record type followed by {@code name=value}
+ *       fields.
+ *   <li>XML files: the sampled elements must be well formed, inside a {@code submission} element
+ *       whose {@code office} elements have an account number.
+ * </ul>
+ *
+ * <p>The file is read as a stream and reading stops after the configured number of rows, so a
+ * large file costs no more to check than a small one. Whether the claims themselves are valid is
+ * left to the Claims API. {@code upload.js} makes the same checks in the browser, apart from
+ * whether XML is well formed.
+ */
+@Slf4j
+@Component
+public class BulkImportFileContentValidator implements Validator {
+
+  private static final String OFFICE_RECORD = "OFFICE";
+  private static final String ACCOUNT_FIELD = "account";
+  private static final String SUBMISSION_ELEMENT = "submission";
+  private static final String OFFICE_ELEMENT = "office";
+  private static final String OUTCOME_ELEMENT = "outcome";
+  private static final Pattern RECORD_TYPE = Pattern.compile("[A-Za-z]+");
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  private final int sampleRows;
+  private final XMLInputFactory xmlInputFactory;
+
+  public BulkImportFileContentValidator(
+      @Value("${app.upload-pre-validation.sample-rows:100}") int sampleRows) {
+    this.sampleRows = sampleRows;
+    this.xmlInputFactory = XMLInputFactory.newFactory();
+    // Bulk claim files never need a DTD, and resolving one would let a file read other files
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  /** The number of rows checked, so {@code upload.js} can check the same number. */
+  public int getSampleRows() {
+    return sampleRows;
+  }
+
+  @Override
+  public boolean supports(Class<?> clazz) {
+    return FileUploadForm.class.isAssignableFrom(clazz);
+  }
+
+  /**
+   * Validates the content of the file in the provided {@link FileUploadForm}. Files which are
+   * missing or empty are left to {@link BulkImportFileValidator}.
+   *
+   * @param target the {@link FileUploadForm} object to be validated.
+   * @param errors the {@link Errors} object to which validation errors are reported.
+   */
+  @Override
+  public void validate(Object target, Errors errors) {
+    MultipartFile file = ((FileUploadForm) target).getFile();
+    if (file == null || file.isEmpty()) {
+      return;
+    }
+
+    String filename = Objects.toString(file.getOriginalFilename(), "").toLowerCase();
+    try (InputStream content = file.getInputStream()) {
+      if (filename.endsWith(".xml")) {
+        validateXml(content, errors);
+      } else {
+        validateDelimited(content, errors);
+      }
+    } catch (IOException e) {
+      // Not a problem with the file itself, so leave it to the Claims API
+      log.warn("Unable to pre-validate file {}: {}", file.getOriginalFilename(), e.getMessage());
+    }
+  }
+
+  private void validateDelimited(InputStream content, Errors errors) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+    boolean officeFound = false;
+    int lineNumber = 0;
+    int rows = 0;
+    String line;
+    while (rows < sampleRows && (line = reader.readLine()) != null) {
+      lineNumber++;
+      if (lineNumber == 1) {
+        line = StringUtils.removeStart(line, BYTE_ORDER_MARK);
+      }
+      if (line.isBlank()) {
+        continue;
+      }
+      rows++;
+
+      List<String> fields = fields(line);
+      if (!officeFound) {
+        if (!isOfficeRecord(fields)) {
+          errors.rejectValue("file", "bulkImport.validation.content.office");
+          return;
+        }
+        officeFound = true;
+      } else if (!isWellFormed(line, fields)) {
+        errors.rejectValue(
+            "file",
+            "bulkImport.validation.content.row",
+            new Object[] {lineNumber},
+            "The selected file has a formatting error on line " + lineNumber);
+        return;
+      }
+    }
+
+    if (!officeFound) {
+      errors.rejectValue("file", "bulkImport.validation.content.office");
+    }
+  }
+
+  private void validateXml(InputStream content, Errors errors) {
+    XMLStreamReader reader = null;
+    try {
+      reader = xmlInputFactory.createXMLStreamReader(content);
+      int depth = 0;
+      int outcomes = 0;
+      boolean officeFound = false;
+      while (outcomes < sampleRows && reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          depth++;
+          if ((depth == 1 && !SUBMISSION_ELEMENT.equals(reader.getLocalName()))
+              || (depth == 2 && !isOfficeElement(reader))) {
+            errors.rejectValue("file", "bulkImport.validation.content.office");
+            return;
+          }
+          officeFound |= depth == 2;
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          depth--;
+          if (OUTCOME_ELEMENT.equals(reader.getLocalName())) {
+            outcomes++;
+          }
+        }
+      }
+      if (!officeFound) {
+        errors.rejectValue("file", "bulkImport.validation.content.office");
+      }
+    } catch (XMLStreamException e) {
+      int lineNumber = e.getLocation() != null ? e.getLocation().getLineNumber() : 1;
+      errors.rejectValue(
+          "file",
+          "bulkImport.validation.content.xml",
+          new Object[] {lineNumber},
+          "The selected file is not valid XML - check line " + lineNumber);
+    } finally {
+      close(reader);
+    }
+  }
+
+  private static boolean isOfficeRecord(List<String> fields) {
+    return OFFICE_RECORD.equalsIgnoreCase(fields.getFirst().trim())
+        && fields.stream()
+            .skip(1)
+            .map(String::trim)
+            .anyMatch(
+                field ->
+                    isField(field, ACCOUNT_FIELD)
+                        && StringUtils.isNotBlank(StringUtils.substringAfter(field, '=')));
+  }
+
+  private static boolean isWellFormed(String line, List<String> fields) {
+    // A NUL character means a binary file has been given a CSV or TXT extension
+    if (line.indexOf('\0') >= 0 || !RECORD_TYPE.matcher(fields.getFirst().trim()).matches()) {
+      return false;
+    }
+    return fields.stream().skip(1).allMatch(field -> field.isBlank() || field.indexOf('=') > 0);
+  }
+
+  private static boolean isField(String field, String name) {
+    return field.regionMatches(true, 0, name + "=", 0, name.length() + 1);
+  }
+
+  private static boolean isOfficeElement(XMLStreamReader reader) {
+    return OFFICE_ELEMENT.equals(reader.getLocalName())
+        && StringUtils.isNotBlank(reader.getAttributeValue(null, ACCOUNT_FIELD));
+  }
+
+  /** Splits a line on commas, except for commas between double quotes. */
+  private static List<String> fields(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (char c : line.toCharArray()) {
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == ',' && !quoted) {
+        fields.add(field.toString());
+        field.setLength(0);
+        continue;
+      }
+      field.append(c);
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static void close(XMLStreamReader reader) {
+    if (reader == null) {
+      return;
+    }
+    try {
+      reader.close();
+    } catch (XMLStreamException e) {
+      log.debug("Unable to close XML reader: {}", e.getMessage());
+    }
+  }
+}
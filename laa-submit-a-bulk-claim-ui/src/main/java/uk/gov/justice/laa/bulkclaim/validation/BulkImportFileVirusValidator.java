@@ -31,7 +31,7 @@ public class BulkImportFileVirusValidator implements FileFirusValidator {
     FileUploadForm uploadForm = (FileUploadForm) target;
     MultipartFile file = uploadForm.getFile();
     try {
-      virusCheckService.checkVirus(file);
+      virusCheckService.checkVirus(file, uploadForm.contentSha256());
     } catch (VirusCheckException e) {
       log.error("Virus check failed with message: {}", e.getMessage());
       errors.reject("bulkImport.validation.virusScanFailed");
@@ -6,4 +6,231 @@ document.addEventListener('DOMContentLoaded', function () {
             searchTab.click();
         }
     }
-})
\ No newline at end of file
+})
+
+// Before anything is sent, the start of the file is checked in the same way as
+// BulkImportFileContentValidator, so obviously bad files are turned away without being uploaded.
+// Whether an XML file is well formed is left to the server.
+//
+// When chunked uploads are on, the selected file is then sent in chunks before submitting the
+// upload form with the ID of the upload instead of the file, so a dropped connection only means
+// sending the chunks which did not arrive. Browsers without the features needed, or uploads which
+// fail, fall back to sending the file with the form.
+const CHUNK_ATTEMPTS = 3;
+const PRE_VALIDATION_SAMPLE_BYTES = 256 * 1024;
+const uploadForm = document.getElementById('upload-form');
+
+if (uploadForm) {
+    const fileInput = uploadForm.querySelector('input[type="file"]');
+    const uploadIdInput = uploadForm.querySelector('input[name="uploadId"]');
+    const csrfInput = uploadForm.querySelector('input[name="_csrf"]');
+    const progress = document.getElementById('upload-progress');
+    const uploadUrl = uploadForm.dataset.chunkedUploadUrl;
+    const preValidate = uploadForm.dataset.preValidate === 'true';
+    const chunked = uploadForm.dataset.module === 'chunked-upload'
+        && window.fetch && window.crypto && window.crypto.subtle && window.sessionStorage;
+    let sending = false;
+
+    if (preValidate || chunked) {
+        uploadForm.addEventListener('submit', async (event) => {
+            const file = fileInput.files && fileInput.files[0];
+            if (!file || sending) {
+                return;
+            }
+            event.preventDefault();
+            sending = true;
+
+            const contentError = preValidate ? await findContentError(file) : null;
+            if (contentError) {
+                showContentError(contentError);
+                sending = false;
+                return;
+            }
+
+            if (chunked) {
+                try {
+                    uploadIdInput.value = await sendInChunks(file);
+                    // The file has already been sent, so the form only needs to send the upload ID
+                    fileInput.disabled = true;
+                } catch (error) {
+                    uploadIdInput.value = '';
+                }
+            }
+            uploadForm.submit();
+        });
+    }
+
+    async function sendInChunks(file) {
+        // Kept for the session so choosing the same file again carries on where it left off
+        const resumeKey = 'chunked-upload:' + [file.name, file.size, file.lastModified].join(':');
+        let upload = await resume(sessionStorage.getItem(resumeKey));
+        if (!upload) {
+            const params = new URLSearchParams({ filename: file.name, size: file.size, contentType: file.type });
+            upload = await send('POST', uploadUrl + '?' + params);
+            sessionStorage.setItem(resumeKey, upload.uploadId);
+        }
+
+        const received = new Set(upload.receivedChunks);
+        for (let index = 0; index < upload.totalChunks; index++) {
+            if (!received.has(index)) {
+                const start = index * upload.chunkSize;
+                await sendChunk(upload.uploadId, index, file.slice(start, start + upload.chunkSize));
+            }
+            showProgress(index + 1, upload.totalChunks);
+        }
+        sessionStorage.removeItem(resumeKey);
+        return upload.uploadId;
+    }
+
+    async function resume(uploadId) {
+        if (!uploadId) {
+            return null;
+        }
+        try {
+            return await send('GET', uploadUrl + '/' + encodeURIComponent(uploadId));
+        } catch (error) {
+            // The upload has expired or belongs to someone else, so start again
+            return null;
+        }
+    }
+
+    async function sendChunk(uploadId, index, chunk) {
+        const digest = await crypto.subtle.digest('SHA-256', await chunk.arrayBuffer());
+        const checksum = Array.from(new Uint8Array(digest), (b) => b.toString(16).padStart(2, '0')).join('');
+        for (let attempt = 1; ; attempt++) {
+            try {
+                return await send('PUT', uploadUrl + '/' + encodeURIComponent(uploadId) + '/chunks/' + index, chunk, {
+                    'Content-Type': 'application/octet-stream',
+                    'Upload-Chunk-Sha256': checksum
+                });
+            } catch (error) {
+                if (attempt >= CHUNK_ATTEMPTS) {
+                    throw error;
+                }
+                await new Promise((resolve) => setTimeout(resolve, 1000 * attempt));
+            }
+        }
+    }
+
+    async function send(method, url, body, headers) {
+        const response = await fetch(url, {
+            method,
+            body,
+            credentials: 'same-origin',
+            headers: Object.assign({ Accept: 'application/json', 'X-CSRF-TOKEN': csrfInput ? csrfInput.value : '' }, headers)
+        });
+        if (!response.ok) {
+            throw new Error(method + ' ' + url + ' failed with status ' + response.status);
+        }
+        return response.json();
+    }
+
+    async function findContentError(file) {
+        try {
+            const sample = await file.slice(0, PRE_VALIDATION_SAMPLE_BYTES).text();
+            if (file.name.toLowerCase().endsWith('.xml')) {
+                return findXmlError(sample);
+            }
+            return findDelimitedError(sample, file.size <= PRE_VALIDATION_SAMPLE_BYTES);
+        } catch (error) {
+            // Leave the file to be checked by the server
+            return null;
+        }
+    }
+
+    function findDelimitedError(sample, complete) {
+        const lines = sample.replace(/^\uFEFF/, '').split(/\r\n|\r|\n/);
+        if (!complete) {
+            // The last line may have been cut off part way through
+            lines.pop();
+        }
+        const sampleRows = Number(uploadForm.dataset.sampleRows) || 100;
+        let officeFound = false;
+        let rows = 0;
+        for (let index = 0; index < lines.length && rows < sampleRows; index++) {
+            const line = lines[index];
+            if (!line.trim()) {
+                continue;
+            }
+            rows++;
+
+            const fields = splitFields(line);
+            if (!officeFound) {
+                if (!isOfficeRecord(fields)) {
+                    return uploadForm.dataset.officeMessage;
+                }
+                officeFound = true;
+            } else if (!isWellFormed(line, fields)) {
+                return uploadForm.dataset.rowMessage.replace('{0}', index + 1);
+            }
+        }
+        return officeFound || !complete ? null : uploadForm.dataset.officeMessage;
+    }
+
+    function findXmlError(sample) {
+        // The first two elements must be the submission and an office with its account number
+        const elements = sample
+            .replace(/<\?[\s\S]*?\?>|<!--[\s\S]*?-->|<!DOCTYPE[^>]*>/g, '')
+            .match(/<[A-Za-z][^>]*>/g) || [];
+        const submissionFound = /^<submission[\s/>]/.test(elements[0] || '');
+        const officeFound = /^<office\s[^>]*\baccount\s*=\s*("\s*[^"\s][^"]*"|'\s*[^'\s][^']*')/.test(elements[1] || '');
+        return submissionFound && officeFound ? null : uploadForm.dataset.officeMessage;
+    }
+
+    function isOfficeRecord(fields) {
+        return fields[0].trim().toUpperCase() === 'OFFICE'
+            && fields.slice(1).some((field) => /^account=\s*\S/i.test(field.trim()));
+    }
+
+    function isWellFormed(line, fields) {
+        // A NUL character means a binary file has been given a CSV or TXT extension
+        if (line.indexOf('\0') >= 0 || !/^[A-Za-z]+$/.test(fields[0].trim())) {
+            return false;
+        }
+        return fields.slice(1).every((field) => !field.trim() || field.indexOf('=') > 0);
+    }
+
+    function splitFields(line) {
+        // Commas between double quotes are part of the field
+        const fields = [];
+        let field = '';
+        let quoted = false;
+        for (const c of line) {
+            if (c === '"') {
+                quoted = !quoted;
+            } else if (c === ',' && !quoted) {
+                fields.push(field);
+                field = '';
+                continue;
+            }
+            field += c;
+        }
+        fields.push(field);
+        return fields;
+    }
+
+    function showContentError(text) {
+        // Shown the same way as the errors the server adds to the form
+        const formGroup = fileInput.closest('.govuk-form-group');
+        let errorMessage = formGroup.querySelector('.govuk-error-message');
+        if (!errorMessage) {
+            errorMessage = document.createElement('p');
+            errorMessage.id = 'field-error-message';
+            errorMessage.className = 'govuk-error-message';
+            formGroup.insertBefore(errorMessage, formGroup.querySelector('.govuk-drop-zone'));
+        }
+        const hiddenPrefix = document.createElement('span');
+        hiddenPrefix.className = 'govuk-visually-hidden';
+        hiddenPrefix.textContent = 'Error:';
+        errorMessage.replaceChildren(hiddenPrefix, document.createTextNode(' ' + text));
+        formGroup.classList.add('govuk-form-group--error');
+        fileInput.setAttribute('aria-describedby', errorMessage.id);
+        fileInput.focus();
+    }
+
+    function showProgress(sent, total) {
+        if (progress) {
+            progress.textContent = uploadForm.dataset.progressMessage.replace('{0}', sent).replace('{1}', total);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+// Reloads the upload being checked page once the Claims API has finished checking the file.
+// Until then, shows how many of the claims in the file have been checked so far.
+// Browsers without JavaScript fall back to the meta refresh in the page head.
+const uploadStatus = document.querySelector('[data-module="upload-status"]')
+const uploadProgress = document.getElementById('upload-progress')
+
+if (uploadStatus && window.EventSource) {
+  const events = new EventSource(uploadStatus.dataset.eventsUrl)
+
+  events.addEventListener('complete', () => {
+    events.close()
+    window.location.reload()
+  })
+
+  events.addEventListener('progress', (event) => {
+    const progress = JSON.parse(event.data)
+    if (uploadProgress) {
+      // The total is missing when the claims in the file could not be counted on upload
+      uploadProgress.textContent = progress.total === null
+        ? uploadStatus.dataset.progressWithoutTotalMessage.replace('{0}', progress.checked)
+        : uploadStatus.dataset.progressMessage
+          .replace('{0}', progress.checked)
+          .replace('{1}', progress.total)
+    }
+  })
+
+  events.addEventListener('error', () => {
+    // The browser reconnects on its own unless the server refused the stream, in which case
+    // fall back to refreshing the page at the same rate as the meta refresh
+    if (events.readyState === EventSource.CLOSED) {
+      setTimeout(() => window.location.reload(), 10000)
+    }
+  })
+}
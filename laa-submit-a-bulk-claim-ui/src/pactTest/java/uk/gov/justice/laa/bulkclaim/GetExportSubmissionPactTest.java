@@ -13,7 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import uk.gov.justice.laa.bulkclaim.client.ExportDataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.config.ClaimsApiPactTestConfig;
@@ -212,38 +213,41 @@ public final class GetExportSubmissionPactTest extends AbstractPactTest {
   @DisplayName("Verify 200 response - Legal Help")
   @PactTestFor(pactMethod = "getLegalHelpSubmission200")
   void verifyLegalHelp200Response() {
-    byte[] csvData =
+    DataBuffer csvData =
         exportDataClaimsRestClient
             .getSubmissionExport("legal-help", SUBMISSION_ID, "testOffice")
-            .map(HttpEntity::getBody)
+            .flatMap(response -> DataBufferUtils.join(response.getBody()))
             .block();
 
     assertThat(csvData).isNotNull();
+    DataBufferUtils.release(csvData);
   }
 
   @Test
   @DisplayName("Verify 200 response - Crime Lower")
   @PactTestFor(pactMethod = "getCrimeLowerSubmission200")
   void verifyCrimeLower200Response() {
-    byte[] csvData =
+    DataBuffer csvData =
         exportDataClaimsRestClient
             .getSubmissionExport("crime-lower", SUBMISSION_ID, "testOffice")
-            .map(HttpEntity::getBody)
+            .flatMap(response -> DataBufferUtils.join(response.getBody()))
             .block();
 
     assertThat(csvData).isNotNull();
+    DataBufferUtils.release(csvData);
   }
 
   @Test
   @DisplayName("Verify 200 response - Mediation")
   @PactTestFor(pactMethod = "getMediationSubmission200")
   void verifyMediation200Response() {
-    byte[] csvData =
+    DataBuffer csvData =
         exportDataClaimsRestClient
             .getSubmissionExport("mediation", SUBMISSION_ID, "testOffice")
-            .map(HttpEntity::getBody)
+            .flatMap(response -> DataBufferUtils.join(response.getBody()))
             .block();
 
     assertThat(csvData).isNotNull();
+    DataBufferUtils.release(csvData);
   }
 }
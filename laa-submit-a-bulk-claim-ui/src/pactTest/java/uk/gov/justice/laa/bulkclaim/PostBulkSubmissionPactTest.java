@@ -21,10 +21,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.client.WebClientResponseException.BadRequest;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.config.ClaimsApiPactTestConfig;
@@ -135,7 +142,7 @@ public final class PostBulkSubmissionPactTest extends AbstractPactTest {
     MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", new byte[10]);
 
     ResponseEntity<CreateBulkSubmission201Response> submission =
-        dataClaimsRestClient.upload(file, userId, offices).block();
+        dataClaimsRestClient.upload(filePart(file), userId, offices).block();
     assertThat(submission).isNotNull();
     assertThat(submission.getStatusCode()).isEqualTo(HttpStatus.CREATED);
     assertThat(submission.getBody().getBulkSubmissionId()).isNotNull();
@@ -150,7 +157,8 @@ public final class PostBulkSubmissionPactTest extends AbstractPactTest {
     MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", new byte[10]);
 
     assertThrows(
-        BadRequest.class, () -> dataClaimsRestClient.upload(file, userId, offices).block());
+        BadRequest.class,
+        () -> dataClaimsRestClient.upload(filePart(file), userId, offices).block());
   }
 
   @Test
@@ -162,6 +170,20 @@ public final class PostBulkSubmissionPactTest extends AbstractPactTest {
     MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", new byte[10]);
 
     assertThrows(
-        BadRequest.class, () -> dataClaimsRestClient.upload(file, userId, offices).block());
+        BadRequest.class,
+        () -> dataClaimsRestClient.upload(filePart(file), userId, offices).block());
+  }
+
+  private static HttpEntity<?> filePart(MultipartFile file) {
+    MultipartBodyBuilder builder = new MultipartBodyBuilder();
+    builder
+        .asyncPart(
+            "file",
+            DataBufferUtils.readInputStream(
+                file::getInputStream, DefaultDataBufferFactory.sharedInstance, 1024),
+            DataBuffer.class)
+        .filename(file.getOriginalFilename())
+        .contentType(MediaType.parseMediaType(file.getContentType()));
+    return builder.build().getFirst("file");
   }
 }
@@ -0,0 +1,34 @@
+package uk.gov.justice.laa.bulkclaim;
+
+import static com.tngtech.archunit.core.domain.JavaCall.Predicates.target;
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.assignableTo;
+import static com.tngtech.archunit.core.domain.properties.HasName.Predicates.nameStartingWith;
+import static com.tngtech.archunit.core.domain.properties.HasOwner.Predicates.With.owner;
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
+
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.lang.ArchRule;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.util.VirtualThreadTasks;
+
+@AnalyzeClasses(
+    packagesOf = SubmitABulkClaimApplication.class,
+    importOptions = ImportOption.DoNotIncludeTests.class)
+class BlockingCallsArchTest {
+
+  @ArchTest
+  static final ArchRule onlyVirtualThreadTasksWaitsForResponses =
+      noClasses()
+          .that()
+          .doNotBelongToAnyOf(VirtualThreadTasks.class)
+          .should()
+          .callMethodWhere(
+              target(owner(assignableTo(Mono.class).or(assignableTo(Flux.class))))
+                  .and(target(nameStartingWith("block"))))
+          .because(
+              "Claims API responses should be waited for with VirtualThreadTasks.await so there is"
+                  + " one way of blocking on a response");
+}
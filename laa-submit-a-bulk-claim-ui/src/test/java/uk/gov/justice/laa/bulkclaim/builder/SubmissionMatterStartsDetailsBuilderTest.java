@@ -9,6 +9,8 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.laa.bulkclaim.builder.SubmissionMatterStartsDetailsBuilder.NEW_MATTER_STARTS_LABEL;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -19,7 +21,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.cache.CompletedSubmissionCache;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.dto.submission.SubmissionMatterStartsRow;
 import uk.gov.justice.laa.bulkclaim.mapper.SubmissionMatterStartsMapper;
@@ -41,7 +45,15 @@ class SubmissionMatterStartsDetailsBuilderTest {
 
   @BeforeEach
   void beforeEach() {
-    this.builder = new SubmissionMatterStartsDetailsBuilder(dataClaimsRestClient, mapper);
+    this.builder =
+        new SubmissionMatterStartsDetailsBuilder(
+            dataClaimsRestClient,
+            mapper,
+            new CompletedSubmissionCache(
+                new ConcurrentMapCacheManager(),
+                new SimpleMeterRegistry(),
+                Duration.ofMinutes(1),
+                100));
   }
 
   @Test
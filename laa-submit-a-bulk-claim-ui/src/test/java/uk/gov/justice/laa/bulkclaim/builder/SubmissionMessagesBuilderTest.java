@@ -2,8 +2,13 @@ package uk.gov.justice.laa.bulkclaim.builder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,14 +17,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.cache.CompletedSubmissionCache;
 import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessageRow;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSummary;
 import uk.gov.justice.laa.bulkclaim.mapper.BulkClaimImportSummaryMapper;
 import uk.gov.justice.laa.bulkclaim.util.PaginationUtil;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimResponse;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionStatus;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessageBase;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessageType;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessagesResponse;
@@ -31,6 +42,11 @@ class SubmissionMessagesBuilderTest {
   @Mock private BulkClaimImportSummaryMapper bulkClaimImportSummaryMapper;
   @Mock private PaginationUtil paginationUtil;
 
+  @Spy
+  private CompletedSubmissionCache completedSubmissionCache =
+      new CompletedSubmissionCache(
+          new ConcurrentMapCacheManager(), new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+
   @InjectMocks private SubmissionMessagesBuilder builder;
 
   @Test
@@ -80,7 +96,8 @@ class SubmissionMessagesBuilderTest {
     when(bulkClaimImportSummaryMapper.toSubmissionSummaryClaimMessage(any(), any()))
         .thenReturn(mappedError);
 
-    MessagesSummary result = builder.buildErrors(submissionId, 0, 10, "client_surname,asc");
+    MessagesSummary result =
+        builder.buildErrors(submission(submissionId), 0, 10, "client_surname,asc");
 
     assertThat(result.messages()).containsExactly(mappedError);
     assertThat(result.totalMessageCount()).isEqualTo(1);
@@ -102,7 +119,8 @@ class SubmissionMessagesBuilderTest {
             "client_surname,asc"))
         .thenReturn(Mono.empty());
 
-    MessagesSummary result = builder.buildErrors(submissionId, 0, 10, "client_surname,asc");
+    MessagesSummary result =
+        builder.buildErrors(submission(submissionId), 0, 10, "client_surname,asc");
 
     assertThat(result.messages()).isEmpty();
     assertThat(result.totalMessageCount()).isZero();
@@ -152,7 +170,8 @@ class SubmissionMessagesBuilderTest {
     when(bulkClaimImportSummaryMapper.toSubmissionSummaryClaimMessage(any(), any()))
         .thenReturn(mappedError);
 
-    MessagesSummary result = builder.buildErrors(submissionId, 0, 10, "client_surname,asc");
+    MessagesSummary result =
+        builder.buildErrors(submission(submissionId), 0, 10, "client_surname,asc");
 
     assertThat(result.messages()).containsExactly(mappedError);
     assertThat(result.totalMessageCount()).isEqualTo(1);
@@ -203,10 +222,95 @@ class SubmissionMessagesBuilderTest {
     when(bulkClaimImportSummaryMapper.toSubmissionSummaryClaimMessage(any(), any()))
         .thenReturn(mappedError);
 
-    MessagesSummary result = builder.buildErrors(submissionId, 0, 10, "client_surname,asc");
+    MessagesSummary result =
+        builder.buildErrors(submission(submissionId), 0, 10, "client_surname,asc");
 
     assertThat(result.messages()).containsExactly(mappedError);
     assertThat(result.totalMessageCount()).isEqualTo(1);
     assertThat(result.totalClaimsWithErrors()).isEqualTo(1);
   }
+
+  @Test
+  @DisplayName("should look up each distinct claim once and default claims that fail to load")
+  void shouldLookUpEachDistinctClaimOnce() {
+    UUID submissionId = UUID.randomUUID();
+    UUID claimId = UUID.randomUUID();
+    UUID failingClaimId = UUID.randomUUID();
+
+    ValidationMessageBase firstError =
+        new ValidationMessageBase()
+            .submissionId(submissionId)
+            .claimId(claimId)
+            .displayMessage("First error");
+    ValidationMessageBase secondError =
+        new ValidationMessageBase()
+            .submissionId(submissionId)
+            .claimId(claimId)
+            .displayMessage("Second error");
+    ValidationMessageBase failingClaimError =
+        new ValidationMessageBase()
+            .submissionId(submissionId)
+            .claimId(failingClaimId)
+            .displayMessage("Third error");
+
+    ValidationMessagesResponse errorResponse =
+        new ValidationMessagesResponse()
+            .content(List.of(firstError, secondError, failingClaimError))
+            .totalElements(3)
+            .totalClaims(2);
+
+    when(dataClaimsRestClient.getValidationMessages(
+            submissionId,
+            null,
+            ValidationMessageType.ERROR.toString(),
+            null,
+            0,
+            10,
+            "client_surname,asc"))
+        .thenReturn(Mono.just(errorResponse));
+
+    ClaimResponse claimResponse = new ClaimResponse().uniqueFileNumber("UFN123");
+    when(dataClaimsRestClient.getSubmissionClaim(submissionId, claimId))
+        .thenReturn(Mono.just(claimResponse));
+    when(dataClaimsRestClient.getSubmissionClaim(submissionId, failingClaimId))
+        .thenReturn(
+            Mono.error(WebClientResponseException.create(404, "Not found", null, null, null)));
+
+    MessageRow mappedError =
+        new MessageRow(
+            submissionId,
+            Optional.of(claimId),
+            "UFN123",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            "First error",
+            "ERROR");
+
+    when(bulkClaimImportSummaryMapper.toSubmissionSummaryClaimMessage(any(), any()))
+        .thenReturn(mappedError);
+
+    MessagesSummary result =
+        builder.buildErrors(submission(submissionId), 0, 10, "client_surname,asc");
+
+    assertThat(result.messages()).hasSize(3);
+    verify(dataClaimsRestClient, times(1)).getSubmissionClaim(submissionId, claimId);
+    verify(dataClaimsRestClient, times(1)).getSubmissionClaim(submissionId, failingClaimId);
+    verify(bulkClaimImportSummaryMapper, times(2))
+        .toSubmissionSummaryClaimMessage(any(), eq(claimResponse));
+    verify(bulkClaimImportSummaryMapper, times(1))
+        .toSubmissionSummaryClaimMessage(eq(failingClaimError), eq(new ClaimResponse()));
+  }
+
+  private static SubmissionResponse submission(UUID submissionId) {
+    return SubmissionResponse.builder()
+        .submissionId(submissionId)
+        .status(SubmissionStatus.VALIDATION_FAILED)
+        .build();
+  }
 }
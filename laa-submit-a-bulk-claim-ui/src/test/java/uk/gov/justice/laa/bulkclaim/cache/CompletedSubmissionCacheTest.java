@@ -0,0 +1,198 @@
+package uk.gov.justice.laa.bulkclaim.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionStatus;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ValidationMessagesResponse;
+
+@DisplayName("Completed submission cache test")
+class CompletedSubmissionCacheTest {
+
+  private static final UUID SUBMISSION_ID =
+      UUID.fromString("bceac49c-d756-4e05-8e28-3334b84b6fe8");
+
+  private final CacheManager sharedCaches = new ConcurrentMapCacheManager();
+  private final AtomicInteger loads = new AtomicInteger();
+  private MeterRegistry meterRegistry;
+  private CompletedSubmissionCache completedSubmissionCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    completedSubmissionCache = newCache(meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Should only cache submissions which have finished validation")
+  void shouldOnlyCacheCompletedSubmissions() {
+    // Given
+    UUID inProgressId = UUID.randomUUID();
+
+    // When
+    completedSubmissionCache.putSubmission(submission(SubmissionStatus.VALIDATION_SUCCEEDED));
+    completedSubmissionCache.putSubmission(
+        submission(inProgressId, SubmissionStatus.VALIDATION_IN_PROGRESS));
+
+    // Then
+    assertThat(completedSubmissionCache.findSubmission(SUBMISSION_ID)).isPresent();
+    assertThat(completedSubmissionCache.findSubmission(inProgressId)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should fetch each page of a completed submission once")
+  void shouldFetchEachPageOfCompletedSubmissionOnce() {
+    // Given
+    var submission = submission(SubmissionStatus.VALIDATION_FAILED);
+
+    // When
+    ValidationMessagesResponse first = getMessages(submission, "null:ERROR:0:10:null");
+    ValidationMessagesResponse second = getMessages(submission, "null:ERROR:0:10:null");
+    getMessages(submission, "null:ERROR:1:10:null");
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(loads).hasValue(2);
+    assertThat(gets(CompletedSubmissionCache.MESSAGES, "local-hit")).isEqualTo(1);
+    assertThat(gets(CompletedSubmissionCache.MESSAGES, "miss")).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should always fetch responses for a submission still being validated")
+  void shouldNotCacheSubmissionStillBeingValidated() {
+    // Given
+    var submission = submission(SubmissionStatus.VALIDATION_IN_PROGRESS);
+
+    // When
+    getMessages(submission, "null:ERROR:0:10:null");
+    getMessages(submission, "null:ERROR:0:10:null");
+
+    // Then
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Should use responses cached in Redis by another pod")
+  void shouldUseResponsesCachedByAnotherPod() {
+    // Given
+    var submission = submission(SubmissionStatus.VALIDATION_SUCCEEDED);
+    getMessages(submission, "null:ERROR:0:10:null");
+    var otherPodMetrics = new SimpleMeterRegistry();
+    var otherPod = newCache(otherPodMetrics);
+
+    // When
+    otherPod.get(
+        CompletedSubmissionCache.MESSAGES,
+        submission,
+        "null:ERROR:0:10:null",
+        ValidationMessagesResponse.class,
+        this::load);
+
+    // Then
+    assertThat(loads).hasValue(1);
+    assertThat(
+            otherPodMetrics
+                .get("completed.submission.cache.gets")
+                .tag("cache", CompletedSubmissionCache.MESSAGES)
+                .tag("result", "redis-hit")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should not read Redis for a submission still being validated")
+  void shouldNotReadRedisForSubmissionStillBeingValidated() {
+    // Given
+    CacheManager caches = mock(CacheManager.class);
+    var cache =
+        new CompletedSubmissionCache(caches, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+
+    // When
+    cache.get(
+        CompletedSubmissionCache.MESSAGES,
+        submission(SubmissionStatus.VALIDATION_IN_PROGRESS),
+        "null:ERROR:0:10:null",
+        ValidationMessagesResponse.class,
+        this::load);
+
+    // Then
+    verifyNoInteractions(caches);
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Should fall back to the Claims API when Redis is unavailable")
+  void shouldFallBackWhenRedisUnavailable() {
+    // Given
+    CacheManager brokenCaches = mock(CacheManager.class);
+    when(brokenCaches.getCache(CompletedSubmissionCache.MESSAGES))
+        .thenThrow(new RedisConnectionFailureException("Connection refused"));
+    var cache =
+        new CompletedSubmissionCache(
+            brokenCaches, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+
+    // When
+    ValidationMessagesResponse result =
+        cache.get(
+            CompletedSubmissionCache.MESSAGES,
+            submission(SubmissionStatus.VALIDATION_SUCCEEDED),
+            "null:ERROR:0:10:null",
+            ValidationMessagesResponse.class,
+            this::load);
+
+    // Then
+    assertThat(result).isNotNull();
+    assertThat(loads).hasValue(1);
+  }
+
+  private CompletedSubmissionCache newCache(MeterRegistry meters) {
+    return new CompletedSubmissionCache(sharedCaches, meters, Duration.ofMinutes(1), 100);
+  }
+
+  private ValidationMessagesResponse getMessages(SubmissionResponse submission, String query) {
+    return completedSubmissionCache.get(
+        CompletedSubmissionCache.MESSAGES,
+        submission,
+        query,
+        ValidationMessagesResponse.class,
+        this::load);
+  }
+
+  private ValidationMessagesResponse load() {
+    loads.incrementAndGet();
+    return ValidationMessagesResponse.builder().content(List.of()).build();
+  }
+
+  private double gets(String cacheName, String result) {
+    return meterRegistry
+        .get("completed.submission.cache.gets")
+        .tag("cache", cacheName)
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+
+  private static SubmissionResponse submission(SubmissionStatus status) {
+    return submission(SUBMISSION_ID, status);
+  }
+
+  private static SubmissionResponse submission(UUID submissionId, SubmissionStatus status) {
+    return SubmissionResponse.builder().submissionId(submissionId).status(status).build();
+  }
+}
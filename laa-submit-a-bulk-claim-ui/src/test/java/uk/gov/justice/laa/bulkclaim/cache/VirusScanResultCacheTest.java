@@ -0,0 +1,109 @@
+package uk.gov.justice.laa.bulkclaim.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Virus scan result cache test")
+class VirusScanResultCacheTest {
+
+  // SHA-256 of "test content"
+  private static final String DIGEST =
+      "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72";
+
+  @Mock private StringRedisTemplate redisTemplate;
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  private VirusScanResultCache virusScanResultCache;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    virusScanResultCache = new VirusScanResultCache(redisTemplate, Duration.ofHours(1), "v2");
+  }
+
+  @Test
+  @DisplayName("Should key files by signature version and content digest")
+  void shouldKeyFilesBySignatureVersionAndDigest() {
+    // When
+    String key = virusScanResultCache.key(DIGEST);
+
+    // Then
+    assertThat(key).isEqualTo(VirusScanResultCache.KEY_PREFIX + "v2:" + DIGEST);
+  }
+
+  @Test
+  @DisplayName("Should not key files which could not be digested")
+  void shouldNotKeyFilesWithoutDigest() {
+    // When
+    String key = virusScanResultCache.key(null);
+
+    // Then
+    assertThat(key).isNull();
+  }
+
+  @Test
+  @DisplayName("Should not key files when the cache is turned off")
+  void shouldNotKeyFilesWhenTurnedOff() {
+    // Given
+    var cache = new VirusScanResultCache(redisTemplate, Duration.ZERO, "v2");
+
+    // When
+    String key = cache.key(DIGEST);
+
+    // Then
+    assertThat(key).isNull();
+  }
+
+  @Test
+  @DisplayName("Should not start with the cache turned on and no signature version")
+  void shouldNotStartWithoutSignatureVersion() {
+    assertThatThrownBy(() -> new VirusScanResultCache(redisTemplate, Duration.ofHours(1), " "))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("signature-version");
+  }
+
+  @Test
+  @DisplayName("Should keep clean results for the time to live")
+  void shouldKeepCleanResultsForTimeToLive() {
+    // Given
+    when(valueOperations.get("key")).thenReturn("CLEAN");
+
+    // When
+    virusScanResultCache.putClean("key");
+    boolean clean = virusScanResultCache.isClean("key");
+
+    // Then
+    verify(valueOperations).set("key", "CLEAN", Duration.ofHours(1));
+    assertThat(clean).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should treat files as not scanned when Redis is unavailable")
+  void shouldTreatFilesAsNotScannedWhenRedisIsUnavailable() {
+    // Given
+    when(valueOperations.get("key"))
+        .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+    // When
+    boolean clean = virusScanResultCache.isClean("key");
+
+    // Then
+    assertThat(clean).isFalse();
+  }
+
+}
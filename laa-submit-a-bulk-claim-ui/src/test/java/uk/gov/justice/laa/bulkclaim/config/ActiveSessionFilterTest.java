@@ -0,0 +1,70 @@
+package uk.gov.justice.laa.bulkclaim.config;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import uk.gov.justice.laa.bulkclaim.service.SessionService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Active session filter test")
+class ActiveSessionFilterTest {
+
+  @Mock private SessionService sessionService;
+
+  @Test
+  @DisplayName("Should record the session used by the request as active")
+  void shouldRecordSessionAsActive() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpSession session = new MockHttpSession(null, "session-1");
+    session.setMaxInactiveInterval(3600);
+    request.setSession(session);
+    request.setRequestedSessionId("session-1");
+
+    // When
+    new ActiveSessionFilter(sessionService)
+        .doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    // Then
+    verify(sessionService).recordActive("session-1", Duration.ofHours(1));
+    verify(sessionService, never()).recordEnded(anyString());
+  }
+
+  @Test
+  @DisplayName("Should record the session as ended when it is invalidated by the request")
+  void shouldRecordInvalidatedSessionAsEnded() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(new MockHttpSession(null, "session-1"));
+    request.setRequestedSessionId("session-1");
+    MockFilterChain signOut =
+        new MockFilterChain() {
+          @Override
+          public void doFilter(
+              jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+            ((HttpServletRequest) request).getSession().invalidate();
+          }
+        };
+
+    // When
+    new ActiveSessionFilter(sessionService)
+        .doFilter(request, new MockHttpServletResponse(), signOut);
+
+    // Then
+    verify(sessionService).recordEnded("session-1");
+    verify(sessionService, never()).recordActive(anyString(), any());
+  }
+}
@@ -0,0 +1,92 @@
+package uk.gov.justice.laa.bulkclaim.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Compressing Redis serializer test")
+class CompressingRedisSerializerTest {
+
+  private static final List<String> OFFICES =
+      IntStream.range(0, 200).mapToObj(i -> "0P%04d".formatted(i)).toList();
+
+  private final JdkSerializationRedisSerializer jdkSerializer =
+      new JdkSerializationRedisSerializer();
+
+  @Mock private BulkClaimMetricService bulkClaimMetricService;
+
+  @Test
+  @DisplayName("Should compress large values and read them back")
+  void shouldCompressLargeValues() {
+    // Given
+    var serializer = compressing(true);
+    int uncompressedSize = jdkSerializer.serialize(OFFICES).length;
+
+    // When
+    byte[] written = serializer.serialize(OFFICES);
+
+    // Then
+    assertThat(written.length).isLessThan(uncompressedSize);
+    assertThat(serializer.deserialize(written)).isEqualTo(OFFICES);
+    verify(bulkClaimMetricService).recordSessionValueSize(uncompressedSize, written.length);
+  }
+
+  @Test
+  @DisplayName("Should not compress values smaller than the minimum size")
+  void shouldNotCompressSmallValues() {
+    // Given
+    var serializer = compressing(true);
+
+    // When
+    byte[] written = serializer.serialize(1_700_000_000_000L);
+
+    // Then
+    assertThat(written).isEqualTo(jdkSerializer.serialize(1_700_000_000_000L));
+    verify(bulkClaimMetricService).recordSessionValueSize(eq((long) written.length), anyLong());
+  }
+
+  @Test
+  @DisplayName("Should read values written before compression was turned on")
+  void shouldReadUncompressedValues() {
+    // Given
+    var serializer = compressing(true);
+    byte[] existing = jdkSerializer.serialize(OFFICES);
+
+    // When
+    Object value = serializer.deserialize(existing);
+
+    // Then
+    assertThat(value).isEqualTo(OFFICES);
+  }
+
+  @Test
+  @DisplayName("Should read compressed values once compression is turned off")
+  void shouldReadCompressedValuesWhenTurnedOff() {
+    // Given
+    byte[] compressed = compressing(true).serialize(OFFICES);
+    var serializer = compressing(false);
+
+    // When
+    Object value = serializer.deserialize(compressed);
+
+    // Then
+    assertThat(value).isEqualTo(OFFICES);
+    assertThat(serializer.serialize(OFFICES)).isEqualTo(jdkSerializer.serialize(OFFICES));
+  }
+
+  private CompressingRedisSerializer compressing(boolean compress) {
+    return new CompressingRedisSerializer(jdkSerializer, compress, 512, bulkClaimMetricService);
+  }
+}
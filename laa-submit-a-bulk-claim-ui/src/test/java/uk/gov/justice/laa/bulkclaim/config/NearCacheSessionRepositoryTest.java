@@ -0,0 +1,157 @@
+package uk.gov.justice.laa.bulkclaim.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.session.data.redis.RedisSessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository.RedisSession;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Near cache session repository test")
+class NearCacheSessionRepositoryTest {
+
+  private static final String SESSION_ID = "session-id";
+  private static final String CHANNEL = NearCacheSessionRepository.INVALIDATION_CHANNEL;
+
+  @Mock private RedisSessionRepository delegate;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private NearCacheSessionRepository repository;
+  private Instant lastAccessedTime;
+
+  @BeforeEach
+  void setUp() {
+    repository =
+        new NearCacheSessionRepository(
+            delegate,
+            new JdkSerializationRedisSerializer(),
+            redisTemplate,
+            new SimpleMeterRegistry(),
+            Duration.ofSeconds(30),
+            100,
+            Duration.ofMinutes(1));
+    lastAccessedTime = Instant.now().minusSeconds(5);
+  }
+
+  @Test
+  @DisplayName("Should read unchanged sessions from memory")
+  void shouldReadUnchangedSessionsFromMemory() {
+    // Given
+    RedisSession redisSession = redisSession();
+    when(delegate.findById(SESSION_ID)).thenReturn(redisSession);
+
+    // When
+    var first = repository.findById(SESSION_ID);
+    repository.save(first);
+    var second = repository.findById(SESSION_ID);
+
+    // Then
+    assertThat((String) second.getAttribute("office")).isEqualTo("0P322F");
+    verify(delegate, times(1)).findById(SESSION_ID);
+    verify(delegate, never()).save(redisSession);
+  }
+
+  @Test
+  @DisplayName("Should write changes to Redis and tell other pods")
+  void shouldWriteChangesAndTellOtherPods() {
+    // Given
+    RedisSession redisSession = redisSession();
+    when(delegate.findById(SESSION_ID)).thenReturn(redisSession);
+
+    // When
+    var session = repository.findById(SESSION_ID);
+    session.setAttribute("office", "0P333G");
+    repository.save(session);
+    repository.findById(SESSION_ID);
+
+    // Then
+    verify(redisSession).setAttribute("office", "0P333G");
+    verify(delegate).save(redisSession);
+    verify(redisTemplate).convertAndSend(anyString(), anyString());
+    // Once to cache it, once to change it and once after it was removed from memory
+    verify(delegate, times(3)).findById(SESSION_ID);
+  }
+
+  @Test
+  @DisplayName("Should remove sessions changed on another pod")
+  void shouldRemoveSessionsChangedOnAnotherPod() {
+    // Given
+    when(delegate.findById(SESSION_ID)).thenReturn(redisSession());
+    repository.findById(SESSION_ID);
+
+    // When
+    repository.onMessage(message("other-pod:" + SESSION_ID), null);
+    repository.findById(SESSION_ID);
+
+    // Then
+    verify(delegate, times(2)).findById(SESSION_ID);
+  }
+
+  @Test
+  @DisplayName("Should write the last accessed time back once the touch interval has passed")
+  void shouldWriteLastAccessedTimeOnceTouchIntervalHasPassed() {
+    // Given
+    RedisSession redisSession = redisSession();
+    when(delegate.findById(SESSION_ID)).thenReturn(redisSession);
+    var session = repository.findById(SESSION_ID);
+    Instant now = lastAccessedTime.plus(Duration.ofMinutes(2));
+
+    // When
+    session.setLastAccessedTime(now);
+    repository.save(session);
+
+    // Then
+    verify(redisSession).setLastAccessedTime(now);
+    verify(delegate).save(redisSession);
+    verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should not return sessions which no longer exist")
+  void shouldNotReturnMissingSessions() {
+    // Given
+    when(delegate.findById(SESSION_ID)).thenReturn(null);
+
+    // When
+    var session = repository.findById(SESSION_ID);
+
+    // Then
+    assertThat(session).isNull();
+  }
+
+  private RedisSession redisSession() {
+    RedisSession redisSession = mock(RedisSession.class);
+    lenient().when(redisSession.getId()).thenReturn(SESSION_ID);
+    lenient().when(redisSession.getCreationTime()).thenReturn(lastAccessedTime);
+    lenient().when(redisSession.getLastAccessedTime()).thenReturn(lastAccessedTime);
+    lenient().when(redisSession.getMaxInactiveInterval()).thenReturn(Duration.ofHours(1));
+    lenient().when(redisSession.getAttributeNames()).thenReturn(Set.of("office"));
+    lenient().when(redisSession.getAttribute("office")).thenReturn("0P322F");
+    return redisSession;
+  }
+
+  private static DefaultMessage message(String body) {
+    return new DefaultMessage(
+        CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,77 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Claims API properties test")
+class ClaimsApiPropertiesTest {
+
+  @Test
+  @DisplayName("Should use the defaults when no HTTP settings are configured")
+  void shouldUseDefaultsWhenNothingConfigured() {
+    // Given
+    var properties = new ClaimsApiProperties("http://localhost", "token");
+
+    // When
+    HttpClientProperties settings = properties.httpFor(WebClientConfiguration.DATA_CLAIMS_GROUP);
+
+    // Then
+    assertThat(settings).isEqualTo(HttpClientProperties.DEFAULTS);
+  }
+
+  @Test
+  @DisplayName("Should apply client overrides over the shared settings")
+  void shouldApplyClientOverridesOverSharedSettings() {
+    // Given
+    var shared =
+        new HttpClientProperties(
+            null,
+            20,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            Duration.ofSeconds(60),
+            null,
+            true,
+            null,
+            null,
+            null);
+    var export =
+        new HttpClientProperties(
+            true, 5, null, null, null, null, null, null, null, null, null, null, false, false);
+    var properties =
+        new ClaimsApiProperties(
+            "http://localhost",
+            "token",
+            shared,
+            Map.of(WebClientConfiguration.EXPORT_GROUP, export),
+            Map.of(),
+            null);
+
+    // When
+    HttpClientProperties exportSettings = properties.httpFor(WebClientConfiguration.EXPORT_GROUP);
+    HttpClientProperties dataClaimsSettings =
+        properties.httpFor(WebClientConfiguration.DATA_CLAIMS_GROUP);
+
+    // Then
+    assertThat(exportSettings.dedicatedPool()).isTrue();
+    assertThat(exportSettings.maxConnections()).isEqualTo(5);
+    assertThat(exportSettings.responseTimeout()).isEqualTo(Duration.ofSeconds(60));
+    assertThat(exportSettings.http2()).isTrue();
+    assertThat(exportSettings.connectTimeout())
+        .isEqualTo(HttpClientProperties.DEFAULTS.connectTimeout());
+    assertThat(exportSettings.coalesceRequests()).isFalse();
+    assertThat(dataClaimsSettings.dedicatedPool()).isFalse();
+    assertThat(exportSettings.hedgeRequests()).isFalse();
+    assertThat(dataClaimsSettings.coalesceRequests()).isTrue();
+    assertThat(dataClaimsSettings.hedgeRequests()).isTrue();
+    assertThat(dataClaimsSettings.maxConnections()).isEqualTo(20);
+  }
+}
@@ -0,0 +1,237 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.config.rest.ClaimsApiResilience.Compartment;
+
+@DisplayName("Claims API resilience test")
+class ClaimsApiResilienceTest {
+
+  private static final URI SUBMISSION_URI =
+      URI.create("http://localhost/api/v1/submissions/0561d67b-30ed-412e-8231-f6296a53538d");
+  private static final URI SEARCH_URI =
+      URI.create("http://localhost/api/v1/submissions?offices=1");
+
+  private final AtomicInteger requestsSent = new AtomicInteger();
+
+  private SimpleMeterRegistry meterRegistry;
+  private ClaimsApiResilience resilience;
+  private ExchangeFilterFunction filter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    var properties =
+        new ClaimsApiProperties(
+            "http://localhost",
+            "token",
+            null,
+            null,
+            Map.of(
+                "detail",
+                new ResilienceProperties(null, 50, null, null, 2, 2, Duration.ofMinutes(1)),
+                "search",
+                new ResilienceProperties(1, null, null, null, null, null, null)),
+            null);
+    resilience = new ClaimsApiResilience(properties, meterRegistry);
+    filter = resilience.filterFor(WebClientConfiguration.DATA_CLAIMS_GROUP);
+  }
+
+  @Test
+  @DisplayName("Should put each kind of request in its own compartment")
+  void shouldPutEachKindOfRequestInItsCompartment() {
+    assertThat(
+            Compartment.of(
+                WebClientConfiguration.EXPORT_GROUP,
+                request(HttpMethod.GET, "/exports/submission-claims-legal-help")))
+        .isEqualTo(Compartment.EXPORT);
+    assertThat(
+            Compartment.of(
+                WebClientConfiguration.DATA_CLAIMS_GROUP,
+                request(HttpMethod.POST, "/api/v1/bulk-submissions")))
+        .isEqualTo(Compartment.UPLOAD);
+    assertThat(
+            Compartment.of(
+                WebClientConfiguration.DATA_CLAIMS_GROUP,
+                request(HttpMethod.GET, "/api/v1/bulk-submissions/1/summary")))
+        .isEqualTo(Compartment.UPLOAD);
+    assertThat(
+            Compartment.of(
+                WebClientConfiguration.DATA_CLAIMS_GROUP,
+                request(HttpMethod.GET, "/api/v1/submissions")))
+        .isEqualTo(Compartment.SEARCH);
+    assertThat(
+            Compartment.of(
+                WebClientConfiguration.DATA_CLAIMS_V2_GROUP,
+                request(HttpMethod.GET, "/api/v2/claims")))
+        .isEqualTo(Compartment.SEARCH);
+    assertThat(
+            Compartment.of(
+                WebClientConfiguration.DATA_CLAIMS_V2_GROUP,
+                request(HttpMethod.GET, "/api/v2/submissions/1/claims/2")))
+        .isEqualTo(Compartment.DETAIL);
+    assertThat(
+            Compartment.of(
+                WebClientConfiguration.DATA_CLAIMS_V2_GROUP,
+                request(HttpMethod.GET, "/api/v2/submissions/1/claims")))
+        .isEqualTo(Compartment.DETAIL);
+  }
+
+  @Test
+  @DisplayName("Should use the URI template to work out the compartment when there is one")
+  void shouldUseUriTemplateForCompartment() {
+    ClientRequest claimsForSubmission =
+        ClientRequest.create(
+                HttpMethod.GET,
+                URI.create("http://localhost/api/v2/submissions/claims/claims?page=1"))
+            .attribute(
+                HedgingExchangeFilter.URI_TEMPLATE_ATTRIBUTE,
+                "/api/v2/submissions/{submission-id}/claims?page={page}")
+            .build();
+
+    assertThat(Compartment.of(WebClientConfiguration.DATA_CLAIMS_V2_GROUP, claimsForSubmission))
+        .isEqualTo(Compartment.DETAIL);
+  }
+
+  @Test
+  @DisplayName("Should fail fast without calling the Claims API once the circuit is open")
+  void shouldFailFastOnceCircuitIsOpen() {
+    // Given
+    ExchangeFunction failingApi = respondWith(HttpStatus.INTERNAL_SERVER_ERROR, Duration.ZERO);
+    call(get(SUBMISSION_URI), failingApi);
+    call(get(SUBMISSION_URI), failingApi);
+
+    // When / Then
+    assertThatThrownBy(() -> call(get(SUBMISSION_URI), failingApi))
+        .isInstanceOf(CallNotPermittedException.class);
+    assertThat(requestsSent).hasValue(2);
+    assertThat(resilience.circuitBreaker(Compartment.DETAIL).getState())
+        .isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(resilience.circuitBreaker(Compartment.SEARCH).getState())
+        .isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  @DisplayName("Should not open the circuit for client errors")
+  void shouldNotOpenCircuitForClientErrors() {
+    // Given
+    ExchangeFunction notFound = respondWith(HttpStatus.NOT_FOUND, Duration.ZERO);
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      call(get(SUBMISSION_URI), notFound);
+    }
+
+    // Then
+    assertThat(requestsSent).hasValue(3);
+    assertThat(resilience.circuitBreaker(Compartment.DETAIL).getState())
+        .isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  @DisplayName("Should turn away requests once too many of the same kind are in flight")
+  void shouldTurnAwayRequestsOnceBulkheadIsFull() {
+    // Given
+    ExchangeFunction slowApi = respondWith(HttpStatus.OK, Duration.ofSeconds(1));
+    Disposable inFlight = filter.filter(get(SEARCH_URI), slowApi).subscribe();
+
+    try {
+      // When / Then
+      assertThatThrownBy(() -> call(get(SEARCH_URI), slowApi))
+          .isInstanceOf(BulkheadFullException.class);
+      // Other kinds of request are not affected
+      assertThat(call(get(SUBMISSION_URI), respondWith(HttpStatus.OK, Duration.ZERO))).isNotNull();
+    } finally {
+      inFlight.dispose();
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep a place in the bulkhead until the response body has been read")
+  void shouldHoldBulkheadUntilBodyRead() {
+    // Given
+    ExchangeFunction api = respondWith(HttpStatus.OK, Duration.ZERO);
+    ClientResponse unread = filter.filter(get(SEARCH_URI), api).block(Duration.ofSeconds(5));
+
+    // When / Then
+    assertThatThrownBy(() -> call(get(SEARCH_URI), api))
+        .isInstanceOf(BulkheadFullException.class);
+    unread.releaseBody().block(Duration.ofSeconds(5));
+    assertThat(call(get(SEARCH_URI), api)).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should give back the place in the bulkhead when a call is cancelled")
+  void shouldReleaseBulkheadWhenCancelled() {
+    // Given
+    ExchangeFunction slowApi = respondWith(HttpStatus.OK, Duration.ofSeconds(1));
+    filter.filter(get(SEARCH_URI), slowApi).subscribe().dispose();
+
+    // When / Then
+    assertThat(call(get(SEARCH_URI), respondWith(HttpStatus.OK, Duration.ZERO))).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should publish circuit breaker state for each compartment")
+  void shouldPublishCircuitBreakerState() {
+    for (Compartment compartment : Compartment.values()) {
+      assertThat(
+              meterRegistry
+                  .find("resilience4j.circuitbreaker.state")
+                  .tag("name", compartment.id())
+                  .gauges())
+          .isNotEmpty();
+      assertThat(
+              meterRegistry
+                  .find("resilience4j.bulkhead.available.concurrent.calls")
+                  .tag("name", compartment.id())
+                  .gauge())
+          .isNotNull();
+    }
+  }
+
+  private ExchangeFunction respondWith(HttpStatus status, Duration delay) {
+    return request ->
+        Mono.delay(delay)
+            .map(
+                ignored -> {
+                  requestsSent.incrementAndGet();
+                  return ClientResponse.create(status).body("{}").build();
+                });
+  }
+
+  private ClientResponse call(ClientRequest request, ExchangeFunction api) {
+    return filter
+        .filter(request, api)
+        .flatMap(response -> response.releaseBody().thenReturn(response))
+        .block(Duration.ofSeconds(5));
+  }
+
+  private static ClientRequest get(URI uri) {
+    return ClientRequest.create(HttpMethod.GET, uri).build();
+  }
+
+  private static ClientRequest request(HttpMethod method, String path) {
+    return ClientRequest.create(method, URI.create("http://localhost" + path)).build();
+  }
+}
@@ -0,0 +1,107 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@DisplayName("Coalescing exchange filter test")
+class CoalescingExchangeFilterTest {
+
+  private static final URI SUBMISSION_URI =
+      URI.create("http://localhost/api/v1/submissions/0561d67b-30ed-412e-8231-f6296a53538d");
+
+  private final AtomicInteger requestsSent = new AtomicInteger();
+  private final ExchangeFunction claimsApi =
+      request ->
+          Mono.delay(Duration.ofMillis(100))
+              .map(
+                  ignored ->
+                      ClientResponse.create(HttpStatus.OK)
+                          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                          .body("{\"request\": %d}".formatted(requestsSent.incrementAndGet()))
+                          .build());
+
+  private SimpleMeterRegistry meterRegistry;
+  private CoalescingExchangeFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    filter = new CoalescingExchangeFilter("data-claims", meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Should share one request between identical requests in flight")
+  void shouldShareOneRequestBetweenIdenticalRequests() {
+    // When
+    List<String> bodies =
+        Flux.merge(send(get(SUBMISSION_URI)), send(get(SUBMISSION_URI)), send(get(SUBMISSION_URI)))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+    // Then
+    assertThat(bodies).containsExactly("{\"request\": 1}", "{\"request\": 1}", "{\"request\": 1}");
+    assertThat(requestsSent).hasValue(1);
+    assertThat(meterRegistry.get("claims.api.requests.coalesced").counter().count())
+        .isEqualTo(2.0);
+  }
+
+  @Test
+  @DisplayName("Should send a new request once the previous response has been received")
+  void shouldSendNewRequestOnceResponseReceived() {
+    // When
+    String first = send(get(SUBMISSION_URI)).block(Duration.ofSeconds(5));
+    String second = send(get(SUBMISSION_URI)).block(Duration.ofSeconds(5));
+
+    // Then
+    assertThat(first).isEqualTo("{\"request\": 1}");
+    assertThat(second).isEqualTo("{\"request\": 2}");
+  }
+
+  @Test
+  @DisplayName("Should not share requests for different URLs or methods")
+  void shouldNotShareDifferentRequests() {
+    // Given
+    ClientRequest post = ClientRequest.create(HttpMethod.POST, SUBMISSION_URI).build();
+
+    // When
+    Flux.merge(
+            send(get(SUBMISSION_URI)),
+            send(get(URI.create(SUBMISSION_URI + "/matter-starts"))),
+            send(post),
+            send(post))
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    // Then
+    assertThat(requestsSent).hasValue(4);
+  }
+
+  private static ClientRequest get(URI uri) {
+    return ClientRequest.create(HttpMethod.GET, uri)
+        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+        .build();
+  }
+
+  private Mono<String> send(ClientRequest request) {
+    return filter
+        .filter(request, claimsApi)
+        .flatMap(response -> response.bodyToMono(String.class));
+  }
+}
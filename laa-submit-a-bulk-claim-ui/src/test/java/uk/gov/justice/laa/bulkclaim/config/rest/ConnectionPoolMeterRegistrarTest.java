@@ -0,0 +1,67 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.netty.resources.ConnectionPoolMetrics;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Connection pool meter registrar test")
+class ConnectionPoolMeterRegistrarTest {
+
+  private static final InetSocketAddress CLAIMS_API =
+      InetSocketAddress.createUnresolved("claims-api", 443);
+
+  @Mock private ConnectionPoolMetrics metrics;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ConnectionPoolMeterRegistrar registrar =
+      new ConnectionPoolMeterRegistrar(meterRegistry);
+
+  @Test
+  @DisplayName("Should report acquired, idle and pending connections for each pool")
+  void shouldReportPoolUsage() {
+    // Given
+    when(metrics.acquiredSize()).thenReturn(7);
+    when(metrics.idleSize()).thenReturn(3);
+    when(metrics.pendingAcquireSize()).thenReturn(2);
+
+    // When
+    registrar.registerMetrics("claims-api", "pool-1", CLAIMS_API, metrics);
+
+    // Then
+    assertThat(gauge("acquired")).isEqualTo(7);
+    assertThat(gauge("idle")).isEqualTo(3);
+    assertThat(gauge("pending")).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should remove the pool gauges when the pool is closed")
+  void shouldRemoveGaugesWhenPoolClosed() {
+    // Given
+    registrar.registerMetrics("claims-api", "pool-1", CLAIMS_API, metrics);
+
+    // When
+    registrar.deRegisterMetrics("claims-api", "pool-1", CLAIMS_API);
+
+    // Then
+    assertThat(meterRegistry.find(ConnectionPoolMeterRegistrar.PREFIX + "acquired").gauge())
+        .isNull();
+  }
+
+  private double gauge(String name) {
+    return meterRegistry
+        .get(ConnectionPoolMeterRegistrar.PREFIX + name)
+        .tag("pool", "claims-api")
+        .gauge()
+        .value();
+  }
+}
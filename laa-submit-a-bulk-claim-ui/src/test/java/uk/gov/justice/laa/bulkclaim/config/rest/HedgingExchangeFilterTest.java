@@ -0,0 +1,185 @@
+package uk.gov.justice.laa.bulkclaim.config.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+@DisplayName("Hedging exchange filter test")
+class HedgingExchangeFilterTest {
+
+  private static final URI SUBMISSION_URI =
+      URI.create("http://localhost/api/v1/submissions/0561d67b-30ed-412e-8231-f6296a53538d");
+  private static final Duration FAST = Duration.ofMillis(5);
+  private static final Duration SLOW = Duration.ofSeconds(2);
+  private static final int WARM_UP_REQUESTS = 5;
+
+  private final AtomicInteger requestsSent = new AtomicInteger();
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  @DisplayName("Should send a second request when the first is slower than usual")
+  void shouldSendSecondRequestWhenFirstIsSlow() {
+    // Given
+    var filter = filter(100);
+    warmUp(filter);
+    // The first request is slow and the second copy is fast
+    ExchangeFunction claimsApi = respondWith(List.of(SLOW, FAST));
+
+    // When
+    String body = send(filter, get(SUBMISSION_URI), claimsApi);
+
+    // Then
+    assertThat(body).isEqualTo("2");
+    assertThat(meterRegistry.get("claims.api.requests.hedged").counter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("claims.api.requests.hedged.won").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should record how long the first request had taken when the second wins")
+  void shouldRecordLatencyOfBeatenFirstRequest() {
+    // Given
+    var filter = filter(100);
+    warmUp(filter);
+    ExchangeFunction claimsApi = respondWith(List.of(SLOW, FAST));
+
+    // When
+    send(filter, get(SUBMISSION_URI), claimsApi);
+
+    // Then
+    var latency = meterRegistry.get("claims.api.request.latency").timer();
+    assertThat(latency.count()).isEqualTo(WARM_UP_REQUESTS + 2);
+    assertThat(latency.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(20);
+  }
+
+  @Test
+  @DisplayName("Should use the first response when the second request is turned away")
+  void shouldUseFirstResponseWhenSecondRequestTurnedAway() {
+    // Given
+    var filter = filter(100);
+    warmUp(filter);
+    ExchangeFunction claimsApi =
+        request ->
+            requestsSent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).map(ignored -> response("1"))
+                : Mono.error(new IllegalStateException("Bulkhead is full"));
+
+    // When
+    String body = send(filter, get(SUBMISSION_URI), claimsApi);
+
+    // Then
+    assertThat(body).isEqualTo("1");
+    assertThat(requestsSent).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Should not send a second request until enough responses have been seen")
+  void shouldNotHedgeUntilEnoughResponsesSeen() {
+    // Given
+    var filter = filter(100);
+    ExchangeFunction claimsApi = respondWith(List.of(Duration.ofMillis(200), FAST));
+
+    // When
+    String body = send(filter, get(SUBMISSION_URI), claimsApi);
+
+    // Then
+    assertThat(body).isEqualTo("1");
+    assertThat(requestsSent).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Should not send a second request once the budget has been used")
+  void shouldNotHedgeOnceBudgetUsed() {
+    // Given
+    var filter = filter(0);
+    warmUp(filter);
+    ExchangeFunction claimsApi = respondWith(List.of(Duration.ofMillis(200), FAST));
+
+    // When
+    String body = send(filter, get(SUBMISSION_URI), claimsApi);
+
+    // Then
+    assertThat(body).isEqualTo("1");
+    assertThat(requestsSent).hasValue(1);
+    assertThat(meterRegistry.get("claims.api.requests.hedged").counter().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should never send a second copy of a request which is not a GET")
+  void shouldNotHedgeOtherMethods() {
+    // Given
+    var filter = filter(100);
+    warmUp(filter);
+    ExchangeFunction claimsApi = respondWith(List.of(Duration.ofMillis(200), FAST));
+
+    // When
+    String body =
+        send(
+            filter,
+            ClientRequest.create(HttpMethod.POST, URI.create("http://localhost/api/v1/submissions"))
+                .build(),
+            claimsApi);
+
+    // Then
+    assertThat(body).isEqualTo("1");
+    assertThat(requestsSent).hasValue(1);
+  }
+
+  private HedgingExchangeFilter filter(int budgetPercent) {
+    return new HedgingExchangeFilter(
+        WebClientConfiguration.DATA_CLAIMS_GROUP,
+        new HedgingProperties(0.95, Duration.ofMillis(20), WARM_UP_REQUESTS, budgetPercent),
+        meterRegistry);
+  }
+
+  private void warmUp(HedgingExchangeFilter filter) {
+    ExchangeFunction fastApi = request -> Mono.delay(FAST).map(ignored -> response("warm-up"));
+    for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+      send(filter, get(SUBMISSION_URI), fastApi);
+    }
+  }
+
+  /** Responds to each request after the next delay in the list, with the request number. */
+  private ExchangeFunction respondWith(List<Duration> delays) {
+    return request -> {
+      int sent = requestsSent.incrementAndGet();
+      return Mono.delay(delays.get(sent - 1)).map(ignored -> response(String.valueOf(sent)));
+    };
+  }
+
+  private static ClientResponse response(String body) {
+    return ClientResponse.create(HttpStatus.OK).body(body).build();
+  }
+
+  private static String send(
+      HedgingExchangeFilter filter, ClientRequest request, ExchangeFunction claimsApi) {
+    return filter
+        .filter(request, claimsApi)
+        .flatMap(response -> response.bodyToMono(String.class))
+        .block(Duration.ofSeconds(5));
+  }
+
+  private static ClientRequest get(URI uri) {
+    return ClientRequest.create(HttpMethod.GET, uri).build();
+  }
+}
@@ -2,25 +2,39 @@ package uk.gov.justice.laa.bulkclaim.config.rest;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 public class WebClientConfigurationTest {
   private ClaimsApiProperties claimsApiProperties;
+  private ClaimsApiConnectors claimsApiConnectors;
   private WebClientConfiguration webClientConfiguration;
 
   @BeforeEach
   public void initialize() {
     claimsApiProperties = new ClaimsApiProperties("http://localhost", "dsd-dsd");
+    claimsApiConnectors = new ClaimsApiConnectors(claimsApiProperties, new SimpleMeterRegistry());
     webClientConfiguration = new WebClientConfiguration();
   }
 
+  @AfterEach
+  public void tearDown() {
+    claimsApiConnectors.destroy();
+  }
+
   @Test
   @DisplayName("should return WebClientHttpServiceGroupConfigurer")
   void groupConfigurer() {
-    var actualResults = webClientConfiguration.groupConfigurer(claimsApiProperties);
+    var actualResults =
+        webClientConfiguration.groupConfigurer(
+            claimsApiProperties,
+            claimsApiConnectors,
+            new SimpleMeterRegistry(),
+            new ClaimsApiResilience(claimsApiProperties, new SimpleMeterRegistry()));
     assertFalse(Objects.isNull(actualResults));
   }
 }
@@ -7,8 +7,12 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_ID;
+import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.SUBMISSION_ID;
 import static uk.gov.justice.laa.bulkclaim.controller.ControllerTestHelper.OIDC_USER;
 
 import java.util.Collections;
@@ -31,14 +35,21 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.SerializationUtils;
 import org.springframework.validation.Errors;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 import tools.jackson.databind.ObjectMapper;
-import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.config.FeatureFlagsConfig;
 import uk.gov.justice.laa.bulkclaim.config.WebMvcTestConfig;
 import uk.gov.justice.laa.bulkclaim.dto.FileUploadForm;
 import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+import uk.gov.justice.laa.bulkclaim.service.BulkClaimFileCounter;
+import uk.gov.justice.laa.bulkclaim.service.BulkUploadService;
+import uk.gov.justice.laa.bulkclaim.service.ChunkedUploadService;
+import uk.gov.justice.laa.bulkclaim.service.DuplicateUploadService;
+import uk.gov.justice.laa.bulkclaim.service.DuplicateUploadService.RecentUpload;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
+import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileContentValidator;
 import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileValidator;
 import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileVirusValidator;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.CreateBulkSubmission201Response;
@@ -52,8 +63,13 @@ class BulkImportControllerTest {
   @Autowired private ObjectMapper objectMapper;
 
   @MockitoBean private BulkImportFileValidator bulkImportFileValidator;
+  @MockitoBean private BulkImportFileContentValidator bulkImportFileContentValidator;
   @MockitoBean private BulkImportFileVirusValidator bulkImportFileVirusValidator;
-  @MockitoBean private DataClaimsRestClient dataClaimsRestClient;
+  @MockitoBean private BulkUploadService bulkUploadService;
+  @MockitoBean private BulkClaimFileCounter bulkClaimFileCounter;
+  @MockitoBean private ChunkedUploadService chunkedUploadService;
+  @MockitoBean private DuplicateUploadService duplicateUploadService;
+  @MockitoBean private SubmissionSearchService submissionSearchService;
   @MockitoBean private OidcAttributeUtils oidcAttributeUtils;
   @MockitoBean private BulkClaimMetricService bulkClaimMetricService;
   @MockitoBean private FeatureFlagsConfig featureFlagsConfig;
@@ -70,6 +86,17 @@ class BulkImportControllerTest {
           .andExpect(status().isOk())
           .andExpect(view().name("pages/upload"));
     }
+
+    @Test
+    @DisplayName("Should give the page the number of rows to check in the browser")
+    void shouldAddPreValidationSampleRows() throws Exception {
+      when(bulkImportFileContentValidator.getSampleRows()).thenReturn(25);
+
+      mockMvc
+          .perform(get("/upload").with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().isOk())
+          .andExpect(model().attribute("uploadPreValidationSampleRows", 25));
+    }
   }
 
   @Nested
@@ -127,6 +154,56 @@ class BulkImportControllerTest {
           .andExpect(view().name("pages/upload"));
     }
 
+    @Test
+    @DisplayName("Should not scan or upload a file which fails pre-validation")
+    void shouldShowErrorsWhenFileFailsPreValidation() throws Exception {
+      MockMultipartFile file =
+          new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
+      FileUploadForm input = new FileUploadForm(file);
+
+      when(featureFlagsConfig.getIsUploadPreValidationEnabled()).thenReturn(true);
+      doAnswer(
+              invocationOnMock -> {
+                Errors errors = invocationOnMock.getArgument(1);
+                errors.rejectValue("file", "bulkImport.validation.content.office");
+                return null;
+              })
+          .when(bulkImportFileContentValidator)
+          .validate(any(FileUploadForm.class), any(Errors.class));
+
+      mockMvc
+          .perform(
+              post("/upload")
+                  .sessionAttr("fileUploadForm", input)
+                  .with(csrf())
+                  .with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().isOk())
+          .andExpect(view().name("pages/upload"));
+
+      verify(bulkImportFileVirusValidator, never()).validate(any(), any());
+      verify(bulkUploadService, never()).upload(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not pre-validate the file when pre-validation is disabled")
+    void shouldNotPreValidateWhenDisabled() throws Exception {
+      MockMultipartFile file =
+          new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
+      FileUploadForm input = new FileUploadForm(file);
+
+      when(featureFlagsConfig.getIsUploadPreValidationEnabled()).thenReturn(false);
+
+      mockMvc
+          .perform(
+              post("/upload")
+                  .sessionAttr("fileUploadForm", input)
+                  .with(csrf())
+                  .with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().isOk());
+
+      verify(bulkImportFileContentValidator, never()).validate(any(), any());
+    }
+
     @Test
     @DisplayName("Should redirect when upload service fails")
     void shouldRedirectWhenUploadServiceFails() throws Exception {
@@ -134,7 +211,7 @@ class BulkImportControllerTest {
           new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
       FileUploadForm input = new FileUploadForm(file);
 
-      when(dataClaimsRestClient.upload(any(), any(), any()))
+      when(bulkUploadService.upload(any(), any(), any(), any()))
           .thenThrow(new RuntimeException("Unexpected error"));
 
       mockMvc
@@ -154,7 +231,102 @@ class BulkImportControllerTest {
           new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
       FileUploadForm input = new FileUploadForm(file);
 
-      when(dataClaimsRestClient.upload(any(), any(), any()))
+      when(bulkUploadService.upload(any(), any(), any(), any()))
+          .thenReturn(
+              Mono.just(
+                  ResponseEntity.of(
+                      Optional.of(
+                          new CreateBulkSubmission201Response()
+                              .bulkSubmissionId(UUID.randomUUID())
+                              .submissionIds(List.of(UUID.randomUUID()))))));
+      mockMvc
+          .perform(
+              post("/upload")
+                  .flashAttr("fileUploadForm", input)
+                  .with(csrf())
+                  .with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().is3xxRedirection())
+          .andExpect(view().name("redirect:/upload-is-being-checked"));
+
+      verify(submissionSearchService).invalidate(any());
+      // Deduplication is off unless turned on
+      verify(duplicateUploadService, never()).findRecent(any());
+    }
+
+    @Test
+    @DisplayName("Should remember the upload so the same file is not uploaded again")
+    void shouldRecordUploadForDuplicateDetection() throws Exception {
+      MockMultipartFile file =
+          new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
+      FileUploadForm input = new FileUploadForm(file);
+      UUID bulkSubmissionId = UUID.randomUUID();
+      UUID submissionId = UUID.randomUUID();
+
+      when(featureFlagsConfig.getIsUploadDeduplicationEnabled()).thenReturn(true);
+      when(duplicateUploadService.fingerprint(any(), any())).thenReturn("fingerprint");
+      when(bulkClaimFileCounter.countClaims(any())).thenReturn(12);
+      when(bulkUploadService.upload(any(), any(), any(), any()))
+          .thenReturn(
+              Mono.just(
+                  ResponseEntity.of(
+                      Optional.of(
+                          new CreateBulkSubmission201Response()
+                              .bulkSubmissionId(bulkSubmissionId)
+                              .submissionIds(List.of(submissionId))))));
+
+      mockMvc
+          .perform(
+              post("/upload")
+                  .flashAttr("fileUploadForm", input)
+                  .with(csrf())
+                  .with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().is3xxRedirection())
+          .andExpect(view().name("redirect:/upload-is-being-checked"));
+
+      verify(duplicateUploadService)
+          .record("fingerprint", new RecentUpload(bulkSubmissionId, submissionId, 12));
+    }
+
+    @Test
+    @DisplayName("Should show the earlier upload of the same file without scanning or uploading")
+    void shouldShowEarlierUploadOfSameFile() throws Exception {
+      MockMultipartFile file =
+          new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
+      FileUploadForm input = new FileUploadForm(file);
+      UUID bulkSubmissionId = UUID.randomUUID();
+      UUID submissionId = UUID.randomUUID();
+
+      when(featureFlagsConfig.getIsUploadDeduplicationEnabled()).thenReturn(true);
+      when(duplicateUploadService.fingerprint(any(), any())).thenReturn("fingerprint");
+      when(duplicateUploadService.findRecent("fingerprint"))
+          .thenReturn(Optional.of(new RecentUpload(bulkSubmissionId, submissionId, 12)));
+
+      mockMvc
+          .perform(
+              post("/upload")
+                  .flashAttr("fileUploadForm", input)
+                  .with(csrf())
+                  .with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().is3xxRedirection())
+          .andExpect(view().name("redirect:/upload-is-being-checked"))
+          .andExpect(request().sessionAttribute(BULK_SUBMISSION_ID, bulkSubmissionId))
+          .andExpect(request().sessionAttribute(SUBMISSION_ID, submissionId));
+
+      verify(bulkImportFileVirusValidator, never()).validate(any(), any());
+      verify(bulkUploadService, never()).upload(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should upload a file which was sent in chunks and then remove the chunks")
+    void shouldUploadFileSentInChunks() throws Exception {
+      MockMultipartFile file =
+          new MockMultipartFile("file", "test.csv", "text/csv", "text".getBytes());
+      String uploadId = UUID.randomUUID().toString();
+      FileUploadForm input = new FileUploadForm();
+      input.setUploadId(uploadId);
+
+      when(chunkedUploadService.assemble(eq(uploadId), any())).thenReturn(file);
+      when(bulkUploadService.upload(eq(file), any(), any(), any()))
           .thenReturn(
               Mono.just(
                   ResponseEntity.of(
@@ -170,6 +342,30 @@ class BulkImportControllerTest {
                   .with(oidcLogin().oidcUser(OIDC_USER)))
           .andExpect(status().is3xxRedirection())
           .andExpect(view().name("redirect:/upload-is-being-checked"));
+
+      verify(chunkedUploadService).delete(eq(uploadId), any());
+    }
+
+    @Test
+    @DisplayName("Should show an error when a file sent in chunks cannot be put back together")
+    void shouldShowErrorWhenChunkedUploadIncomplete() throws Exception {
+      String uploadId = UUID.randomUUID().toString();
+      FileUploadForm input = new FileUploadForm();
+      input.setUploadId(uploadId);
+
+      when(chunkedUploadService.assemble(eq(uploadId), any()))
+          .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk 1 missing"));
+      mockMvc
+          .perform(
+              post("/upload")
+                  .flashAttr("fileUploadForm", input)
+                  .with(csrf())
+                  .with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().isOk())
+          .andExpect(view().name("pages/upload"));
+
+      verify(bulkUploadService, never()).upload(any(), any(), any(), any());
+      verify(chunkedUploadService, never()).delete(any(), any());
     }
 
     @DisplayName("Should throw web client exception with provided error details")
@@ -180,7 +376,7 @@ class BulkImportControllerTest {
               new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes()));
       var errorDetails = "VAT Applicable must only include Y or N";
       var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, errorDetails);
-      when(dataClaimsRestClient.upload(any(), any(), any()))
+      when(bulkUploadService.upload(any(), any(), any(), any()))
           .thenThrow(
               new WebClientResponseException(
                   HttpStatus.BAD_REQUEST.value(),
@@ -199,8 +395,9 @@ class BulkImportControllerTest {
               .andExpect(view().name("pages/upload"))
               .andReturn();
 
-      verify(dataClaimsRestClient)
-          .upload(eq(input.getFile()), eq(OIDC_USER.getEmail()), eq(Collections.emptyList()));
+      verify(bulkUploadService)
+          .upload(
+              eq(input.getFile()), eq(OIDC_USER.getEmail()), eq(Collections.emptyList()), any());
       verify(bulkClaimMetricService)
           .recordFailedFileUploadSize(eq(input.getFile().getSize()), eq(errorDetails));
       assertTrue(result.getResponse().getContentAsString().contains(errorDetails));
@@ -214,7 +411,7 @@ class BulkImportControllerTest {
               new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes()));
       var defaultErrorMessage = "An unknown error occurred during upload.";
       var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "");
-      when(dataClaimsRestClient.upload(any(), any(), any()))
+      when(bulkUploadService.upload(any(), any(), any(), any()))
           .thenThrow(
               new WebClientResponseException(
                   HttpStatus.BAD_REQUEST.value(),
@@ -233,8 +430,9 @@ class BulkImportControllerTest {
               .andExpect(view().name("pages/upload"))
               .andReturn();
 
-      verify(dataClaimsRestClient)
-          .upload(eq(input.getFile()), eq(OIDC_USER.getEmail()), eq(Collections.emptyList()));
+      verify(bulkUploadService)
+          .upload(
+              eq(input.getFile()), eq(OIDC_USER.getEmail()), eq(Collections.emptyList()), any());
       verify(bulkClaimMetricService)
           .recordFailedFileUploadSize(eq(input.getFile().getSize()), eq(defaultErrorMessage));
       assertTrue(result.getResponse().getContentAsString().contains(defaultErrorMessage));
@@ -249,7 +447,7 @@ class BulkImportControllerTest {
               new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes()));
       var defaultErrorMessage = "The selected file could not be uploaded - try again";
       var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "");
-      when(dataClaimsRestClient.upload(any(), any(), any()))
+      when(bulkUploadService.upload(any(), any(), any(), any()))
           .thenThrow(
               new WebClientResponseException(
                   HttpStatus.BAD_REQUEST.value(),
@@ -270,5 +468,80 @@ class BulkImportControllerTest {
       verifyNoInteractions(bulkClaimMetricService);
       assertTrue(result.getResponse().getContentAsString().contains(defaultErrorMessage));
     }
+
+    @Test
+    @DisplayName("Should upload while the virus scan runs when speculative upload is enabled")
+    void shouldUploadWhileVirusScanRunsWhenSpeculativeUploadEnabled() throws Exception {
+      MockMultipartFile file =
+          new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
+      FileUploadForm input = new FileUploadForm(file);
+
+      when(featureFlagsConfig.getIsSpeculativeUploadEnabled()).thenReturn(true);
+      when(bulkUploadService.upload(any(), any(), any(), any()))
+          .thenAnswer(
+              invocation ->
+                  invocation
+                      .<Mono<Void>>getArgument(3)
+                      .then(
+                          Mono.just(
+                              ResponseEntity.ok(
+                                  new CreateBulkSubmission201Response()
+                                      .bulkSubmissionId(UUID.randomUUID())
+                                      .submissionIds(List.of(UUID.randomUUID()))))));
+
+      mockMvc
+          .perform(
+              post("/upload")
+                  .flashAttr("fileUploadForm", input)
+                  .with(csrf())
+                  .with(oidcLogin().oidcUser(OIDC_USER)))
+          .andExpect(status().is3xxRedirection())
+          .andExpect(view().name("redirect:/upload-is-being-checked"));
+
+      verify(bulkImportFileVirusValidator).validate(eq(input), any());
+      verify(bulkClaimMetricService).recordSuccessfulFileUploadSize(file);
+    }
+
+    @Test
+    @DisplayName("Should abandon speculative upload and show error when virus scan fails")
+    void shouldAbandonSpeculativeUploadWhenVirusScanFails() throws Exception {
+      MockMultipartFile file =
+          new MockMultipartFile("fileUpload", "test.csv", "text/csv", "text".getBytes());
+      FileUploadForm input = new FileUploadForm(file);
+
+      when(featureFlagsConfig.getIsSpeculativeUploadEnabled()).thenReturn(true);
+      doAnswer(
+              invocation -> {
+                invocation.<Errors>getArgument(1).reject("bulkImport.validation.virusScanFailed");
+                return null;
+              })
+          .when(bulkImportFileVirusValidator)
+          .validate(any(), any());
+      when(bulkUploadService.upload(any(), any(), any(), any()))
+          .thenAnswer(
+              invocation ->
+                  invocation
+                      .<Mono<Void>>getArgument(3)
+                      .then(Mono.just(ResponseEntity.ok(new CreateBulkSubmission201Response()))));
+
+      var result =
+          mockMvc
+              .perform(
+                  post("/upload")
+                      .flashAttr("fileUploadForm", input)
+                      .with(csrf())
+                      .with(oidcLogin().oidcUser(OIDC_USER)))
+              .andExpect(status().isOk())
+              .andExpect(view().name("pages/upload"))
+              .andReturn();
+
+      verify(bulkClaimMetricService).recordFailedFileUploadSize(eq(file), any(Errors.class));
+      verify(bulkClaimMetricService, never()).recordSuccessfulFileUploadSize(any());
+      assertTrue(
+          result
+              .getResponse()
+              .getContentAsString()
+              .contains("The selected file did not pass virus checks"));
+    }
   }
 }
@@ -3,11 +3,14 @@ package uk.gov.justice.laa.bulkclaim.controller;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_CLAIM_COUNT;
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.BULK_SUBMISSION_ID;
 import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.SUBMISSION_ID;
 import static uk.gov.justice.laa.bulkclaim.controller.ControllerTestHelper.OIDC_USER;
 
+import java.time.Duration;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,15 +21,17 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
 import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+import uk.gov.justice.laa.bulkclaim.service.BulkSubmissionStatusPoller;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.BulkSubmissionStatus;
-import uk.gov.justice.laa.dstew.payments.claimsdata.model.GetBulkSubmissionStatusById200Response;
 
 @WebMvcTest(BulkUploadBeingCheckedController.class)
 @AutoConfigureMockMvc
@@ -35,6 +40,7 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
   @Autowired private MockMvcTester mockMvc;
 
   @MockitoBean private BulkClaimMetricService bulkClaimMetricService;
+  @MockitoBean private BulkSubmissionStatusPoller bulkSubmissionStatusPoller;
 
   @Nested
   @DisplayName("GET: /upload-is-being-checked")
@@ -49,9 +55,8 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
       // Given
       UUID submissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f054");
       UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
-      when(dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId))
-          .thenReturn(
-              Mono.just(GetBulkSubmissionStatusById200Response.builder().status(status).build()));
+      when(bulkSubmissionStatusPoller.currentStatus(bulkSubmissionId))
+          .thenReturn(Mono.just(status));
       assertThat(
               mockMvc.perform(
                   get("/upload-is-being-checked")
@@ -69,15 +74,7 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
       UUID submissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f054");
       UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
 
-      when(dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId))
-          .thenThrow(
-              new WebClientResponseException(
-                  HttpStatusCode.valueOf(404),
-                  "Bulk Submission not found",
-                  null,
-                  null,
-                  null,
-                  null));
+      when(bulkSubmissionStatusPoller.currentStatus(bulkSubmissionId)).thenReturn(Mono.empty());
 
       assertThat(
               mockMvc.perform(
@@ -99,9 +96,8 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
       UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
       UUID submissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f054");
 
-      when(dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId))
-          .thenReturn(
-              Mono.just(GetBulkSubmissionStatusById200Response.builder().status(status).build()));
+      when(bulkSubmissionStatusPoller.currentStatus(bulkSubmissionId))
+          .thenReturn(Mono.just(status));
       assertThat(
               mockMvc.perform(
                   get("/upload-is-being-checked")
@@ -119,8 +115,10 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
       // Given
       UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
       UUID submissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f054");
-      when(dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId))
-          .thenThrow(new WebClientResponseException(statusCode, "Error", null, null, null, null));
+      when(bulkSubmissionStatusPoller.currentStatus(bulkSubmissionId))
+          .thenReturn(
+              Mono.error(
+                  new WebClientResponseException(statusCode, "Error", null, null, null, null)));
 
       assertThat(
               mockMvc.perform(
@@ -139,12 +137,8 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
       // Given
       UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
       UUID submissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f054");
-      when(dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId))
-          .thenReturn(
-              Mono.just(
-                  GetBulkSubmissionStatusById200Response.builder()
-                      .status(BulkSubmissionStatus.PARSING_FAILED)
-                      .build()));
+      when(bulkSubmissionStatusPoller.currentStatus(bulkSubmissionId))
+          .thenReturn(Mono.just(BulkSubmissionStatus.PARSING_FAILED));
       assertThat(
               mockMvc.perform(
                   get("/upload-is-being-checked")
@@ -162,12 +156,8 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
       // Given
       UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
       UUID submissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f054");
-      when(dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId))
-          .thenReturn(
-              Mono.just(
-                  GetBulkSubmissionStatusById200Response.builder()
-                      .status(BulkSubmissionStatus.UNAUTHORISED)
-                      .build()));
+      when(bulkSubmissionStatusPoller.currentStatus(bulkSubmissionId))
+          .thenReturn(Mono.just(BulkSubmissionStatus.UNAUTHORISED));
       assertThat(
               mockMvc.perform(
                   get("/upload-is-being-checked")
@@ -180,4 +170,83 @@ public class BulkUploadBeingCheckedControllerTest extends BaseControllerTest {
               "Unexpected bulk submission status returned for: " + bulkSubmissionId);
     }
   }
+
+  @Nested
+  @DisplayName("GET: /upload-is-being-checked/events")
+  class UploadStatusEvents {
+
+    @Test
+    @DisplayName("Should stream status changes until checking is complete")
+    void shouldStreamStatusChanges() {
+      // Given
+      UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
+      when(bulkSubmissionStatusPoller.watch(bulkSubmissionId))
+          .thenReturn(
+              Flux.just(
+                  BulkSubmissionStatus.READY_FOR_PARSING,
+                  BulkSubmissionStatus.VALIDATION_SUCCEEDED));
+
+      // When
+      var initial =
+          mockMvc.perform(
+              get("/upload-is-being-checked/events")
+                  .accept(MediaType.TEXT_EVENT_STREAM)
+                  .with(oidcLogin().oidcUser(OIDC_USER))
+                  .sessionAttr(BULK_SUBMISSION_ID, bulkSubmissionId));
+
+      // Then
+      assertThat(mockMvc.perform(asyncDispatch(initial.getMvcResult())))
+          .hasStatusOk()
+          .body()
+          .asString()
+          .contains("event:pending\ndata:READY_FOR_PARSING")
+          .contains("event:complete\ndata:VALIDATION_SUCCEEDED");
+    }
+
+    @Test
+    @DisplayName("Should stream claims checked progress while checking is pending")
+    void shouldStreamClaimsCheckedProgress() {
+      // Given
+      UUID bulkSubmissionId = UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
+      UUID submissionId = UUID.fromString("2f5a4b6e-9f0c-4d2c-8f0b-3c1b7e5d9a10");
+      when(bulkSubmissionStatusPoller.watch(bulkSubmissionId))
+          .thenReturn(
+              Flux.just(BulkSubmissionStatus.READY_FOR_PARSING)
+                  .concatWith(
+                      Mono.just(BulkSubmissionStatus.VALIDATION_SUCCEEDED)
+                          .delayElement(Duration.ofMillis(200))));
+      when(bulkSubmissionStatusPoller.watchClaimsChecked(bulkSubmissionId, submissionId))
+          .thenReturn(Flux.just(40, 120).concatWith(Flux.never()));
+
+      // When
+      var initial =
+          mockMvc.perform(
+              get("/upload-is-being-checked/events")
+                  .accept(MediaType.TEXT_EVENT_STREAM)
+                  .with(oidcLogin().oidcUser(OIDC_USER))
+                  .sessionAttr(BULK_SUBMISSION_ID, bulkSubmissionId)
+                  .sessionAttr(SUBMISSION_ID, submissionId)
+                  .sessionAttr(BULK_SUBMISSION_CLAIM_COUNT, 100));
+
+      // Then
+      assertThat(mockMvc.perform(asyncDispatch(initial.getMvcResult())))
+          .hasStatusOk()
+          .body()
+          .asString()
+          .contains("event:progress\ndata:{\"checked\":40,\"total\":100}")
+          .contains("event:progress\ndata:{\"checked\":100,\"total\":100}")
+          .contains("event:complete\ndata:VALIDATION_SUCCEEDED");
+    }
+
+    @Test
+    @DisplayName("Should return not found when there is no bulk submission in session")
+    void shouldReturnNotFoundWithoutBulkSubmission() {
+      assertThat(
+              mockMvc.perform(
+                  get("/upload-is-being-checked/events")
+                      .accept(MediaType.TEXT_EVENT_STREAM)
+                      .with(oidcLogin().oidcUser(OIDC_USER))))
+          .hasStatus(HttpStatus.NOT_FOUND);
+    }
+  }
 }
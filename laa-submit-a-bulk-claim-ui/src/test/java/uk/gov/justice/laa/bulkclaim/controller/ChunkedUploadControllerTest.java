@@ -0,0 +1,155 @@
+package uk.gov.justice.laa.bulkclaim.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static uk.gov.justice.laa.bulkclaim.controller.ControllerTestHelper.OIDC_USER;
+
+import java.io.InputStream;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.web.server.ResponseStatusException;
+import uk.gov.justice.laa.bulkclaim.dto.ChunkedUpload;
+import uk.gov.justice.laa.bulkclaim.service.ChunkedUploadService;
+
+@WebMvcTest(ChunkedUploadController.class)
+@AutoConfigureMockMvc
+@DisplayName("Chunked upload controller test")
+class ChunkedUploadControllerTest extends BaseControllerTest {
+
+  private static final String UPLOAD_ID = "0561d67b-30ed-412e-8231-f6296a53538d";
+  private static final String USER = "test@example.com";
+
+  @Autowired private MockMvcTester mockMvc;
+
+  @MockitoBean private ChunkedUploadService chunkedUploadService;
+
+  @Nested
+  @DisplayName("POST: /upload/chunked")
+  class StartUpload {
+
+    @Test
+    @DisplayName("Should start an upload for the signed in user")
+    void shouldStartUpload() {
+      // Given
+      when(chunkedUploadService.start(USER, "claims.csv", "text/csv", 2_500_000))
+          .thenReturn(new ChunkedUpload(UPLOAD_ID, 1_048_576, 3, List.of()));
+
+      // When / Then
+      assertThat(
+              mockMvc.perform(
+                  post("/upload/chunked")
+                      .param("filename", "claims.csv")
+                      .param("size", "2500000")
+                      .param("contentType", "text/csv")
+                      .with(oidcLogin().oidcUser(OIDC_USER))
+                      .with(csrf())))
+          .hasStatus(HttpStatus.CREATED)
+          .bodyJson()
+          .extractingPath("$.uploadId")
+          .isEqualTo(UPLOAD_ID);
+    }
+  }
+
+  @Nested
+  @DisplayName("GET: /upload/chunked/{uploadId}")
+  class GetUpload {
+
+    @Test
+    @DisplayName("Should return the chunks received so far")
+    void shouldReturnReceivedChunks() {
+      // Given
+      when(chunkedUploadService.status(UPLOAD_ID, USER))
+          .thenReturn(new ChunkedUpload(UPLOAD_ID, 1_048_576, 3, List.of(0, 2)));
+
+      // When / Then
+      assertThat(
+              mockMvc.perform(
+                  get("/upload/chunked/" + UPLOAD_ID).with(oidcLogin().oidcUser(OIDC_USER))))
+          .hasStatusOk()
+          .bodyJson()
+          .extractingPath("$.receivedChunks")
+          .isEqualTo(List.of(0, 2));
+    }
+
+    @Test
+    @DisplayName("Should return not found for an upload belonging to someone else")
+    void shouldReturnNotFoundForUnknownUpload() {
+      // Given
+      when(chunkedUploadService.status(UPLOAD_ID, USER))
+          .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+
+      // When / Then
+      assertThat(
+              mockMvc.perform(
+                  get("/upload/chunked/" + UPLOAD_ID).with(oidcLogin().oidcUser(OIDC_USER))))
+          .hasStatus(HttpStatus.NOT_FOUND);
+    }
+  }
+
+  @Nested
+  @DisplayName("PUT: /upload/chunked/{uploadId}/chunks/{index}")
+  class UploadChunk {
+
+    @Test
+    @DisplayName("Should store the chunk with its checksum")
+    void shouldStoreChunk() {
+      // Given
+      when(chunkedUploadService.storeChunk(
+              eq(UPLOAD_ID), eq(USER), eq(1), eq("abc123"), any(InputStream.class)))
+          .thenReturn(new ChunkedUpload(UPLOAD_ID, 1_048_576, 3, List.of(1)));
+
+      // When
+      var result =
+          mockMvc.perform(
+              put("/upload/chunked/%s/chunks/1".formatted(UPLOAD_ID))
+                  .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                  .header(ChunkedUploadController.CHUNK_CHECKSUM_HEADER, "abc123")
+                  .content(new byte[] {1, 2, 3})
+                  .with(oidcLogin().oidcUser(OIDC_USER))
+                  .with(csrf()));
+
+      // Then
+      assertThat(result).hasStatusOk();
+      verify(chunkedUploadService)
+          .storeChunk(eq(UPLOAD_ID), eq(USER), eq(1), eq("abc123"), any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should return bad request when the chunk does not match its checksum")
+    void shouldReturnBadRequestForCorruptedChunk() {
+      // Given
+      when(chunkedUploadService.storeChunk(
+              eq(UPLOAD_ID), eq(USER), eq(1), eq("abc123"), any(InputStream.class)))
+          .thenThrow(
+              new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk checksum does not match"));
+
+      // When / Then
+      assertThat(
+              mockMvc.perform(
+                  put("/upload/chunked/%s/chunks/1".formatted(UPLOAD_ID))
+                      .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                      .header(ChunkedUploadController.CHUNK_CHECKSUM_HEADER, "abc123")
+                      .content(new byte[] {1, 2, 3})
+                      .with(oidcLogin().oidcUser(OIDC_USER))
+                      .with(csrf())))
+          .hasStatus(HttpStatus.BAD_REQUEST);
+    }
+  }
+}
@@ -9,6 +9,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static uk.gov.justice.laa.bulkclaim.controller.ControllerTestHelper.OIDC_USER;
 
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -135,7 +136,7 @@ class ClaimDetailControllerTest extends BaseControllerTest {
       private final UUID claimId = UUID.fromString("244fcb9f-50ab-4af8-b635-76bd30e0e97d");
       private final UUID submissionId = UUID.fromString("244fcb9f-50ab-4af8-b635-76bd30e0e97d");
 
-      private void stubCommonDependencies() {
+      private void stubCommonDependencies(MessagesSummary claimMessages) {
         CrimeLowerClaimDetails details = new CrimeLowerClaimDetails();
         ClaimFieldRow emptyField = new ClaimFieldRow(null, null, null);
         details.setFixedFee(emptyField);
@@ -151,14 +152,18 @@ class ClaimDetailControllerTest extends BaseControllerTest {
         when(claimService.getClaimDetailPageData(submissionId, claimId, OIDC_USER))
             .thenReturn(
                 new ClaimDetailPageData(
-                    AreaOfLaw.CRIME_LOWER, false, new CrimeClaimDetailsView(details), null));
+                    AreaOfLaw.CRIME_LOWER,
+                    false,
+                    new CrimeClaimDetailsView(details),
+                    null,
+                    claimMessages));
       }
 
       @Test
       @DisplayName("Should return the template provided by claim service")
       void shouldReturnTemplateFromClaimService() {
         when(featureFlagsConfig.getIsAlternativeClaimViewEnabled()).thenReturn(true);
-        stubCommonDependencies();
+        stubCommonDependencies(MessagesSummary.builder().messages(List.of()).build());
 
         assertThat(
                 mockMvc.perform(
@@ -171,16 +176,14 @@ class ClaimDetailControllerTest extends BaseControllerTest {
       }
 
       @Test
-      @DisplayName("Should include warnings from the submission messages builder")
-      void shouldIncludeWarningsFromSubmissionMessagesBuilder() {
+      @DisplayName("Should include warnings provided by claim service")
+      void shouldIncludeWarningsFromClaimService() {
         when(featureFlagsConfig.getIsAlternativeClaimViewEnabled()).thenReturn(true);
-        stubCommonDependencies();
-
-        when(submissionMessagesBuilder.buildAllWarnings(submissionId, claimId))
-            .thenReturn(
-                MessagesSummary.builder()
-                    .messages(singletonList(MessageRow.builder().message("A warning").build()))
-                    .build());
+        MessagesSummary claimMessages =
+            MessagesSummary.builder()
+                .messages(singletonList(MessageRow.builder().message("A warning").build()))
+                .build();
+        stubCommonDependencies(claimMessages);
 
         assertThat(
                 mockMvc.perform(
@@ -188,6 +191,8 @@ class ClaimDetailControllerTest extends BaseControllerTest {
                         .with(oidcLogin().oidcUser(OIDC_USER))))
             .hasStatusOk()
             .hasViewName("pages/view-claim-detail");
+            .model()
+            .containsEntry("claimMessages", claimMessages);
       }
     }
   }
@@ -0,0 +1,44 @@
+package uk.gov.justice.laa.bulkclaim.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Claims API unavailable advice test")
+class ClaimsApiUnavailableAdviceTest {
+
+  private final ClaimsApiUnavailableAdvice advice = new ClaimsApiUnavailableAdvice();
+
+  @Test
+  @DisplayName("Should show the service unavailable page when the circuit is open")
+  void shouldShowServiceUnavailableWhenCircuitOpen() {
+    // Given
+    var ex =
+        CallNotPermittedException.createCallNotPermittedException(
+            CircuitBreaker.ofDefaults("detail"));
+
+    // When
+    String view = advice.handleClaimsApiUnavailable(ex);
+
+    // Then
+    assertThat(view).isEqualTo("pages/service-unavailable");
+  }
+
+  @Test
+  @DisplayName("Should show the service unavailable page when the bulkhead is full")
+  void shouldShowServiceUnavailableWhenBulkheadFull() {
+    // Given
+    var ex = BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("search"));
+
+    // When
+    String view = advice.handleClaimsApiUnavailable(ex);
+
+    // Then
+    assertThat(view).isEqualTo("pages/service-unavailable");
+  }
+}
@@ -2,14 +2,14 @@ package uk.gov.justice.laa.bulkclaim.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static uk.gov.justice.laa.bulkclaim.controller.ControllerTestHelper.OIDC_USER;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,12 +17,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.laa.bulkclaim.client.ExportDataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
 
 @WebMvcTest(ExportSubmissionDetailController.class)
 @AutoConfigureMockMvc
@@ -31,6 +35,8 @@ class ExportSubmissionDetailControllerTest extends BaseControllerTest {
 
   @Autowired private MockMvcTester mockMvc;
 
+  @Autowired private BulkClaimMetricService bulkClaimMetricService;
+
   @MockitoBean private ExportDataClaimsRestClient exportDataClaimsRestClient;
 
   @Nested
@@ -47,10 +53,10 @@ class ExportSubmissionDetailControllerTest extends BaseControllerTest {
       String areaOfLaw = "legal-help";
       UUID submissionReference = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
       when(exportDataClaimsRestClient.getSubmissionExport(any(), any(), any()))
-          .thenReturn(Mono.just(ResponseEntity.ok(file)));
-      when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of(office));
+          .thenReturn(Mono.just(ResponseEntity.ok(Flux.just(wrap(file)))));
+      when(oidcAttributeUtils.hasOfficeAccess(any(), eq(office))).thenReturn(true);
 
-      // When (first request starts async processing due to controller method using "Mono")
+      // When (first request starts async processing as the export is streamed to the response)
       var initial =
           mockMvc.perform(
               get("/submissions/%s/export?office=%s&areaOfLaw=%s"
@@ -65,6 +71,57 @@ class ExportSubmissionDetailControllerTest extends BaseControllerTest {
           .isEqualTo(fileContent);
     }
 
+    @Test
+    @DisplayName("Should stream every chunk of the export and record metrics")
+    void shouldStreamEveryChunkOfTheExport() {
+      // Given
+      String office = "12345";
+      String areaOfLaw = "Crime Lower";
+      UUID submissionReference = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
+      when(exportDataClaimsRestClient.getSubmissionExport(any(), any(), any()))
+          .thenReturn(
+              Mono.just(
+                  ResponseEntity.ok(
+                      Flux.just(
+                          wrap("one,two,three\n".getBytes()),
+                          wrap("four,five,six\n".getBytes())))));
+      when(oidcAttributeUtils.hasOfficeAccess(any(), eq(office))).thenReturn(true);
+
+      // When
+      var initial =
+          mockMvc.perform(
+              get("/submissions/%s/export?office=%s&areaOfLaw=%s"
+                      .formatted(submissionReference, office, areaOfLaw))
+                  .with(oidcLogin().oidcUser(OIDC_USER)));
+
+      // Then
+      assertThat(mockMvc.perform(asyncDispatch(initial.getMvcResult())))
+          .hasStatusOk()
+          .body()
+          .asString()
+          .isEqualTo("one,two,three\nfour,five,six\n");
+      verify(exportDataClaimsRestClient)
+          .getSubmissionExport(eq("crime-lower"), eq(submissionReference), eq(office));
+      assertThat(
+              bulkClaimMetricService.getExportSizeHistogram().collect().getDataPoints().stream()
+                  .filter(point -> "crime-lower".equals(point.getLabels().get("area_of_law")))
+                  .findFirst()
+                  .orElseThrow()
+                  .getSum())
+          .isEqualTo(28);
+      assertThat(
+              bulkClaimMetricService
+                  .getExportTimeToFirstByteHistogram()
+                  .collect()
+                  .getDataPoints()
+                  .stream()
+                  .filter(point -> "crime-lower".equals(point.getLabels().get("area_of_law")))
+                  .findFirst()
+                  .orElseThrow()
+                  .getCount())
+          .isEqualTo(1);
+    }
+
     @Test
     @DisplayName("Should throw exception")
     void shouldThrowException() {
@@ -75,8 +132,8 @@ class ExportSubmissionDetailControllerTest extends BaseControllerTest {
       String areaOfLaw = "legal-help";
       UUID submissionReference = UUID.fromString("3fa85f64-5717-4562-b3fc-2c963f66afa6");
       when(exportDataClaimsRestClient.getSubmissionExport(any(), any(), any()))
-          .thenReturn(Mono.just(ResponseEntity.ok(file)));
-      when(oidcAttributeUtils.getUserOffices(any())).thenReturn(Collections.emptyList());
+          .thenReturn(Mono.just(ResponseEntity.ok(Flux.just(wrap(file)))));
+      when(oidcAttributeUtils.hasOfficeAccess(any(), eq(office))).thenReturn(false);
 
       // When / Then
       assertThat(
@@ -89,4 +146,8 @@ class ExportSubmissionDetailControllerTest extends BaseControllerTest {
           .hasMessageContaining("User (test@example.com) does not have access to office: 12345");
     }
   }
+
+  private static DataBuffer wrap(byte[] bytes) {
+    return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+  }
 }
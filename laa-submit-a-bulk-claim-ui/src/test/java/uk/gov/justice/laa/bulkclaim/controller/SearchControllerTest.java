@@ -1,6 +1,7 @@
 package uk.gov.justice.laa.bulkclaim.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyList;
@@ -12,7 +13,8 @@ import static org.mockito.Mockito.when;
 import static uk.gov.justice.laa.bulkclaim.controller.ControllerTestHelper.OIDC_USER;
 import static uk.gov.justice.laa.dstew.payments.claimsdata.model.AreaOfLaw.CRIME_LOWER;
 
-import jakarta.servlet.http.HttpSession;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,10 +31,9 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.client.HttpClientErrorException.BadRequest;
-import reactor.core.publisher.Mono;
-import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
 import uk.gov.justice.laa.bulkclaim.dto.SubmissionOutcomeFilter;
 import uk.gov.justice.laa.bulkclaim.dto.submission.search.SubmissionSearchQuery;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
 import uk.gov.justice.laa.bulkclaim.util.PaginationLinksBuilder;
 import uk.gov.justice.laa.bulkclaim.util.PaginationUtil;
@@ -47,9 +48,8 @@ class SearchControllerTest {
 
   @Mock private Model model;
   @Mock private BindingResult bindingResult;
-  @Mock private HttpSession session;
   @Mock private SubmissionSearchValidator submissionSearchValidator;
-  @Mock private DataClaimsRestClient claimsRestService;
+  @Mock private SubmissionSearchService submissionSearchService;
   @Mock private PaginationUtil paginationUtil;
   @Mock private PaginationLinksBuilder paginationLinksBuilder;
   @Mock private OidcAttributeUtils oidcAttributeUtils;
@@ -126,8 +126,8 @@ class SearchControllerTest {
     response.setTotalPages(1);
 
     when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("1"));
-    when(claimsRestService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
-        .thenReturn(Mono.just(response));
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+        .thenReturn(response);
     when(paginationUtil.fromSubmissionsResultSet(response, 0, 50))
         .thenReturn(new Page().totalElements(1));
 
@@ -136,12 +136,11 @@ class SearchControllerTest {
             null, null, "JAN-2024", CRIME_LOWER, List.of(), SubmissionOutcomeFilter.SUCCEEDED);
 
     String view =
-        searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+        searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
     verify(sessionStatus).setComplete();
     verify(model).addAttribute(eq("pagination"), any(Page.class));
     verify(model).addAttribute("submissions", response);
-    verify(session).setAttribute("submissions", response);
     assertEquals("pages/submissions-search-results", view);
   }
 
@@ -150,13 +149,13 @@ class SearchControllerTest {
       "Submissions search results should return error when HttpClientErrorException is thrown")
   void submissionsSearchResultsShouldReturnErrorOnHttpClientError() {
     when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("1"));
-    when(claimsRestService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
         .thenThrow(BadRequest.class);
 
     var query = SubmissionSearchQuery.builder().build();
 
     String view =
-        searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+        searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
     assertEquals("error", view);
   }
@@ -165,17 +164,33 @@ class SearchControllerTest {
   @DisplayName("Submissions search results should return error when generic exception is thrown")
   void submissionsSearchResultsShouldReturnErrorOnGenericException() {
     when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("1"));
-    when(claimsRestService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
         .thenThrow(new RuntimeException("Boom"));
 
     var query = SubmissionSearchQuery.builder().build();
 
     String view =
-        searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+        searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
     assertEquals("error", view);
   }
 
+  @Test
+  @DisplayName("Submissions search results should rethrow when the Claims API circuit is open")
+  void submissionsSearchResultsShouldRethrowWhenCircuitOpen() {
+    when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("1"));
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+        .thenThrow(
+            CallNotPermittedException.createCallNotPermittedException(
+                CircuitBreaker.ofDefaults("search")));
+
+    var query = SubmissionSearchQuery.builder().build();
+
+    assertThrows(
+        CallNotPermittedException.class,
+        () -> searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus));
+  }
+
   @Test
   @DisplayName("Search GET should not add query to model if already present")
   void searchShouldNotOverrideQueryIfAlreadyPresent() {
@@ -185,6 +200,30 @@ class SearchControllerTest {
 
     verify(model, never())
         .addAttribute(eq("submissionSearchQuery"), any(SubmissionSearchQuery.class));
+    verify(submissionSearchService, never()).prewarm(any(), any());
+  }
+
+  @Test
+  @DisplayName("Search GET should pre-warm the default search for the user's offices")
+  void searchShouldPrewarmDefaultSearch() {
+    when(model.containsAttribute("submissionSearchQuery")).thenReturn(false);
+    when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("12345", "67890"));
+
+    searchController.search(model, sessionStatus, OIDC_USER);
+
+    ArgumentCaptor<Runnable> prewarmCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(submissionSearchService)
+        .prewarm(eq(List.of("12345", "67890")), prewarmCaptor.capture());
+    prewarmCaptor.getValue().run();
+    verify(submissionSearchService)
+        .search(
+            eq(List.of("12345", "67890")),
+            isNull(),
+            isNull(),
+            eq(SubmissionOutcomeFilter.SUCCEEDED.getStatuses()),
+            eq(0),
+            anyInt(),
+            eq("createdOn,desc"));
   }
 
   @Test
@@ -194,9 +233,9 @@ class SearchControllerTest {
     mockApiSuccess();
 
     var query = new SubmissionSearchQuery(0, null, "  JAN-2024  ", null, List.of("1"), null);
-    searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+    searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-    verify(claimsRestService)
+    verify(submissionSearchService)
         .search(eq(List.of("1")), eq("JAN-2024"), any(), any(), anyInt(), anyInt(), any());
   }
 
@@ -207,9 +246,9 @@ class SearchControllerTest {
     mockApiSuccess();
 
     var query = new SubmissionSearchQuery(0, null, null, null, List.of("1"), null);
-    searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+    searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-    verify(claimsRestService)
+    verify(submissionSearchService)
         .search(eq(List.of("1")), any(), any(), isNull(), anyInt(), anyInt(), any());
   }
 
@@ -224,9 +263,9 @@ class SearchControllerTest {
       mockApiSuccess();
 
       var query = new SubmissionSearchQuery(0, null, null, null, List.of("1"), null);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(any(), isNull(), isNull(), isNull(), anyInt(), anyInt(), any());
     }
 
@@ -237,9 +276,9 @@ class SearchControllerTest {
       mockApiSuccess();
 
       var query = new SubmissionSearchQuery(0, null, "JAN-2024", null, List.of("1"), null);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(any(), eq("JAN-2024"), any(), any(), anyInt(), anyInt(), any());
     }
 
@@ -250,9 +289,9 @@ class SearchControllerTest {
       mockApiSuccess();
 
       var query = new SubmissionSearchQuery(0, null, null, CRIME_LOWER, List.of("1"), null);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(any(), any(), eq(CRIME_LOWER), any(), anyInt(), anyInt(), any());
     }
 
@@ -265,9 +304,9 @@ class SearchControllerTest {
       var query =
           new SubmissionSearchQuery(
               0, null, null, null, List.of("1"), SubmissionOutcomeFilter.SUCCEEDED);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(
               any(),
               any(),
@@ -292,9 +331,9 @@ class SearchControllerTest {
               CRIME_LOWER,
               List.of("12345"),
               SubmissionOutcomeFilter.SUCCEEDED);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(
               eq(List.of("12345")),
               eq("JAN-2024"),
@@ -317,9 +356,9 @@ class SearchControllerTest {
       mockApiSuccess();
 
       var query = new SubmissionSearchQuery(0, null, null, null, List.of("12345", "1"), null);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(eq(List.of("12345")), any(), any(), any(), anyInt(), anyInt(), any());
     }
 
@@ -330,9 +369,9 @@ class SearchControllerTest {
       mockApiSuccess();
 
       var query = new SubmissionSearchQuery(0, null, null, null, List.of("12345"), null);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(eq(List.of("12345")), any(), any(), any(), anyInt(), anyInt(), any());
     }
 
@@ -343,9 +382,9 @@ class SearchControllerTest {
       mockApiSuccess();
 
       var query = new SubmissionSearchQuery(0, null, null, null, List.of("1"), null);
-      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus, session);
+      searchController.submissionsSearchResults(query, model, OIDC_USER, sessionStatus);
 
-      verify(claimsRestService)
+      verify(submissionSearchService)
           .search(eq(Collections.emptyList()), any(), any(), any(), anyInt(), anyInt(), any());
     }
   }
@@ -357,8 +396,8 @@ class SearchControllerTest {
     response.setSize(10);
     response.setTotalPages(1);
     response.setTotalElements(0);
-    when(claimsRestService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
-        .thenReturn(Mono.just(response));
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+        .thenReturn(response);
     when(paginationUtil.fromSubmissionsResultSet(any(), anyInt(), anyInt()))
         .thenReturn(new Page().totalElements(0));
   }
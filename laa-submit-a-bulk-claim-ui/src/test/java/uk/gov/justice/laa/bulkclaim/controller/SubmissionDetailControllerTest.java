@@ -40,6 +40,7 @@ import uk.gov.justice.laa.bulkclaim.dto.submission.claim.SubmissionClaimRowCosts
 import uk.gov.justice.laa.bulkclaim.dto.submission.claim.SubmissionClaimsDetails;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSource;
 import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSummary;
+import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
 import uk.gov.justice.laa.bulkclaim.service.SubmissionService;
 import uk.gov.justice.laa.bulkclaim.util.CurrencyUtil;
 import uk.gov.justice.laa.bulkclaim.util.DateTimeUtil;
@@ -150,6 +151,42 @@ class SubmissionDetailControllerTest extends BaseControllerTest {
       verify(submissionMatterStartsDetailsBuilder, times(1)).build(any());
     }
 
+    @Test
+    @DisplayName("Should say which part of the page was missing when a builder returns nothing")
+    void shouldFailWithDescriptiveMessageWhenBuilderReturnsNothing() {
+      var pagination = Page.builder().totalPages(1).totalElements(0).number(0).size(10).build();
+      var submissionResponse =
+          SubmissionResponse.builder()
+              .submissionId(SUBMISSION_ID)
+              .status(VALIDATION_SUCCEEDED)
+              .officeAccountNumber(OFFICE_CODE)
+              .build();
+      when(submissionService.getSubmission(SUBMISSION_ID, OIDC_USER))
+          .thenReturn(submissionResponse);
+      when(submissionSummaryBuilder.build(any()))
+          .thenReturn(
+              new SubmissionSummary(
+                  SUBMISSION_ID,
+                  "Submitted",
+                  LocalDate.of(2025, 5, 1),
+                  "AQ2B3C",
+                  new BigDecimal("100.50"),
+                  "Legal aid",
+                  OffsetDateTime.of(2025, 1, 1, 10, 10, 10, 0, ZoneOffset.UTC)));
+      when(submissionClaimDetailsBuilder.build(eq(submissionResponse), anyInt(), anyInt(), any()))
+          .thenReturn(
+              new SubmissionClaimsDetails(Collections.emptyList(), pagination, BigDecimal.ZERO));
+
+      assertThat(
+              mockMvc.perform(
+                  get("/submissions/%s".formatted(SUBMISSION_ID))
+                      .with(oidcLogin().oidcUser(OIDC_USER))
+                      .sessionAttr("submissionId", SUBMISSION_ID)))
+          .failure()
+          .hasCauseInstanceOf(SubmitBulkClaimException.class)
+          .hasMessageContaining("No warnings were built for submission " + SUBMISSION_ID);
+    }
+
     @Test
     @DisplayName("Should return expected result with claims")
     void shouldReturnExpectedResultWithClaims() {
@@ -186,7 +223,7 @@ class SubmissionDetailControllerTest extends BaseControllerTest {
           .hasStatusOk()
           .hasViewName("pages/view-submission-detail-invalid");
 
-      verify(submissionMessagesBuilder, times(1)).buildErrors(SUBMISSION_ID, 0, 50, null);
+      verify(submissionMessagesBuilder, times(1)).buildErrors(submissionResponse, 0, 50, null);
       verify(submissionMatterStartsDetailsBuilder, times(1)).build(any());
     }
 
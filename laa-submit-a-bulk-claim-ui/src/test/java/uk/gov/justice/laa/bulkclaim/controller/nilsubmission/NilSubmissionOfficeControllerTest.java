@@ -2,6 +2,7 @@ package uk.gov.justice.laa.bulkclaim.controller.nilsubmission;
 
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -81,6 +82,7 @@ class NilSubmissionOfficeControllerTest extends BaseControllerTest {
   void postOffice_setsFormAndRedirects() throws Exception {
     when(oidcAttributeUtils.getUserOffices(any(OidcUser.class)))
         .thenReturn(List.of("OfficeA", "OfficeB"));
+    when(oidcAttributeUtils.hasOfficeAccess(any(OidcUser.class), eq("OfficeA"))).thenReturn(true);
     var session = sessionWithForm(new NilSubmissionForm());
 
     mockMvc
@@ -0,0 +1,74 @@
+package uk.gov.justice.laa.bulkclaim.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.bind.WebDataBinder;
+
+@DisplayName("File upload form test")
+class FileUploadFormTest {
+
+  // SHA-256 of "test content"
+  private static final String DIGEST =
+      "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72";
+
+  @Test
+  @DisplayName("Should digest the file and digest it again when the file is replaced")
+  void shouldDigestFile() {
+    // Given
+    FileUploadForm form = new FileUploadForm(file("test content"));
+
+    // When
+    String digest = form.contentSha256();
+    form.setFile(file("other content"));
+
+    // Then
+    assertThat(digest).isEqualTo(DIGEST);
+    assertThat(form.contentSha256()).isNotEqualTo(DIGEST).hasSize(64);
+  }
+
+  @Test
+  @DisplayName("Should digest the file in the same read as the caller, to the end of the file")
+  void shouldDigestFileWhileReading() throws IOException {
+    // Given
+    MockMultipartFile file = spy(file("test content"));
+    FileUploadForm form = new FileUploadForm(file);
+
+    // When
+    int firstByte = form.read(InputStream::read);
+
+    // Then
+    assertThat(firstByte).isEqualTo('t');
+    assertThat(form.contentSha256()).isEqualTo(DIGEST);
+    verify(file, times(1)).getInputStream();
+  }
+
+  @Test
+  @DisplayName("Should not bind the digest from the request")
+  void shouldNotBindDigest() {
+    // Given
+    FileUploadForm form = new FileUploadForm(file("test content"));
+
+    // When
+    new WebDataBinder(form)
+        .bind(new MutablePropertyValues(Map.of("contentSha256", "0".repeat(64))));
+
+    // Then
+    assertThat(form.contentSha256()).isEqualTo(DIGEST);
+  }
+
+  private static MockMultipartFile file(String content) {
+    return new MockMultipartFile(
+        "file", "test.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+  }
+}
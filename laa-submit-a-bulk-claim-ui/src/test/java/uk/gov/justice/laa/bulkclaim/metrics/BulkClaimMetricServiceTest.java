@@ -5,6 +5,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -205,4 +206,89 @@ class BulkClaimMetricServiceTest {
                 .get("failed_reason"))
         .isEqualTo("File size exceeds maximum allowed");
   }
+
+  @Test
+  @DisplayName("Should record export size and time to first byte")
+  void shouldRecordExportSizeAndTimeToFirstByte() {
+    // When
+    bulkClaimMetricService.recordExportSize("legal-help", 2048);
+    bulkClaimMetricService.recordExportTimeToFirstByte("legal-help", Duration.ofMillis(250));
+    // Then
+    assertThat(
+            bulkClaimMetricService
+                .getExportSizeHistogram()
+                .collect()
+                .getDataPoints()
+                .getFirst()
+                .getSum())
+        .isEqualTo(2048);
+    assertThat(
+            bulkClaimMetricService
+                .getExportSizeHistogram()
+                .collect()
+                .getDataPoints()
+                .getFirst()
+                .getLabels()
+                .get("area_of_law"))
+        .isEqualTo("legal-help");
+    assertThat(
+            bulkClaimMetricService
+                .getExportTimeToFirstByteHistogram()
+                .collect()
+                .getDataPoints()
+                .getFirst()
+                .getSum())
+        .isEqualTo(0.25);
+  }
+
+  @Test
+  @DisplayName("Should record exports for unknown areas of law as other")
+  void shouldRecordUnknownAreasOfLawAsOther() {
+    // When
+    bulkClaimMetricService.recordExportSize("not-an-area-of-law", 2048);
+    // Then
+    assertThat(
+            bulkClaimMetricService
+                .getExportSizeHistogram()
+                .collect()
+                .getDataPoints()
+                .getFirst()
+                .getLabels()
+                .get("area_of_law"))
+        .isEqualTo("other");
+  }
+
+  @Test
+  @DisplayName("Should record virus scan duration and results found in the cache")
+  void shouldRecordVirusScanDurationAndCacheHits() {
+    // When
+    bulkClaimMetricService.recordVirusScan(Duration.ofMillis(1500), true);
+    bulkClaimMetricService.recordVirusScanCacheHit(4096);
+    // Then
+    assertThat(
+            bulkClaimMetricService
+                .getVirusScanDurationHistogram()
+                .collect()
+                .getDataPoints()
+                .getFirst()
+                .getSum())
+        .isEqualTo(1.5);
+    assertThat(
+            bulkClaimMetricService
+                .getVirusScanCacheCounter()
+                .collect()
+                .getDataPoints()
+                .getFirst()
+                .getLabels()
+                .get("result"))
+        .isEqualTo("hit");
+    assertThat(
+            bulkClaimMetricService
+                .getVirusScanBytesAvoidedCounter()
+                .collect()
+                .getDataPoints()
+                .getFirst()
+                .getValue())
+        .isEqualTo(4096);
+  }
 }
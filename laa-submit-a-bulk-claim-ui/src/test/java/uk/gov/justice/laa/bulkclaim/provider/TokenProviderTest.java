@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,6 +18,7 @@ import org.springframework.security.oauth2.client.ClientAuthorizationException;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2Error;
 import uk.gov.justice.laa.bulkclaim.exception.TokenProviderException;
@@ -25,6 +27,7 @@ import uk.gov.justice.laa.bulkclaim.exception.TokenProviderException;
 class TokenProviderTest {
 
   @Mock OAuth2AuthorizedClientManager authorizedClientManager;
+  @Mock OAuth2AuthorizedClientService authorizedClientService;
 
   @Mock OAuth2AuthorizedClient authorizedClient;
 
@@ -42,6 +45,11 @@ class TokenProviderTest {
     OAuth2AccessToken result = tokenProvider.getTokenFromProvider();
 
     assertThat(result).isEqualTo(accessToken);
+    InOrder inOrder = inOrder(authorizedClientService, authorizedClientManager);
+    inOrder
+        .verify(authorizedClientService)
+        .removeAuthorizedClient("moj-identity", "moj-identity-client");
+    inOrder.verify(authorizedClientManager).authorize(any(OAuth2AuthorizeRequest.class));
   }
 
   @Test
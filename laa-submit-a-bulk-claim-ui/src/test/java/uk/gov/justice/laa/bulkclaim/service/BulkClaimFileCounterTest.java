@@ -0,0 +1,126 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import uk.gov.justice.laa.bulkclaim.dto.FileUploadForm;
+import uk.gov.justice.laa.bulkclaim.util.Sha256Util;
+
+@DisplayName("Bulk claim file counter test")
+class BulkClaimFileCounterTest {
+
+  private final BulkClaimFileCounter bulkClaimFileCounter = new BulkClaimFileCounter();
+
+  @ParameterizedTest
+  @ValueSource(strings = {"test.csv", "test.TXT"})
+  @DisplayName("Should count the outcome lines of a CSV or TXT file")
+  void shouldCountOutcomeLines(String fileName) {
+    // Given
+    MultipartFile file =
+        file(
+            fileName,
+            """
+            OFFICE,account=0P322F
+            SCHEDULE,submissionPeriod=APR-2025,areaOfLaw=LEGAL HELP
+            OUTCOME,matterType=FAMX:FAPP,caseRefNumber=ABC/1
+            outcome,matterType=FAMX:FAPP,caseRefNumber=ABC/2
+            OUTCOME,matterType=FAMX:FAPP,caseRefNumber=ABC/3
+            """);
+
+    // When
+    Integer claims = bulkClaimFileCounter.countClaims(new FileUploadForm(file));
+
+    // Then
+    assertThat(claims).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should count the outcome elements of an XML file")
+  void shouldCountOutcomeElements() {
+    // Given
+    MultipartFile file =
+        file(
+            "test.xml",
+            """
+            <submission>
+              <office account="0P322F">
+                <schedule submissionPeriod="APR-2025" areaOfLaw="LEGAL HELP">
+                  <outcome matterType="FAMX:FAPP"/>
+                  <outcome matterType="FAMX:FAPP">
+                    <outcomeItem name="CASE_REF_NUMBER">ABC/2</outcomeItem>
+                  </outcome>
+                </schedule>
+              </office>
+            </submission>
+            """);
+
+    // When
+    Integer claims = bulkClaimFileCounter.countClaims(new FileUploadForm(file));
+
+    // Then
+    assertThat(claims).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should return null if the XML file is not well formed")
+  void shouldReturnNullForBadlyFormedXml() {
+    // Given
+    MultipartFile file = file("test.xml", "<submission><outcome></submission>");
+
+    // When
+    Integer claims = bulkClaimFileCounter.countClaims(new FileUploadForm(file));
+
+    // Then
+    assertThat(claims).isNull();
+  }
+
+  @Test
+  @DisplayName("Should work out the SHA-256 of the file in the same read as the count")
+  void shouldDigestFileWhileCounting() throws IOException {
+    // Given a file which is not well formed, so counting stops part way through
+    String content = "<submission><outcome></submission><outcome/>";
+    MultipartFile file = spy(file("test.xml", content));
+    FileUploadForm uploadForm = new FileUploadForm(file);
+
+    // When
+    Integer claims = bulkClaimFileCounter.countClaims(uploadForm);
+    String digest = uploadForm.contentSha256();
+
+    // Then
+    assertThat(claims).isNull();
+    assertThat(digest).isEqualTo(Sha256Util.hex(content.getBytes(StandardCharsets.UTF_8)));
+    verify(file, times(1)).getInputStream();
+  }
+
+  @Test
+  @DisplayName("Should return null if the file cannot be read")
+  void shouldReturnNullIfFileCannotBeRead() throws IOException {
+    // Given
+    MultipartFile file = mock(MultipartFile.class);
+    when(file.getOriginalFilename()).thenReturn("test.csv");
+    when(file.getInputStream()).thenThrow(new IOException("Stream closed"));
+
+    // When
+    Integer claims = bulkClaimFileCounter.countClaims(new FileUploadForm(file));
+
+    // Then
+    assertThat(claims).isNull();
+  }
+
+  private static MultipartFile file(String fileName, String content) {
+    return new MockMultipartFile(
+        "file", fileName, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+  }
+}
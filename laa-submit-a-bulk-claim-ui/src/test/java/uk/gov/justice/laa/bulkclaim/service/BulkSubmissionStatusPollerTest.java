@@ -0,0 +1,427 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.BulkSubmissionStatus;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimResultSet;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.GetBulkSubmissionStatusById200Response;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionResponse;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Bulk submission status poller test")
+class BulkSubmissionStatusPollerTest {
+
+  private static final UUID BULK_SUBMISSION_ID =
+      UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
+  private static final UUID SUBMISSION_ID =
+      UUID.fromString("2f5a4b6e-9f0c-4d2c-8f0b-3c1b7e5d9a10");
+  private static final String STATUS_KEY =
+      "submit-a-bulk-claim:bulk-submission-status:" + BULK_SUBMISSION_ID;
+
+  @Mock private DataClaimsRestClient dataClaimsRestClient;
+  @Mock private StringRedisTemplate redisTemplate;
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  private final Map<String, Entry> redis = new ConcurrentHashMap<>();
+  private MeterRegistry meterRegistry;
+  private BulkSubmissionStatusPoller bulkSubmissionStatusPoller;
+
+  @BeforeEach
+  void setUp() {
+    stubRedis();
+    meterRegistry = new SimpleMeterRegistry();
+    bulkSubmissionStatusPoller =
+        new BulkSubmissionStatusPoller(
+            dataClaimsRestClient,
+            redisTemplate,
+            meterRegistry,
+            Duration.ofMillis(20),
+            Duration.ofMillis(80),
+            Duration.ofSeconds(45));
+  }
+
+  @Test
+  @DisplayName("Should emit each status change and complete once checking has finished")
+  void shouldEmitStatusChangesUntilComplete() {
+    // Given
+    when(dataClaimsRestClient.getBulkSubmissionSummary(BULK_SUBMISSION_ID))
+        .thenReturn(
+            Mono.error(
+                new WebClientResponseException(
+                    HttpStatusCode.valueOf(404), "Not found", null, null, null, null)),
+            summary(BulkSubmissionStatus.READY_FOR_PARSING),
+            summary(BulkSubmissionStatus.READY_FOR_PARSING),
+            summary(BulkSubmissionStatus.PARSING_COMPLETED),
+            summary(BulkSubmissionStatus.VALIDATION_SUCCEEDED));
+
+    // When
+    List<BulkSubmissionStatus> statuses =
+        bulkSubmissionStatusPoller
+            .watch(BULK_SUBMISSION_ID)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+    // Then
+    assertThat(statuses)
+        .containsExactly(
+            BulkSubmissionStatus.READY_FOR_PARSING,
+            BulkSubmissionStatus.PARSING_COMPLETED,
+            BulkSubmissionStatus.VALIDATION_SUCCEEDED);
+    assertThat(meterRegistry.get("bulk.submission.status.in.flight").gauge().value()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should share one poll between everyone watching the same bulk submission")
+  void shouldShareOnePollBetweenWatchers() {
+    // Given
+    when(dataClaimsRestClient.getBulkSubmissionSummary(BULK_SUBMISSION_ID))
+        .thenReturn(
+            summary(BulkSubmissionStatus.READY_FOR_PARSING),
+            summary(BulkSubmissionStatus.VALIDATION_FAILED));
+
+    // When
+    List<List<BulkSubmissionStatus>> statuses =
+        Flux.merge(
+                bulkSubmissionStatusPoller.watch(BULK_SUBMISSION_ID).collectList(),
+                bulkSubmissionStatusPoller.watch(BULK_SUBMISSION_ID).collectList(),
+                bulkSubmissionStatusPoller.watch(BULK_SUBMISSION_ID).collectList())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+    // Then
+    assertThat(statuses)
+        .hasSize(3)
+        .allSatisfy(
+            watched ->
+                assertThat(watched)
+                    .containsExactly(
+                        BulkSubmissionStatus.READY_FOR_PARSING,
+                        BulkSubmissionStatus.VALIDATION_FAILED));
+    verify(dataClaimsRestClient, times(2)).getBulkSubmissionSummary(BULK_SUBMISSION_ID);
+  }
+
+  @Test
+  @DisplayName("Should use the status held in Redis until the next poll is due")
+  void shouldUseStatusHeldInRedisUntilNextPollIsDue() {
+    // Given
+    var meters = new SimpleMeterRegistry();
+    var poller =
+        new BulkSubmissionStatusPoller(
+            dataClaimsRestClient,
+            redisTemplate,
+            meters,
+            Duration.ofSeconds(2),
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(45));
+    when(dataClaimsRestClient.getBulkSubmissionSummary(BULK_SUBMISSION_ID))
+        .thenReturn(summary(BulkSubmissionStatus.READY_FOR_PARSING));
+
+    // When
+    BulkSubmissionStatus first = poller.currentStatus(BULK_SUBMISSION_ID).block();
+    BulkSubmissionStatus second = poller.currentStatus(BULK_SUBMISSION_ID).block();
+
+    // Then
+    assertThat(first).isEqualTo(BulkSubmissionStatus.READY_FOR_PARSING);
+    assertThat(second).isEqualTo(BulkSubmissionStatus.READY_FOR_PARSING);
+    verify(dataClaimsRestClient, times(1)).getBulkSubmissionSummary(BULK_SUBMISSION_ID);
+    assertThat(meters.get("bulk.submission.status.polls").tag("source", "redis").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should report in flight submissions and the expected poll rate")
+  void shouldReportInFlightSubmissionsAndPollRate() {
+    // Given
+    var meters = new SimpleMeterRegistry();
+    var poller =
+        new BulkSubmissionStatusPoller(
+            dataClaimsRestClient,
+            redisTemplate,
+            meters,
+            Duration.ofSeconds(2),
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(45));
+    when(dataClaimsRestClient.getBulkSubmissionSummary(BULK_SUBMISSION_ID))
+        .thenReturn(summary(BulkSubmissionStatus.READY_FOR_PARSING));
+
+    // When
+    poller.currentStatus(BULK_SUBMISSION_ID).block();
+
+    // Then
+    assertThat(meters.get("bulk.submission.status.in.flight").gauge().value()).isEqualTo(1);
+    assertThat(meters.get("bulk.submission.status.poll.rate").gauge().value()).isEqualTo(0.5);
+  }
+
+  @Test
+  @DisplayName("Should use the last stored status while another pod is polling")
+  void shouldUseLastStoredStatusWhileAnotherPodIsPolling() {
+    // Given
+    redis.put(STATUS_KEY + ":lock", new Entry("1", Instant.now().plusSeconds(10)));
+    redis.put(
+        STATUS_KEY + ":last",
+        new Entry(BulkSubmissionStatus.PARSING_COMPLETED.name(), Instant.now().plusSeconds(10)));
+
+    // When
+    BulkSubmissionStatus status =
+        bulkSubmissionStatusPoller.currentStatus(BULK_SUBMISSION_ID).block();
+
+    // Then
+    assertThat(status).isEqualTo(BulkSubmissionStatus.PARSING_COMPLETED);
+    verify(dataClaimsRestClient, never()).getBulkSubmissionSummary(any());
+  }
+
+  @Test
+  @DisplayName("Should not release a lock another caller has taken since")
+  void shouldNotReleaseLockAnotherCallerHasTaken() {
+    // Given
+    String lockKey = STATUS_KEY + ":lock";
+    when(dataClaimsRestClient.getBulkSubmissionSummary(BULK_SUBMISSION_ID))
+        .thenAnswer(
+            invocation -> {
+              // Our lock expires mid poll and another pod takes it
+              redis.put(lockKey, new Entry("other-pod", Instant.now().plusSeconds(45)));
+              return summary(BulkSubmissionStatus.READY_FOR_PARSING);
+            });
+
+    // When
+    bulkSubmissionStatusPoller.currentStatus(BULK_SUBMISSION_ID).block();
+
+    // Then
+    assertThat(read(lockKey)).isEqualTo("other-pod");
+  }
+
+  @Test
+  @DisplayName("Should double the poll interval while the file is being parsed, up to the maximum")
+  void shouldBackOffExponentially() {
+    assertThat(bulkSubmissionStatusPoller.backoff(1)).isEqualTo(Duration.ofMillis(20));
+    assertThat(bulkSubmissionStatusPoller.backoff(2)).isEqualTo(Duration.ofMillis(40));
+    assertThat(bulkSubmissionStatusPoller.backoff(3)).isEqualTo(Duration.ofMillis(80));
+    assertThat(bulkSubmissionStatusPoller.backoff(4)).isEqualTo(Duration.ofMillis(80));
+    assertThat(bulkSubmissionStatusPoller.backoff(Long.MAX_VALUE))
+        .isEqualTo(Duration.ofMillis(80));
+  }
+
+  @Test
+  @DisplayName("Should count claims checked once per poll interval")
+  void shouldCountClaimsCheckedOncePerPollInterval() {
+    // Given
+    var poller =
+        new BulkSubmissionStatusPoller(
+            dataClaimsRestClient,
+            redisTemplate,
+            meterRegistry,
+            Duration.ofSeconds(2),
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(45));
+    when(dataClaimsRestClient.getSubmission(SUBMISSION_ID))
+        .thenReturn(
+            Mono.just(
+                SubmissionResponse.builder()
+                    .submissionId(SUBMISSION_ID)
+                    .officeAccountNumber("0P322F")
+                    .build()));
+    when(dataClaimsRestClient.getClaims("0P322F", SUBMISSION_ID, 0, 1))
+        .thenReturn(ResponseEntity.ok(ClaimResultSet.builder().totalElements(42).build()));
+
+    // When
+    Integer first = poller.claimsChecked(BULK_SUBMISSION_ID, SUBMISSION_ID).block();
+    Integer second = poller.claimsChecked(BULK_SUBMISSION_ID, SUBMISSION_ID).block();
+
+    // Then
+    assertThat(first).isEqualTo(42);
+    assertThat(second).isEqualTo(42);
+    verify(dataClaimsRestClient, times(1)).getClaims("0P322F", SUBMISSION_ID, 0, 1);
+  }
+
+  @Test
+  @DisplayName("Should refresh the claims checked as often as the status")
+  void shouldRefreshClaimsCheckedOnStatusBackoff() {
+    // Given
+    redis.put(STATUS_KEY + ":polls", new Entry("3", Instant.MAX));
+    when(dataClaimsRestClient.getSubmission(SUBMISSION_ID))
+        .thenReturn(Mono.just(SubmissionResponse.builder().officeAccountNumber("0P322F").build()));
+    when(dataClaimsRestClient.getClaims("0P322F", SUBMISSION_ID, 0, 1))
+        .thenReturn(ResponseEntity.ok(ClaimResultSet.builder().totalElements(42).build()));
+
+    // When
+    bulkSubmissionStatusPoller.claimsChecked(BULK_SUBMISSION_ID, SUBMISSION_ID).block();
+
+    // Then
+    Entry claimsChecked = redis.get(STATUS_KEY + ":claims-checked");
+    assertThat(Duration.between(Instant.now(), claimsChecked.expiresAt()))
+        .isGreaterThan(Duration.ofMillis(50))
+        .isLessThanOrEqualTo(Duration.ofMillis(80));
+  }
+
+  @Test
+  @DisplayName("Should stop counting claims checked once checking has finished")
+  void shouldStopCountingClaimsCheckedOnceFinished() {
+    // Given
+    redis.put(
+        STATUS_KEY + ":last",
+        new Entry(BulkSubmissionStatus.VALIDATION_SUCCEEDED.name(), Instant.now().plusSeconds(10)));
+    redis.put(
+        STATUS_KEY + ":claims-checked:last", new Entry("42", Instant.now().plusSeconds(10)));
+
+    // When
+    Integer claimsChecked =
+        bulkSubmissionStatusPoller.claimsChecked(BULK_SUBMISSION_ID, SUBMISSION_ID).block();
+
+    // Then
+    assertThat(claimsChecked).isEqualTo(42);
+    verify(dataClaimsRestClient, never()).getSubmission(any());
+  }
+
+  @Test
+  @DisplayName("Should share one count of claims checked between everyone watching")
+  void shouldShareClaimsCheckedBetweenWatchers() {
+    // Given
+    var poller =
+        new BulkSubmissionStatusPoller(
+            dataClaimsRestClient,
+            redisTemplate,
+            meterRegistry,
+            Duration.ofSeconds(2),
+            Duration.ofMinutes(1),
+            Duration.ofSeconds(45));
+    when(dataClaimsRestClient.getSubmission(SUBMISSION_ID))
+        .thenReturn(Mono.just(SubmissionResponse.builder().officeAccountNumber("0P322F").build()));
+    when(dataClaimsRestClient.getClaims("0P322F", SUBMISSION_ID, 0, 1))
+        .thenReturn(ResponseEntity.ok(ClaimResultSet.builder().totalElements(42).build()));
+
+    // When
+    List<Integer> counts =
+        Flux.merge(
+                poller.watchClaimsChecked(BULK_SUBMISSION_ID, SUBMISSION_ID),
+                poller.watchClaimsChecked(BULK_SUBMISSION_ID, SUBMISSION_ID))
+            .take(2)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+    // Then
+    assertThat(counts).containsExactly(42, 42);
+    verify(dataClaimsRestClient, times(1)).getClaims("0P322F", SUBMISSION_ID, 0, 1);
+  }
+
+  @Test
+  @DisplayName("Should count no claims checked before the submission has been created")
+  void shouldCountNoClaimsCheckedBeforeSubmissionIsCreated() {
+    // Given
+    when(dataClaimsRestClient.getSubmission(SUBMISSION_ID))
+        .thenReturn(
+            Mono.error(
+                new WebClientResponseException(
+                    HttpStatusCode.valueOf(404), "Not found", null, null, null, null)));
+
+    // When
+    Integer claimsChecked =
+        bulkSubmissionStatusPoller.claimsChecked(BULK_SUBMISSION_ID, SUBMISSION_ID).block();
+
+    // Then
+    assertThat(claimsChecked).isZero();
+    verify(dataClaimsRestClient, never()).getClaims(anyString(), any(), anyInt(), anyInt());
+  }
+
+  private static Mono<GetBulkSubmissionStatusById200Response> summary(
+      BulkSubmissionStatus status) {
+    return Mono.just(GetBulkSubmissionStatusById200Response.builder().status(status).build());
+  }
+
+  /** Backs the mocked Redis operations with a map which honours expiry times. */
+  private void stubRedis() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient()
+        .when(valueOperations.get(anyString()))
+        .thenAnswer(invocation -> read(invocation.getArgument(0)));
+    lenient()
+        .doAnswer(
+            invocation ->
+                redis.put(
+                    invocation.getArgument(0),
+                    new Entry(
+                        invocation.getArgument(1),
+                        Instant.now().plus(invocation.<Duration>getArgument(2)))))
+        .when(valueOperations)
+        .set(anyString(), anyString(), any(Duration.class));
+    lenient()
+        .when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenAnswer(
+            invocation -> {
+              if (read(invocation.getArgument(0)) != null) {
+                return false;
+              }
+              redis.put(
+                  invocation.getArgument(0),
+                  new Entry(
+                      invocation.getArgument(1),
+                      Instant.now().plus(invocation.<Duration>getArgument(2))));
+              return true;
+            });
+    lenient()
+        .when(valueOperations.increment(anyString()))
+        .thenAnswer(
+            invocation -> {
+              String current = read(invocation.getArgument(0));
+              long next = current == null ? 1 : Long.parseLong(current) + 1;
+              redis.put(
+                  invocation.getArgument(0), new Entry(String.valueOf(next), Instant.MAX));
+              return next;
+            });
+    lenient()
+        .when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString()))
+        .thenAnswer(
+            invocation -> {
+              String key = invocation.<List<String>>getArgument(1).getFirst();
+              if (!invocation.<String>getArgument(2).equals(read(key))) {
+                return 0L;
+              }
+              redis.remove(key);
+              return 1L;
+            });
+    lenient()
+        .when(redisTemplate.delete(anyString()))
+        .thenAnswer(invocation -> redis.remove(invocation.<String>getArgument(0)) != null);
+  }
+
+  private String read(String key) {
+    Entry entry = redis.get(key);
+    if (entry == null || entry.expiresAt().isBefore(Instant.now())) {
+      return null;
+    }
+    return entry.value();
+  }
+
+  private record Entry(String value, Instant expiresAt) {}
+}
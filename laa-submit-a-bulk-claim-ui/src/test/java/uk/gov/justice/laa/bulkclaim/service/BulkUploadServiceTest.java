@@ -0,0 +1,175 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.bulkclaim.exception.VirusCheckException;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.CreateBulkSubmission201Response;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Bulk upload service test")
+class BulkUploadServiceTest {
+
+  @Mock private DataClaimsRestClient dataClaimsRestClient;
+  @Mock private PrometheusRegistry prometheusRegistry;
+
+  private BulkClaimMetricService bulkClaimMetricService;
+  private BulkUploadService bulkUploadService;
+
+  @BeforeEach
+  void setUp() {
+    bulkClaimMetricService = new BulkClaimMetricService(prometheusRegistry);
+    bulkUploadService = new BulkUploadService(dataClaimsRestClient, bulkClaimMetricService);
+  }
+
+  @Test
+  @DisplayName("Should stream the file to the Claims API in chunks")
+  void shouldStreamFileInChunks() {
+    // Given
+    byte[] content = "a".repeat(BulkUploadService.CHUNK_SIZE * 2 + 10).getBytes();
+    MockMultipartFile file = new MockMultipartFile("file", "claims.csv", "text/csv", content);
+    CreateBulkSubmission201Response response =
+        new CreateBulkSubmission201Response()
+            .bulkSubmissionId(UUID.randomUUID())
+            .submissionIds(List.of(UUID.randomUUID()));
+    List<Integer> chunkSizes = new ArrayList<>();
+    StringBuilder sent = new StringBuilder();
+    when(dataClaimsRestClient.upload(any(), eq("test-user"), eq(List.of("ABC123"))))
+        .thenAnswer(
+            invocation -> {
+              HttpEntity<?> part = invocation.getArgument(0);
+              assertThat(part.getHeaders().getContentDisposition().getFilename())
+                  .isEqualTo("claims.csv");
+              assertThat(part.getHeaders().getContentType())
+                  .isEqualTo(MediaType.valueOf("text/csv"));
+              @SuppressWarnings("unchecked")
+              Flux<DataBuffer> body = (Flux<DataBuffer>) part.getBody();
+              return body.doOnNext(
+                      dataBuffer -> {
+                        chunkSizes.add(dataBuffer.readableByteCount());
+                        sent.append(dataBuffer.toString(StandardCharsets.UTF_8));
+                        DataBufferUtils.release(dataBuffer);
+                      })
+                  .then(Mono.just(ResponseEntity.ok(response)));
+            });
+
+    // When
+    var result = bulkUploadService.upload(file, "test-user", List.of("ABC123")).block();
+
+    // Then
+    assertThat(result.getBody()).isEqualTo(response);
+    assertThat(sent.toString()).isEqualTo(new String(content));
+    assertThat(chunkSizes).hasSize(3).allMatch(size -> size <= BulkUploadService.CHUNK_SIZE);
+    assertThat(bulkClaimMetricService.getUploadBytesForwardedCounter().get())
+        .isEqualTo(content.length);
+    assertThat(bulkClaimMetricService.getUploadBytesInFlightGauge().get()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should clear bytes in flight when the Claims API rejects the upload")
+  void shouldClearBytesInFlightWhenUploadFails() {
+    // Given
+    MockMultipartFile file =
+        new MockMultipartFile("file", "claims.csv", "text/csv", "one,two".getBytes());
+    when(dataClaimsRestClient.upload(any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              HttpEntity<?> part = invocation.getArgument(0);
+              @SuppressWarnings("unchecked")
+              Flux<DataBuffer> body = (Flux<DataBuffer>) part.getBody();
+              return body.doOnNext(DataBufferUtils::release)
+                  .then(Mono.error(new IllegalStateException("Upload failed")));
+            });
+
+    // When
+    var upload = bulkUploadService.upload(file, "test-user", List.of());
+
+    // Then
+    assertThrows(IllegalStateException.class, upload::block);
+    assertThat(bulkClaimMetricService.getUploadBytesForwardedCounter().get()).isEqualTo(7);
+    assertThat(bulkClaimMetricService.getUploadBytesInFlightGauge().get()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should abort the file part when the release gate fails")
+  void shouldAbortFilePartWhenReleaseGateFails() throws Exception {
+    // Given
+    MockMultipartFile file =
+        new MockMultipartFile("file", "claims.csv", "text/csv", "one,two".getBytes());
+    Sinks.Empty<Void> gate = Sinks.empty();
+    List<String> received = new CopyOnWriteArrayList<>();
+
+    // When
+    CompletableFuture<Void> body =
+        readFilePart(bulkUploadService.filePart(file, new AtomicLong(), gate.asMono()), received);
+
+    // Then
+    assertThrows(TimeoutException.class, () -> body.get(200, TimeUnit.MILLISECONDS));
+    assertThat(received).containsExactly("one,two");
+    gate.tryEmitError(new VirusCheckException("Virus scan did not pass"));
+    assertThat(body)
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(VirusCheckException.class);
+  }
+
+  @Test
+  @DisplayName("Should complete the file part once the release gate completes")
+  void shouldCompleteFilePartWhenReleaseGateCompletes() throws Exception {
+    // Given
+    MockMultipartFile file =
+        new MockMultipartFile("file", "claims.csv", "text/csv", "one,two".getBytes());
+    Sinks.Empty<Void> gate = Sinks.empty();
+    List<String> received = new CopyOnWriteArrayList<>();
+
+    // When
+    CompletableFuture<Void> body =
+        readFilePart(bulkUploadService.filePart(file, new AtomicLong(), gate.asMono()), received);
+
+    // Then
+    assertThrows(TimeoutException.class, () -> body.get(200, TimeUnit.MILLISECONDS));
+    gate.tryEmitEmpty();
+    assertThat(body).succeedsWithin(Duration.ofSeconds(5));
+    assertThat(received).containsExactly("one,two");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CompletableFuture<Void> readFilePart(HttpEntity<?> part, List<String> received) {
+    return ((Flux<DataBuffer>) part.getBody())
+        .doOnNext(dataBuffer -> received.add(dataBuffer.toString(StandardCharsets.UTF_8)))
+        .then()
+        .toFuture();
+  }
+}
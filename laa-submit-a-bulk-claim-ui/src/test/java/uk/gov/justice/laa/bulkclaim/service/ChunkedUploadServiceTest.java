@@ -0,0 +1,205 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectMapper;
+import uk.gov.justice.laa.bulkclaim.dto.ChunkedUpload;
+
+@DisplayName("Chunked upload service test")
+class ChunkedUploadServiceTest {
+
+  private static final String USER = "test-user";
+  private static final byte[] CONTENT =
+      "office,claim\n1,one\n2,two\n3,three\n".getBytes(StandardCharsets.UTF_8);
+
+  @TempDir Path directory;
+
+  private ChunkedUploadService chunkedUploadService;
+
+  @BeforeEach
+  void setUp() {
+    chunkedUploadService =
+        new ChunkedUploadService(
+            new ObjectMapper(), directory.toString(), "10B", Duration.ofHours(1), "1KB");
+  }
+
+  @Test
+  @DisplayName("Should split the file into chunks of the configured size")
+  void shouldSplitFileIntoChunks() {
+    // When
+    ChunkedUpload upload = chunkedUploadService.start(USER, "claims.csv", "text/csv", 34);
+
+    // Then
+    assertThat(upload.chunkSize()).isEqualTo(10);
+    assertThat(upload.totalChunks()).isEqualTo(4);
+    assertThat(upload.receivedChunks()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should put the file back together once every chunk has been received")
+  void shouldAssembleFileFromChunks() throws Exception {
+    // Given
+    ChunkedUpload upload = start();
+
+    // When
+    for (int index = upload.totalChunks() - 1; index >= 0; index--) {
+      send(upload, index, chunk(index));
+    }
+    MultipartFile file = chunkedUploadService.assemble(upload.uploadId(), USER);
+
+    // Then
+    assertThat(file.getBytes()).isEqualTo(CONTENT);
+    assertThat(file.getOriginalFilename()).isEqualTo("claims.csv");
+    assertThat(file.getContentType()).isEqualTo("text/csv");
+    assertThat(file.getSize()).isEqualTo(CONTENT.length);
+  }
+
+  @Test
+  @DisplayName("Should report the chunks received so far so the upload can be carried on")
+  void shouldReportReceivedChunks() {
+    // Given
+    ChunkedUpload upload = start();
+    send(upload, 0, chunk(0));
+    send(upload, 2, chunk(2));
+
+    // When
+    ChunkedUpload status = chunkedUploadService.status(upload.uploadId(), USER);
+
+    // Then
+    assertThat(status.receivedChunks()).containsExactly(0, 2);
+  }
+
+  @Test
+  @DisplayName("Should not keep a chunk whose checksum does not match")
+  void shouldRejectChunkWithWrongChecksum() {
+    // Given
+    ChunkedUpload upload = start();
+    byte[] corrupted = chunk(1);
+    String checksum = sha256(corrupted);
+    corrupted[0] = 'X';
+
+    // When / Then
+    assertThatThrownBy(
+            () ->
+                chunkedUploadService.storeChunk(
+                    upload.uploadId(), USER, 1, checksum, new ByteArrayInputStream(corrupted)))
+        .isInstanceOfSatisfying(
+            ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    assertThat(chunkedUploadService.status(upload.uploadId(), USER).receivedChunks()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should not put the file back together while chunks are missing")
+  void shouldNotAssembleIncompleteUpload() {
+    // Given
+    ChunkedUpload upload = start();
+    send(upload, 0, chunk(0));
+
+    // When / Then
+    assertThatThrownBy(() -> chunkedUploadService.assemble(upload.uploadId(), USER))
+        .isInstanceOf(ResponseStatusException.class);
+  }
+
+  @Test
+  @DisplayName("Should not let another user see or add to an upload")
+  void shouldHideUploadFromOtherUsers() {
+    // Given
+    ChunkedUpload upload = start();
+
+    // When / Then
+    assertThatThrownBy(() -> chunkedUploadService.status(upload.uploadId(), "someone-else"))
+        .isInstanceOfSatisfying(
+            ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    assertThatThrownBy(() -> chunkedUploadService.status("../" + upload.uploadId(), USER))
+        .isInstanceOf(ResponseStatusException.class);
+  }
+
+  @Test
+  @DisplayName("Should remove everything stored for an upload once it is deleted")
+  void shouldRemoveUploadOnDelete() {
+    // Given
+    ChunkedUpload upload = start();
+    send(upload, 0, chunk(0));
+
+    // When
+    chunkedUploadService.delete(upload.uploadId(), USER);
+
+    // Then
+    assertThat(Files.exists(directory.resolve(upload.uploadId()))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should not delete an upload which belongs to someone else")
+  void shouldNotDeleteUploadOfAnotherUser() {
+    // Given
+    ChunkedUpload upload = start();
+
+    // When / Then
+    assertThatThrownBy(() -> chunkedUploadService.delete(upload.uploadId(), "another-user"))
+        .isInstanceOfSatisfying(
+            ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    assertThat(Files.exists(directory.resolve(upload.uploadId()))).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should not start chunked uploads until a directory has been configured")
+  void shouldNotStartUploadsWithoutDirectory() {
+    // Given
+    var unconfigured =
+        new ChunkedUploadService(new ObjectMapper(), "", "10B", Duration.ofHours(1), "1KB");
+
+    // When / Then
+    assertThat(unconfigured.isEnabled()).isFalse();
+    assertThatThrownBy(() -> unconfigured.start(USER, "claims.csv", "text/csv", 34))
+        .isInstanceOfSatisfying(
+            ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+  }
+
+  @Test
+  @DisplayName("Should refuse files larger than the upload limit")
+  void shouldRefuseFilesOverLimit() {
+    assertThatThrownBy(() -> chunkedUploadService.start(USER, "claims.csv", "text/csv", 2048))
+        .isInstanceOf(ResponseStatusException.class);
+  }
+
+  private ChunkedUpload start() {
+    return chunkedUploadService.start(USER, "claims.csv", "text/csv", CONTENT.length);
+  }
+
+  private void send(ChunkedUpload upload, int index, byte[] chunk) {
+    chunkedUploadService.storeChunk(
+        upload.uploadId(), USER, index, sha256(chunk), new ByteArrayInputStream(chunk));
+  }
+
+  private static byte[] chunk(int index) {
+    return Arrays.copyOfRange(CONTENT, index * 10, Math.min((index + 1) * 10, CONTENT.length));
+  }
+
+  private static String sha256(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.builder.LatestAssessmentResolver;
+import uk.gov.justice.laa.bulkclaim.builder.SubmissionMessagesBuilder;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClientV2;
+import uk.gov.justice.laa.bulkclaim.dto.submission.messages.MessagesSummary;
+import uk.gov.justice.laa.bulkclaim.helper.TestObjectCreator;
+import uk.gov.justice.laa.bulkclaim.util.OidcAttributeUtils;
+import uk.gov.justice.laa.bulkclaim.viewmodels.claimdetails.ClaimDetailPageData;
+import uk.gov.justice.laa.bulkclaim.viewmodels.claimdetails.ClaimDetailView;
+import uk.gov.justice.laa.bulkclaim.viewmodels.claimdetails.ClaimDetailViewFactory;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.AreaOfLaw;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.AssessmentGet;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimHistoryEvent;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimHistoryEventType;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimHistoryResultSet;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.ClaimResponseV2;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.DerivedClaimStatus;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Claim service test")
+class ClaimServiceTest {
+
+  private static final UUID SUBMISSION_ID = UUID.randomUUID();
+  private static final UUID CLAIM_ID = UUID.randomUUID();
+
+  @Mock private DataClaimsRestClient dataClaimsRestClient;
+  @Mock private DataClaimsRestClientV2 dataClaimsRestClientV2;
+  @Mock private ClaimDetailViewFactory claimDetailViewFactory;
+  @Mock private LatestAssessmentResolver latestAssessmentResolver;
+  @Mock private OidcAttributeUtils oidcAttributeUtils;
+  @Mock private SubmissionMessagesBuilder submissionMessagesBuilder;
+  @Mock private OidcUser user;
+
+  private final MessagesSummary warnings = MessagesSummary.builder().messages(List.of()).build();
+  private SimpleMeterRegistry meterRegistry;
+  private ClaimService claimService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    claimService =
+        new ClaimService(
+            dataClaimsRestClient,
+            dataClaimsRestClientV2,
+            claimDetailViewFactory,
+            latestAssessmentResolver,
+            oidcAttributeUtils,
+            submissionMessagesBuilder,
+            meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Should build the page with the latest assessment for an assessed claim")
+  void shouldBuildPageWithLatestAssessmentForAssessedClaim() {
+    // Given
+    ClaimResponseV2 claim = claim(DerivedClaimStatus.ASSESSED);
+    AssessmentGet assessment = new AssessmentGet();
+    ClaimDetailView claimDetailView = mock(ClaimDetailView.class);
+    ClaimHistoryEvent assessed =
+        ClaimHistoryEvent.builder()
+            .eventType(ClaimHistoryEventType.ASSESSMENT)
+            .eventTimestamp(OffsetDateTime.parse("2026-02-02T11:00:00Z"))
+            .build();
+    when(dataClaimsRestClientV2.getSubmissionClaim(SUBMISSION_ID, CLAIM_ID))
+        .thenReturn(Mono.just(claim));
+    when(dataClaimsRestClient.getClaimHistory(CLAIM_ID))
+        .thenReturn(Mono.just(ClaimHistoryResultSet.builder().events(List.of(assessed)).build()));
+    when(submissionMessagesBuilder.buildAllWarnings(SUBMISSION_ID, CLAIM_ID)).thenReturn(warnings);
+    when(latestAssessmentResolver.resolveLatestNonVoid(CLAIM_ID))
+        .thenReturn(Optional.of(assessment));
+    when(claimDetailViewFactory.create(claim, assessment)).thenReturn(claimDetailView);
+
+    // When
+    ClaimDetailPageData pageData =
+        claimService.getClaimDetailPageData(SUBMISSION_ID, CLAIM_ID, user);
+
+    // Then
+    assertThat(pageData.areaOfLaw()).isEqualTo(AreaOfLaw.LEGAL_HELP);
+    assertThat(pageData.showCurrentCalculated()).isTrue();
+    assertThat(pageData.claimDetailView()).isSameAs(claimDetailView);
+    assertThat(pageData.banner().lastEditedDate()).isEqualTo("02/02/2026");
+    assertThat(pageData.claimMessages()).isSameAs(warnings);
+    assertThat(List.of("claim", "assessment", "history", "warnings", "total"))
+        .allSatisfy(
+            stage ->
+                assertThat(
+                        meterRegistry
+                            .get(ClaimService.STAGE_TIMER)
+                            .tag("stage", stage)
+                            .timer()
+                            .count())
+                    .isEqualTo(1));
+  }
+
+  @Test
+  @DisplayName("Should not look up assessments for a claim which has not been assessed")
+  void shouldNotLookUpAssessmentsForUnassessedClaim() {
+    // Given
+    ClaimResponseV2 claim = claim(DerivedClaimStatus.READY_TO_PROCESS);
+    when(dataClaimsRestClientV2.getSubmissionClaim(SUBMISSION_ID, CLAIM_ID))
+        .thenReturn(Mono.just(claim));
+    when(dataClaimsRestClient.getClaimHistory(CLAIM_ID)).thenReturn(Mono.empty());
+    when(submissionMessagesBuilder.buildAllWarnings(SUBMISSION_ID, CLAIM_ID)).thenReturn(warnings);
+
+    // When
+    ClaimDetailPageData pageData =
+        claimService.getClaimDetailPageData(SUBMISSION_ID, CLAIM_ID, user);
+
+    // Then
+    assertThat(pageData.showCurrentCalculated()).isFalse();
+    assertThat(pageData.banner()).isNull();
+    verify(latestAssessmentResolver, never()).resolveLatestNonVoid(any());
+    verify(claimDetailViewFactory).create(claim, null);
+  }
+
+  @Test
+  @DisplayName("Should fetch history and warnings while the claim is being fetched")
+  void shouldFetchHistoryAndWarningsAlongsideClaim() {
+    // Given
+    CountDownLatch started = new CountDownLatch(2);
+    ClaimResponseV2 claim = claim(DerivedClaimStatus.READY_TO_PROCESS);
+    when(dataClaimsRestClientV2.getSubmissionClaim(SUBMISSION_ID, CLAIM_ID))
+        .thenReturn(
+            Mono.fromCallable(
+                () -> {
+                  assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+                  return claim;
+                }));
+    when(dataClaimsRestClient.getClaimHistory(CLAIM_ID))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              return Mono.empty();
+            });
+    when(submissionMessagesBuilder.buildAllWarnings(SUBMISSION_ID, CLAIM_ID))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              return warnings;
+            });
+
+    // When
+    ClaimDetailPageData pageData =
+        claimService.getClaimDetailPageData(SUBMISSION_ID, CLAIM_ID, user);
+
+    // Then
+    assertThat(pageData.claimMessages()).isSameAs(warnings);
+  }
+
+  @Test
+  @DisplayName("Should not return the page when the user cannot access the claim's office")
+  void shouldThrowWhenUserCannotAccessOffice() {
+    // Given
+    ClaimResponseV2 claim = claim(DerivedClaimStatus.ASSESSED);
+    when(dataClaimsRestClientV2.getSubmissionClaim(SUBMISSION_ID, CLAIM_ID))
+        .thenReturn(Mono.just(claim));
+    // History and warnings may be cancelled before they start once the office check fails
+    lenient().when(dataClaimsRestClient.getClaimHistory(CLAIM_ID)).thenReturn(Mono.empty());
+    lenient()
+        .when(submissionMessagesBuilder.buildAllWarnings(SUBMISSION_ID, CLAIM_ID))
+        .thenReturn(warnings);
+    doThrow(new ResponseStatusException(HttpStatus.NOT_FOUND))
+        .when(oidcAttributeUtils)
+        .checkOfficeAccess(user, claim.getOfficeCode());
+
+    // When / Then
+    assertThatThrownBy(() -> claimService.getClaimDetailPageData(SUBMISSION_ID, CLAIM_ID, user))
+        .isInstanceOf(ResponseStatusException.class);
+    verify(latestAssessmentResolver, never()).resolveLatestNonVoid(any());
+  }
+
+  private static ClaimResponseV2 claim(DerivedClaimStatus derivedClaimStatus) {
+    ClaimResponseV2 claim = TestObjectCreator.buildClaimResponseV2(AreaOfLaw.LEGAL_HELP);
+    claim.setDerivedClaimStatus(derivedClaimStatus);
+    return claim;
+  }
+}
@@ -0,0 +1,178 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.service.DuplicateUploadService.RecentUpload;
+import uk.gov.justice.laa.bulkclaim.util.Sha256Util;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.BulkSubmissionStatus;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Duplicate upload service test")
+class DuplicateUploadServiceTest {
+
+  private static final UUID BULK_SUBMISSION_ID =
+      UUID.fromString("5933fc67-bac7-4f48-81ed-61c8c463f056");
+  private static final UUID SUBMISSION_ID =
+      UUID.fromString("2f5a4b6e-9f0c-4d2c-8f0b-3c1b7e5d9a10");
+
+  @Mock private StringRedisTemplate redisTemplate;
+  @Mock private ValueOperations<String, String> valueOperations;
+  @Mock private BulkSubmissionStatusPoller bulkSubmissionStatusPoller;
+
+  private SimpleMeterRegistry meterRegistry;
+  private DuplicateUploadService duplicateUploadService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient().when(bulkSubmissionStatusPoller.currentStatus(any())).thenReturn(Mono.empty());
+    meterRegistry = new SimpleMeterRegistry();
+    duplicateUploadService =
+        new DuplicateUploadService(
+            redisTemplate, bulkSubmissionStatusPoller, meterRegistry, Duration.ofMinutes(10));
+  }
+
+  @Test
+  @DisplayName("Should give the same fingerprint for the same file and offices in any order")
+  void shouldGiveSameFingerprintForSameFileAndOffices() {
+    // When
+    String first = duplicateUploadService.fingerprint(sha256("OFFICE,account=0P322F"), offices());
+    String second =
+        duplicateUploadService.fingerprint(
+            sha256("OFFICE,account=0P322F"), List.of("1A123B", "0P322F"));
+
+    // Then
+    assertThat(first).isEqualTo(second).matches("[0-9a-f]{64}:[0-9a-f]{64}");
+  }
+
+  @Test
+  @DisplayName("Should give a different fingerprint for different content or offices")
+  void shouldGiveDifferentFingerprintForDifferentContentOrOffices() {
+    // When
+    String original =
+        duplicateUploadService.fingerprint(sha256("OFFICE,account=0P322F"), offices());
+    String otherContent =
+        duplicateUploadService.fingerprint(sha256("OFFICE,account=1A123B"), offices());
+    String otherOffices =
+        duplicateUploadService.fingerprint(sha256("OFFICE,account=0P322F"), List.of("0P322F"));
+
+    // Then
+    assertThat(original).isNotEqualTo(otherContent).isNotEqualTo(otherOffices);
+  }
+
+  @Test
+  @DisplayName("Should record an upload for the window and find it again")
+  void shouldRecordAndFindRecentUpload() {
+    // Given
+    RecentUpload upload = new RecentUpload(BULK_SUBMISSION_ID, SUBMISSION_ID, 12);
+    when(valueOperations.get("submit-a-bulk-claim:bulk-upload:fingerprint"))
+        .thenReturn(BULK_SUBMISSION_ID + "," + SUBMISSION_ID + ",12");
+
+    // When
+    duplicateUploadService.record("fingerprint", upload);
+    Optional<RecentUpload> recent = duplicateUploadService.findRecent("fingerprint");
+
+    // Then
+    verify(valueOperations)
+        .set(
+            "submit-a-bulk-claim:bulk-upload:fingerprint",
+            BULK_SUBMISSION_ID + "," + SUBMISSION_ID + ",12",
+            Duration.ofMinutes(10));
+    assertThat(recent).contains(upload);
+    assertThat(meterRegistry.get("bulk.upload.duplicates").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should find an upload whose claims could not be counted")
+  void shouldFindRecentUploadWithoutClaimCount() {
+    // Given
+    when(valueOperations.get("submit-a-bulk-claim:bulk-upload:fingerprint"))
+        .thenReturn(BULK_SUBMISSION_ID + "," + SUBMISSION_ID + ",");
+
+    // When
+    Optional<RecentUpload> recent = duplicateUploadService.findRecent("fingerprint");
+
+    // Then
+    assertThat(recent).contains(new RecentUpload(BULK_SUBMISSION_ID, SUBMISSION_ID, null));
+  }
+
+  @Test
+  @DisplayName("Should find an upload which is still being checked")
+  void shouldFindRecentUploadStillBeingChecked() {
+    // Given
+    when(valueOperations.get("submit-a-bulk-claim:bulk-upload:fingerprint"))
+        .thenReturn(BULK_SUBMISSION_ID + "," + SUBMISSION_ID + ",12");
+    when(bulkSubmissionStatusPoller.currentStatus(BULK_SUBMISSION_ID))
+        .thenReturn(Mono.just(BulkSubmissionStatus.PARSING_COMPLETED));
+
+    // When
+    Optional<RecentUpload> recent = duplicateUploadService.findRecent("fingerprint");
+
+    // Then
+    assertThat(recent).contains(new RecentUpload(BULK_SUBMISSION_ID, SUBMISSION_ID, 12));
+  }
+
+  @ParameterizedTest
+  @EnumSource(
+      value = BulkSubmissionStatus.class,
+      names = {"PARSING_FAILED", "VALIDATION_FAILED", "UNAUTHORISED"})
+  @DisplayName("Should treat the upload as new when the earlier upload failed")
+  void shouldTreatUploadAsNewWhenEarlierUploadFailed(BulkSubmissionStatus status) {
+    // Given
+    when(valueOperations.get("submit-a-bulk-claim:bulk-upload:fingerprint"))
+        .thenReturn(BULK_SUBMISSION_ID + "," + SUBMISSION_ID + ",12");
+    when(bulkSubmissionStatusPoller.currentStatus(BULK_SUBMISSION_ID))
+        .thenReturn(Mono.just(status));
+
+    // When
+    Optional<RecentUpload> recent = duplicateUploadService.findRecent("fingerprint");
+
+    // Then
+    assertThat(recent).isEmpty();
+    assertThat(meterRegistry.get("bulk.upload.duplicates").counter().count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should treat the upload as new when Redis is unavailable")
+  void shouldTreatUploadAsNewWhenRedisIsUnavailable() {
+    // Given
+    when(valueOperations.get("submit-a-bulk-claim:bulk-upload:fingerprint"))
+        .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+    // When
+    Optional<RecentUpload> recent = duplicateUploadService.findRecent("fingerprint");
+
+    // Then
+    assertThat(recent).isEmpty();
+  }
+
+  private static List<String> offices() {
+    return List.of("0P322F", "1A123B");
+  }
+
+  private static String sha256(String content) {
+    return Sha256Util.hex(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
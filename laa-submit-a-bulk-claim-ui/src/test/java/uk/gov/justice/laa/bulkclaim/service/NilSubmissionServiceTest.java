@@ -36,6 +36,7 @@ class NilSubmissionServiceTest {
 
   @Mock private DataClaimsRestClient claimsRestService;
   @Mock private ObjectMapper objectMapper;
+  @Mock private SubmissionSearchService submissionSearchService;
   @Mock private OidcUser oidcUser;
 
   @InjectMocks private NilSubmissionService nilSubmissionService;
@@ -56,6 +57,7 @@ class NilSubmissionServiceTest {
     SubmissionPost post = postCaptor.getValue();
 
     assertEquals("0P322F", post.getOfficeAccountNumber());
+    verify(submissionSearchService).invalidate(List.of("0P322F"));
     assertEquals(0, post.getNumberOfClaims());
     assertEquals(SubmissionStatus.READY_FOR_VALIDATION, post.getStatus());
     assertEquals(MEDIATION, post.getAreaOfLaw());
@@ -1,38 +1,81 @@
 package uk.gov.justice.laa.bulkclaim.service;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static uk.gov.justice.laa.bulkclaim.service.SessionService.ACTIVE_SESSIONS_KEY;
 
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.data.redis.connection.RedisConnection;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisKeyCommands;
-import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 
 public class SessionServiceTest {
 
-  @Test
-  void getActiveSessionCount_shouldReturnNonNegativeNumber() {
-    StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
-    RedisConnectionFactory factory = Mockito.mock(RedisConnectionFactory.class);
-    RedisConnection connection = Mockito.mock(RedisConnection.class);
-    RedisKeyCommands keyCommands = Mockito.mock(RedisKeyCommands.class);
-    Cursor<byte[]> cursor = Mockito.mock(Cursor.class);
-
-    Mockito.when(redisTemplate.getConnectionFactory()).thenReturn(factory);
-    Mockito.when(factory.getConnection()).thenReturn(connection);
-    Mockito.when(connection.keyCommands()).thenReturn(keyCommands);
-    Mockito.when(
-            keyCommands.scan(Mockito.any(org.springframework.data.redis.core.ScanOptions.class)))
-        .thenReturn(cursor);
+  private StringRedisTemplate redisTemplate;
+  private ZSetOperations<String, String> zSetOperations;
+  private SessionService service;
 
-    Mockito.when(cursor.hasNext()).thenReturn(true, true, false);
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = Mockito.mock(StringRedisTemplate.class);
+    zSetOperations = Mockito.mock(ZSetOperations.class);
+    Mockito.when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    service = new SessionService(redisTemplate, Duration.ofMinutes(1));
+  }
 
-    SessionService service = new SessionService(redisTemplate);
+  @Test
+  void getActiveSessionCount_shouldCountSessionsWhichHaveNotExpired() {
+    Mockito.when(zSetOperations.zCard(ACTIVE_SESSIONS_KEY)).thenReturn(2L);
 
     int result = service.getActiveSessionCount();
 
     assertThat(result).isEqualTo(2);
+    Mockito.verify(zSetOperations)
+        .removeRangeByScore(
+            Mockito.eq(ACTIVE_SESSIONS_KEY),
+            Mockito.eq(Double.NEGATIVE_INFINITY),
+            Mockito.anyDouble());
+  }
+
+  @Test
+  void getActiveSessionCount_shouldOnlyCountOncePerRefreshInterval() {
+    Mockito.when(zSetOperations.zCard(ACTIVE_SESSIONS_KEY)).thenReturn(2L, 3L);
+
+    int first = service.getActiveSessionCount();
+    int second = service.getActiveSessionCount();
+
+    assertThat(first).isEqualTo(2);
+    assertThat(second).isEqualTo(2);
+    Mockito.verify(zSetOperations, Mockito.times(1)).zCard(ACTIVE_SESSIONS_KEY);
+  }
+
+  @Test
+  void recordActive_shouldOnlyUpdateExpiryOncePerRefreshInterval() {
+    // Expires after the session, allowing for the refresh interval
+    long earliest = System.currentTimeMillis() + Duration.ofMinutes(61).toMillis();
+
+    service.recordActive("session-1", Duration.ofHours(1));
+    service.recordActive("session-1", Duration.ofHours(1));
+
+    long latest = System.currentTimeMillis() + Duration.ofMinutes(61).toMillis();
+    Mockito.verify(zSetOperations, Mockito.times(1))
+        .add(
+            Mockito.eq(ACTIVE_SESSIONS_KEY),
+            Mockito.eq("session-1"),
+            Mockito.doubleThat(expiresAt -> expiresAt >= earliest && expiresAt <= latest));
+  }
+
+  @Test
+  void recordEnded_shouldStopCountingSession() {
+    service.recordActive("session-1", Duration.ofHours(1));
+
+    service.recordEnded("session-1");
+    service.recordActive("session-1", Duration.ofHours(1));
+
+    Mockito.verify(zSetOperations).remove(ACTIVE_SESSIONS_KEY, "session-1");
+    Mockito.verify(zSetOperations, Mockito.times(2))
+        .add(Mockito.eq(ACTIVE_SESSIONS_KEY), Mockito.eq("session-1"), Mockito.anyDouble());
   }
 }
@@ -0,0 +1,149 @@
+package uk.gov.justice.laa.bulkclaim.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.client.DataClaimsRestClient;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionStatus;
+import uk.gov.justice.laa.dstew.payments.claimsdata.model.SubmissionsResultSet;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Submission search service test")
+class SubmissionSearchServiceTest {
+
+  private static final List<String> OFFICES = List.of("XYZ789", "ABC123");
+  private static final List<SubmissionStatus> STATUSES =
+      List.of(SubmissionStatus.VALIDATION_SUCCEEDED);
+
+  @Mock private DataClaimsRestClient dataClaimsRestClient;
+  @Mock private StringRedisTemplate redisTemplate;
+  @Mock private ValueOperations<String, String> valueOperations;
+
+  private final Map<String, String> generations = new HashMap<>();
+  private SubmissionSearchService submissionSearchService;
+
+  @BeforeEach
+  void setUp() {
+    submissionSearchService =
+        new SubmissionSearchService(
+            dataClaimsRestClient,
+            redisTemplate,
+            new ConcurrentMapCacheManager(),
+            Duration.ofSeconds(30));
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient()
+        .when(valueOperations.multiGet(anyList()))
+        .thenAnswer(
+            invocation ->
+                invocation.<List<String>>getArgument(0).stream().map(generations::get).toList());
+    lenient()
+        .when(valueOperations.increment(anyString()))
+        .thenAnswer(
+            invocation ->
+                Long.valueOf(
+                    generations.merge(
+                        invocation.getArgument(0),
+                        "1",
+                        (current, one) -> String.valueOf(Long.parseLong(current) + 1))));
+    lenient()
+        .when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenAnswer(invocation -> generations.putIfAbsent(invocation.getArgument(0), "1") == null);
+    lenient()
+        .when(dataClaimsRestClient.search(anyList(), any(), any(), any(), any(), any(), any()))
+        .thenAnswer(invocation -> Mono.just(new SubmissionsResultSet()));
+  }
+
+  @Test
+  @DisplayName("Should reuse the results of the same search")
+  void shouldReuseResultsOfSameSearch() {
+    // When
+    SubmissionsResultSet first = search(OFFICES, 0);
+    SubmissionsResultSet second = search(List.of("ABC123", "XYZ789"), 0);
+    search(OFFICES, 1);
+
+    // Then
+    assertThat(second).isSameAs(first);
+    verify(dataClaimsRestClient, times(2))
+        .search(anyList(), any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should search again once a submission has been created for one of the offices")
+  void shouldSearchAgainAfterInvalidation() {
+    // Given
+    search(OFFICES, 0);
+
+    // When
+    submissionSearchService.invalidate(List.of("ABC123"));
+    search(OFFICES, 0);
+    search(List.of("XYZ789"), 0);
+    search(List.of("XYZ789"), 0);
+
+    // Then
+    verify(dataClaimsRestClient, times(3))
+        .search(anyList(), any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should search without the cache when Redis is unavailable")
+  void shouldSearchWithoutCacheWhenRedisUnavailable() {
+    // Given
+    doThrow(new RedisConnectionFailureException("Connection refused"))
+        .when(valueOperations)
+        .multiGet(anyList());
+
+    // When
+    SubmissionsResultSet first = search(OFFICES, 0);
+    search(OFFICES, 0);
+
+    // Then
+    assertThat(first).isNotNull();
+    verify(dataClaimsRestClient, times(2))
+        .search(anyList(), any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should pre-warm the search once for each generation of the offices")
+  void shouldPrewarmOncePerGeneration() {
+    // Given
+    Runnable search = mock(Runnable.class);
+
+    // When
+    submissionSearchService.prewarm(OFFICES, search);
+    submissionSearchService.prewarm(List.of("ABC123", "XYZ789"), search);
+    verify(search, timeout(1000)).run();
+    submissionSearchService.invalidate(List.of("ABC123"));
+    submissionSearchService.prewarm(OFFICES, search);
+
+    // Then
+    verify(search, timeout(1000).times(2)).run();
+  }
+
+  private SubmissionsResultSet search(List<String> offices, int page) {
+    return submissionSearchService.search(
+        offices, "JAN-2025", null, STATUSES, page, 10, "createdOn,desc");
+  }
+}
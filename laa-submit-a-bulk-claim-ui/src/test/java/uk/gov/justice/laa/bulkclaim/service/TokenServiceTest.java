@@ -1,18 +1,34 @@
 package uk.gov.justice.laa.bulkclaim.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.never;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ClientCredentialsOAuth2AuthorizedClientProvider;
+import org.springframework.security.oauth2.client.InMemoryOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import uk.gov.justice.laa.bulkclaim.exception.TokenProviderException;
 import uk.gov.justice.laa.bulkclaim.provider.TokenProvider;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,35 +36,157 @@ class TokenServiceTest {
 
   @Mock TokenProvider tokenProvider;
 
-  @Mock OAuth2AccessToken accessToken;
+  SimpleMeterRegistry meterRegistry;
+  TokenService tokenService;
 
-  @InjectMocks TokenService tokenService;
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    tokenService = new TokenService(tokenProvider, meterRegistry, 0.75, Duration.ofSeconds(30));
+  }
 
   @Test
   void shouldGetSdsAccessToken() {
-    when(tokenProvider.getTokenFromProvider()).thenReturn(accessToken);
-    when(accessToken.getTokenValue()).thenReturn("access_token");
-    when(accessToken.getExpiresAt()).thenReturn(Instant.now().plusSeconds(600));
+    when(tokenProvider.getTokenFromProvider()).thenReturn(token("access_token", -60, 3600));
+
+    String first = tokenService.getSdsAccessToken();
+    String second = tokenService.getSdsAccessToken();
+
+    assertThat(first).isEqualTo("access_token");
+    assertThat(second).isEqualTo("access_token");
+    verify(tokenProvider, times(1)).getTokenFromProvider();
+    assertThat(meterRegistry.get("sds.token.refresh").tag("outcome", "success").timer().count())
+        .isEqualTo(1);
+  }
 
+  @Test
+  void shouldRefreshSdsAccessTokenBeforeItExpires() {
+    when(tokenProvider.getTokenFromProvider())
+        .thenReturn(token("access_token", -3000, 600))
+        .thenReturn(token("new_access_token", 0, 3600));
+
+    tokenService.getSdsAccessToken();
     String result = tokenService.getSdsAccessToken();
 
-    assertThat(result).isEqualTo("access_token");
+    assertThat(result).isEqualTo("new_access_token");
+    verify(tokenProvider, times(2)).getTokenFromProvider();
+  }
 
-    verify(tokenProvider, times(1)).getTokenFromProvider();
-    verify(tokenProvider, never()).evictToken();
+  @Test
+  void shouldUseCurrentSdsAccessTokenWhenRefreshFails() {
+    when(tokenProvider.getTokenFromProvider())
+        .thenReturn(token("access_token", -3000, 600))
+        .thenThrow(new TokenProviderException("Failed to obtain SDS API access token"));
+
+    tokenService.getSdsAccessToken();
+    String result = tokenService.getSdsAccessToken();
+
+    assertThat(result).isEqualTo("access_token");
+    assertThat(meterRegistry.get("sds.token.refresh").tag("outcome", "failure").timer().count())
+        .isEqualTo(1);
   }
 
   @Test
-  void shouldGetSdsAccessTokenAndRefreshToken() {
-    when(tokenProvider.getTokenFromProvider()).thenReturn(accessToken);
-    when(accessToken.getTokenValue()).thenReturn("access_token");
-    when(accessToken.getExpiresAt()).thenReturn(Instant.now().minusSeconds(600));
+  void shouldUseExpiredSdsAccessTokenWithinGracePeriod() {
+    when(tokenProvider.getTokenFromProvider())
+        .thenReturn(token("access_token", -3600, -10))
+        .thenThrow(new TokenProviderException("Failed to obtain SDS API access token"));
 
+    tokenService.getSdsAccessToken();
     String result = tokenService.getSdsAccessToken();
 
     assertThat(result).isEqualTo("access_token");
+    assertThat(meterRegistry.get("sds.token.expired.used").counter().count()).isEqualTo(1);
+  }
 
-    verify(tokenProvider, times(2)).getTokenFromProvider();
-    verify(tokenProvider).evictToken();
+  @Test
+  void shouldThrowWhenSdsAccessTokenExpiredBeyondGracePeriod() {
+    when(tokenProvider.getTokenFromProvider())
+        .thenReturn(token("access_token", -3600, -60))
+        .thenThrow(new TokenProviderException("Failed to obtain SDS API access token"));
+
+    tokenService.getSdsAccessToken();
+
+    assertThrows(TokenProviderException.class, () -> tokenService.getSdsAccessToken());
+  }
+
+  @Test
+  void shouldGetSdsAccessTokenOnceForConcurrentRequests() throws Exception {
+    when(tokenProvider.getTokenFromProvider())
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(100);
+              return token("access_token", 0, 3600);
+            });
+
+    List<String> results;
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Callable<String>> requests =
+          IntStream.range(0, 10)
+              .<Callable<String>>mapToObj(i -> tokenService::getSdsAccessToken)
+              .toList();
+      results = executor.invokeAll(requests).stream().map(TokenServiceTest::get).toList();
+    }
+
+    assertThat(results).containsOnly("access_token").hasSize(10);
+    verify(tokenProvider, times(1)).getTokenFromProvider();
+  }
+
+  @Test
+  void shouldGetNewTokenFromIdentityProviderWhenRefreshIsDue() {
+    // Given a real client manager, which holds on to the token it was last given
+    AtomicInteger issued = new AtomicInteger();
+    var clientCredentials = new ClientCredentialsOAuth2AuthorizedClientProvider();
+    clientCredentials.setAccessTokenResponseClient(
+        request ->
+            OAuth2AccessTokenResponse.withToken("token-" + issued.incrementAndGet())
+                .tokenType(OAuth2AccessToken.TokenType.BEARER)
+                .expiresIn(3600)
+                .build());
+    var registrations =
+        new InMemoryClientRegistrationRepository(
+            ClientRegistration.withRegistrationId("moj-identity")
+                .clientId("client-id")
+                .clientSecret("client-secret")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri("https://login.example.com/token")
+                .build());
+    var authorizedClients = new InMemoryOAuth2AuthorizedClientService(registrations);
+    var authorizedClientManager =
+        new AuthorizedClientServiceOAuth2AuthorizedClientManager(registrations, authorizedClients);
+    authorizedClientManager.setAuthorizedClientProvider(clientCredentials);
+    // Due a refresh as soon as it has been issued, long before the manager's own clock skew
+    var service =
+        new TokenService(
+            new TokenProvider(authorizedClientManager, authorizedClients),
+            meterRegistry,
+            0.0,
+            Duration.ofSeconds(30));
+
+    // When
+    String first = service.getSdsAccessToken();
+    String second = service.getSdsAccessToken();
+
+    // Then
+    assertThat(first).isEqualTo("token-1");
+    assertThat(second).isEqualTo("token-2");
+    assertThat(issued).hasValue(2);
+  }
+
+  private static OAuth2AccessToken token(String value, long issuedIn, long expiresIn) {
+    Instant now = Instant.now();
+    return new OAuth2AccessToken(
+        OAuth2AccessToken.TokenType.BEARER,
+        value,
+        now.plusSeconds(issuedIn),
+        now.plusSeconds(expiresIn));
+  }
+
+  private static String get(Future<String> result) {
+    try {
+      return result.get();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
   }
 }
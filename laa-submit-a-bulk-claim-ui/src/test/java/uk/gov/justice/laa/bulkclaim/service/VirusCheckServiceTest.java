@@ -3,10 +3,13 @@ package uk.gov.justice.laa.bulkclaim.service;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,7 +20,9 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
+import uk.gov.justice.laa.bulkclaim.cache.VirusScanResultCache;
 import uk.gov.justice.laa.bulkclaim.exception.VirusCheckException;
+import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
 import uk.gov.justice.laa.bulkclaim.response.SdsVirusCheckResponseDto;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,11 +32,16 @@ class VirusCheckServiceTest {
 
   @Mock private TokenService tokenService;
 
+  @Mock private VirusScanResultCache virusScanResultCache;
+
+  @Mock private BulkClaimMetricService bulkClaimMetricService;
+
   private VirusCheckService virusCheckService;
 
   @BeforeEach
   void setUp() {
-    virusCheckService = new VirusCheckService(restClient, tokenService);
+    virusCheckService = new VirusCheckService(
+            restClient, tokenService, virusScanResultCache, bulkClaimMetricService);
   }
 
   @Test
@@ -59,18 +69,70 @@ class VirusCheckServiceTest {
             "file", "test.txt", MediaType.TEXT_PLAIN_VALUE, "test content".getBytes());
 
     // When
-    virusCheckService.checkVirus(file);
+    virusCheckService.checkVirus(file, "digest");
 
     // Then
     verify(requestBodySpec).contentType(MediaType.MULTIPART_FORM_DATA);
     verify(requestBodySpec).header("Authorization", "Bearer " + mockToken);
+    verify(bulkClaimMetricService).recordVirusScanCacheMiss();
+    verify(bulkClaimMetricService).recordVirusScan(any(Duration.class), eq(true));
+  }
+
+  @Test
+  void shouldRememberFileFoundToBeClean() {
+    // Given
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "test.txt", MediaType.TEXT_PLAIN_VALUE, "test content".getBytes());
+    stubVirusCheckResponse(new SdsVirusCheckResponseDto(null, "success"));
+    when(virusScanResultCache.key("digest")).thenReturn("virus-scan:digest");
+
+    // When
+    virusCheckService.checkVirus(file, "digest");
+
+    // Then
+    verify(virusScanResultCache).putClean("virus-scan:digest");
+  }
+
+  @Test
+  void shouldNotScanFileAlreadyFoundToBeClean() {
+    // Given
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "test.txt", MediaType.TEXT_PLAIN_VALUE, "test content".getBytes());
+    when(virusScanResultCache.key("digest")).thenReturn("virus-scan:digest");
+    when(virusScanResultCache.isClean("virus-scan:digest")).thenReturn(true);
+
+    // When
+    virusCheckService.checkVirus(file, "digest");
+
+    // Then
+    verify(restClient, never()).put();
+    verify(bulkClaimMetricService).recordVirusScanCacheHit(file.getSize());
+  }
+
+  @Test
+  void shouldNotRememberFileWhichFailsVirusCheck() {
+    // Given
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "test.txt", MediaType.TEXT_PLAIN_VALUE, "test content".getBytes());
+    stubVirusCheckResponse(new SdsVirusCheckResponseDto("Virus found", null));
+    when(virusScanResultCache.key("digest")).thenReturn("virus-scan:digest");
+
+    // When/Then
+    assertThatThrownBy(() -> virusCheckService.checkVirus(file, "digest"))
+        .isInstanceOf(VirusCheckException.class)
+        .hasMessage("Virus check failed");
+    verify(virusScanResultCache, never()).putClean(any());
+    verify(bulkClaimMetricService).recordVirusScan(any(Duration.class), eq(false));
   }
 
   @Test
   void shouldHandleNullFile() {
 
     // When/Then
-    assertThatThrownBy(() -> virusCheckService.checkVirus(null))
+    assertThatThrownBy(() -> virusCheckService.checkVirus(null, null))
         .isInstanceOf(VirusCheckException.class)
         .hasMessage("File cannot be null");
   }
@@ -95,8 +157,23 @@ class VirusCheckServiceTest {
         .thenThrow(new RestClientException("Failed to connect to server"));
 
     // When/Then
-    assertThatThrownBy(() -> virusCheckService.checkVirus(file))
+    assertThatThrownBy(() -> virusCheckService.checkVirus(file, "digest"))
         .isInstanceOf(RestClientException.class)
         .hasMessage("Failed to connect to server");
   }
+
+  private void stubVirusCheckResponse(SdsVirusCheckResponseDto response) {
+    RestClient.RequestBodyUriSpec requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
+    RestClient.RequestBodySpec requestBodySpec = mock(RestClient.RequestBodySpec.class);
+    RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
+
+    when(tokenService.getSdsAccessToken()).thenReturn("mock-token");
+    when(restClient.put()).thenReturn(requestBodyUriSpec);
+    when(requestBodyUriSpec.uri(endsWith("/virus_check_file"))).thenReturn(requestBodySpec);
+    when(requestBodySpec.contentType(any())).thenReturn(requestBodySpec);
+    when(requestBodySpec.header(any(), any())).thenReturn(requestBodySpec);
+    when(requestBodySpec.body(any(MultiValueMap.class))).thenReturn(requestBodySpec);
+    when(requestBodySpec.retrieve()).thenReturn(responseSpec);
+    when(responseSpec.body(SdsVirusCheckResponseDto.class)).thenReturn(response);
+  }
 }
@@ -0,0 +1,77 @@
+package uk.gov.justice.laa.bulkclaim.util;
+
+import static java.time.temporal.ChronoUnit.HOURS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+@DisplayName("OIDC attribute utils test")
+class OidcAttributeUtilsTest {
+
+  private final OidcAttributeUtils oidcAttributeUtils = new OidcAttributeUtils();
+
+  @Test
+  @DisplayName("Should use the offices read at login")
+  void shouldUseOfficesReadAtLogin() {
+    // Given
+    OidcUser user = user(List.of("0P322F", "0P333G"));
+    var officeAccessUser =
+        new OfficeAccessOidcUser(user, "sub", oidcAttributeUtils.readUserOffices(user));
+
+    // When / Then
+    assertThat(oidcAttributeUtils.getUserOffices(officeAccessUser))
+        .containsExactly("0P322F", "0P333G");
+    assertThat(oidcAttributeUtils.hasOfficeAccess(officeAccessUser, "0P333G")).isTrue();
+    assertThat(oidcAttributeUtils.hasOfficeAccess(officeAccessUser, "0P444H")).isFalse();
+    assertThat(oidcAttributeUtils.hasOfficeAccess(officeAccessUser, null)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should read offices from the claims of users who signed in before")
+  void shouldReadOfficesFromClaims() {
+    // Given
+    OidcUser user = user(List.of("0P322F", "0P333G"));
+
+    // When / Then
+    assertThat(oidcAttributeUtils.getUserOffices(user)).containsExactly("0P322F", "0P333G");
+    assertThat(oidcAttributeUtils.hasOfficeAccess(user, "0P322F")).isTrue();
+    assertThat(oidcAttributeUtils.hasOfficeAccess(user, "0P444H")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should keep the offices when the user is stored in the session")
+  void shouldKeepOfficesWhenSerialised() {
+    // Given
+    OidcUser user = user(List.of("0P322F"));
+    var officeAccessUser = new OfficeAccessOidcUser(user, "sub", List.of("0P322F"));
+
+    // When
+    OfficeAccessOidcUser restored = SerializationUtils.roundtrip(officeAccessUser);
+
+    // Then
+    assertThat(restored.getOffices()).containsExactly("0P322F");
+    assertThat(restored.hasOffice("0P322F")).isTrue();
+    assertThat(restored.getName()).isEqualTo("1234567890");
+  }
+
+  private static OidcUser user(List<String> offices) {
+    Map<String, Object> claims = Map.of("sub", "1234567890", "LAA_ACCOUNTS", offices);
+    OidcIdToken idToken =
+        new OidcIdToken("token123", Instant.now(), Instant.now().plus(1, HOURS), claims);
+    return new DefaultOidcUser(
+        List.of(new SimpleGrantedAuthority("ROLE_USER")),
+        idToken,
+        new OidcUserInfo(claims),
+        "sub");
+  }
+}
@@ -0,0 +1,31 @@
+package uk.gov.justice.laa.bulkclaim.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SHA-256 util test")
+class Sha256UtilTest {
+
+  private static final byte[] CONTENT = "test content".getBytes(StandardCharsets.UTF_8);
+  private static final String DIGEST =
+      "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72";
+
+  @Test
+  @DisplayName("Should give the same checksum for bytes, streams and digests")
+  void shouldGiveSameChecksumForEachInput() throws IOException {
+    // Given
+    MessageDigest digest = Sha256Util.newDigest();
+    digest.update(CONTENT);
+
+    // When / Then
+    assertThat(Sha256Util.hex(CONTENT)).isEqualTo(DIGEST);
+    assertThat(Sha256Util.hex(new ByteArrayInputStream(CONTENT))).isEqualTo(DIGEST);
+    assertThat(Sha256Util.hex(digest)).isEqualTo(DIGEST);
+  }
+}
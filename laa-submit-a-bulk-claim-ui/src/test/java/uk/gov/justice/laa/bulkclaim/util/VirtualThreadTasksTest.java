@@ -0,0 +1,108 @@
+package uk.gov.justice.laa.bulkclaim.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import uk.gov.justice.laa.bulkclaim.exception.SubmitBulkClaimException;
+
+@DisplayName("Virtual thread tasks tests")
+class VirtualThreadTasksTest {
+
+  @Test
+  @DisplayName("Should run task on a virtual thread")
+  void shouldRunTaskOnVirtualThread() {
+    Boolean result = VirtualThreadTasks.fork(() -> Thread.currentThread().isVirtual()).block();
+
+    assertThat(result).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should run zipped tasks concurrently")
+  void shouldRunZippedTasksConcurrently() {
+    // No task can get past the barrier until all three are running at the same time
+    CyclicBarrier barrier = new CyclicBarrier(3);
+
+    var results =
+        Mono.zip(
+                VirtualThreadTasks.fork(() -> meet(barrier)),
+                VirtualThreadTasks.fork(() -> meet(barrier)),
+                VirtualThreadTasks.fork(() -> meet(barrier)))
+            .block();
+
+    assertThat(results).isNotNull();
+    assertThat(results.toList()).containsOnly(true);
+  }
+
+  @Test
+  @DisplayName("Should propagate runtime exceptions thrown by the task")
+  void shouldPropagateRuntimeExceptions() {
+    Mono<Object> task =
+        VirtualThreadTasks.fork(
+            () -> {
+              throw new SubmitBulkClaimException("Claims API returned an error");
+            });
+
+    assertThatThrownBy(task::block)
+        .isInstanceOf(SubmitBulkClaimException.class)
+        .hasMessage("Claims API returned an error");
+  }
+
+  @Test
+  @DisplayName("Should wait for the response on the calling thread")
+  void shouldAwaitResponse() {
+    assertThat(VirtualThreadTasks.await(Mono.just("response"))).isEqualTo("response");
+    assertThat(VirtualThreadTasks.await(Mono.empty())).isNull();
+    assertThat(VirtualThreadTasks.awaitOptional(Mono.empty())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should time waits by the kind of thread which waited")
+  void shouldTimeWaitsByThread() {
+    var meterRegistry = new SimpleMeterRegistry();
+    Metrics.addRegistry(meterRegistry);
+    try {
+      VirtualThreadTasks.await(Mono.just("response"));
+      VirtualThreadTasks.fork(() -> VirtualThreadTasks.awaitOptional(Mono.just("response")))
+          .block();
+
+      assertThat(
+              meterRegistry
+                  .get("virtual.thread.tasks.await")
+                  .tag("thread", "platform")
+                  .timer()
+                  .count())
+          .isEqualTo(1);
+      assertThat(
+              meterRegistry
+                  .get("virtual.thread.tasks.await")
+                  .tag("thread", "virtual")
+                  .timer()
+                  .count())
+          .isEqualTo(1);
+    } finally {
+      Metrics.removeRegistry(meterRegistry);
+    }
+  }
+
+  @Test
+  @DisplayName("Should propagate runtime exceptions from the awaited response")
+  void shouldPropagateRuntimeExceptionsFromAwaitedResponse() {
+    Mono<Object> response =
+        Mono.error(new SubmitBulkClaimException("Claims API returned an error"));
+
+    assertThatThrownBy(() -> VirtualThreadTasks.await(response))
+        .isInstanceOf(SubmitBulkClaimException.class);
+  }
+
+  private static boolean meet(CyclicBarrier barrier) throws Exception {
+    barrier.await(5, TimeUnit.SECONDS);
+    return true;
+  }
+}
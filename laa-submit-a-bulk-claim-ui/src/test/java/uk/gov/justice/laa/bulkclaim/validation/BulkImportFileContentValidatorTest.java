@@ -0,0 +1,171 @@
+package uk.gov.justice.laa.bulkclaim.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.validation.SimpleErrors;
+import org.springframework.validation.Validator;
+import uk.gov.justice.laa.bulkclaim.dto.FileUploadForm;
+
+@DisplayName("Bulk import file content validator test")
+class BulkImportFileContentValidatorTest {
+
+  private static final String VALID_CSV =
+      """
+      OFFICE,account=0P322F
+      SCHEDULE,submissionPeriod=APR-2025,areaOfLaw=LEGAL HELP,scheduleNum=0P322F/2025/01
+      OUTCOME,matterType=FAMX:FAPP,caseRefNumber=ABC/1,clientForename="Smith, Jo",
+      """;
+
+  private static final String VALID_XML =
+      """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <submission>
+        <office account="0P322F">
+          <schedule submissionPeriod="APR-2025" areaOfLaw="LEGAL HELP">
+            <outcome matterType="FAMX:FAPP">
+              <outcomeItem name="CASE_REF_NUMBER">ABC/1</outcomeItem>
+            </outcome>
+          </schedule>
+        </office>
+      </submission>
+      """;
+
+  Validator validator = new BulkImportFileContentValidator(100);
+
+  @ParameterizedTest
+  @ValueSource(strings = {"test.csv", "test.TXT"})
+  @DisplayName("Should pass validation for a well formed CSV or TXT file")
+  void shouldPassValidationForWellFormedDelimitedFile(String fileName) {
+    // Given
+    SimpleErrors errors = validate(fileName, VALID_CSV);
+
+    // Then
+    assertThat(errors.hasFieldErrors("file")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should pass validation for a file saved with a byte order mark")
+  void shouldPassValidationWithByteOrderMark() {
+    // Given
+    SimpleErrors errors = validate("test.csv", "\uFEFF" + VALID_CSV);
+
+    // Then
+    assertThat(errors.hasFieldErrors("file")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should have errors if the first line is not the office account")
+  void shouldHaveErrorsIfFirstLineIsNotOffice() {
+    // Given
+    SimpleErrors errors = validate("test.csv", "Case reference,Client name\nABC/1,Jo Smith\n");
+
+    // Then
+    assertThat(errors.getFieldErrors("file").getFirst().getCode())
+        .isEqualTo("bulkImport.validation.content.office");
+  }
+
+  @Test
+  @DisplayName("Should have errors if the office has no account number")
+  void shouldHaveErrorsIfOfficeHasNoAccount() {
+    // Given
+    SimpleErrors errors = validate("test.csv", "OFFICE,account=\nSCHEDULE,areaOfLaw=LEGAL HELP\n");
+
+    // Then
+    assertThat(errors.getFieldErrors("file").getFirst().getCode())
+        .isEqualTo("bulkImport.validation.content.office");
+  }
+
+  @Test
+  @DisplayName("Should have errors with the line number of a badly formed row")
+  void shouldHaveErrorsForBadlyFormedRow() {
+    // Given
+    SimpleErrors errors =
+        validate("test.csv", "OFFICE,account=0P322F\n\nOUTCOME,matterType=FAMX:FAPP,ABC/1\n");
+
+    // Then
+    assertThat(errors.getFieldErrors("file").getFirst().getCode())
+        .isEqualTo("bulkImport.validation.content.row");
+    assertThat(errors.getFieldErrors("file").getFirst().getArguments()).containsExactly(3);
+  }
+
+  @Test
+  @DisplayName("Should only check the configured number of rows")
+  void shouldOnlyCheckSampledRows() {
+    // Given
+    Validator sampleOfTwo = new BulkImportFileContentValidator(2);
+    FileUploadForm form =
+        form("test.csv", "OFFICE,account=0P322F\nSCHEDULE,areaOfLaw=LEGAL HELP\nnot a row\n");
+    SimpleErrors errors = new SimpleErrors(form);
+
+    // When
+    sampleOfTwo.validate(form, errors);
+
+    // Then
+    assertThat(errors.hasFieldErrors("file")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should pass validation for a well formed XML file")
+  void shouldPassValidationForWellFormedXmlFile() {
+    // Given
+    SimpleErrors errors = validate("test.xml", VALID_XML);
+
+    // Then
+    assertThat(errors.hasFieldErrors("file")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should have errors if the XML file is not a submission")
+  void shouldHaveErrorsIfXmlIsNotSubmission() {
+    // Given
+    SimpleErrors errors = validate("test.xml", "<claims><claim/></claims>");
+
+    // Then
+    assertThat(errors.getFieldErrors("file").getFirst().getCode())
+        .isEqualTo("bulkImport.validation.content.office");
+  }
+
+  @Test
+  @DisplayName("Should have errors with the line number if the XML file is not well formed")
+  void shouldHaveErrorsIfXmlIsNotWellFormed() {
+    // Given
+    SimpleErrors errors =
+        validate(
+            "test.xml",
+            "<submission>\n  <office account=\"0P322F\">\n    <schedule>\n</submission>");
+
+    // Then
+    assertThat(errors.getFieldErrors("file").getFirst().getCode())
+        .isEqualTo("bulkImport.validation.content.xml");
+    assertThat(errors.getFieldErrors("file").getFirst().getArguments()).containsExactly(4);
+  }
+
+  @Test
+  @DisplayName("Should leave empty files to the file validator")
+  void shouldIgnoreEmptyFiles() {
+    // Given
+    SimpleErrors errors = validate("test.csv", "");
+
+    // Then
+    assertThat(errors.hasFieldErrors("file")).isFalse();
+  }
+
+  private SimpleErrors validate(String fileName, String content) {
+    FileUploadForm form = form(fileName, content);
+    SimpleErrors errors = new SimpleErrors(form);
+    validator.validate(form, errors);
+    return errors;
+  }
+
+  private static FileUploadForm form(String fileName, String content) {
+    return new FileUploadForm(
+        new MockMultipartFile(
+            "file", fileName, "text/plain", content.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -48,7 +48,7 @@ class BulkImportFileVirusValidatorTest {
     bulkClaimFileVirusValidator.validate(fileUploadForm, errors);
 
     // Then
-    verify(virusCheckService, times(1)).checkVirus(file);
+    verify(virusCheckService, times(1)).checkVirus(file, fileUploadForm.contentSha256());
     assertThat(errors.hasErrors()).isFalse();
   }
 
@@ -60,13 +60,15 @@ class BulkImportFileVirusValidatorTest {
         new MockMultipartFile("file", "test.txt", "text/plain", new byte[10 * 1024 * 1024]);
     FileUploadForm fileUploadForm = new FileUploadForm(file);
     SimpleErrors errors = new SimpleErrors(fileUploadForm);
-    doThrow(new VirusCheckException("Virus check failed")).when(virusCheckService).checkVirus(file);
+    doThrow(new VirusCheckException("Virus check failed"))
+        .when(virusCheckService)
+        .checkVirus(file, fileUploadForm.contentSha256());
 
     // When
     bulkClaimFileVirusValidator.validate(fileUploadForm, errors);
 
     // Then
-    verify(virusCheckService, times(1)).checkVirus(file);
+    verify(virusCheckService, times(1)).checkVirus(file, fileUploadForm.contentSha256());
     assertThat(errors.hasErrors()).isTrue();
     assertThat(errors.getAllErrors().getFirst().getCode())
         .isEqualTo("bulkImport.validation.virusScanFailed");
@@ -81,11 +83,11 @@ class BulkImportFileVirusValidatorTest {
     SimpleErrors errors = new SimpleErrors(fileUploadForm);
     doThrow(new TokenProviderException("Invalid SDS Token"))
         .when(virusCheckService)
-        .checkVirus(file);
+        .checkVirus(file, fileUploadForm.contentSha256());
 
     bulkClaimFileVirusValidator.validate(fileUploadForm, errors);
 
-    verify(virusCheckService, times(1)).checkVirus(file);
+    verify(virusCheckService, times(1)).checkVirus(file, fileUploadForm.contentSha256());
     assertThat(errors.hasErrors()).isTrue();
     assertThat(errors.getAllErrors().getFirst().getCode())
         .isEqualTo("bulkImport.validation.uploadFailed");
@@ -100,9 +102,9 @@ class BulkImportFileVirusValidatorTest {
     SimpleErrors errors = new SimpleErrors(fileUploadForm);
     doThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Invalid SDS Token"))
         .when(virusCheckService)
-        .checkVirus(file);
+        .checkVirus(file, fileUploadForm.contentSha256());
     bulkClaimFileVirusValidator.validate(fileUploadForm, errors);
-    verify(virusCheckService, times(1)).checkVirus(file);
+    verify(virusCheckService, times(1)).checkVirus(file, fileUploadForm.contentSha256());
     assertThat(errors.hasErrors()).isTrue();
     assertThat(errors.getAllErrors().getFirst().getCode()).isEqualTo("error.heading");
   }
@@ -116,9 +118,9 @@ class BulkImportFileVirusValidatorTest {
     SimpleErrors errors = new SimpleErrors(fileUploadForm);
     doThrow(new ResourceAccessException("Resource not found"))
         .when(virusCheckService)
-        .checkVirus(file);
+        .checkVirus(file, fileUploadForm.contentSha256());
     bulkClaimFileVirusValidator.validate(fileUploadForm, errors);
-    verify(virusCheckService, times(1)).checkVirus(file);
+    verify(virusCheckService, times(1)).checkVirus(file, fileUploadForm.contentSha256());
     assertThat(errors.hasErrors()).isTrue();
     assertThat(errors.getAllErrors().getFirst().getCode()).isEqualTo("error.heading");
   }
@@ -8,14 +8,17 @@ import static uk.gov.justice.laa.bulkclaim.constants.SessionConstants.SUBMISSION
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import reactor.core.publisher.Mono;
 import uk.gov.justice.laa.bulkclaim.controller.BulkUploadBeingCheckedController;
+import uk.gov.justice.laa.bulkclaim.service.BulkSubmissionStatusPoller;
 import uk.gov.justice.laa.dstew.payments.claimsdata.model.BulkSubmissionStatus;
-import uk.gov.justice.laa.dstew.payments.claimsdata.model.GetBulkSubmissionStatusById200Response;
 
 @WebMvcTest(BulkUploadBeingCheckedController.class)
 class BulkUploadBeingCheckedPageViewTest extends ViewTestBase {
 
+  @MockitoBean private BulkSubmissionStatusPoller bulkSubmissionStatusPoller;
+
   BulkUploadBeingCheckedPageViewTest() {
     this.mapping = "/upload-is-being-checked";
   }
@@ -57,11 +60,6 @@ class BulkUploadBeingCheckedPageViewTest extends ViewTestBase {
     session.setAttribute(SUBMISSION_ID, submissionId);
     session.setAttribute(BULK_SUBMISSION_ID, bulkSubmissionId);
 
-    GetBulkSubmissionStatusById200Response bulkSubmissionStatus =
-        new GetBulkSubmissionStatusById200Response();
-    bulkSubmissionStatus.setStatus(status);
-
-    when(dataClaimsRestClient.getBulkSubmissionSummary(bulkSubmissionId))
-        .thenReturn(Mono.just(bulkSubmissionStatus));
+    when(bulkSubmissionStatusPoller.currentStatus(bulkSubmissionId)).thenReturn(Mono.just(status));
   }
 }
@@ -19,17 +19,32 @@ import org.springframework.web.client.ResourceAccessException;
 import tools.jackson.databind.ObjectMapper;
 import uk.gov.justice.laa.bulkclaim.controller.BulkImportController;
 import uk.gov.justice.laa.bulkclaim.metrics.BulkClaimMetricService;
+import uk.gov.justice.laa.bulkclaim.service.BulkClaimFileCounter;
+import uk.gov.justice.laa.bulkclaim.service.BulkUploadService;
+import uk.gov.justice.laa.bulkclaim.service.ChunkedUploadService;
+import uk.gov.justice.laa.bulkclaim.service.DuplicateUploadService;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 import uk.gov.justice.laa.bulkclaim.service.VirusCheckService;
+import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileContentValidator;
 import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileValidator;
 import uk.gov.justice.laa.bulkclaim.validation.BulkImportFileVirusValidator;
 
 @WebMvcTest(BulkImportController.class)
-@Import({BulkImportFileValidator.class, BulkImportFileVirusValidator.class})
+@Import({
+  BulkImportFileValidator.class,
+  BulkImportFileContentValidator.class,
+  BulkImportFileVirusValidator.class
+})
 class BulkUploadPageViewTest extends ViewTestBase {
 
   @MockitoBean private VirusCheckService virusCheckService;
   @MockitoBean private BulkClaimMetricService bulkClaimMetricService;
   @MockitoBean private ObjectMapper objectMapper;
+  @MockitoBean private BulkUploadService bulkUploadService;
+  @MockitoBean private BulkClaimFileCounter bulkClaimFileCounter;
+  @MockitoBean private SubmissionSearchService submissionSearchService;
+  @MockitoBean private ChunkedUploadService chunkedUploadService;
+  @MockitoBean private DuplicateUploadService duplicateUploadService;
 
   BulkUploadPageViewTest() {
     this.mapping = "/upload";
@@ -87,7 +102,7 @@ class BulkUploadPageViewTest extends ViewTestBase {
   void uploadPageShowsErrorSummaryWhenVirusCheckServiceFails() throws Exception {
     doThrow(new ResourceAccessException("SDS unavailable"))
         .when(virusCheckService)
-        .checkVirus(any());
+        .checkVirus(any(), any());
 
     MockMultipartFile file =
         new MockMultipartFile("file", "claims.csv", "text/csv", "text".getBytes());
@@ -56,6 +56,7 @@ class ClaimDetailCrimeLowerViewTest extends ViewTestBase {
   @MockitoBean private SubmissionService submissionService;
 
   private CrimeLowerClaimDetails details;
+  private MessagesSummary claimMessages;
 
   ClaimDetailCrimeLowerViewTest() {
     this.mapping = "/submissions/%s/claims/%s".formatted(submissionId, claimId);
@@ -92,8 +93,7 @@ class ClaimDetailCrimeLowerViewTest extends ViewTestBase {
 
     when(dataClaimsRestClient.getClaimHistory(eq(claimId)))
         .thenReturn(Mono.just(ClaimHistoryResultSet.builder().events(List.of()).build()));
-    when(submissionMessagesBuilder.buildAllWarnings(submissionId, claimId))
-        .thenReturn(MessagesSummary.builder().messages(List.of()).build());
+    claimMessages = MessagesSummary.builder().messages(List.of()).build();
     when(featureFlagsConfig.getIsAlternativeClaimViewEnabled()).thenReturn(true);
   }
 
@@ -142,7 +142,8 @@ class ClaimDetailCrimeLowerViewTest extends ViewTestBase {
                 AreaOfLaw.CRIME_LOWER,
                 showCurrentCalculated,
                 claimDetailView,
-                banner.orElse(null)));
+                banner.orElse(null),
+                claimMessages));
   }
 
   @Test
@@ -248,12 +249,11 @@ class ClaimDetailCrimeLowerViewTest extends ViewTestBase {
   void shouldRenderWarningBannersAlongsideStatusBanner() {
     ClaimStatusBanner banner =
         new ClaimStatusBanner(DerivedClaimStatus.ASSESSED, "02/02/2026", "11:00");
+    claimMessages =
+        MessagesSummary.builder()
+            .messages(List.of(MessageRow.builder().message("A warning").build()))
+            .build();
     stubClaim(DerivedClaimStatus.ASSESSED, Optional.of(banner));
-    when(submissionMessagesBuilder.buildAllWarnings(submissionId, claimId))
-        .thenReturn(
-            MessagesSummary.builder()
-                .messages(List.of(MessageRow.builder().message("A warning").build()))
-                .build());
 
     Document doc = renderDocument();
 
@@ -56,6 +56,7 @@ class ClaimDetailLegalHelpViewTest extends ViewTestBase {
   @MockitoBean private SubmissionService submissionService;
 
   private LegalHelpClaimDetails details;
+  private MessagesSummary claimMessages;
 
   ClaimDetailLegalHelpViewTest() {
     this.mapping = "/submissions/%s/claims/%s".formatted(submissionId, claimId);
@@ -99,8 +100,7 @@ class ClaimDetailLegalHelpViewTest extends ViewTestBase {
 
     when(dataClaimsRestClient.getClaimHistory(eq(claimId)))
         .thenReturn(Mono.just(ClaimHistoryResultSet.builder().events(List.of()).build()));
-    when(submissionMessagesBuilder.buildAllWarnings(submissionId, claimId))
-        .thenReturn(MessagesSummary.builder().messages(List.of()).build());
+    claimMessages = MessagesSummary.builder().messages(List.of()).build();
     when(featureFlagsConfig.getIsAlternativeClaimViewEnabled()).thenReturn(true);
   }
 
@@ -182,7 +182,11 @@ class ClaimDetailLegalHelpViewTest extends ViewTestBase {
     when(claimService.getClaimDetailPageData(submissionId, claimId, OIDC_USER))
         .thenReturn(
             new ClaimDetailPageData(
-                AreaOfLaw.LEGAL_HELP, showCurrentCalculated, claimDetailView, banner.orElse(null)));
+                AreaOfLaw.LEGAL_HELP,
+                showCurrentCalculated,
+                claimDetailView,
+                banner.orElse(null),
+                claimMessages));
   }
 
   @Test
@@ -308,12 +312,11 @@ class ClaimDetailLegalHelpViewTest extends ViewTestBase {
   void shouldRenderWarningBannersAlongsideStatusBanner() {
     ClaimStatusBanner banner =
         new ClaimStatusBanner(DerivedClaimStatus.ASSESSED, "02/02/2026", "11:00");
+    claimMessages =
+        MessagesSummary.builder()
+            .messages(List.of(MessageRow.builder().message("A warning").build()))
+            .build();
     stubClaim(DerivedClaimStatus.ASSESSED, Optional.of(banner));
-    when(submissionMessagesBuilder.buildAllWarnings(submissionId, claimId))
-        .thenReturn(
-            MessagesSummary.builder()
-                .messages(List.of(MessageRow.builder().message("A warning").build()))
-                .build());
 
     Document doc = renderDocument();
 
@@ -56,6 +56,7 @@ class ClaimDetailMediationViewTest extends ViewTestBase {
   @MockitoBean private SubmissionService submissionService;
 
   private MediationClaimDetails details;
+  private MessagesSummary claimMessages;
 
   ClaimDetailMediationViewTest() {
     this.mapping = "/submissions/%s/claims/%s".formatted(submissionId, claimId);
@@ -81,8 +82,7 @@ class ClaimDetailMediationViewTest extends ViewTestBase {
 
     when(dataClaimsRestClient.getClaimHistory(eq(claimId)))
         .thenReturn(Mono.just(ClaimHistoryResultSet.builder().events(List.of()).build()));
-    when(submissionMessagesBuilder.buildAllWarnings(submissionId, claimId))
-        .thenReturn(MessagesSummary.builder().messages(List.of()).build());
+    claimMessages = MessagesSummary.builder().messages(List.of()).build();
     when(featureFlagsConfig.getIsAlternativeClaimViewEnabled()).thenReturn(true);
   }
 
@@ -131,7 +131,11 @@ class ClaimDetailMediationViewTest extends ViewTestBase {
     when(claimService.getClaimDetailPageData(submissionId, claimId, OIDC_USER))
         .thenReturn(
             new ClaimDetailPageData(
-                AreaOfLaw.MEDIATION, showCurrentCalculated, claimDetailView, banner.orElse(null)));
+                AreaOfLaw.MEDIATION,
+                showCurrentCalculated,
+                claimDetailView,
+                banner.orElse(null),
+                claimMessages));
   }
 
   @Test
@@ -259,12 +263,11 @@ class ClaimDetailMediationViewTest extends ViewTestBase {
   void shouldRenderWarningBannersAlongsideStatusBanner() {
     ClaimStatusBanner banner =
         new ClaimStatusBanner(DerivedClaimStatus.ASSESSED, "02/02/2026", "11:00");
+    claimMessages =
+        MessagesSummary.builder()
+            .messages(List.of(MessageRow.builder().message("A warning").build()))
+            .build();
     stubClaim(DerivedClaimStatus.ASSESSED, Optional.of(banner));
-    when(submissionMessagesBuilder.buildAllWarnings(submissionId, claimId))
-        .thenReturn(
-            MessagesSummary.builder()
-                .messages(List.of(MessageRow.builder().message("A warning").build()))
-                .build());
 
     Document doc = renderDocument();
 
@@ -21,6 +21,7 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import uk.gov.justice.laa.bulkclaim.controller.SearchController;
 import uk.gov.justice.laa.bulkclaim.dto.SubmissionOutcomeFilter;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 import uk.gov.justice.laa.bulkclaim.util.PaginationLinksBuilder;
 import uk.gov.justice.laa.bulkclaim.util.PaginationUtil;
 import uk.gov.justice.laa.bulkclaim.util.SubmissionPeriodUtil;
@@ -32,6 +33,7 @@ class SearchFormViewTest extends ViewTestBase {
 
   @MockitoBean PaginationUtil paginationUtil;
   @MockitoBean PaginationLinksBuilder paginationLinksBuilder;
+  @MockitoBean SubmissionSearchService submissionSearchService;
 
   @MockitoBean("submissionPeriodUtil")
   SubmissionPeriodUtil submissionPeriodUtil;
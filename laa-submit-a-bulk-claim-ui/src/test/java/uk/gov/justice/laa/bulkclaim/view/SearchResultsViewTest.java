@@ -21,11 +21,11 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
-import reactor.core.publisher.Mono;
 import uk.gov.justice.laa.bulkclaim.controller.SearchController;
 import uk.gov.justice.laa.bulkclaim.dto.PaginationLinks;
 import uk.gov.justice.laa.bulkclaim.dto.PaginationPageLink;
 import uk.gov.justice.laa.bulkclaim.dto.SubmissionOutcomeFilter;
+import uk.gov.justice.laa.bulkclaim.service.SubmissionSearchService;
 import uk.gov.justice.laa.bulkclaim.util.PaginationLinksBuilder;
 import uk.gov.justice.laa.bulkclaim.util.PaginationUtil;
 import uk.gov.justice.laa.bulkclaim.util.SubmissionPeriodUtil;
@@ -46,6 +46,7 @@ class SearchResultsViewTest extends ViewTestBase {
   @MockitoBean SubmissionSearchValidator submissionSearchValidator;
   @MockitoBean PaginationUtil paginationUtil;
   @MockitoBean PaginationLinksBuilder paginationLinksBuilder;
+  @MockitoBean SubmissionSearchService submissionSearchService;
 
   @MockitoBean("submissionPeriodUtil") // Naming required as this bean is used in thymeleaf
   SubmissionPeriodUtil submissionPeriodUtil;
@@ -249,8 +250,8 @@ class SearchResultsViewTest extends ViewTestBase {
     var response = buildSearchResultsResponse(currentPage, totalPages, totalElements);
     var pagination = buildPagination(currentPage, totalPages, totalElements);
     when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("1"));
-    when(dataClaimsRestClient.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
-        .thenReturn(Mono.just(response));
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+        .thenReturn(response);
     when(paginationUtil.fromSubmissionsResultSet(response, currentPage, PAGE_SIZE))
         .thenReturn(pagination);
     when(paginationLinksBuilder.build(any(), any(), any(), any(Object[].class)))
@@ -364,8 +365,8 @@ class SearchResultsViewTest extends ViewTestBase {
             .build();
     var pagination = buildPagination(0, 0, 0);
     when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("1"));
-    when(dataClaimsRestClient.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
-        .thenReturn(Mono.just(response));
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+        .thenReturn(response);
     when(paginationUtil.fromSubmissionsResultSet(response, 0, PAGE_SIZE)).thenReturn(pagination);
     when(paginationLinksBuilder.build(any(), any(), any(), any(Object[].class)))
         .thenReturn(buildSearchPaginationLinks(0, 0));
@@ -382,8 +383,8 @@ class SearchResultsViewTest extends ViewTestBase {
             .build();
     var pagination = buildPagination(0, totalPages, submissions.size());
     when(oidcAttributeUtils.getUserOffices(any())).thenReturn(List.of("1"));
-    when(dataClaimsRestClient.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
-        .thenReturn(Mono.just(response));
+    when(submissionSearchService.search(anyList(), any(), any(), any(), anyInt(), anyInt(), any()))
+        .thenReturn(response);
     when(paginationUtil.fromSubmissionsResultSet(response, 0, PAGE_SIZE)).thenReturn(pagination);
     when(paginationLinksBuilder.build(any(), any(), any(), any(Object[].class)))
         .thenReturn(buildSearchPaginationLinks(0, totalPages));
@@ -0,0 +1,53 @@
+// Load test for the pages which wait on the Claims API. See README.md in this folder.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:8082';
+const session = __ENV.SESSION;
+const submissionId = __ENV.SUBMISSION_ID || '0561d67b-30ed-412e-8231-f6296a53538d';
+const claimId = __ENV.CLAIM_ID || '6850db96-fbb7-4859-a5a5-fc111cd205b2';
+const office = __ENV.OFFICE || 'AQ2B3C';
+const users = Number(__ENV.USERS || 500);
+
+export const options = {
+  scenarios: {
+    users: {
+      executor: 'ramping-vus',
+      stages: [
+        { duration: '1m', target: users },
+        { duration: '5m', target: users },
+        { duration: '30s', target: 0 },
+      ],
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    'http_req_duration{page:search}': ['p(99)<2000'],
+    'http_req_duration{page:submission}': ['p(99)<2000'],
+    'http_req_duration{page:claim}': ['p(99)<2000'],
+  },
+};
+
+export function setup() {
+  if (!session) {
+    throw new Error('Set SESSION to the SESSION cookie of a signed in user');
+  }
+}
+
+function get(path, page) {
+  const response = http.get(`${baseUrl}${path}`, {
+    cookies: { SESSION: session },
+    redirects: 0,
+    tags: { page },
+  });
+  check(response, { [`${page} is 200`]: (r) => r.status === 200 });
+}
+
+export default function () {
+  get(`/submissions/search/results?page=0&offices=${office}&sort=createdOn,desc`, 'search');
+  sleep(1);
+  get(`/submissions/${submissionId}`, 'submission');
+  sleep(1);
+  get(`/submissions/${submissionId}/claims/${claimId}`, 'claim');
+  sleep(1);
+}